@@ -2,6 +2,7 @@ package com.invoices.auth.application.services;
 
 import com.invoices.auth.domain.entities.PasswordResetToken;
 import com.invoices.auth.domain.ports.PasswordResetTokenRepository;
+import com.invoices.security.domain.ports.RefreshTokenRepository;
 import com.invoices.shared.domain.ports.EmailService;
 import com.invoices.user.domain.entities.User;
 import com.invoices.user.domain.ports.UserRepository;
@@ -28,6 +29,7 @@ public class PasswordResetService {
 
     private final PasswordResetTokenRepository tokenRepository;
     private final UserRepository userRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
     private final EmailService emailService;
     private final PasswordEncoder passwordEncoder;
 
@@ -109,6 +111,9 @@ public class PasswordResetService {
         User updatedUser = user.withPassword(passwordEncoder.encode(newPassword));
         userRepository.save(updatedUser);
 
+        // Sessions refreshed with the old password end with it
+        refreshTokenRepository.deleteByUserId(user.getId());
+
         // Mark token as used
         resetToken.setUsed(true);
         tokenRepository.save(resetToken);
@@ -3,6 +3,7 @@ package com.invoices.company.application.services;
 import com.invoices.company.domain.entities.UserCompany;
 import com.invoices.company.domain.entities.UserCompanyId;
 import com.invoices.company.domain.ports.UserCompanyRepository;
+import com.invoices.document.domain.entities.LogoRendition;
 import com.invoices.invoice.domain.entities.Company;
 import com.invoices.invoice.domain.entities.InvoiceStatus;
 import com.invoices.invoice.domain.ports.CompanyRepository;
@@ -25,21 +26,24 @@ public class CompanyManagementService {
     private final UserCompanyRepository userCompanyRepository;
     private final UserRepository userRepository;
     private final com.invoices.invoice.domain.ports.InvoiceRepository invoiceRepository;
-    private final com.invoices.document.domain.ports.FileStorageService fileStorageService;
     private final com.invoices.document.domain.services.StorageUrlResolver storageUrlResolver;
+    private final com.invoices.document.domain.ports.AssetCache assetCache;
+    private final com.invoices.document.domain.services.LogoRenditionService logoRenditionService;
 
     public CompanyManagementService(CompanyRepository companyRepository,
             UserCompanyRepository userCompanyRepository,
             UserRepository userRepository,
             com.invoices.invoice.domain.ports.InvoiceRepository invoiceRepository,
-            com.invoices.document.domain.ports.FileStorageService fileStorageService,
-            com.invoices.document.domain.services.StorageUrlResolver storageUrlResolver) {
+            com.invoices.document.domain.services.StorageUrlResolver storageUrlResolver,
+            com.invoices.document.domain.ports.AssetCache assetCache,
+            com.invoices.document.domain.services.LogoRenditionService logoRenditionService) {
         this.companyRepository = companyRepository;
         this.userCompanyRepository = userCompanyRepository;
         this.userRepository = userRepository;
         this.invoiceRepository = invoiceRepository;
-        this.fileStorageService = fileStorageService;
         this.storageUrlResolver = storageUrlResolver;
+        this.assetCache = assetCache;
+        this.logoRenditionService = logoRenditionService;
     }
 
     @Transactional
@@ -372,14 +376,8 @@ public class CompanyManagementService {
             String objectName = "logos/company-" + companyId + "-" + System.currentTimeMillis() + ".png";
             byte[] fileBytes = file.getBytes();
 
-            // Create FileContent
-            com.invoices.document.domain.entities.FileContent fileContent = new com.invoices.document.domain.entities.FileContent(
-                    () -> new java.io.ByteArrayInputStream(fileBytes),
-                    fileBytes.length,
-                    "image/png");
-
-            // Upload to S3
-            fileStorageService.storeFile(objectName, fileContent);
+            // Upload original plus PDF/UI renditions to S3
+            logoRenditionService.storeWithRenditions(objectName, fileBytes);
             log.info("uploadLogo: File stored at objectName={}", objectName);
 
             // Update company with logo object name (will be resolved to URL when needed)
@@ -389,6 +387,9 @@ public class CompanyManagementService {
             Company savedCompany = companyRepository.save(updatedCompany);
             log.info("uploadLogo: Saved company, returned logoUrl={}", savedCompany.getLogoUrl());
 
+            // Previous logo version is no longer referenced by PDFs
+            invalidateLogo(company.getLogoUrl());
+
             return savedCompany;
         } catch (java.io.IOException e) {
             log.error("uploadLogo: Failed with error", e);
@@ -406,16 +407,23 @@ public class CompanyManagementService {
 
         String logoUrl = company.getLogoUrl();
         if (logoUrl != null && !logoUrl.isEmpty()) {
-            // Delete from S3 (best effort)
-            try {
-                fileStorageService.deleteFile(logoUrl);
-            } catch (Exception e) {
-                log.warn("Failed to delete logo file: {}", e.getMessage());
-            }
+            // Delete original and renditions from S3 (best effort)
+            logoRenditionService.deleteWithRenditions(logoUrl);
+            invalidateLogo(logoUrl);
         }
 
         // Update company to remove logo URL
         Company updatedCompany = company.withLogoUrl(null);
         return companyRepository.save(updatedCompany);
     }
+
+    private void invalidateLogo(String logoUrl) {
+        if (logoUrl == null) {
+            return;
+        }
+        assetCache.invalidate(logoUrl);
+        for (LogoRendition rendition : LogoRendition.values()) {
+            assetCache.invalidate(rendition.objectName(logoUrl));
+        }
+    }
 }
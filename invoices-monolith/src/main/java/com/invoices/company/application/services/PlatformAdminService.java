@@ -50,6 +50,21 @@ public class PlatformAdminService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Search companies by the start of their email or phone.
+     *
+     * @param query search term
+     * @return matching companies
+     */
+    @Transactional(readOnly = true)
+    public List<CompanyDto> searchCompanies(String query) {
+        SecurityUtils.requirePlatformAdmin();
+
+        return companyRepository.searchByContact(query).stream()
+                .map(CompanyDto::fromEntity)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Delete a company.
      *
@@ -140,6 +155,21 @@ public class PlatformAdminService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Search users by the start of their first or last name.
+     *
+     * @param query search term
+     * @return matching users
+     */
+    @Transactional(readOnly = true)
+    public List<UserDTO> searchUsers(String query) {
+        SecurityUtils.requirePlatformAdmin();
+
+        return userRepository.searchByName(query).stream()
+                .map(userDtoMapper::toDTO)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Delete (deactivate) a user.
      *
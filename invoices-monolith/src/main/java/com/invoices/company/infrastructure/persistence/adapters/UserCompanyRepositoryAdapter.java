@@ -15,6 +15,7 @@ import java.util.Optional;
  * Bridges domain layer (which expects domain entities) and infrastructure layer
  * (JPA entities).
  * Converts between domain and JPA entity representations.
+ * Every write evicts the affected memberships from the permission cache.
  */
 @Repository("domainUserCompanyRepository")
 @RequiredArgsConstructor
@@ -23,6 +24,7 @@ public class UserCompanyRepositoryAdapter implements UserCompanyRepository {
     private final com.invoices.company.infrastructure.persistence.repositories.UserCompanyRepository jpaRepository;
     private final com.invoices.user.infrastructure.persistence.repositories.JpaUserRepository jpaUserRepository;
     private final com.invoices.invoice.infrastructure.persistence.repositories.JpaCompanyRepository jpaCompanyRepository;
+    private final com.invoices.security.service.CompanyMembershipCache membershipCache;
 
     @Override
     public Optional<UserCompany> findById(UserCompanyId id) {
@@ -73,6 +75,7 @@ public class UserCompanyRepositoryAdapter implements UserCompanyRepository {
     public UserCompany save(UserCompany userCompany) {
         com.invoices.company.infrastructure.persistence.entities.UserCompany jpaEntity = toJpa(userCompany);
         com.invoices.company.infrastructure.persistence.entities.UserCompany saved = jpaRepository.save(jpaEntity);
+        membershipCache.evict(userCompany.getId().getUserId(), userCompany.getId().getCompanyId());
         return toDomain(saved);
     }
 
@@ -80,16 +83,19 @@ public class UserCompanyRepositoryAdapter implements UserCompanyRepository {
     public void delete(UserCompany userCompany) {
         com.invoices.company.infrastructure.persistence.entities.UserCompany jpaEntity = toJpa(userCompany);
         jpaRepository.delete(jpaEntity);
+        membershipCache.evict(userCompany.getId().getUserId(), userCompany.getId().getCompanyId());
     }
 
     @Override
     public void deleteByIdCompanyId(Long companyId) {
         jpaRepository.deleteByIdCompanyId(companyId);
+        membershipCache.evictCompany(companyId);
     }
 
     @Override
     public void deleteByIdUserId(Long userId) {
         jpaRepository.deleteByIdUserId(userId);
+        membershipCache.evictUser(userId);
     }
 
     @Override
@@ -98,6 +104,7 @@ public class UserCompanyRepositoryAdapter implements UserCompanyRepository {
                 .map(this::toJpa)
                 .toList();
         jpaRepository.deleteAll(jpaEntities);
+        userCompanies.forEach(uc -> membershipCache.evict(uc.getId().getUserId(), uc.getId().getCompanyId()));
     }
 
     // Entity conversion methods
@@ -94,8 +94,7 @@ public class CompanyController {
                                 .orElseThrow(() -> new RuntimeException("User not found after switch"));
 
                 // Generate new JWT token with updated companyId
-                String token = jwtUtil.generateToken(updatedUser.getEmail(), updatedUser.getRoles(),
-                                updatedUser.getCurrentCompanyId());
+                String token = jwtUtil.generateToken(updatedUser);
 
                 AuthResponse response = AuthResponse.builder()
                                 .token(token)
@@ -22,8 +22,12 @@ public class PlatformAdminController {
     private final PlatformAdminService platformAdminService;
 
     @GetMapping
-    @Operation(summary = "List all companies", description = "Get a list of all companies in the platform")
-    public ResponseEntity<List<CompanyDto>> getAllCompanies() {
+    @Operation(summary = "List all companies", description = "Get a list of all companies in the platform. "
+            + "With q, only companies whose email or phone starts with q.")
+    public ResponseEntity<List<CompanyDto>> getAllCompanies(@RequestParam(required = false) String q) {
+        if (q != null && !q.isBlank()) {
+            return ResponseEntity.ok(platformAdminService.searchCompanies(q));
+        }
         return ResponseEntity.ok(platformAdminService.getAllCompanies());
     }
 
@@ -43,8 +47,13 @@ public class PlatformAdminController {
     }
 
     @GetMapping("/users")
-    @Operation(summary = "List all users", description = "Get a list of all users in the platform")
-    public ResponseEntity<List<com.invoices.user.presentation.dto.UserDTO>> getAllUsers() {
+    @Operation(summary = "List all users", description = "Get a list of all users in the platform. "
+            + "With q, only users whose first or last name starts with q.")
+    public ResponseEntity<List<com.invoices.user.presentation.dto.UserDTO>> getAllUsers(
+            @RequestParam(required = false) String q) {
+        if (q != null && !q.isBlank()) {
+            return ResponseEntity.ok(platformAdminService.searchUsers(q));
+        }
         return ResponseEntity.ok(platformAdminService.getAllUsers());
     }
 
@@ -49,7 +49,7 @@ public class CompanyDto {
     public static CompanyDto fromEntity(Company company,
             com.invoices.document.domain.services.StorageUrlResolver urlResolver) {
         String resolvedLogoUrl = urlResolver != null && company.getLogoUrl() != null
-                ? urlResolver.resolvePublicUrl(company.getLogoUrl())
+                ? urlResolver.resolveLogoThumbnailUrl(company.getLogoUrl())
                 : company.getLogoUrl();
 
         return CompanyDto.builder()
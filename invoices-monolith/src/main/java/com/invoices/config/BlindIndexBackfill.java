@@ -0,0 +1,92 @@
+package com.invoices.config;
+
+import com.invoices.invoice.infrastructure.persistence.entities.CompanyJpaEntity;
+import com.invoices.invoice.infrastructure.persistence.repositories.JpaCompanyRepository;
+import com.invoices.shared.infrastructure.security.encryption.BlindIndexed;
+import com.invoices.shared.infrastructure.security.encryption.BlindIndexer;
+import com.invoices.user.infrastructure.persistence.entities.UserJpaEntity;
+import com.invoices.user.infrastructure.persistence.repositories.JpaUserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Fills the blind-index columns of users and companies written before they
+ * existed (or before a blind-index key change cleared them). Rows are processed
+ * in id order, in batches of {@value #BATCH_SIZE} per transaction; once every row
+ * is indexed the runner costs two empty queries per startup.
+ *
+ * New and updated rows are indexed by the entity listener, so this only covers
+ * pre-existing data. Failures are logged and never block startup.
+ */
+@Component
+@ConditionalOnProperty(prefix = "security.encryption.blind-index-backfill", name = "enabled", havingValue = "true",
+        matchIfMissing = true)
+@Slf4j
+public class BlindIndexBackfill implements ApplicationRunner {
+
+    static final int BATCH_SIZE = 200;
+
+    private final JpaUserRepository userRepository;
+    private final JpaCompanyRepository companyRepository;
+    private final BlindIndexer blindIndexer;
+    private final TransactionTemplate transactionTemplate;
+
+    public BlindIndexBackfill(JpaUserRepository userRepository, JpaCompanyRepository companyRepository,
+            BlindIndexer blindIndexer, PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.companyRepository = companyRepository;
+        this.blindIndexer = blindIndexer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        backfill("users", userRepository::findMissingBlindIndexes, UserJpaEntity::getId);
+        backfill("companies", companyRepository::findMissingBlindIndexes, CompanyJpaEntity::getId);
+    }
+
+    private <T extends BlindIndexed> void backfill(String table, BiFunction<Long, Pageable, List<T>> finder,
+            Function<T, Long> id) {
+        long start = System.currentTimeMillis();
+        int updated = 0;
+        try {
+            Long afterId = 0L;
+            while (afterId != null) {
+                Long from = afterId;
+                BatchResult batch = transactionTemplate.execute(status -> {
+                    List<T> rows = finder.apply(from, PageRequest.of(0, BATCH_SIZE));
+                    int changed = 0;
+                    for (T row : rows) {
+                        if (row.updateBlindIndexes(blindIndexer)) {
+                            changed++;
+                        }
+                    }
+                    Long last = rows.size() < BATCH_SIZE ? null : id.apply(rows.get(rows.size() - 1));
+                    return new BatchResult(changed, last);
+                });
+                updated += batch.updated();
+                afterId = batch.lastId();
+            }
+            if (updated > 0) {
+                log.info("Backfilled blind indexes of {} {} in {} ms", updated, table,
+                        System.currentTimeMillis() - start);
+            }
+        } catch (Exception e) {
+            log.warn("Blind index backfill of {} stopped after {} rows: {}", table, updated, e.getMessage());
+        }
+    }
+
+    private record BatchResult(int updated, Long lastId) {
+    }
+}
@@ -0,0 +1,101 @@
+package com.invoices.config;
+
+import com.invoices.invoice.domain.entities.Client;
+import com.invoices.invoice.domain.entities.Company;
+import com.invoices.invoice.domain.entities.Invoice;
+import com.invoices.invoice.domain.entities.InvoiceItem;
+import com.invoices.invoice.domain.ports.PdfGenerator;
+import com.invoices.verifactu.domain.ports.VerifactuIntegrationPort;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.security.KeyStore;
+import java.time.LocalDateTime;
+
+/**
+ * Renders a synthetic invoice (with VeriFactu QR) and builds/signs its XML once at
+ * startup, so JIT compilation, Thymeleaf template parsing, font metrics and the XML
+ * signature stack are loaded before the first real request.
+ *
+ * Application runners complete before Spring Boot publishes
+ * {@code ReadinessState.ACCEPTING_TRAFFIC}, so the readiness probe only turns green
+ * once the warm-up has finished. Failures are logged and never block startup.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.warmup", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class StartupWarmupRunner implements ApplicationRunner {
+
+    private static final String WARMUP_QR_PAYLOAD = "https://www2.agenciatributaria.gob.es/wlpl/TIKE-CONT/"
+            + "ValidarQR?nif=B00000000&numserie=WARMUP/0001&fecha=01-01-2025&importe=121.00";
+
+    private final PdfGenerator pdfGenerator;
+    private final VerifactuIntegrationPort verifactuIntegration;
+    private final ResourceLoader resourceLoader;
+
+    @Value("${verifactu.keystore.path:}")
+    private String keystorePath;
+
+    @Value("${verifactu.keystore.password:}")
+    private String keystorePassword;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Company company = new Company(0L, "Warm-up S.L.", "B00000000", "Calle Falsa 1", "Madrid", "28001",
+                "Madrid", "600000000", "warmup@invoices.local", "ES0000000000000000000000");
+        Client client = new Client(0L, "Warm-up Client S.L.", "A00000000", "Calle Falsa 2", "Madrid", "28001",
+                "Madrid", "600000000", "client@invoices.local", 0L);
+        Invoice invoice = new Invoice(0L, company.getId(), client.getId(), "WARMUP/0001", LocalDateTime.now(),
+                new BigDecimal("15.00"), BigDecimal.ZERO);
+        invoice.addItemInternal(new InvoiceItem(0L, 0L, "Warm-up service", 1, new BigDecimal("100.00"),
+                new BigDecimal("21.00"), BigDecimal.ZERO));
+        invoice.setCompany(company);
+        invoice.setClient(client);
+
+        warmUpPdfRendering(invoice, company, client);
+        warmUpXmlSigning(invoice, company, client);
+    }
+
+    private void warmUpPdfRendering(Invoice invoice, Company company, Client client) {
+        long start = System.currentTimeMillis();
+        try {
+            pdfGenerator.generateInvoicePdfWithQr(invoice, company, client, WARMUP_QR_PAYLOAD);
+            log.info("PDF rendering warm-up completed in {} ms", System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.warn("PDF rendering warm-up failed: {}", e.getMessage());
+        }
+    }
+
+    private void warmUpXmlSigning(Invoice invoice, Company company, Client client) {
+        long start = System.currentTimeMillis();
+        try {
+            String xml = verifactuIntegration.buildCanonicalXML(invoice, company, client);
+
+            Resource keystore = keystorePath.isBlank() ? null : resourceLoader.getResource(keystorePath);
+            if (keystore == null || !keystore.exists()) {
+                log.info("XML warm-up completed in {} ms (no warm-up keystore at '{}', signing skipped)",
+                        System.currentTimeMillis() - start, keystorePath);
+                return;
+            }
+
+            KeyStore keyStore = KeyStore.getInstance(KeyStore.getDefaultType());
+            try (InputStream in = keystore.getInputStream()) {
+                keyStore.load(in, keystorePassword.toCharArray());
+            }
+            verifactuIntegration.signXML(xml, keyStore, keystorePassword);
+            log.info("XML signing warm-up completed in {} ms", System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.warn("XML signing warm-up failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.invoices.document.domain.entities;
+
+import java.util.Optional;
+
+/**
+ * Derived, size-bounded versions of an uploaded company logo.
+ *
+ * Renditions are stored next to the original with a suffix before the extension:
+ * {@code logos/company-7-1718000000000.png} ->
+ * {@code logos/company-7-1718000000000-pdf.png}.
+ */
+public enum LogoRendition {
+
+    /**
+     * Embedded in invoice PDFs. The template draws the logo at most 45pt high, so
+     * 200px keeps it sharp at ~300 DPI.
+     */
+    PDF("pdf", 600, 200),
+
+    /**
+     * Shown in the web UI (recommended display size 180x60).
+     */
+    THUMBNAIL("thumb", 240, 80);
+
+    private static final String EXTENSION = ".png";
+
+    private final String suffix;
+    private final int maxWidth;
+    private final int maxHeight;
+
+    LogoRendition(String suffix, int maxWidth, int maxHeight) {
+        this.suffix = suffix;
+        this.maxWidth = maxWidth;
+        this.maxHeight = maxHeight;
+    }
+
+    public int getMaxWidth() {
+        return maxWidth;
+    }
+
+    public int getMaxHeight() {
+        return maxHeight;
+    }
+
+    /**
+     * @param originalObjectName object name of the uploaded logo
+     * @return object name of this rendition
+     */
+    public String objectName(String originalObjectName) {
+        String base = originalObjectName.endsWith(EXTENSION)
+                ? originalObjectName.substring(0, originalObjectName.length() - EXTENSION.length())
+                : originalObjectName;
+        return base + "-" + suffix + EXTENSION;
+    }
+
+    /**
+     * @param renditionObjectName object name of a rendition
+     * @return object name of the original, if the name belongs to this rendition
+     */
+    public Optional<String> originalObjectName(String renditionObjectName) {
+        String marker = "-" + suffix + EXTENSION;
+        if (renditionObjectName == null || !renditionObjectName.endsWith(marker)) {
+            return Optional.empty();
+        }
+        return Optional.of(renditionObjectName.substring(0, renditionObjectName.length() - marker.length())
+                + EXTENSION);
+    }
+
+    /**
+     * Parses the {@code rendition} request parameter (e.g. {@code "thumbnail"}).
+     *
+     * @return the matching rendition, or empty for the original
+     */
+    public static Optional<LogoRendition> fromParameter(String value) {
+        if (value == null || value.isBlank() || value.equalsIgnoreCase("original")) {
+            return Optional.empty();
+        }
+        for (LogoRendition rendition : values()) {
+            if (rendition.name().equalsIgnoreCase(value) || rendition.suffix.equalsIgnoreCase(value)) {
+                return Optional.of(rendition);
+            }
+        }
+        throw new IllegalArgumentException("Unknown logo rendition: " + value);
+    }
+}
@@ -0,0 +1,26 @@
+package com.invoices.document.domain.ports;
+
+import java.util.Optional;
+
+/**
+ * Port (interface) for an in-memory cache of small stored objects, such as
+ * company logos, that are read on every PDF render.
+ * Keys are storage object names.
+ */
+public interface AssetCache {
+
+    /**
+     * Returns the object content, loading it from storage on a miss.
+     *
+     * @param objectName storage object name
+     * @return the content, or empty if the object cannot be read
+     */
+    Optional<byte[]> get(String objectName);
+
+    /**
+     * Drops a cached object, e.g. after it was replaced or deleted.
+     *
+     * @param objectName storage object name; ignored when null
+     */
+    void invalidate(String objectName);
+}
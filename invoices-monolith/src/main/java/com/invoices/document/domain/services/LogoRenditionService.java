@@ -0,0 +1,162 @@
+package com.invoices.document.domain.services;
+
+import com.invoices.document.domain.entities.FileContent;
+import com.invoices.document.domain.entities.LogoRendition;
+import com.invoices.document.domain.ports.FileStorageService;
+import com.invoices.document.exception.InvalidFileTypeException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+
+/**
+ * Upload-time image pipeline for company logos.
+ *
+ * The original is kept as uploaded; a {@link LogoRendition} is derived for each
+ * consumer (PDF, UI) by scaling the image down into the rendition's bounding box
+ * and re-encoding it as PNG, which also drops ancillary metadata chunks.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LogoRenditionService {
+
+    private static final String CONTENT_TYPE = "image/png";
+
+    /**
+     * Upper bound on decoded pixels, checked from the header before decoding so a
+     * small compressed file cannot expand into a huge bitmap.
+     */
+    private static final long MAX_SOURCE_PIXELS = 4096L * 4096L;
+
+    private final FileStorageService fileStorageService;
+
+    /**
+     * Validates the logo, then stores the original and every rendition.
+     *
+     * @throws InvalidFileTypeException if the bytes are not a decodable image
+     */
+    public void storeWithRenditions(String objectName, byte[] original) {
+        BufferedImage image = decode(original);
+
+        store(objectName, original);
+        for (LogoRendition rendition : LogoRendition.values()) {
+            store(rendition.objectName(objectName), encode(scale(image, rendition)));
+        }
+        log.info("Stored logo {} ({}x{}) with {} renditions", objectName, image.getWidth(), image.getHeight(),
+                LogoRendition.values().length);
+    }
+
+    /**
+     * Creates and stores a single rendition from an original that predates the
+     * pipeline.
+     *
+     * @return the rendition bytes
+     */
+    public byte[] backfill(String objectName, byte[] original, LogoRendition rendition) {
+        byte[] data = encode(scale(decode(original), rendition));
+        store(rendition.objectName(objectName), data);
+        log.info("Backfilled {} rendition for logo {}", rendition, objectName);
+        return data;
+    }
+
+    /**
+     * Deletes the original and its renditions (best effort).
+     */
+    public void deleteWithRenditions(String objectName) {
+        for (LogoRendition rendition : LogoRendition.values()) {
+            deleteQuietly(rendition.objectName(objectName));
+        }
+        deleteQuietly(objectName);
+    }
+
+    private BufferedImage decode(byte[] data) {
+        try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(data))) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new InvalidFileTypeException("Logo is not a valid image");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > MAX_SOURCE_PIXELS) {
+                    throw new InvalidFileTypeException("Logo dimensions are too large");
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            throw new InvalidFileTypeException("Logo is not a valid image", e);
+        }
+    }
+
+    /**
+     * Fits the image into the rendition's box, never upscaling. Large reductions are
+     * done in halving steps, which keeps bilinear filtering from dropping detail.
+     */
+    private BufferedImage scale(BufferedImage source, LogoRendition rendition) {
+        double ratio = Math.min(1.0, Math.min(
+                (double) rendition.getMaxWidth() / source.getWidth(),
+                (double) rendition.getMaxHeight() / source.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+
+        BufferedImage current = source;
+        do {
+            int width = Math.max(targetWidth, current.getWidth() / 2);
+            int height = Math.max(targetHeight, current.getHeight() / 2);
+            current = draw(current, width, height);
+        } while (current.getWidth() > targetWidth || current.getHeight() > targetHeight);
+        return current;
+    }
+
+    private BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height,
+                source.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private byte[] encode(BufferedImage image) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode logo rendition", e);
+        }
+    }
+
+    private void store(String objectName, byte[] data) {
+        fileStorageService.storeFile(objectName,
+                new FileContent(() -> new ByteArrayInputStream(data), data.length, CONTENT_TYPE));
+    }
+
+    private void deleteQuietly(String objectName) {
+        try {
+            fileStorageService.deleteFile(objectName);
+        } catch (Exception e) {
+            log.warn("Failed to delete logo file {}: {}", objectName, e.getMessage());
+        }
+    }
+}
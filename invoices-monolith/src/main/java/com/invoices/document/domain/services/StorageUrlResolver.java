@@ -43,4 +43,18 @@ public class StorageUrlResolver {
         log.debug("Resolved logo URL: {} -> {}", objectName, proxyUrl);
         return proxyUrl;
     }
+
+    /**
+     * Proxy URL of the UI-sized rendition of a stored logo.
+     *
+     * @param objectName The logo object name in storage
+     * @return A URL to the backend proxy endpoint for the thumbnail rendition
+     */
+    public String resolveLogoThumbnailUrl(String objectName) {
+        String url = resolvePublicUrl(objectName);
+        if (url == null || objectName.startsWith("http://") || objectName.startsWith("https://")) {
+            return url;
+        }
+        return url + "?rendition=thumbnail";
+    }
 }
@@ -0,0 +1,89 @@
+package com.invoices.document.infrastructure.storage;
+
+import com.invoices.document.domain.ports.AssetCache;
+import com.invoices.document.domain.ports.FileStorageService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-memory, size-bounded LRU cache of small stored objects (company logos) that
+ * are read on every PDF render.
+ *
+ * Keys are storage object names. Logo object names embed the upload timestamp
+ * ({@code logos/company-7-1718000000000.png}), so every upload is a new version
+ * with a new key; {@link #invalidate(String)} drops the superseded version.
+ */
+@Component
+@Slf4j
+public class StorageAssetCache implements AssetCache {
+
+    private final FileStorageService fileStorageService;
+    private final long maxBytes;
+    private final long maxEntryBytes;
+
+    private final LinkedHashMap<String, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long currentBytes;
+
+    public StorageAssetCache(FileStorageService fileStorageService,
+            @Value("${storage.asset-cache.max-bytes:8388608}") long maxBytes) {
+        this.fileStorageService = fileStorageService;
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxBytes / 4;
+    }
+
+    @Override
+    public Optional<byte[]> get(String objectName) {
+        synchronized (this) {
+            byte[] cached = entries.get(objectName);
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+        }
+
+        byte[] data;
+        try (InputStream in = fileStorageService.retrieveFile(objectName)) {
+            if (in == null) {
+                return Optional.empty();
+            }
+            data = in.readAllBytes();
+        } catch (Exception e) {
+            log.warn("Could not load asset {} from storage: {}", objectName, e.getMessage());
+            return Optional.empty();
+        }
+
+        if (data.length <= maxEntryBytes) {
+            put(objectName, data);
+        }
+        return Optional.of(data);
+    }
+
+    @Override
+    public synchronized void invalidate(String objectName) {
+        if (objectName == null) {
+            return;
+        }
+        byte[] removed = entries.remove(objectName);
+        if (removed != null) {
+            currentBytes -= removed.length;
+            log.debug("Invalidated cached asset {}", objectName);
+        }
+    }
+
+    private synchronized void put(String objectName, byte[] data) {
+        byte[] previous = entries.put(objectName, data);
+        currentBytes += data.length - (previous != null ? previous.length : 0);
+
+        Iterator<Map.Entry<String, byte[]>> eldest = entries.entrySet().iterator();
+        while (currentBytes > maxBytes && eldest.hasNext()) {
+            currentBytes -= eldest.next().getValue().length;
+            eldest.remove();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.invoices.document.presentation.controllers;
 
+import com.invoices.document.domain.entities.LogoRendition;
 import com.invoices.document.domain.ports.FileStorageService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -13,6 +14,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.io.InputStream;
+import java.util.Optional;
 
 /**
  * Controller to proxy file access from S3 storage.
@@ -28,24 +30,37 @@ public class FileController {
     private final FileStorageService fileStorageService;
 
     @GetMapping("/logos/{objectName}")
-    @Operation(summary = "Get company logo", description = "Retrieves a company logo from storage. Public endpoint for PDF generation.", responses = {
+    @Operation(summary = "Get company logo", description = "Retrieves a company logo from storage. "
+            + "Use rendition=thumbnail for the UI-sized version or rendition=pdf for the print-sized one; "
+            + "the original is returned when omitted.", responses = {
             @ApiResponse(responseCode = "200", description = "Logo retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Unknown rendition"),
             @ApiResponse(responseCode = "404", description = "Logo not found")
     })
-    public ResponseEntity<InputStreamResource> getLogo(@PathVariable String objectName) {
+    public ResponseEntity<InputStreamResource> getLogo(@PathVariable String objectName,
+            @RequestParam(name = "rendition", required = false) String rendition) {
         String fullPath = "logos/" + objectName;
-        log.info("Serving logo: {}", fullPath);
+        Optional<LogoRendition> requested;
+        try {
+            requested = LogoRendition.fromParameter(rendition);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        log.debug("Serving logo: {} (rendition={})", fullPath, requested.map(Enum::name).orElse("original"));
 
         try {
-            InputStream inputStream = fileStorageService.retrieveFile(fullPath);
+            InputStream inputStream = requested
+                    .map(r -> retrieveRendition(fullPath, r))
+                    .orElseGet(() -> fileStorageService.retrieveFile(fullPath));
             if (inputStream == null) {
                 log.warn("Logo not found: {}", fullPath);
                 return ResponseEntity.notFound().build();
             }
 
+            // Object names are versioned by upload timestamp, so content never changes
             return ResponseEntity.ok()
                     .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + objectName + "\"")
-                    .header(HttpHeaders.CACHE_CONTROL, "public, max-age=86400") // Cache for 24 hours
+                    .header(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable")
                     .contentType(MediaType.IMAGE_PNG)
                     .body(new InputStreamResource(inputStream));
         } catch (Exception e) {
@@ -53,4 +68,15 @@ public class FileController {
             return ResponseEntity.notFound().build();
         }
     }
+
+    /**
+     * Logos uploaded before renditions existed only have the original.
+     */
+    private InputStream retrieveRendition(String fullPath, LogoRendition rendition) {
+        String renditionPath = rendition.objectName(fullPath);
+        if (fileStorageService.fileExists(renditionPath)) {
+            return fileStorageService.retrieveFile(renditionPath);
+        }
+        return fileStorageService.retrieveFile(fullPath);
+    }
 }
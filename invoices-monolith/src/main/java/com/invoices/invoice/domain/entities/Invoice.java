@@ -568,6 +568,14 @@ public class Invoice {
         return calculateTotalAmount();
     }
 
+    public BigDecimal getIrpfAmount() {
+        return calculateIrpfAmount();
+    }
+
+    public BigDecimal getReAmount() {
+        return calculateReAmount();
+    }
+
     public String getHash() {
         return hash;
     }
@@ -19,6 +19,13 @@ public interface CompanyRepository {
 
     List<Company> findAll();
 
+    /**
+     * Find companies whose email or phone starts with the given term, using
+     * their blind indexes instead of decrypting every company. Terms need at
+     * least three letters or digits, otherwise a BusinessException is thrown.
+     */
+    List<Company> searchByContact(String term);
+
     void deleteById(Long id);
 
     boolean existsById(Long id);
@@ -2,6 +2,9 @@ package com.invoices.invoice.domain.ports;
 
 import com.invoices.invoice.domain.entities.Invoice;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * Port for publishing invoice events.
  * This is a domain interface that will be implemented by infrastructure layer.
@@ -17,6 +20,14 @@ public interface InvoiceEventPublisher {
      */
     void publishInvoiceCreated(Invoice invoice, String clientEmail);
 
+    /**
+     * Publishes the creation events of invoices created together (bulk import).
+     *
+     * @param invoices the created invoices
+     * @param clientEmails email address of each client, by client ID
+     */
+    void publishInvoicesCreated(List<Invoice> invoices, Map<Long, String> clientEmails);
+
     /**
      * Publishes an event when an invoice is updated.
      *
@@ -48,4 +59,12 @@ public interface InvoiceEventPublisher {
      * @param clientEmail the client's email address
      */
     void publishInvoiceDeleted(Invoice invoice, String clientEmail);
+
+    /**
+     * Publishes an event when AEAT accepts the VeriFactu record of an invoice.
+     *
+     * @param invoice the accepted invoice
+     * @param clientEmail the client's email address
+     */
+    void publishInvoiceAccepted(Invoice invoice, String clientEmail);
 }
@@ -21,6 +21,17 @@ public interface InvoiceRepository {
 
     Invoice save(Invoice invoice);
 
+    /**
+     * Inserts new invoices and their items in batches, for bulk imports.
+     * Must be called in a transaction.
+     *
+     * @param invoices new invoices (without ID)
+     * @param userIds  the user recorded as creator of each invoice, in the same
+     *                 order, or null for the authenticated user
+     * @return the saved invoices with their generated IDs, in the same order
+     */
+    List<Invoice> saveAll(List<Invoice> invoices, List<Long> userIds);
+
     void delete(Invoice invoice);
 
     void deleteById(Long id);
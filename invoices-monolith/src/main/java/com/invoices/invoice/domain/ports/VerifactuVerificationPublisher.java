@@ -1,5 +1,7 @@
 package com.invoices.invoice.domain.ports;
 
+import java.util.List;
+
 /**
  * Port for publishing VeriFactu verification events.
  *
@@ -30,6 +32,15 @@ public interface VerifactuVerificationPublisher {
      */
     void enqueueForVerification(Long invoiceId, String eventType);
 
+    /**
+     * Enqueue many invoices in a single round trip.
+     *
+     * @param invoiceIds IDs of the invoices to verify, in order
+     * @param eventType  Type of event (e.g., INVOICE_CREATED, INVOICE_UPDATED)
+     * @throws VerificationEnqueueException if enqueue fails
+     */
+    void enqueueAllForVerification(List<Long> invoiceIds, String eventType);
+
     /**
      * Exception thrown when enqueue fails.
      */
@@ -0,0 +1,78 @@
+package com.invoices.invoice.domain.services;
+
+import com.invoices.invoice.domain.entities.Company;
+import com.invoices.invoice.domain.entities.Invoice;
+import com.invoices.invoice.domain.ports.CompanyRepository;
+import com.invoices.invoice.domain.ports.InvoiceRepository;
+import com.invoices.verifactu.application.services.InvoiceChainService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Domain service creating many invoices of one company at once, as
+ * CreateInvoiceUseCase does for one: the numbers are reserved as a block with
+ * a single lock, the hash chain is extended in memory and the invoices are
+ * inserted in batches. Used by bulk imports and recurring invoices.
+ */
+@Service
+@RequiredArgsConstructor
+public class InvoiceBatchService {
+
+    /**
+     * Number to build invoices with until {@link #createAll} sets the reserved one.
+     */
+    public static final String UNNUMBERED = "PENDING";
+
+    private final InvoiceNumberingService invoiceNumberingService;
+    private final InvoiceChainService invoiceChainService;
+    private final InvoiceRepository invoiceRepository;
+    private final CompanyRepository companyRepository;
+
+    /**
+     * Numbers, chains and inserts invoices in the given order, locking the
+     * numbering before the company like CreateInvoiceUseCase. The invoices are
+     * recorded as created by the authenticated user.
+     *
+     * @param companyId the company issuing the invoices
+     * @param invoices  unsaved invoices of that company
+     * @return the saved invoices, in the same order
+     */
+    @Transactional
+    public List<Invoice> createAll(Long companyId, List<Invoice> invoices) {
+        return createAll(companyId, invoices, null);
+    }
+
+    /**
+     * As {@link #createAll(Long, List)}, for callers without an authenticated
+     * user such as scheduled runs.
+     *
+     * @param userIds the user recorded as creator of each invoice, in the same
+     *                order, or null for the authenticated user
+     */
+    @Transactional
+    public List<Invoice> createAll(Long companyId, List<Invoice> invoices, List<Long> userIds) {
+        if (invoices.isEmpty()) {
+            return List.of();
+        }
+        List<String> numbers = invoiceNumberingService.reserveNextNumbers(companyId, invoices.size());
+        Company company = invoiceChainService.lockTenantForUpdate(companyId);
+
+        String lastHash = company.getLastHash();
+        for (int i = 0; i < invoices.size(); i++) {
+            Invoice invoice = invoices.get(i);
+            invoice.setInvoiceNumber(numbers.get(i));
+            // The first invoice of the year (001/YYYY) starts a new chain
+            String previousHash = numbers.get(i).startsWith("001/") ? null : lastHash;
+            invoice.setLastHashBefore(previousHash);
+            invoice.setHash(invoiceChainService.calculateChainedHash(invoice, previousHash));
+            lastHash = invoice.getHash();
+        }
+
+        List<Invoice> saved = invoiceRepository.saveAll(invoices, userIds);
+        companyRepository.save(company.withLastHash(lastHash));
+        return saved;
+    }
+}
@@ -6,6 +6,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -13,14 +15,15 @@ import java.util.regex.Pattern;
 /**
  * Domain service for generating unique, sequential invoice numbers per company.
  * The generated numbers follow a sequential pattern (e.g., 001, 002)
- * paired with the current year (e.g., 2025).
+ * paired with the current year (e.g., 2025). The sequence keeps growing past 999
+ * (e.g., 1000/2025).
  */
 @Service
 @RequiredArgsConstructor
 public class InvoiceNumberingService {
 
     private final InvoiceRepository invoiceRepository;
-    private static final Pattern NUMBER_PATTERN = Pattern.compile("^(\\d{3})/(\\d{4})$");
+    private static final Pattern NUMBER_PATTERN = Pattern.compile("^(\\d{3,})/(\\d{4})$");
 
     /**
      * Generates the next invoice number for the specified company and current year.
@@ -32,6 +35,21 @@ public class InvoiceNumberingService {
      */
     @Transactional
     public String generateNextNumber(Long companyId) {
+        return reserveNextNumbers(companyId, 1).get(0);
+    }
+
+    /**
+     * Reserves a block of consecutive invoice numbers for the specified company
+     * and current year, with a single lookup of the last number. The numbers stay
+     * reserved while the caller's transaction holds the lock, so the invoices
+     * using them must be inserted in that same transaction.
+     *
+     * @param companyId the company ID
+     * @param count     how many numbers to reserve
+     * @return the reserved numbers, in order (e.g., "004/2025", "005/2025")
+     */
+    @Transactional
+    public List<String> reserveNextNumbers(Long companyId, int count) {
         int currentYear = Year.now().getValue();
 
         // Find the last invoice number for this company and year with pessimistic write
@@ -40,20 +58,20 @@ public class InvoiceNumberingService {
         Optional<String> lastNumberOpt = invoiceRepository.findLastInvoiceNumberByCompanyAndYearWithLock(companyId,
                 currentYear);
 
-        if (lastNumberOpt.isEmpty()) {
-            return String.format("001/%d", currentYear);
-        }
-
-        String lastNumber = lastNumberOpt.get();
-        Matcher matcher = NUMBER_PATTERN.matcher(lastNumber);
-
-        if (matcher.matches()) {
-            int sequence = Integer.parseInt(matcher.group(1));
-            return String.format("%03d/%d", sequence + 1, currentYear);
-        } else {
+        int lastSequence = 0;
+        if (lastNumberOpt.isPresent()) {
+            Matcher matcher = NUMBER_PATTERN.matcher(lastNumberOpt.get());
             // Fallback if last number doesn't match pattern
             // Start fresh sequence for safety, but log warning in real app
-            return String.format("001/%d", currentYear);
+            if (matcher.matches()) {
+                lastSequence = Integer.parseInt(matcher.group(1));
+            }
+        }
+
+        List<String> numbers = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            numbers.add(String.format("%03d/%d", lastSequence + i, currentYear));
         }
+        return numbers;
     }
 }
@@ -10,6 +10,7 @@ import com.invoices.invoice.domain.ports.InvoiceEventPublisher;
 import com.invoices.invoice.domain.ports.InvoiceRepository;
 import com.invoices.invoice.domain.exceptions.ClientNotFoundException;
 import com.invoices.verifactu.application.services.InvoiceChainService;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -43,6 +44,7 @@ public class CreateInvoiceUseCase {
         this.invoiceChainService = invoiceChainService;
     }
 
+    @Transactional
     public Invoice execute(
             Long companyId,
             Long clientId,
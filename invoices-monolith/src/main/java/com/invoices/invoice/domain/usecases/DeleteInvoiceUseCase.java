@@ -9,6 +9,7 @@ import com.invoices.invoice.domain.ports.ClientRepository;
 import com.invoices.invoice.domain.ports.InvoiceEventPublisher;
 import com.invoices.invoice.domain.ports.InvoiceRepository;
 import com.invoices.invoice.domain.exceptions.ClientNotFoundException;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Use case: Delete invoice.
@@ -32,6 +33,7 @@ public class DeleteInvoiceUseCase {
         this.eventPublisher = eventPublisher;
     }
 
+    @Transactional
     public void execute(Long invoiceId) {
         // Find invoice
         Invoice invoice = invoiceRepository.findById(invoiceId)
@@ -11,6 +11,7 @@ import com.invoices.invoice.domain.ports.InvoiceEventPublisher;
 import com.invoices.invoice.domain.ports.InvoiceRepository;
 import com.invoices.invoice.domain.exceptions.ClientNotFoundException;
 import com.invoices.verifactu.application.services.InvoiceChainService;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -52,6 +53,7 @@ public class UpdateInvoiceUseCase {
         this.invoiceChainService = invoiceChainService;
     }
 
+    @Transactional
     public Invoice execute(
             Long invoiceId,
             Long companyId,
@@ -0,0 +1,34 @@
+package com.invoices.invoice.dto;
+
+import com.invoices.invoice.infrastructure.recurring.RecurringInvoiceFrequency;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO for a recurring invoice and the state of its schedule.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringInvoiceDTO {
+    private Long id;
+    private Long clientId;
+    private RecurringInvoiceFrequency frequency;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private LocalDate nextRunDate;
+    private int occurrences;
+    private boolean active;
+    private Long lastInvoiceId;
+    private BigDecimal irpfPercentage;
+    private BigDecimal rePercentage;
+    private String notes;
+    private List<CreateInvoiceItemRequest> items;
+}
@@ -0,0 +1,57 @@
+package com.invoices.invoice.dto;
+
+import com.invoices.invoice.infrastructure.recurring.RecurringInvoiceFrequency;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Request DTO for creating a recurring invoice: the invoice to issue to the
+ * client and its schedule. The first invoice is issued on the night of
+ * startDate, the last one on or before endDate (if any).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringInvoiceRequest {
+
+    @NotNull(message = "Client ID is required")
+    private Long clientId;
+
+    @NotNull(message = "Frequency is required")
+    private RecurringInvoiceFrequency frequency;
+
+    @NotNull(message = "Start date is required")
+    @FutureOrPresent(message = "Start date must not be in the past")
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    @DecimalMin(value = "0.0", message = "IRPF percentage must be non-negative")
+    @DecimalMax(value = "100.0", message = "IRPF percentage cannot exceed 100%")
+    private BigDecimal irpfPercentage;
+
+    @DecimalMin(value = "0.0", message = "RE percentage must be non-negative")
+    @DecimalMax(value = "100.0", message = "RE percentage cannot exceed 100%")
+    private BigDecimal rePercentage;
+
+    @Size(max = 5000, message = "Notes must not exceed 5000 characters")
+    private String notes;
+
+    @NotEmpty(message = "Invoice must have at least one item")
+    @Valid
+    private List<CreateInvoiceItemRequest> items;
+}
@@ -0,0 +1,54 @@
+package com.invoices.invoice.infrastructure.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invoices.outbox.domain.entities.OutboxEvent;
+import com.invoices.outbox.domain.ports.OutboxEventHandler;
+import com.invoices.trace.domain.entities.AuditLog;
+import com.invoices.trace.domain.ports.AuditLogRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Records invoice lifecycle events from the outbox in the audit log.
+ *
+ * Writes directly through the repository rather than the buffered
+ * {@code AuditService}, so the entry commits together with the removal of the
+ * outbox row and is recorded exactly once. The entry keeps the time of the
+ * event, not of its delivery.
+ */
+@Component
+@RequiredArgsConstructor
+public class InvoiceAuditOutboxHandler implements OutboxEventHandler {
+
+    private final AuditLogRepository auditLogRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public boolean supports(String eventType) {
+        return eventType.startsWith("INVOICE_");
+    }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        InvoiceEventPayload payload;
+        try {
+            payload = objectMapper.readValue(event.getPayload(), InvoiceEventPayload.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid payload of outbox event " + event.getId(), e);
+        }
+        auditLogRepository.saveAll(List.of(AuditLog.builder()
+                .companyId(payload.companyId())
+                .eventType(event.getEventType())
+                .invoiceId(payload.invoiceId())
+                .invoiceNumber(payload.invoiceNumber())
+                .clientId(payload.clientId())
+                .clientEmail(payload.clientEmail())
+                .total(payload.total())
+                .status(payload.status())
+                .createdAt(event.getCreatedAt())
+                .build()));
+    }
+}
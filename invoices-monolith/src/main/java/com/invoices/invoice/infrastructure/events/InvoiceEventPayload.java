@@ -0,0 +1,30 @@
+package com.invoices.invoice.infrastructure.events;
+
+import com.invoices.invoice.domain.entities.Invoice;
+
+import java.math.BigDecimal;
+
+/**
+ * Body of the invoice lifecycle events stored in the outbox: the invoice as it
+ * was when the event happened.
+ */
+public record InvoiceEventPayload(
+        Long companyId,
+        Long invoiceId,
+        String invoiceNumber,
+        Long clientId,
+        String clientEmail,
+        BigDecimal total,
+        String status) {
+
+    public static InvoiceEventPayload of(Invoice invoice, String clientEmail) {
+        return new InvoiceEventPayload(
+                invoice.getCompanyId(),
+                invoice.getId(),
+                invoice.getInvoiceNumber(),
+                invoice.getClientId(),
+                clientEmail,
+                invoice.getTotalAmount(),
+                invoice.getStatus() != null ? invoice.getStatus().name() : null);
+    }
+}
@@ -0,0 +1,88 @@
+package com.invoices.invoice.infrastructure.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invoices.invoice.domain.entities.Invoice;
+import com.invoices.invoice.domain.ports.InvoiceEventPublisher;
+import com.invoices.outbox.domain.entities.OutboxEvent;
+import com.invoices.outbox.domain.ports.OutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of InvoiceEventPublisher that appends invoice lifecycle events
+ * to the transactional outbox, in the transaction of the use case that changed
+ * the invoice. The outbox relay delivers them afterwards (to the audit log, see
+ * {@link InvoiceAuditOutboxHandler}, and to the company's webhooks), in order
+ * per invoice.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxInvoiceEventPublisher implements InvoiceEventPublisher {
+
+    public static final String AGGREGATE_TYPE = "invoice";
+
+    private final OutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void publishInvoiceCreated(Invoice invoice, String clientEmail) {
+        append("INVOICE_CREATED", invoice, clientEmail);
+    }
+
+    @Override
+    public void publishInvoicesCreated(List<Invoice> invoices, Map<Long, String> clientEmails) {
+        outboxRepository.appendAll(invoices.stream()
+                .map(invoice -> event("INVOICE_CREATED", invoice, clientEmails.get(invoice.getClientId())))
+                .toList());
+    }
+
+    @Override
+    public void publishInvoiceUpdated(Invoice invoice, String clientEmail) {
+        append("INVOICE_UPDATED", invoice, clientEmail);
+    }
+
+    @Override
+    public void publishInvoicePaid(Invoice invoice, String clientEmail) {
+        append("INVOICE_PAID", invoice, clientEmail);
+    }
+
+    @Override
+    public void publishInvoiceCancelled(Invoice invoice, String clientEmail) {
+        append("INVOICE_CANCELLED", invoice, clientEmail);
+    }
+
+    @Override
+    public void publishInvoiceDeleted(Invoice invoice, String clientEmail) {
+        append("INVOICE_DELETED", invoice, clientEmail);
+    }
+
+    @Override
+    public void publishInvoiceAccepted(Invoice invoice, String clientEmail) {
+        // Not INVOICE_*: VerifactuService already audits the acceptance as INVOICE_SENT
+        append("VERIFACTU_ACCEPTED", invoice, clientEmail);
+    }
+
+    private void append(String eventType, Invoice invoice, String clientEmail) {
+        outboxRepository.append(event(eventType, invoice, clientEmail));
+    }
+
+    private OutboxEvent event(String eventType, Invoice invoice, String clientEmail) {
+        log.debug("Invoice event {}: {} to {}", eventType, invoice.getId(), clientEmail);
+        try {
+            return OutboxEvent.builder()
+                    .aggregateType(AGGREGATE_TYPE)
+                    .aggregateId(String.valueOf(invoice.getId()))
+                    .eventType(eventType)
+                    .payload(objectMapper.writeValueAsString(InvoiceEventPayload.of(invoice, clientEmail)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + eventType + " event", e);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.invoices.invoice.infrastructure.imports;
+
+import com.invoices.invoice.dto.CreateInvoiceItemRequest;
+import com.invoices.invoice.dto.CreateInvoiceRequest;
+import com.invoices.shared.domain.exception.BusinessException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Reads invoices from CSV (RFC 4180 quoting) with one item per record.
+ *
+ * The header names the columns after the fields of CreateInvoiceRequest and
+ * CreateInvoiceItemRequest, in any order and case: clientId, settlementNumber,
+ * irpfPercentage, rePercentage, notes, description, units, price,
+ * vatPercentage, discountPercentage, itemDate, vehiclePlate, orderNumber, zone
+ * and gasPercentage. Consecutive records with the same value in the optional
+ * invoice column are the items of one invoice, whose own fields are taken from
+ * its first record; without it every record is an invoice.
+ *
+ * Files whose header is separated by semicolons (as exported by a Spanish
+ * spreadsheet) are read with semicolons and decimal commas.
+ */
+class CsvInvoiceImportReader implements InvoiceImportReader {
+
+    private static final String GROUP_COLUMN = "invoice";
+    private static final List<String> REQUIRED_COLUMNS = List.of(
+            "clientId", "description", "units", "price", "vatPercentage");
+    private static final int HEADER_PEEK_LIMIT = 64 * 1024;
+
+    private final BufferedReader reader;
+    private Map<String, Integer> columns;
+    private char delimiter = ',';
+    private long lineNumber = 1;
+    private Record pending;
+
+    CsvInvoiceImportReader(InputStream in) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public InvoiceImportRow next() throws IOException {
+        if (columns == null) {
+            readHeader();
+        }
+
+        Record first = pending != null ? pending : readRecord();
+        pending = null;
+        if (first == null) {
+            return null;
+        }
+
+        List<Record> records = new ArrayList<>();
+        records.add(first);
+        String group = first.value(GROUP_COLUMN);
+        if (group != null) {
+            Record record;
+            while ((record = readRecord()) != null && group.equals(record.value(GROUP_COLUMN))) {
+                records.add(record);
+            }
+            pending = record;
+        }
+
+        try {
+            return InvoiceImportRow.of(first.line(), toRequest(records));
+        } catch (IllegalArgumentException e) {
+            return InvoiceImportRow.unreadable(first.line(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void readHeader() throws IOException {
+        reader.mark(HEADER_PEEK_LIMIT);
+        String headerLine = reader.readLine();
+        reader.reset();
+        if (headerLine != null && count(headerLine, ';') > count(headerLine, ',')) {
+            delimiter = ';';
+        }
+
+        Record header = readRecord();
+        columns = new HashMap<>();
+        if (header != null) {
+            List<String> names = header.values();
+            for (int i = 0; i < names.size(); i++) {
+                String name = i == 0 ? names.get(i).replace("\uFEFF", "") : names.get(i);
+                columns.put(name.trim().toLowerCase(Locale.ROOT), i);
+            }
+        }
+
+        List<String> missing = REQUIRED_COLUMNS.stream()
+                .filter(column -> !columns.containsKey(column.toLowerCase(Locale.ROOT)))
+                .toList();
+        if (!missing.isEmpty()) {
+            throw new BusinessException("INVALID_IMPORT_FILE", "CSV header is missing columns: " + missing);
+        }
+    }
+
+    /**
+     * Reads the next record, skipping blank lines.
+     *
+     * @return the record, or null at the end of the file
+     */
+    private Record readRecord() throws IOException {
+        List<String> values = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        long start = lineNumber;
+
+        int c;
+        while ((c = reader.read()) != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == delimiter) {
+                values.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                lineNumber++;
+                if (values.isEmpty() && field.length() == 0) {
+                    start = lineNumber;
+                    continue;
+                }
+                values.add(field.toString());
+                return new Record(start, values);
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+
+        if (values.isEmpty() && field.length() == 0) {
+            return null;
+        }
+        values.add(field.toString());
+        return new Record(start, values);
+    }
+
+    private CreateInvoiceRequest toRequest(List<Record> records) {
+        Record first = records.get(0);
+        List<CreateInvoiceItemRequest> items = new ArrayList<>(records.size());
+        for (Record record : records) {
+            items.add(CreateInvoiceItemRequest.builder()
+                    .description(record.value("description"))
+                    .units(record.parse("units", Integer::valueOf))
+                    .price(record.parse("price", this::decimal))
+                    .vatPercentage(record.parse("vatPercentage", this::decimal))
+                    .discountPercentage(record.parse("discountPercentage", this::decimal))
+                    .itemDate(record.parse("itemDate", LocalDate::parse))
+                    .vehiclePlate(record.value("vehiclePlate"))
+                    .orderNumber(record.value("orderNumber"))
+                    .zone(record.value("zone"))
+                    .gasPercentage(record.parse("gasPercentage", this::decimal))
+                    .build());
+        }
+
+        return CreateInvoiceRequest.builder()
+                .clientId(first.parse("clientId", Long::valueOf))
+                .settlementNumber(first.value("settlementNumber"))
+                .irpfPercentage(first.parse("irpfPercentage", this::decimal))
+                .rePercentage(first.parse("rePercentage", this::decimal))
+                .notes(first.value("notes"))
+                .items(items)
+                .build();
+    }
+
+    private BigDecimal decimal(String value) {
+        return new BigDecimal(delimiter == ';' ? value.replace(',', '.') : value);
+    }
+
+    private static int count(String text, char character) {
+        return (int) text.chars().filter(c -> c == character).count();
+    }
+
+    private final class Record {
+        private final long line;
+        private final List<String> values;
+
+        Record(long line, List<String> values) {
+            this.line = line;
+            this.values = values;
+        }
+
+        long line() {
+            return line;
+        }
+
+        List<String> values() {
+            return values;
+        }
+
+        /**
+         * @return the trimmed value of the column, or null if absent or blank
+         */
+        String value(String column) {
+            Integer index = columns.get(column.toLowerCase(Locale.ROOT));
+            if (index == null || index >= values.size()) {
+                return null;
+            }
+            String value = values.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        <T> T parse(String column, Function<String, T> parser) {
+            String value = value(column);
+            if (value == null) {
+                return null;
+            }
+            try {
+                return parser.apply(value);
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new IllegalArgumentException(
+                        "Invalid " + column + " '" + value + "' on line " + line);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.invoices.invoice.infrastructure.imports;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bulk invoice import and its checkpoint: every row up to lastLine has been
+ * committed, as an invoice or as a rejection.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InvoiceImport {
+
+    public enum Status {
+        /** Started, or interrupted; resumable by sending the file again */
+        RUNNING,
+        /** The whole file has been read */
+        COMPLETED
+    }
+
+    private String id;
+    private Long companyId;
+    private InvoiceImportFormat format;
+    private Status status;
+    private long lastLine;
+    private int createdCount;
+    private int rejectedCount;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    /**
+     * Progress as reported to the client.
+     */
+    public Map<String, Object> summary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("importId", id);
+        summary.put("status", status);
+        summary.put("lastLine", lastLine);
+        summary.put("created", createdCount);
+        summary.put("rejected", rejectedCount);
+        return summary;
+    }
+}
@@ -0,0 +1,43 @@
+package com.invoices.invoice.infrastructure.imports;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Import file formats, chosen by the Content-Type of the upload.
+ */
+public enum InvoiceImportFormat {
+
+    /** One item per record; see {@link CsvInvoiceImportReader} */
+    CSV("text/csv"),
+    /** One CreateInvoiceRequest per line */
+    NDJSON("application/x-ndjson");
+
+    private final MediaType mediaType;
+
+    InvoiceImportFormat(String mediaType) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public InvoiceImportReader open(InputStream in, ObjectMapper objectMapper) {
+        return this == CSV ? new CsvInvoiceImportReader(in) : new NdjsonInvoiceImportReader(in, objectMapper);
+    }
+
+    public static Optional<InvoiceImportFormat> fromContentType(String contentType) {
+        if (contentType == null) {
+            return Optional.empty();
+        }
+        MediaType type = MediaType.parseMediaType(contentType);
+        return Arrays.stream(values())
+                .filter(format -> format.mediaType.isCompatibleWith(type))
+                .findFirst();
+    }
+}
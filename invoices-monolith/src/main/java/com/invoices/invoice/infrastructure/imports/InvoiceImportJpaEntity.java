@@ -0,0 +1,54 @@
+package com.invoices.invoice.infrastructure.imports;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * JPA Entity for invoice imports (V50). Only used to start an import; progress
+ * is checkpointed through plain SQL.
+ */
+@Entity
+@Table(name = "invoice_imports", indexes = {
+        @Index(name = "idx_invoice_imports_company", columnList = "company_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InvoiceImportJpaEntity {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(name = "company_id", nullable = false)
+    private Long companyId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private InvoiceImportFormat format;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private InvoiceImport.Status status;
+
+    @Column(name = "last_line", nullable = false)
+    private long lastLine;
+
+    @Column(name = "created_count", nullable = false)
+    private int createdCount;
+
+    @Column(name = "rejected_count", nullable = false)
+    private int rejectedCount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
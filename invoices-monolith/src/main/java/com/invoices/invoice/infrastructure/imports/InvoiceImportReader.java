@@ -0,0 +1,17 @@
+package com.invoices.invoice.infrastructure.imports;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Streams the invoices of an import file, one at a time, so that files of any
+ * size are read in constant memory.
+ */
+public interface InvoiceImportReader extends Closeable {
+
+    /**
+     * @return the next invoice, or null at the end of the file
+     * @throws IOException if the file cannot be read
+     */
+    InvoiceImportRow next() throws IOException;
+}
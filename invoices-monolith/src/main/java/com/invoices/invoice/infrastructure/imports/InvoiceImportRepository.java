@@ -0,0 +1,132 @@
+package com.invoices.invoice.infrastructure.imports;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Storage of invoice imports and their row outcomes (V50).
+ *
+ * An import is started through JPA; its progress is written with plain SQL in
+ * the transaction of each chunk, so the checkpoint always matches the invoices
+ * committed.
+ */
+@Repository
+public class InvoiceImportRepository {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private static final String FIND_SQL = "SELECT id, company_id, format, status, last_line, created_count, "
+            + "rejected_count, created_at, updated_at FROM invoice_imports WHERE id = ? AND company_id = ?";
+    private static final String LOCK_SQL = "SELECT last_line FROM invoice_imports WHERE id = ? FOR UPDATE";
+    private static final String CHECKPOINT_SQL = "UPDATE invoice_imports SET last_line = ?, "
+            + "created_count = created_count + ?, rejected_count = rejected_count + ?, updated_at = ? WHERE id = ?";
+    private static final String STATUS_SQL = "UPDATE invoice_imports SET status = ?, updated_at = ? WHERE id = ?";
+    private static final String INSERT_RESULT_SQL = "INSERT INTO invoice_import_results (import_id, line, "
+            + "invoice_id, invoice_number, error) VALUES (?, ?, ?, ?, ?)";
+    private static final String RESULTS_SQL = "SELECT line, invoice_id, invoice_number, error "
+            + "FROM invoice_import_results WHERE import_id = ? ORDER BY line";
+
+    private static final RowMapper<InvoiceImport> IMPORT_MAPPER = (rs, rowNum) -> InvoiceImport.builder()
+            .id(rs.getString("id"))
+            .companyId(rs.getLong("company_id"))
+            .format(InvoiceImportFormat.valueOf(rs.getString("format")))
+            .status(InvoiceImport.Status.valueOf(rs.getString("status")))
+            .lastLine(rs.getLong("last_line"))
+            .createdCount(rs.getInt("created_count"))
+            .rejectedCount(rs.getInt("rejected_count"))
+            .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+            .updatedAt(rs.getTimestamp("updated_at").toLocalDateTime())
+            .build();
+
+    private static final RowMapper<InvoiceImportResult> RESULT_MAPPER = (rs, rowNum) -> new InvoiceImportResult(
+            rs.getLong("line"),
+            rs.getObject("invoice_id") != null ? rs.getLong("invoice_id") : null,
+            rs.getString("invoice_number"),
+            rs.getString("error"));
+
+    private final JpaInvoiceImportRepository jpaInvoiceImportRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public InvoiceImportRepository(JpaInvoiceImportRepository jpaInvoiceImportRepository, JdbcTemplate jdbcTemplate) {
+        this.jpaInvoiceImportRepository = jpaInvoiceImportRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Flushed right away: the rest of the import reads and locks the row with
+     * plain SQL.
+     */
+    public void create(InvoiceImport invoiceImport) {
+        jpaInvoiceImportRepository.saveAndFlush(InvoiceImportJpaEntity.builder()
+                .id(invoiceImport.getId())
+                .companyId(invoiceImport.getCompanyId())
+                .format(invoiceImport.getFormat())
+                .status(invoiceImport.getStatus())
+                .lastLine(invoiceImport.getLastLine())
+                .createdCount(invoiceImport.getCreatedCount())
+                .rejectedCount(invoiceImport.getRejectedCount())
+                .createdAt(invoiceImport.getCreatedAt())
+                .updatedAt(invoiceImport.getUpdatedAt())
+                .build());
+    }
+
+    public Optional<InvoiceImport> findByIdAndCompanyId(String id, Long companyId) {
+        return jdbcTemplate.query(FIND_SQL, IMPORT_MAPPER, id, companyId).stream().findFirst();
+    }
+
+    /**
+     * Locks the import until the end of the caller's transaction, so concurrent
+     * uploads of the same import commit their chunks one after another.
+     *
+     * @return the last line committed so far
+     */
+    public long lockLastLine(String id) {
+        return jdbcTemplate.queryForObject(LOCK_SQL, Long.class, id);
+    }
+
+    /**
+     * Records the outcome of a chunk and moves the checkpoint to its last line.
+     * Must be called in the transaction that created its invoices.
+     */
+    public void checkpoint(String id, List<InvoiceImportResult> results) {
+        if (results.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_RESULT_SQL, results, results.size(), (ps, result) -> {
+            ps.setString(1, id);
+            ps.setLong(2, result.line());
+            ps.setObject(3, result.invoiceId(), Types.BIGINT);
+            ps.setString(4, result.invoiceNumber());
+            ps.setString(5, truncate(result.error()));
+        });
+
+        long created = results.stream().filter(InvoiceImportResult::isCreated).count();
+        jdbcTemplate.update(CHECKPOINT_SQL, results.get(results.size() - 1).line(), created,
+                results.size() - created, Timestamp.valueOf(LocalDateTime.now()), id);
+    }
+
+    public void updateStatus(String id, InvoiceImport.Status status) {
+        jdbcTemplate.update(STATUS_SQL, status.name(), Timestamp.valueOf(LocalDateTime.now()), id);
+    }
+
+    /**
+     * Streams the row outcomes of an import, in line order.
+     */
+    public void forEachResult(String id, Consumer<InvoiceImportResult> consumer) {
+        jdbcTemplate.query(RESULTS_SQL, rs -> {
+            consumer.accept(RESULT_MAPPER.mapRow(rs, 0));
+        }, id);
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
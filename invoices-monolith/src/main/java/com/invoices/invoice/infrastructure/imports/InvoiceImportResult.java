@@ -0,0 +1,27 @@
+package com.invoices.invoice.infrastructure.imports;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one imported invoice: the invoice created from it, or the reason
+ * it was rejected.
+ *
+ * @param line line of the file where the invoice starts
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record InvoiceImportResult(long line, Long invoiceId, String invoiceNumber, String error) {
+
+    public static InvoiceImportResult created(long line, Long invoiceId, String invoiceNumber) {
+        return new InvoiceImportResult(line, invoiceId, invoiceNumber, null);
+    }
+
+    public static InvoiceImportResult rejected(long line, String error) {
+        return new InvoiceImportResult(line, null, null, error);
+    }
+
+    @JsonIgnore
+    public boolean isCreated() {
+        return error == null;
+    }
+}
@@ -0,0 +1,41 @@
+package com.invoices.invoice.infrastructure.imports;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * JPA Entity for the row outcomes of an invoice import (V50). Rows are written
+ * and read through plain SQL by {@link InvoiceImportRepository}.
+ */
+@Entity
+@Table(name = "invoice_import_results", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_invoice_import_results_line", columnNames = { "import_id", "line" })
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InvoiceImportResultJpaEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "import_id", nullable = false, length = 36)
+    private String importId;
+
+    @Column(nullable = false)
+    private long line;
+
+    @Column(name = "invoice_id")
+    private Long invoiceId;
+
+    @Column(name = "invoice_number", length = 50)
+    private String invoiceNumber;
+
+    @Column(length = 1000)
+    private String error;
+}
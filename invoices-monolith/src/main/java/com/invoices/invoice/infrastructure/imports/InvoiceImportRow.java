@@ -0,0 +1,21 @@
+package com.invoices.invoice.infrastructure.imports;
+
+import com.invoices.invoice.dto.CreateInvoiceRequest;
+
+/**
+ * One invoice read from an import file, or the reason it could not be read.
+ *
+ * @param line    line of the file where the invoice starts
+ * @param request the invoice, as it would be sent to POST /api/invoices
+ * @param error   why the invoice could not be read, or null
+ */
+public record InvoiceImportRow(long line, CreateInvoiceRequest request, String error) {
+
+    public static InvoiceImportRow of(long line, CreateInvoiceRequest request) {
+        return new InvoiceImportRow(line, request, null);
+    }
+
+    public static InvoiceImportRow unreadable(long line, String error) {
+        return new InvoiceImportRow(line, null, error);
+    }
+}
@@ -0,0 +1,316 @@
+package com.invoices.invoice.infrastructure.imports;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invoices.invoice.domain.entities.Client;
+import com.invoices.invoice.domain.entities.Invoice;
+import com.invoices.invoice.domain.entities.InvoiceItem;
+import com.invoices.invoice.domain.ports.ClientRepository;
+import com.invoices.invoice.domain.ports.InvoiceEventPublisher;
+import com.invoices.invoice.domain.services.InvoiceBatchService;
+import com.invoices.invoice.dto.CreateInvoiceItemRequest;
+import com.invoices.invoice.dto.CreateInvoiceRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk invoice import (POST /api/invoices/imports).
+ *
+ * The file is streamed and cut into chunks of invoice-import.chunk-size
+ * invoices. The invoices of a chunk are validated in parallel on a dedicated
+ * pool, with the rules of POST /api/invoices, and the valid ones are created
+ * in one transaction: the numbers are reserved as a block with a single lock,
+ * the hash chain is extended in memory, and invoices, items and creation events
+ * are inserted in JDBC batches. The same transaction records the outcome of
+ * every row of the chunk and moves the import checkpoint, so an interrupted
+ * import is resumed by sending the same file again with its id; rows up to the
+ * checkpoint are skipped.
+ *
+ * Invoices are dated and numbered as when they are created one by one.
+ */
+@Service
+@Slf4j
+public class InvoiceImportService {
+
+    private final InvoiceImportRepository importRepository;
+    private final ClientRepository clientRepository;
+    private final InvoiceBatchService invoiceBatchService;
+    private final InvoiceEventPublisher eventPublisher;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService validationExecutor;
+    private final int chunkSize;
+    private final Counter createdCounter;
+    private final Counter rejectedCounter;
+
+    public InvoiceImportService(
+            InvoiceImportRepository importRepository,
+            ClientRepository clientRepository,
+            InvoiceBatchService invoiceBatchService,
+            InvoiceEventPublisher eventPublisher,
+            Validator validator,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${invoice-import.chunk-size:500}") int chunkSize,
+            @Value("${invoice-import.validation-threads:0}") int validationThreads) {
+        this.importRepository = importRepository;
+        this.clientRepository = clientRepository;
+        this.invoiceBatchService = invoiceBatchService;
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+
+        int threads = validationThreads > 0 ? validationThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.validationExecutor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "invoice-import-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.createdCounter = Counter.builder("invoice.import.rows")
+                .tag("outcome", "created")
+                .description("Imported invoices created")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("invoice.import.rows")
+                .tag("outcome", "rejected")
+                .description("Imported invoices rejected")
+                .register(meterRegistry);
+    }
+
+    public InvoiceImport start(Long companyId, InvoiceImportFormat format) {
+        LocalDateTime now = LocalDateTime.now();
+        InvoiceImport invoiceImport = InvoiceImport.builder()
+                .id(UUID.randomUUID().toString())
+                .companyId(companyId)
+                .format(format)
+                .status(InvoiceImport.Status.RUNNING)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        importRepository.create(invoiceImport);
+        log.info("Invoice import {} started for company {} ({})", invoiceImport.getId(), companyId, format);
+        return invoiceImport;
+    }
+
+    public Optional<InvoiceImport> find(Long companyId, String importId) {
+        return importRepository.findByIdAndCompanyId(importId, companyId);
+    }
+
+    public void forEachResult(InvoiceImport invoiceImport, Consumer<InvoiceImportResult> consumer) {
+        importRepository.forEachResult(invoiceImport.getId(), consumer);
+    }
+
+    /**
+     * Imports the file from where the import stopped, handing the outcome of
+     * each chunk to the consumer once committed.
+     *
+     * @return the import with its final progress
+     */
+    public InvoiceImport run(InvoiceImport invoiceImport, InputStream in, Consumer<InvoiceImportResult> consumer)
+            throws IOException {
+        Long companyId = invoiceImport.getCompanyId();
+        Map<Long, String> clientEmails = new HashMap<>();
+        for (Client client : clientRepository.findByCompanyId(companyId)) {
+            clientEmails.put(client.getId(), client.getEmail());
+        }
+
+        try (InvoiceImportReader reader = invoiceImport.getFormat().open(in, objectMapper)) {
+            List<InvoiceImportRow> chunk = new ArrayList<>(chunkSize);
+            InvoiceImportRow row;
+            while ((row = reader.next()) != null) {
+                if (row.line() <= invoiceImport.getLastLine()) {
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    importChunk(invoiceImport, chunk, clientEmails, consumer);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(invoiceImport, chunk, clientEmails, consumer);
+            }
+        }
+
+        importRepository.updateStatus(invoiceImport.getId(), InvoiceImport.Status.COMPLETED);
+        // Reloaded, as another upload of the same import may have committed chunks too
+        InvoiceImport completed = find(companyId, invoiceImport.getId()).orElse(invoiceImport);
+        log.info("Invoice import {} completed: {} created, {} rejected", completed.getId(),
+                completed.getCreatedCount(), completed.getRejectedCount());
+        return completed;
+    }
+
+    private void importChunk(InvoiceImport invoiceImport, List<InvoiceImportRow> rows,
+            Map<Long, String> clientEmails, Consumer<InvoiceImportResult> consumer) {
+        List<PreparedRow> prepared = prepareAll(rows, invoiceImport.getCompanyId(), clientEmails);
+        List<InvoiceImportResult> results = transactionTemplate.execute(
+                status -> persist(invoiceImport, prepared, clientEmails));
+
+        for (InvoiceImportResult result : results) {
+            if (result.isCreated()) {
+                invoiceImport.setCreatedCount(invoiceImport.getCreatedCount() + 1);
+                createdCounter.increment();
+            } else {
+                invoiceImport.setRejectedCount(invoiceImport.getRejectedCount() + 1);
+                rejectedCounter.increment();
+            }
+            invoiceImport.setLastLine(result.line());
+            consumer.accept(result);
+        }
+    }
+
+    /**
+     * Validates the rows and builds their invoices in parallel.
+     */
+    private List<PreparedRow> prepareAll(List<InvoiceImportRow> rows, Long companyId,
+            Map<Long, String> clientEmails) {
+        List<CompletableFuture<PreparedRow>> futures = rows.stream()
+                .map(row -> CompletableFuture.supplyAsync(() -> prepare(row, companyId, clientEmails),
+                        validationExecutor))
+                .toList();
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    private PreparedRow prepare(InvoiceImportRow row, Long companyId, Map<Long, String> clientEmails) {
+        if (row.error() != null) {
+            return PreparedRow.rejected(row.line(), row.error());
+        }
+
+        CreateInvoiceRequest request = row.request();
+        request.setCompanyId(companyId);
+        String violations = validator.validate(request).stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+        if (!violations.isEmpty()) {
+            return PreparedRow.rejected(row.line(), violations);
+        }
+        if (!clientEmails.containsKey(request.getClientId())) {
+            return PreparedRow.rejected(row.line(), "Client not found with id: " + request.getClientId());
+        }
+
+        try {
+            Invoice invoice = new Invoice(
+                    null,
+                    companyId,
+                    request.getClientId(),
+                    InvoiceBatchService.UNNUMBERED,
+                    LocalDateTime.now(),
+                    request.getIrpfPercentage() != null ? request.getIrpfPercentage() : BigDecimal.ZERO,
+                    request.getRePercentage() != null ? request.getRePercentage() : BigDecimal.ZERO);
+            request.getItems().stream().map(this::toDomainItem).forEach(invoice::addItem);
+            if (request.getSettlementNumber() != null && !request.getSettlementNumber().trim().isEmpty()) {
+                invoice.setSettlementNumber(request.getSettlementNumber());
+            }
+            if (request.getNotes() != null && !request.getNotes().trim().isEmpty()) {
+                invoice.setNotes(request.getNotes());
+            }
+            return new PreparedRow(row.line(), invoice, null);
+        } catch (RuntimeException e) {
+            return PreparedRow.rejected(row.line(), e.getMessage());
+        }
+    }
+
+    /**
+     * Creates the valid invoices of a chunk and records the outcome of all its
+     * rows, unless another upload of the same import committed them first.
+     */
+    private List<InvoiceImportResult> persist(InvoiceImport invoiceImport, List<PreparedRow> prepared,
+            Map<Long, String> clientEmails) {
+        long lastLine = importRepository.lockLastLine(invoiceImport.getId());
+        List<PreparedRow> pending = prepared.stream().filter(row -> row.line() > lastLine).toList();
+        List<Invoice> invoices = pending.stream()
+                .map(PreparedRow::invoice)
+                .filter(invoice -> invoice != null)
+                .toList();
+
+        List<Invoice> saved = invoiceBatchService.createAll(invoiceImport.getCompanyId(), invoices);
+        eventPublisher.publishInvoicesCreated(saved, clientEmails);
+
+        List<InvoiceImportResult> results = new ArrayList<>(pending.size());
+        int next = 0;
+        for (PreparedRow row : pending) {
+            if (row.invoice() != null) {
+                Invoice invoice = saved.get(next++);
+                results.add(InvoiceImportResult.created(row.line(), invoice.getId(), invoice.getInvoiceNumber()));
+            } else {
+                results.add(InvoiceImportResult.rejected(row.line(), row.error()));
+            }
+        }
+        importRepository.checkpoint(invoiceImport.getId(), results);
+        return results;
+    }
+
+    private InvoiceItem toDomainItem(CreateInvoiceItemRequest itemRequest) {
+        InvoiceItem item = new InvoiceItem(
+                null,
+                null,
+                itemRequest.getDescription(),
+                itemRequest.getUnits(),
+                itemRequest.getPrice(),
+                itemRequest.getVatPercentage(),
+                itemRequest.getDiscountPercentage() != null
+                        ? itemRequest.getDiscountPercentage()
+                        : BigDecimal.ZERO);
+
+        if (itemRequest.getItemDate() != null) {
+            item.setItemDate(itemRequest.getItemDate());
+        }
+        if (itemRequest.getVehiclePlate() != null) {
+            item.setVehiclePlate(itemRequest.getVehiclePlate());
+        }
+        if (itemRequest.getOrderNumber() != null) {
+            item.setOrderNumber(itemRequest.getOrderNumber());
+        }
+        if (itemRequest.getZone() != null) {
+            item.setZone(itemRequest.getZone());
+        }
+        if (itemRequest.getGasPercentage() != null) {
+            item.setGasPercentage(itemRequest.getGasPercentage());
+        }
+        return item;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        validationExecutor.shutdown();
+    }
+
+    /**
+     * A row ready to be written: the invoice to create, or why it is rejected.
+     */
+    private record PreparedRow(long line, Invoice invoice, String error) {
+
+        static PreparedRow rejected(long line, String error) {
+            return new PreparedRow(line, null, error);
+        }
+    }
+}
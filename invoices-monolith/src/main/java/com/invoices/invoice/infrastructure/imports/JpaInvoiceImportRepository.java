@@ -0,0 +1,9 @@
+package com.invoices.invoice.infrastructure.imports;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Spring Data JPA repository for InvoiceImportJpaEntity.
+ */
+public interface JpaInvoiceImportRepository extends JpaRepository<InvoiceImportJpaEntity, String> {
+}
@@ -0,0 +1,50 @@
+package com.invoices.invoice.infrastructure.imports;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invoices.invoice.dto.CreateInvoiceRequest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads one invoice per line, each in the JSON form accepted by
+ * POST /api/invoices (companyId is not needed). Blank lines are skipped.
+ */
+class NdjsonInvoiceImportReader implements InvoiceImportReader {
+
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private long lineNumber;
+
+    NdjsonInvoiceImportReader(InputStream in, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public InvoiceImportRow next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            lineNumber++;
+        } while (line != null && line.isBlank());
+        if (line == null) {
+            return null;
+        }
+
+        try {
+            return InvoiceImportRow.of(lineNumber, objectMapper.readValue(line, CreateInvoiceRequest.class));
+        } catch (JsonProcessingException e) {
+            return InvoiceImportRow.unreadable(lineNumber, "Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -1,31 +1,49 @@
 package com.invoices.invoice.infrastructure.messaging;
 
+import com.invoices.invoice.domain.entities.Invoice;
+import com.invoices.invoice.domain.ports.InvoiceRepository;
+import com.invoices.invoice.infrastructure.status.InvoiceStatusBroadcaster;
+import com.invoices.invoice.infrastructure.status.InvoiceStatusEvent;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-
 /**
- * No-op implementation of invoice status notification service.
- * Replaces WebSocket-based notifications with simple logging.
- * 
- * The frontend uses polling instead of WebSockets for MVP simplicity.
- * Status updates are visible when frontend polls the invoice API.
+ * Pushes invoice status transitions to the browsers of the invoice's company
+ * through the status stream (GET /api/invoices/status-stream).
+ *
+ * Notifications are best effort: a failure is logged and never fails the
+ * VeriFactu processing that reported it.
  */
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class InvoiceStatusNotificationService {
 
+    private final InvoiceRepository invoiceRepository;
+    private final InvoiceStatusBroadcaster broadcaster;
+
     public void notifyStatus(Long invoiceId, String status) {
-        log.info("[Status Update] Invoice {} -> {} (timestamp: {})",
-                invoiceId, status, LocalDateTime.now());
+        notifyStatusWithTx(invoiceId, status, null, null);
     }
 
     public void notifyStatusWithTx(Long invoiceId, String status, String txId, String message) {
-        log.info("[Status Update] Invoice {} -> {} (txId: {}, message: {}, timestamp: {})",
+        log.info("[Status Update] Invoice {} -> {} (txId: {}, message: {})",
                 invoiceId, status,
                 txId != null ? txId : "N/A",
-                message != null ? message : "N/A",
-                LocalDateTime.now());
+                message != null ? message : "N/A");
+
+        try {
+            Long companyId = invoiceRepository.findById(invoiceId)
+                    .map(Invoice::getCompanyId)
+                    .orElse(null);
+            if (companyId == null) {
+                log.warn("[Status Update] Invoice {} has no company, status not pushed", invoiceId);
+                return;
+            }
+            broadcaster.broadcast(InvoiceStatusEvent.of(companyId, invoiceId, status, txId, message));
+        } catch (RuntimeException e) {
+            log.error("[Status Update] Could not push status of invoice {}: {}", invoiceId, e.getMessage());
+        }
     }
 }
@@ -0,0 +1,85 @@
+package com.invoices.invoice.infrastructure.messaging;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invoices.invoice.domain.ports.VerifactuVerificationPublisher;
+import com.invoices.invoice.infrastructure.events.OutboxInvoiceEventPublisher;
+import com.invoices.outbox.domain.entities.OutboxEvent;
+import com.invoices.outbox.domain.ports.OutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Requests VeriFactu verification through the transactional outbox: the request
+ * is stored with the caller's changes and {@link VerifactuOutboxHandler} puts it
+ * on the Redis stream afterwards. Uses the invoice as aggregate, so the request
+ * is handed off after the invoice events appended before it.
+ */
+@Component
+@Primary
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxVerifactuVerificationPublisher implements VerifactuVerificationPublisher {
+
+    public static final String EVENT_TYPE = "VERIFACTU_VERIFICATION_REQUESTED";
+
+    /**
+     * Body of a verification request in the outbox.
+     */
+    public record VerificationRequest(Long invoiceId, String eventType) {
+    }
+
+    private final OutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void enqueueForVerification(Long invoiceId) {
+        enqueueForVerification(invoiceId, "INVOICE_CREATED");
+    }
+
+    @Override
+    public void enqueueForVerification(Long invoiceId, String eventType) {
+        log.info("Storing VeriFactu verification request for invoice {} (event: {})", invoiceId, eventType);
+
+        try {
+            outboxRepository.append(request(invoiceId, eventType));
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.error("Error storing verification request for invoice {}", invoiceId, e);
+            throw new VerificationEnqueueException("Failed to enqueue invoice for verification", e);
+        }
+    }
+
+    /**
+     * Stores all the requests with one batch insert.
+     */
+    @Override
+    public void enqueueAllForVerification(List<Long> invoiceIds, String eventType) {
+        log.info("Storing VeriFactu verification requests for {} invoices (event: {})", invoiceIds.size(),
+                eventType);
+
+        try {
+            List<OutboxEvent> events = new ArrayList<>(invoiceIds.size());
+            for (Long invoiceId : invoiceIds) {
+                events.add(request(invoiceId, eventType));
+            }
+            outboxRepository.appendAll(events);
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.error("Error storing verification requests for {} invoices", invoiceIds.size(), e);
+            throw new VerificationEnqueueException("Failed to enqueue invoices for verification", e);
+        }
+    }
+
+    private OutboxEvent request(Long invoiceId, String eventType) throws JsonProcessingException {
+        return OutboxEvent.builder()
+                .aggregateType(OutboxInvoiceEventPublisher.AGGREGATE_TYPE)
+                .aggregateId(String.valueOf(invoiceId))
+                .eventType(EVENT_TYPE)
+                .payload(objectMapper.writeValueAsString(new VerificationRequest(invoiceId, eventType)))
+                .build();
+    }
+}
@@ -0,0 +1,114 @@
+package com.invoices.invoice.infrastructure.messaging;
+
+import com.invoices.invoice.domain.ports.VerifactuVerificationPublisher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * VeriFactu verification queue kept in the {@code verifactu_jobs} table (V48),
+ * for deployments without Redis ({@code verifactu.transport=postgres}).
+ *
+ * Jobs are inserted in the caller's transaction and a NOTIFY on
+ * {@value #CHANNEL} is sent with them, which PostgreSQL delivers on commit, so
+ * {@link PostgresVerifactuWorker} picks them up without waiting for its next
+ * poll.
+ */
+@Component
+@ConditionalOnProperty(prefix = "verifactu", name = "transport", havingValue = "postgres")
+@Slf4j
+public class PostgresVerifactuQueue implements VerifactuVerificationPublisher, VerifactuTransport {
+
+    public static final String CHANNEL = "verifactu_jobs";
+
+    private static final String INSERT_SQL = "INSERT INTO verifactu_jobs (invoice_id, event_type, outbox_id, "
+            + "run_at, attempts, created_at) VALUES (?, ?, ?, ?, 0, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean notifySupported;
+
+    public PostgresVerifactuQueue(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void enqueueForVerification(Long invoiceId) {
+        enqueueForVerification(invoiceId, "INVOICE_CREATED");
+    }
+
+    @Override
+    public void enqueueForVerification(Long invoiceId, String eventType) {
+        enqueueForVerification(invoiceId, eventType, null);
+    }
+
+    @Override
+    public void enqueueForVerification(Long invoiceId, String eventType, Long outboxId) {
+        schedule(invoiceId, eventType, outboxId, Duration.ZERO);
+    }
+
+    /**
+     * Enqueue an invoice to be verified after a delay.
+     *
+     * @param outboxId ID of the outbox event, or null if not from the outbox
+     * @param delay    time before the job becomes runnable
+     * @throws VerificationEnqueueException if enqueue fails
+     */
+    public void schedule(Long invoiceId, String eventType, Long outboxId, Duration delay) {
+        log.info("Enqueueing invoice {} for VeriFactu verification (event: {}, delay: {})", invoiceId, eventType,
+                delay);
+
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            jdbcTemplate.update(INSERT_SQL, invoiceId, eventType, new SqlParameterValue(Types.BIGINT, outboxId),
+                    Timestamp.valueOf(now.plus(delay)), Timestamp.valueOf(now));
+            if (delay.isZero() && isNotifySupported()) {
+                jdbcTemplate.execute("NOTIFY " + CHANNEL);
+            }
+        } catch (Exception e) {
+            log.error("Error enqueueing invoice {} for verification", invoiceId, e);
+            throw new VerificationEnqueueException("Failed to enqueue invoice for verification", e);
+        }
+    }
+
+    /**
+     * Inserts all the jobs with one batch and a single NOTIFY.
+     */
+    @Override
+    public void enqueueAllForVerification(List<Long> invoiceIds, String eventType) {
+        log.info("Enqueueing {} invoices for VeriFactu verification (event: {})", invoiceIds.size(), eventType);
+
+        try {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            jdbcTemplate.batchUpdate(INSERT_SQL, invoiceIds, invoiceIds.size(), (ps, invoiceId) -> {
+                ps.setLong(1, invoiceId);
+                ps.setString(2, eventType);
+                ps.setNull(3, Types.BIGINT);
+                ps.setTimestamp(4, now);
+                ps.setTimestamp(5, now);
+            });
+            if (!invoiceIds.isEmpty() && isNotifySupported()) {
+                jdbcTemplate.execute("NOTIFY " + CHANNEL);
+            }
+        } catch (Exception e) {
+            log.error("Error enqueueing {} invoices for verification", invoiceIds.size(), e);
+            throw new VerificationEnqueueException("Failed to enqueue invoices for verification", e);
+        }
+    }
+
+    private boolean isNotifySupported() {
+        if (notifySupported == null) {
+            notifySupported = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> "PostgreSQL"
+                    .equals(connection.getMetaData().getDatabaseProductName()));
+        }
+        return notifySupported;
+    }
+}
@@ -0,0 +1,278 @@
+package com.invoices.invoice.infrastructure.messaging;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consumes the {@code verifactu_jobs} queue (see {@link PostgresVerifactuQueue}).
+ *
+ * {@code verifactu.postgres-queue.workers} threads claim up to
+ * {@code batch-size} runnable jobs at a time with FOR UPDATE SKIP LOCKED, so
+ * workers of any number of instances never wait for each other. Claiming
+ * counts an attempt and moves run_at forward by {@code visibility-timeout-seconds}
+ * in a short transaction; the job is then processed outside it and deleted on
+ * success. If the worker dies meanwhile, the job becomes runnable again when the
+ * timeout expires, so the timeout must be longer than a VeriFactu submission.
+ *
+ * A failed job is rescheduled after {@code retry-backoff-seconds}, doubled on
+ * every attempt; after {@code max-attempts} it is marked failed (failed_at) and
+ * {@link VerifactuJobHandler#giveUp} is called.
+ *
+ * Idle workers sleep for {@code poll-interval-millis} and are woken early by a
+ * LISTEN on {@value PostgresVerifactuQueue#CHANNEL}, held on a dedicated
+ * connection outside the pool. Polling alone still picks up delayed jobs and
+ * expired leases, and is all there is on databases without LISTEN.
+ */
+@Component
+@ConditionalOnProperty(prefix = "verifactu", name = "transport", havingValue = "postgres")
+@Slf4j
+public class PostgresVerifactuWorker {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private static final String CLAIM_SQL = "SELECT id, invoice_id, event_type, attempts FROM verifactu_jobs "
+            + "WHERE run_at <= ? AND failed_at IS NULL ORDER BY run_at, id LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final String LEASE_SQL = "UPDATE verifactu_jobs SET attempts = attempts + 1, run_at = ? "
+            + "WHERE id = ?";
+    private static final String DELETE_SQL = "DELETE FROM verifactu_jobs WHERE id = ?";
+    private static final String RETRY_SQL = "UPDATE verifactu_jobs SET run_at = ?, last_error = ? WHERE id = ?";
+    private static final String FAIL_SQL = "UPDATE verifactu_jobs SET failed_at = ?, last_error = ? WHERE id = ?";
+
+    private static final RowMapper<Job> JOB_MAPPER = (rs, rowNum) -> new Job(rs.getLong("id"),
+            rs.getLong("invoice_id"), rs.getString("event_type"), rs.getInt("attempts") + 1);
+
+    /**
+     * A claimed job; attempts includes the current one.
+     */
+    record Job(long id, Long invoiceId, String eventType, int attempts) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final VerifactuJobHandler jobHandler;
+    private final int workers;
+    private final int batchSize;
+    private final long pollIntervalMillis;
+    private final long visibilityTimeoutSeconds;
+    private final int maxAttempts;
+    private final long retryBackoffSeconds;
+    private final String listenUrl;
+    private final String listenUsername;
+    private final String listenPassword;
+
+    private final Object wakeUp = new Object();
+    private long wakeUps;
+    private volatile boolean running;
+    private final List<Thread> threads = new ArrayList<>();
+
+    public PostgresVerifactuWorker(DataSource dataSource, VerifactuJobHandler jobHandler,
+            @Value("${verifactu.postgres-queue.workers:2}") int workers,
+            @Value("${verifactu.postgres-queue.batch-size:10}") int batchSize,
+            @Value("${verifactu.postgres-queue.poll-interval-millis:5000}") long pollIntervalMillis,
+            @Value("${verifactu.postgres-queue.visibility-timeout-seconds:300}") long visibilityTimeoutSeconds,
+            @Value("${verifactu.postgres-queue.max-attempts:4}") int maxAttempts,
+            @Value("${verifactu.postgres-queue.retry-backoff-seconds:5}") long retryBackoffSeconds,
+            @Value("${spring.datasource.url:}") String listenUrl,
+            @Value("${spring.datasource.username:}") String listenUsername,
+            @Value("${spring.datasource.password:}") String listenPassword) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.jobHandler = jobHandler;
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.visibilityTimeoutSeconds = visibilityTimeoutSeconds;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffSeconds = retryBackoffSeconds;
+        this.listenUrl = listenUrl;
+        this.listenUsername = listenUsername;
+        this.listenPassword = listenPassword;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        running = true;
+        for (int i = 1; i <= workers; i++) {
+            threads.add(startThread("verifactu-worker-" + i, this::workLoop));
+        }
+        if (listenUrl != null && listenUrl.startsWith("jdbc:postgresql:")) {
+            threads.add(startThread("verifactu-listener", this::listenLoop));
+        }
+        log.info("[VeriFactu Queue] Started {} workers (batch {}, poll {}ms, visibility timeout {}s)", workers,
+                batchSize, pollIntervalMillis, visibilityTimeoutSeconds);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        // Not interrupted, so a submission in progress completes; idle threads are
+        // woken, and the listener notices within one poll interval
+        running = false;
+        signal();
+        for (Thread thread : threads) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        threads.clear();
+    }
+
+    /**
+     * Claims and processes one batch of runnable jobs.
+     *
+     * @return the number of jobs claimed
+     */
+    public int pollOnce() {
+        List<Job> jobs = claim();
+        for (Job job : jobs) {
+            process(job);
+        }
+        return jobs.size();
+    }
+
+    private List<Job> claim() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Job> jobs = jdbcTemplate.query(CLAIM_SQL, JOB_MAPPER, Timestamp.valueOf(now), batchSize);
+            if (!jobs.isEmpty()) {
+                Timestamp leaseEnd = Timestamp.valueOf(now.plusSeconds(visibilityTimeoutSeconds));
+                jdbcTemplate.batchUpdate(LEASE_SQL, jobs, jobs.size(), (ps, job) -> {
+                    ps.setTimestamp(1, leaseEnd);
+                    ps.setLong(2, job.id());
+                });
+            }
+            return jobs;
+        });
+    }
+
+    private void process(Job job) {
+        if (job.attempts() > maxAttempts) {
+            // Its lease expired on every attempt: the worker died or hung each time
+            fail(job, "Lease expired on the last attempt");
+            return;
+        }
+        try {
+            jobHandler.process(job.invoiceId(), job.eventType());
+            jdbcTemplate.update(DELETE_SQL, job.id());
+            log.info("[VeriFactu Queue] Successfully processed invoice {}", job.invoiceId());
+        } catch (Exception e) {
+            log.error("[VeriFactu Queue] Error processing invoice {} (attempt {} of {}): {}", job.invoiceId(),
+                    job.attempts(), maxAttempts, e.getMessage());
+            if (job.attempts() >= maxAttempts) {
+                fail(job, e.toString());
+            } else {
+                long backoff = retryBackoffSeconds << Math.min(job.attempts() - 1, 20);
+                jdbcTemplate.update(RETRY_SQL, Timestamp.valueOf(LocalDateTime.now().plusSeconds(backoff)),
+                        truncate(e.toString()), job.id());
+            }
+        }
+    }
+
+    private void fail(Job job, String error) {
+        log.error("[VeriFactu Queue] Giving up on invoice {} after {} attempts", job.invoiceId(), job.attempts());
+        jdbcTemplate.update(FAIL_SQL, Timestamp.valueOf(LocalDateTime.now()), truncate(error), job.id());
+        jobHandler.giveUp(job.invoiceId());
+    }
+
+    private void workLoop() {
+        while (running) {
+            long seen;
+            synchronized (wakeUp) {
+                seen = wakeUps;
+            }
+            int claimed = 0;
+            try {
+                claimed = pollOnce();
+            } catch (RuntimeException e) {
+                log.error("[VeriFactu Queue] Error claiming jobs", e);
+            }
+            if (claimed < batchSize) {
+                awaitWakeUp(seen);
+            }
+        }
+    }
+
+    private void awaitWakeUp(long seen) {
+        synchronized (wakeUp) {
+            if (running && wakeUps == seen) {
+                try {
+                    wakeUp.wait(pollIntervalMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private void signal() {
+        synchronized (wakeUp) {
+            wakeUps++;
+            wakeUp.notifyAll();
+        }
+    }
+
+    private void listenLoop() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(listenUrl, listenUsername, listenPassword)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + PostgresVerifactuQueue.CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollIntervalMillis);
+                    if (notifications != null && notifications.length > 0) {
+                        signal();
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("[VeriFactu Queue] LISTEN connection failed, workers fall back to polling: {}",
+                            e.getMessage());
+                    sleepQuietly(pollIntervalMillis);
+                }
+            }
+        }
+    }
+
+    private Thread startThread(String name, Runnable loop) {
+        Thread thread = new Thread(loop, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
@@ -4,18 +4,27 @@ import com.invoices.invoice.domain.ports.VerifactuVerificationPublisher;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Component
+@ConditionalOnProperty(prefix = "verifactu", name = "transport", havingValue = "redis", matchIfMissing = true)
 @RequiredArgsConstructor
 @Slf4j
-public class RedisVerifactuProducer implements VerifactuVerificationPublisher {
+public class RedisVerifactuProducer implements VerifactuVerificationPublisher, VerifactuTransport {
 
     private final RedisTemplate<String, Object> redisTemplate;
-    private static final String QUEUE_NAME = "verifactu-queue";
+
+    @Value("${verifactu.stream.key:verifactu-queue}")
+    private String streamKey;
 
     @Override
     public void enqueueForVerification(Long invoiceId) {
@@ -24,16 +33,20 @@ public class RedisVerifactuProducer implements VerifactuVerificationPublisher {
 
     @Override
     public void enqueueForVerification(Long invoiceId, String eventType) {
+        enqueueForVerification(invoiceId, eventType, null);
+    }
+
+    /**
+     * The outbox event ID goes with the message, so a repeated hand-off can be
+     * recognised by the consumer.
+     */
+    @Override
+    public void enqueueForVerification(Long invoiceId, String eventType, Long outboxId) {
         log.info("Enqueueing invoice {} for VeriFactu verification (event: {})", invoiceId, eventType);
 
         try {
-            Map<String, String> message = Map.of(
-                    "invoiceId", invoiceId.toString(),
-                    "action", "VERIFY",
-                    "eventType", eventType);
-
             // Using Redis Stream for reliable messaging
-            redisTemplate.opsForStream().add(QUEUE_NAME, message);
+            redisTemplate.opsForStream().add(streamKey, message(invoiceId, eventType, outboxId));
 
             log.info("Invoice {} enqueued successfully", invoiceId);
         } catch (Exception e) {
@@ -41,4 +54,41 @@ public class RedisVerifactuProducer implements VerifactuVerificationPublisher {
             throw new VerificationEnqueueException("Failed to enqueue invoice for verification", e);
         }
     }
+
+    /**
+     * Adds all the messages in one pipeline, so the round trips are not paid
+     * per invoice.
+     */
+    @Override
+    public void enqueueAllForVerification(List<Long> invoiceIds, String eventType) {
+        log.info("Enqueueing {} invoices for VeriFactu verification (event: {})", invoiceIds.size(), eventType);
+
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, Object> stream = (RedisOperations<String, Object>) operations;
+                    for (Long invoiceId : invoiceIds) {
+                        stream.opsForStream().add(streamKey, message(invoiceId, eventType, null));
+                    }
+                    return null;
+                }
+            });
+        } catch (Exception e) {
+            log.error("Error enqueueing {} invoices for verification", invoiceIds.size(), e);
+            throw new VerificationEnqueueException("Failed to enqueue invoices for verification", e);
+        }
+    }
+
+    private static Map<String, String> message(Long invoiceId, String eventType, Long outboxId) {
+        Map<String, String> message = new HashMap<>();
+        message.put("invoiceId", invoiceId.toString());
+        message.put("action", "VERIFY");
+        message.put("eventType", eventType);
+        if (outboxId != null) {
+            message.put("outboxId", outboxId.toString());
+        }
+        return message;
+    }
 }
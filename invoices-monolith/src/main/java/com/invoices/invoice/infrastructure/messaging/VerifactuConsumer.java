@@ -1,8 +1,8 @@
 package com.invoices.invoice.infrastructure.messaging;
 
-import com.invoices.verifactu.domain.ports.VerifactuPort;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.data.redis.connection.stream.MapRecord;
 import org.springframework.data.redis.connection.stream.ReadOffset;
 import org.springframework.data.redis.connection.stream.StreamOffset;
@@ -12,6 +12,7 @@ import org.springframework.stereotype.Component;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -33,14 +34,17 @@ import java.util.concurrent.atomic.AtomicInteger;
  */
 @Slf4j
 @Component
+@ConditionalOnProperty(prefix = "verifactu", name = "transport", havingValue = "redis", matchIfMissing = true)
 public class VerifactuConsumer {
 
     private static final int MAX_RETRIES = 4;
     private static final long[] RETRY_DELAYS_MS = { 0, 5000, 30000, 120000 }; // 0s, 5s, 30s, 2min
+    // Outbox event IDs already consumed; the relay may hand a request off twice
+    private static final String OUTBOX_SEEN_PREFIX = "verifactu:outbox:";
+    private static final Duration OUTBOX_SEEN_TTL = Duration.ofDays(1);
 
     private final RedisTemplate<String, Object> redisTemplate;
-    private final VerifactuPort verifactuService;
-    private final InvoiceStatusNotificationService notificationService;
+    private final VerifactuJobHandler jobHandler;
     private volatile ScheduledExecutorService retryExecutor;
 
     @Value("${verifactu.stream.key:verifactu-queue}")
@@ -59,11 +63,9 @@ public class VerifactuConsumer {
 
     public VerifactuConsumer(
             RedisTemplate<String, Object> redisTemplate,
-            VerifactuPort verifactuService,
-            InvoiceStatusNotificationService notificationService) {
+            VerifactuJobHandler jobHandler) {
         this.redisTemplate = redisTemplate;
-        this.verifactuService = verifactuService;
-        this.notificationService = notificationService;
+        this.jobHandler = jobHandler;
     }
 
     /**
@@ -130,6 +132,12 @@ public class VerifactuConsumer {
                 return;
             }
 
+            if (retryCount == 0 && isRepeatedHandOff(body)) {
+                log.info("[VeriFactu Consumer] Skipping repeated hand-off of outbox event {}", body.get("outboxId"));
+                acknowledgeMessage(message);
+                return;
+            }
+
             Long invoiceId = Long.parseLong(invoiceIdStr);
             log.info("[VeriFactu Consumer] Processing invoice {} (event: {}, retry: {})",
                     invoiceId, eventType, retryCount);
@@ -144,11 +152,7 @@ public class VerifactuConsumer {
             }
 
             try {
-                // Notify frontend: Processing
-                notificationService.notifyStatus(invoiceId, "processing");
-
-                // Process with VeriFactu service
-                verifactuService.sendInvoice(invoiceId);
+                jobHandler.process(invoiceId, eventType);
 
                 // Success - acknowledge message
                 acknowledgeMessage(message);
@@ -222,14 +226,22 @@ public class VerifactuConsumer {
             redisTemplate.opsForStream().add(dlqKey, dlqEntry);
             log.info("[VeriFactu Consumer] Moved invoice {} to DLQ", invoiceId);
 
-            // Notify frontend about permanent failure
-            notificationService.notifyStatus(invoiceId, "failed");
+            jobHandler.giveUp(invoiceId);
 
         } catch (Exception e) {
             log.error("[VeriFactu Consumer] Error moving message to DLQ", e);
         }
     }
 
+    private boolean isRepeatedHandOff(Map<Object, Object> body) {
+        Object outboxId = body.get("outboxId");
+        if (outboxId == null) {
+            return false;
+        }
+        Boolean first = redisTemplate.opsForValue().setIfAbsent(OUTBOX_SEEN_PREFIX + outboxId, "1", OUTBOX_SEEN_TTL);
+        return Boolean.FALSE.equals(first);
+    }
+
     private Integer getRetryCount(Map<Object, Object> body) {
         Object retryObj = body.get("retryCount");
         if (retryObj instanceof Integer) {
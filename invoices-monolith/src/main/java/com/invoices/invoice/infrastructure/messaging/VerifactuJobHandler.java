@@ -0,0 +1,23 @@
+package com.invoices.invoice.infrastructure.messaging;
+
+/**
+ * Processes one VeriFactu verification request taken off a queue. Both
+ * transports (Redis Streams and the PostgreSQL job table) consume through this
+ * interface; retries and dead-lettering are left to the transport.
+ */
+public interface VerifactuJobHandler {
+
+    /**
+     * @param invoiceId the invoice to verify
+     * @param eventType the event that requested the verification
+     * @throws Exception if the verification failed and should be retried
+     */
+    void process(Long invoiceId, String eventType) throws Exception;
+
+    /**
+     * Called once a request has failed its last attempt.
+     *
+     * @param invoiceId the invoice that could not be verified
+     */
+    void giveUp(Long invoiceId);
+}
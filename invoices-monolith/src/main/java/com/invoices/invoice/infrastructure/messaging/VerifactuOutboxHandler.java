@@ -0,0 +1,41 @@
+package com.invoices.invoice.infrastructure.messaging;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invoices.invoice.infrastructure.messaging.OutboxVerifactuVerificationPublisher.VerificationRequest;
+import com.invoices.outbox.domain.entities.OutboxEvent;
+import com.invoices.outbox.domain.ports.OutboxEventHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands verification requests from the outbox to the configured VeriFactu queue.
+ *
+ * The PostgreSQL queue is written in the relay transaction, so each request is
+ * queued exactly once. Redis is not part of that transaction: a request can be
+ * added twice if the relay fails after XADD and before committing, and the
+ * message carries the outbox event ID for the consumer to recognise the repeat.
+ */
+@Component
+@RequiredArgsConstructor
+public class VerifactuOutboxHandler implements OutboxEventHandler {
+
+    private final VerifactuTransport transport;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public boolean supports(String eventType) {
+        return OutboxVerifactuVerificationPublisher.EVENT_TYPE.equals(eventType);
+    }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        VerificationRequest request;
+        try {
+            request = objectMapper.readValue(event.getPayload(), VerificationRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid payload of outbox event " + event.getId(), e);
+        }
+        transport.enqueueForVerification(request.invoiceId(), request.eventType(), event.getId());
+    }
+}
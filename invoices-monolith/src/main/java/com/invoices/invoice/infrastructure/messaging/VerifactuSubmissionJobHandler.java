@@ -0,0 +1,40 @@
+package com.invoices.invoice.infrastructure.messaging;
+
+import com.invoices.verifactu.domain.ports.VerifactuPort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Submits queued invoices to VeriFactu and keeps the frontend informed of the
+ * status through the invoice status stream.
+ */
+@Component
+@RequiredArgsConstructor
+public class VerifactuSubmissionJobHandler implements VerifactuJobHandler {
+
+    private final VerifactuPort verifactuService;
+    private final InvoiceStatusNotificationService notificationService;
+
+    @Override
+    public void process(Long invoiceId, String eventType) throws Exception {
+        // Notify frontend: Processing
+        notificationService.notifyStatus(invoiceId, "processing");
+
+        try {
+            verifactuService.sendInvoice(invoiceId);
+        } catch (Exception e) {
+            // Retried by the transport; "failed" follows if it gives up
+            notificationService.notifyStatusWithTx(invoiceId, "error", null, e.getMessage());
+            throw e;
+        }
+
+        // Committed by now, so a client reloading the invoice sees the result
+        notificationService.notifyStatus(invoiceId, "completed");
+    }
+
+    @Override
+    public void giveUp(Long invoiceId) {
+        // Notify frontend about permanent failure
+        notificationService.notifyStatus(invoiceId, "failed");
+    }
+}
@@ -0,0 +1,16 @@
+package com.invoices.invoice.infrastructure.messaging;
+
+/**
+ * Queue that outbox verification requests are handed off to, selected with
+ * {@code verifactu.transport}: {@code redis} ({@link RedisVerifactuProducer})
+ * or {@code postgres} ({@link PostgresVerifactuQueue}).
+ */
+public interface VerifactuTransport {
+
+    /**
+     * @param invoiceId ID of the invoice to verify
+     * @param eventType Type of event (e.g., INVOICE_CREATED, INVOICE_UPDATED)
+     * @param outboxId  ID of the outbox event, or null if not from the outbox
+     */
+    void enqueueForVerification(Long invoiceId, String eventType, Long outboxId);
+}
@@ -2,6 +2,10 @@ package com.invoices.invoice.infrastructure.persistence.entities;
 
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
+import com.invoices.shared.infrastructure.security.encryption.BlindIndexListener;
+import com.invoices.shared.infrastructure.security.encryption.BlindIndexed;
+import com.invoices.shared.infrastructure.security.encryption.BlindIndexer;
+import com.invoices.shared.infrastructure.security.encryption.EncryptedString;
 import com.invoices.shared.infrastructure.security.encryption.EncryptedStringConverter;
 
 /**
@@ -10,7 +14,11 @@ import com.invoices.shared.infrastructure.security.encryption.EncryptedStringCon
  */
 @Entity
 @Table(name = "companies")
-public class CompanyJpaEntity {
+@EntityListeners(BlindIndexListener.class)
+public class CompanyJpaEntity implements BlindIndexed {
+
+    public static final String EMAIL_COLUMN = "companies.email";
+    public static final String PHONE_COLUMN = "companies.phone";
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -24,7 +32,7 @@ public class CompanyJpaEntity {
 
     @Column(name = "address", length = 500)
     @Convert(converter = EncryptedStringConverter.class)
-    private String address;
+    private EncryptedString address;
 
     @Column(name = "city", length = 100)
     private String city;
@@ -40,15 +48,28 @@ public class CompanyJpaEntity {
 
     @Column(name = "phone", length = 100)
     @Convert(converter = EncryptedStringConverter.class)
-    private String phone;
+    private EncryptedString phone;
 
     @Column(name = "email", length = 255)
     @Convert(converter = EncryptedStringConverter.class)
-    private String email;
+    private EncryptedString email;
 
     @Column(name = "iban", length = 255)
     @Convert(converter = EncryptedStringConverter.class)
-    private String iban;
+    private EncryptedString iban;
+
+    // Blind indexes, maintained by BlindIndexListener
+    @Column(name = "email_bidx", length = 32)
+    private String emailBidx;
+
+    @Column(name = "email_prefix_bidx", length = 32)
+    private String emailPrefixBidx;
+
+    @Column(name = "phone_bidx", length = 32)
+    private String phoneBidx;
+
+    @Column(name = "phone_prefix_bidx", length = 32)
+    private String phonePrefixBidx;
 
     @Column(name = "last_hash", length = 128)
     private String lastHash;
@@ -58,7 +79,7 @@ public class CompanyJpaEntity {
 
     @Column(name = "cert_password", length = 255)
     @Convert(converter = EncryptedStringConverter.class)
-    private String certPassword;
+    private EncryptedString certPassword;
 
     @Column(name = "logo_url", length = 500)
     private String logoUrl;
@@ -80,6 +101,22 @@ public class CompanyJpaEntity {
         updatedAt = LocalDateTime.now();
     }
 
+    @Override
+    public boolean updateBlindIndexes(BlindIndexer indexer) {
+        boolean changed = false;
+        if (BlindIndexer.isStale(email, emailBidx)) {
+            emailBidx = indexer.exact(EMAIL_COLUMN, email);
+            emailPrefixBidx = indexer.prefix(EMAIL_COLUMN, email);
+            changed = true;
+        }
+        if (BlindIndexer.isStale(phone, phoneBidx)) {
+            phoneBidx = indexer.exact(PHONE_COLUMN, phone);
+            phonePrefixBidx = indexer.prefix(PHONE_COLUMN, phone);
+            changed = true;
+        }
+        return changed;
+    }
+
     // Constructors
     public CompanyJpaEntity() {
     }
@@ -110,11 +147,11 @@ public class CompanyJpaEntity {
     }
 
     public String getAddress() {
-        return address;
+        return EncryptedString.plaintextOf(address);
     }
 
     public void setAddress(String address) {
-        this.address = address;
+        this.address = EncryptedString.of(address);
     }
 
     public String getCity() {
@@ -150,27 +187,27 @@ public class CompanyJpaEntity {
     }
 
     public String getPhone() {
-        return phone;
+        return EncryptedString.plaintextOf(phone);
     }
 
     public void setPhone(String phone) {
-        this.phone = phone;
+        this.phone = EncryptedString.of(phone);
     }
 
     public String getEmail() {
-        return email;
+        return EncryptedString.plaintextOf(email);
     }
 
     public void setEmail(String email) {
-        this.email = email;
+        this.email = EncryptedString.of(email);
     }
 
     public String getIban() {
-        return iban;
+        return EncryptedString.plaintextOf(iban);
     }
 
     public void setIban(String iban) {
-        this.iban = iban;
+        this.iban = EncryptedString.of(iban);
     }
 
     public String getLastHash() {
@@ -190,11 +227,11 @@ public class CompanyJpaEntity {
     }
 
     public String getCertPassword() {
-        return certPassword;
+        return EncryptedString.plaintextOf(certPassword);
     }
 
     public void setCertPassword(String certPassword) {
-        this.certPassword = certPassword;
+        this.certPassword = EncryptedString.of(certPassword);
     }
 
     public String getLogoUrl() {
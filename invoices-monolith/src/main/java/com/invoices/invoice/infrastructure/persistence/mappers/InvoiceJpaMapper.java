@@ -12,6 +12,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -58,10 +59,36 @@ public class InvoiceJpaMapper {
         if (invoice == null) {
             return null;
         }
+        return toJpaEntity(invoice, getCurrentUserId());
+    }
+
+    /**
+     * Maps several invoices, each recorded as created by the user at the same
+     * position of userIds. Without userIds, the current user is looked up once
+     * and used for all of them.
+     */
+    public List<InvoiceJpaEntity> toJpaEntities(List<Invoice> invoices, List<Long> userIds) {
+        if (userIds == null) {
+            Long userId = getCurrentUserId();
+            return invoices.stream()
+                    .map(invoice -> toJpaEntity(invoice, userId))
+                    .collect(Collectors.toList());
+        }
+        if (userIds.size() != invoices.size()) {
+            throw new IllegalArgumentException(
+                    "Expected " + invoices.size() + " user ids, got " + userIds.size());
+        }
+        List<InvoiceJpaEntity> entities = new ArrayList<>(invoices.size());
+        for (int i = 0; i < invoices.size(); i++) {
+            entities.add(toJpaEntity(invoices.get(i), userIds.get(i)));
+        }
+        return entities;
+    }
 
+    private InvoiceJpaEntity toJpaEntity(Invoice invoice, Long userId) {
         InvoiceJpaEntity jpaEntity = new InvoiceJpaEntity();
         jpaEntity.setId(invoice.getId());
-        jpaEntity.setUserId(getCurrentUserId());
+        jpaEntity.setUserId(userId);
         jpaEntity.setCompanyId(invoice.getCompanyId());
         jpaEntity.setClientId(invoice.getClientId());
         jpaEntity.setInvoiceNumber(invoice.getInvoiceNumber());
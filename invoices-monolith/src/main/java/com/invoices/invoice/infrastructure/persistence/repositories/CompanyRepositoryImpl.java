@@ -2,7 +2,9 @@ package com.invoices.invoice.infrastructure.persistence.repositories;
 
 import com.invoices.invoice.domain.entities.Company;
 import com.invoices.invoice.domain.ports.CompanyRepository;
+import com.invoices.invoice.infrastructure.persistence.entities.CompanyJpaEntity;
 import com.invoices.invoice.infrastructure.persistence.mappers.CompanyJpaMapper;
+import com.invoices.shared.infrastructure.security.encryption.BlindIndexer;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -18,10 +20,13 @@ public class CompanyRepositoryImpl implements CompanyRepository {
 
     private final JpaCompanyRepository jpaRepository;
     private final CompanyJpaMapper mapper;
+    private final BlindIndexer blindIndexer;
 
-    public CompanyRepositoryImpl(JpaCompanyRepository jpaRepository, CompanyJpaMapper mapper) {
+    public CompanyRepositoryImpl(JpaCompanyRepository jpaRepository, CompanyJpaMapper mapper,
+            BlindIndexer blindIndexer) {
         this.jpaRepository = jpaRepository;
         this.mapper = mapper;
+        this.blindIndexer = blindIndexer;
     }
 
     @Override
@@ -50,6 +55,18 @@ public class CompanyRepositoryImpl implements CompanyRepository {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<Company> searchByContact(String term) {
+        BlindIndexer.requireSearchable(term);
+        return jpaRepository.findByContactPrefixIndex(
+                blindIndexer.prefix(CompanyJpaEntity.EMAIL_COLUMN, term),
+                blindIndexer.prefix(CompanyJpaEntity.PHONE_COLUMN, term)).stream()
+                .map(mapper::toDomain)
+                .filter(company -> BlindIndexer.matchesPrefix(company.getEmail(), term)
+                        || BlindIndexer.matchesPrefix(company.getPhone(), term))
+                .collect(Collectors.toList());
+    }
+
     @Override
     public void deleteById(Long id) {
         jpaRepository.deleteById(id);
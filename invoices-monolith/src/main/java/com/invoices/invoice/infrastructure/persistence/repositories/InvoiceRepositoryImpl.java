@@ -3,12 +3,26 @@ package com.invoices.invoice.infrastructure.persistence.repositories;
 import com.invoices.invoice.domain.entities.Invoice;
 import com.invoices.invoice.domain.models.InvoiceSummary;
 import com.invoices.invoice.domain.ports.InvoiceRepository;
+import com.invoices.invoice.infrastructure.persistence.entities.InvoiceItemJpaEntity;
 import com.invoices.invoice.infrastructure.persistence.entities.InvoiceJpaEntity;
 import com.invoices.invoice.infrastructure.persistence.mappers.InvoiceJpaMapper;
 
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Component;
 
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -16,16 +30,33 @@ import java.util.stream.Collectors;
  * Implementation of InvoiceRepository port.
  * Adapter that bridges domain and infrastructure.
  * Uses JPA for persistence but exposes domain entities.
+ *
+ * saveAll inserts through JdbcTemplate batches instead, since IDENTITY ids
+ * disable Hibernate insert batching. It does not write the VeriFactu JSON
+ * documents, which new invoices do not have yet.
  */
 @Component
 public class InvoiceRepositoryImpl implements InvoiceRepository {
 
+    private static final String INSERT_INVOICE_SQL = "INSERT INTO invoices (user_id, company_id, client_id, "
+            + "invoice_number, settlement_number, issue_date, base_amount, irpf_percentage, irpf_amount, "
+            + "re_percentage, re_amount, total_amount, status, is_rectificativa, rectifies_invoice_id, hash, "
+            + "last_hash_before, notes, verifactu_status, verifactu_retry_count, pdf_is_final, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ITEM_SQL = "INSERT INTO invoice_items (invoice_id, description, units, price, "
+            + "vat_percentage, discount_percentage, item_date, vehicle_plate, order_number, zone, gas_percentage, "
+            + "subtotal, total, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
     private final JpaInvoiceRepository jpaRepository;
     private final InvoiceJpaMapper mapper;
+    private final JdbcTemplate jdbcTemplate;
 
-    public InvoiceRepositoryImpl(JpaInvoiceRepository jpaRepository, InvoiceJpaMapper mapper) {
+    public InvoiceRepositoryImpl(JpaInvoiceRepository jpaRepository, InvoiceJpaMapper mapper,
+            JdbcTemplate jdbcTemplate) {
         this.jpaRepository = jpaRepository;
         this.mapper = mapper;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     @Override
@@ -55,6 +86,93 @@ public class InvoiceRepositoryImpl implements InvoiceRepository {
         return mapper.toDomainEntity(savedEntity);
     }
 
+    @Override
+    public List<Invoice> saveAll(List<Invoice> invoices, List<Long> userIds) {
+        if (invoices.isEmpty()) {
+            return List.of();
+        }
+        List<InvoiceJpaEntity> entities = mapper.toJpaEntities(invoices, userIds);
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_INVOICE_SQL, new String[] { "id" }),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        setInvoiceValues(ps, entities.get(i));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return entities.size();
+                    }
+                }, keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        List<InvoiceItemJpaEntity> items = new ArrayList<>();
+        for (int i = 0; i < entities.size(); i++) {
+            InvoiceJpaEntity entity = entities.get(i);
+            entity.setId(((Number) keys.get(i).values().iterator().next()).longValue());
+            items.addAll(entity.getItems());
+        }
+        jdbcTemplate.batchUpdate(INSERT_ITEM_SQL, items, items.size(), this::setItemValues);
+
+        return entities.stream()
+                .map(mapper::toDomainEntity)
+                .collect(Collectors.toList());
+    }
+
+    private void setInvoiceValues(PreparedStatement ps, InvoiceJpaEntity invoice) throws SQLException {
+        ps.setLong(1, invoice.getUserId());
+        ps.setLong(2, invoice.getCompanyId());
+        ps.setLong(3, invoice.getClientId());
+        ps.setString(4, invoice.getInvoiceNumber());
+        ps.setString(5, invoice.getSettlementNumber());
+        ps.setTimestamp(6, toTimestamp(invoice.getIssueDate()));
+        ps.setBigDecimal(7, invoice.getBaseAmount());
+        ps.setBigDecimal(8, invoice.getIrpfPercentage());
+        ps.setBigDecimal(9, invoice.getIrpfAmount());
+        ps.setBigDecimal(10, invoice.getRePercentage());
+        ps.setBigDecimal(11, invoice.getReAmount());
+        ps.setBigDecimal(12, invoice.getTotalAmount());
+        ps.setString(13, invoice.getStatus());
+        ps.setBoolean(14, invoice.isRectificativa());
+        ps.setObject(15, invoice.getRectifiesInvoiceId(), Types.BIGINT);
+        ps.setString(16, invoice.getHash());
+        ps.setString(17, invoice.getLastHashBefore());
+        ps.setString(18, invoice.getNotes());
+        ps.setString(19, invoice.getVerifactuStatus());
+        ps.setObject(20, invoice.getVerifactuRetryCount(), Types.INTEGER);
+        ps.setObject(21, invoice.getPdfIsFinal(), Types.BOOLEAN);
+        ps.setTimestamp(22, toTimestamp(invoice.getCreatedAt()));
+        ps.setTimestamp(23, toTimestamp(invoice.getUpdatedAt()));
+    }
+
+    private void setItemValues(PreparedStatement ps, InvoiceItemJpaEntity item) throws SQLException {
+        ps.setLong(1, item.getInvoice().getId());
+        ps.setString(2, item.getDescription());
+        ps.setInt(3, item.getUnits());
+        ps.setBigDecimal(4, item.getPrice());
+        ps.setBigDecimal(5, item.getVatPercentage());
+        ps.setBigDecimal(6, item.getDiscountPercentage());
+        ps.setDate(7, toDate(item.getItemDate()));
+        ps.setString(8, item.getVehiclePlate());
+        ps.setString(9, item.getOrderNumber());
+        ps.setString(10, item.getZone());
+        ps.setBigDecimal(11, item.getGasPercentage());
+        ps.setBigDecimal(12, item.getSubtotal());
+        ps.setBigDecimal(13, item.getTotal());
+        ps.setTimestamp(14, toTimestamp(item.getCreatedAt()));
+        ps.setTimestamp(15, toTimestamp(item.getUpdatedAt()));
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime dateTime) {
+        return Timestamp.valueOf(dateTime != null ? dateTime : LocalDateTime.now());
+    }
+
+    private static Date toDate(LocalDate date) {
+        return date != null ? Date.valueOf(date) : null;
+    }
+
     @Override
     public void delete(Invoice invoice) {
         InvoiceJpaEntity jpaEntity = mapper.toJpaEntity(invoice);
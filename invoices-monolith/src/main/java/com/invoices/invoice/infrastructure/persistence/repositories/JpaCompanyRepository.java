@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -23,4 +24,15 @@ public interface JpaCompanyRepository extends JpaRepository<CompanyJpaEntity, Lo
     Optional<CompanyJpaEntity> findByIdWithLock(@Param("id") Long id);
 
     boolean existsByTaxId(String taxId);
+
+    @Query("SELECT c FROM CompanyJpaEntity c WHERE c.emailPrefixBidx = :emailPrefix "
+            + "OR c.phonePrefixBidx = :phonePrefix")
+    List<CompanyJpaEntity> findByContactPrefixIndex(@Param("emailPrefix") String emailPrefix,
+            @Param("phonePrefix") String phonePrefix);
+
+    @Query("SELECT c FROM CompanyJpaEntity c WHERE c.id > :afterId AND ("
+            + "(c.email IS NOT NULL AND c.emailBidx IS NULL) "
+            + "OR (c.phone IS NOT NULL AND c.phoneBidx IS NULL)) ORDER BY c.id")
+    List<CompanyJpaEntity> findMissingBlindIndexes(@Param("afterId") Long afterId,
+            org.springframework.data.domain.Pageable pageable);
 }
@@ -42,7 +42,7 @@ public interface JpaInvoiceRepository extends JpaRepository<InvoiceJpaEntity, Lo
         java.util.Optional<String> findLastInvoiceNumberByYear(
                         @org.springframework.data.repository.query.Param("year") int year);
 
-        @org.springframework.data.jpa.repository.Query("SELECT i.invoiceNumber FROM InvoiceJpaEntity i WHERE i.companyId = :companyId AND YEAR(i.issueDate) = :year ORDER BY i.invoiceNumber DESC LIMIT 1")
+        @org.springframework.data.jpa.repository.Query("SELECT i.invoiceNumber FROM InvoiceJpaEntity i WHERE i.companyId = :companyId AND YEAR(i.issueDate) = :year ORDER BY LENGTH(i.invoiceNumber) DESC, i.invoiceNumber DESC LIMIT 1")
         java.util.Optional<String> findLastInvoiceNumberByCompanyAndYear(
                         @org.springframework.data.repository.query.Param("companyId") Long companyId,
                         @org.springframework.data.repository.query.Param("year") int year);
@@ -53,13 +53,14 @@ public interface JpaInvoiceRepository extends JpaRepository<InvoiceJpaEntity, Lo
          * Prevents race conditions when multiple threads generate invoice numbers
          * simultaneously.
          * Lock is held for the duration of the transaction.
+         * Longer numbers sort first, so 1000/2025 comes after 999/2025.
          *
          * @param companyId the company ID
          * @param year      the year
          * @return the last invoice number, or empty if no invoices exist
          */
         @Lock(LockModeType.PESSIMISTIC_WRITE)
-        @Query("SELECT i.invoiceNumber FROM InvoiceJpaEntity i WHERE i.companyId = :companyId AND YEAR(i.issueDate) = :year ORDER BY i.invoiceNumber DESC LIMIT 1")
+        @Query("SELECT i.invoiceNumber FROM InvoiceJpaEntity i WHERE i.companyId = :companyId AND YEAR(i.issueDate) = :year ORDER BY LENGTH(i.invoiceNumber) DESC, i.invoiceNumber DESC LIMIT 1")
         Optional<String> findLastInvoiceNumberByCompanyAndYearWithLock(
                         @Param("companyId") Long companyId,
                         @Param("year") int year);
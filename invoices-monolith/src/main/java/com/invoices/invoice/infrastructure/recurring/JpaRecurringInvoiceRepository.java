@@ -0,0 +1,35 @@
+package com.invoices.invoice.infrastructure.recurring;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Spring Data JPA repository for RecurringInvoiceJpaEntity.
+ */
+public interface JpaRecurringInvoiceRepository extends JpaRepository<RecurringInvoiceJpaEntity, Long> {
+
+    @Query("SELECT DISTINCT r FROM RecurringInvoiceJpaEntity r LEFT JOIN FETCH r.items "
+            + "WHERE r.companyId = :companyId ORDER BY r.id")
+    List<RecurringInvoiceJpaEntity> findByCompanyIdWithItems(@Param("companyId") Long companyId);
+
+    @Query("SELECT r FROM RecurringInvoiceJpaEntity r LEFT JOIN FETCH r.items "
+            + "WHERE r.id = :id AND r.companyId = :companyId")
+    Optional<RecurringInvoiceJpaEntity> findByIdAndCompanyIdWithItems(@Param("id") Long id,
+            @Param("companyId") Long companyId);
+
+    /**
+     * Templates with their lines in one query, for the nightly run. Read-only,
+     * so the chunk commit does not dirty-check them.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT DISTINCT r FROM RecurringInvoiceJpaEntity r LEFT JOIN FETCH r.items WHERE r.id IN :ids")
+    List<RecurringInvoiceJpaEntity> findAllWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+}
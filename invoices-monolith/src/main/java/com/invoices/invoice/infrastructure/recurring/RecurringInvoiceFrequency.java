@@ -0,0 +1,29 @@
+package com.invoices.invoice.infrastructure.recurring;
+
+import java.time.LocalDate;
+
+/**
+ * How often a recurring invoice is issued.
+ */
+public enum RecurringInvoiceFrequency {
+    MONTHLY(1),
+    QUARTERLY(3),
+    YEARLY(12);
+
+    private final int months;
+
+    RecurringInvoiceFrequency(int months) {
+        this.months = months;
+    }
+
+    /**
+     * Date of an occurrence, counted from the start date rather than from the
+     * previous occurrence, so a schedule starting on the 31st comes back to the
+     * 31st after shorter months.
+     *
+     * @param occurrence 0 for the start date itself
+     */
+    public LocalDate occurrence(LocalDate startDate, int occurrence) {
+        return startDate.plusMonths((long) months * occurrence);
+    }
+}
@@ -0,0 +1,63 @@
+package com.invoices.invoice.infrastructure.recurring;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+/**
+ * JPA Entity for the lines of a recurring invoice template (V51).
+ */
+@Entity
+@Table(name = "recurring_invoice_items", indexes = {
+        @Index(name = "idx_recurring_invoice_items_template", columnList = "recurring_invoice_id")
+})
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringInvoiceItemJpaEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "recurring_invoice_id", nullable = false)
+    private RecurringInvoiceJpaEntity recurringInvoice;
+
+    @Column(nullable = false)
+    private int position;
+
+    @Column(name = "description", nullable = false, length = 500)
+    private String description;
+
+    @Column(name = "units", nullable = false)
+    private Integer units;
+
+    @Column(name = "price", precision = 10, scale = 2, nullable = false)
+    private BigDecimal price;
+
+    @Column(name = "vat_percentage", precision = 5, scale = 2, nullable = false)
+    private BigDecimal vatPercentage;
+
+    @Column(name = "discount_percentage", precision = 5, scale = 2, nullable = false)
+    private BigDecimal discountPercentage;
+
+    @Column(name = "vehicle_plate", length = 50)
+    private String vehiclePlate;
+
+    @Column(name = "order_number", length = 50)
+    private String orderNumber;
+
+    @Column(name = "zone", length = 100)
+    private String zone;
+
+    @Column(name = "gas_percentage", precision = 5, scale = 2)
+    private BigDecimal gasPercentage;
+}
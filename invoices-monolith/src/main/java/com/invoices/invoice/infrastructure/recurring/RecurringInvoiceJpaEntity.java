@@ -0,0 +1,96 @@
+package com.invoices.invoice.infrastructure.recurring;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JPA Entity for recurring invoice templates (V51). The schedule columns
+ * (next_run_date, occurrences, active, last_invoice_id) are moved by the
+ * nightly run through plain SQL.
+ */
+@Entity
+@Table(name = "recurring_invoices", indexes = {
+        @Index(name = "idx_recurring_invoices_company", columnList = "company_id"),
+        @Index(name = "idx_recurring_invoices_due", columnList = "company_id, next_run_date")
+})
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringInvoiceJpaEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "company_id", nullable = false)
+    private Long companyId;
+
+    @Column(name = "client_id", nullable = false)
+    private Long clientId;
+
+    /**
+     * Recorded as the creator of every invoice issued from the template.
+     */
+    @Column(name = "created_by_user_id", nullable = false)
+    private Long createdByUserId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private RecurringInvoiceFrequency frequency;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    @Column(name = "end_date")
+    private LocalDate endDate;
+
+    @Column(name = "next_run_date", nullable = false)
+    private LocalDate nextRunDate;
+
+    @Column(nullable = false)
+    private int occurrences;
+
+    @Column(nullable = false)
+    private boolean active;
+
+    @Column(name = "irpf_percentage", precision = 5, scale = 2, nullable = false)
+    private BigDecimal irpfPercentage;
+
+    @Column(name = "re_percentage", precision = 5, scale = 2, nullable = false)
+    private BigDecimal rePercentage;
+
+    @Column(name = "notes", columnDefinition = "TEXT")
+    private String notes;
+
+    @Column(name = "last_invoice_id")
+    private Long lastInvoiceId;
+
+    @OneToMany(mappedBy = "recurringInvoice", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("position")
+    @Builder.Default
+    private List<RecurringInvoiceItemJpaEntity> items = new ArrayList<>();
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public void addItem(RecurringInvoiceItemJpaEntity item) {
+        item.setRecurringInvoice(this);
+        item.setPosition(items.size());
+        items.add(item);
+    }
+}
@@ -0,0 +1,119 @@
+package com.invoices.invoice.infrastructure.recurring;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Storage of recurring invoice templates (V51).
+ *
+ * Templates are written and read through JPA; the nightly run claims due
+ * templates and moves their schedule with plain SQL, in the transaction that
+ * creates their invoices. Claiming uses FOR UPDATE SKIP LOCKED, so instances
+ * running at the same time share the templates instead of issuing them twice.
+ */
+@Repository
+public class RecurringInvoiceRepository {
+
+    private static final String COMPANIES_DUE_SQL = "SELECT DISTINCT company_id FROM recurring_invoices "
+            + "WHERE active = TRUE AND next_run_date <= ? ORDER BY company_id";
+    private static final String CLAIM_DUE_SQL = "SELECT id, frequency, start_date, end_date, occurrences "
+            + "FROM recurring_invoices WHERE company_id = ? AND active = TRUE AND next_run_date <= ? "
+            + "ORDER BY next_run_date, id LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final String ADVANCE_SQL = "UPDATE recurring_invoices SET next_run_date = ?, occurrences = ?, "
+            + "active = ?, last_invoice_id = ?, updated_at = ? WHERE id = ?";
+
+    /**
+     * Schedule of a template claimed by the nightly run.
+     */
+    public record DueTemplate(Long id, RecurringInvoiceFrequency frequency, LocalDate startDate, LocalDate endDate,
+            int occurrences) {
+
+        /**
+         * The schedule once the due occurrence has been issued as the given
+         * invoice.
+         */
+        public Advance advance(Long invoiceId) {
+            LocalDate next = frequency.occurrence(startDate, occurrences + 1);
+            return new Advance(id, next, occurrences + 1, endDate == null || !next.isAfter(endDate), invoiceId);
+        }
+    }
+
+    public record Advance(Long id, LocalDate nextRunDate, int occurrences, boolean active, Long lastInvoiceId) {
+    }
+
+    private static final RowMapper<DueTemplate> DUE_MAPPER = (rs, rowNum) -> new DueTemplate(
+            rs.getLong("id"),
+            RecurringInvoiceFrequency.valueOf(rs.getString("frequency")),
+            rs.getDate("start_date").toLocalDate(),
+            rs.getDate("end_date") != null ? rs.getDate("end_date").toLocalDate() : null,
+            rs.getInt("occurrences"));
+
+    private final JpaRecurringInvoiceRepository jpaRecurringInvoiceRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public RecurringInvoiceRepository(JpaRecurringInvoiceRepository jpaRecurringInvoiceRepository,
+            JdbcTemplate jdbcTemplate) {
+        this.jpaRecurringInvoiceRepository = jpaRecurringInvoiceRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public RecurringInvoiceJpaEntity save(RecurringInvoiceJpaEntity recurringInvoice) {
+        return jpaRecurringInvoiceRepository.save(recurringInvoice);
+    }
+
+    public List<RecurringInvoiceJpaEntity> findByCompanyId(Long companyId) {
+        return jpaRecurringInvoiceRepository.findByCompanyIdWithItems(companyId);
+    }
+
+    public Optional<RecurringInvoiceJpaEntity> findByIdAndCompanyId(Long id, Long companyId) {
+        return jpaRecurringInvoiceRepository.findByIdAndCompanyIdWithItems(id, companyId);
+    }
+
+    public List<RecurringInvoiceJpaEntity> findAllWithItems(Collection<Long> ids) {
+        return jpaRecurringInvoiceRepository.findAllWithItemsByIdIn(ids);
+    }
+
+    public void delete(RecurringInvoiceJpaEntity recurringInvoice) {
+        jpaRecurringInvoiceRepository.delete(recurringInvoice);
+    }
+
+    /**
+     * Companies with at least one template due on the given day.
+     */
+    public List<Long> findCompaniesWithDue(LocalDate today) {
+        return jdbcTemplate.queryForList(COMPANIES_DUE_SQL, Long.class, Date.valueOf(today));
+    }
+
+    /**
+     * Locks up to {@code limit} templates of the company due on the given day,
+     * skipping those claimed by another transaction, oldest occurrence first.
+     */
+    public List<DueTemplate> claimDue(Long companyId, LocalDate today, int limit) {
+        return jdbcTemplate.query(CLAIM_DUE_SQL, DUE_MAPPER, companyId, Date.valueOf(today), limit);
+    }
+
+    /**
+     * Moves the schedule of issued templates, with one batch.
+     */
+    public void advanceAll(List<Advance> advances) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(ADVANCE_SQL, advances, advances.size(), (ps, advance) -> {
+            ps.setDate(1, Date.valueOf(advance.nextRunDate()));
+            ps.setInt(2, advance.occurrences());
+            ps.setBoolean(3, advance.active());
+            ps.setObject(4, advance.lastInvoiceId(), Types.BIGINT);
+            ps.setTimestamp(5, now);
+            ps.setLong(6, advance.id());
+        });
+    }
+}
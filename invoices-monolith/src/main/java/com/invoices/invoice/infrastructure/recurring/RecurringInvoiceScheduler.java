@@ -0,0 +1,30 @@
+package com.invoices.invoice.infrastructure.recurring;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Nightly run of the recurring invoices due today. Safe to run on several
+ * instances at once: each due template is claimed by one of them.
+ */
+@Component
+@ConditionalOnProperty(prefix = "recurring-invoices", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class RecurringInvoiceScheduler {
+
+    private final RecurringInvoiceService recurringInvoiceService;
+
+    @Scheduled(cron = "${recurring-invoices.cron:0 0 1 * * *}")
+    public void generateDue() {
+        LocalDate today = LocalDate.now();
+        log.info("Issuing recurring invoices due on {}", today);
+        int issued = recurringInvoiceService.generateDue(today);
+        log.info("Issued {} recurring invoices due on {}", issued, today);
+    }
+}
@@ -0,0 +1,315 @@
+package com.invoices.invoice.infrastructure.recurring;
+
+import com.invoices.invoice.domain.entities.Client;
+import com.invoices.invoice.domain.entities.Invoice;
+import com.invoices.invoice.domain.entities.InvoiceItem;
+import com.invoices.invoice.domain.exceptions.ClientNotFoundException;
+import com.invoices.invoice.domain.ports.ClientRepository;
+import com.invoices.invoice.domain.ports.InvoiceEventPublisher;
+import com.invoices.invoice.domain.ports.VerifactuVerificationPublisher;
+import com.invoices.invoice.domain.services.InvoiceBatchService;
+import com.invoices.invoice.dto.CreateInvoiceItemRequest;
+import com.invoices.invoice.dto.RecurringInvoiceDTO;
+import com.invoices.invoice.dto.RecurringInvoiceRequest;
+import com.invoices.invoice.infrastructure.recurring.RecurringInvoiceRepository.Advance;
+import com.invoices.invoice.infrastructure.recurring.RecurringInvoiceRepository.DueTemplate;
+import com.invoices.shared.domain.exception.BusinessException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Recurring invoices: templates of an invoice issued to a client on a
+ * schedule, and the nightly run issuing the due ones.
+ *
+ * The run goes company by company. Due templates are claimed in chunks of
+ * recurring-invoices.chunk-size, and each chunk is issued in one transaction
+ * through {@link InvoiceBatchService} (numbers reserved as a block, hash chain
+ * extended in memory, JDBC batch inserts); the creation events and the
+ * VeriFactu verification requests of the whole chunk are stored with one batch
+ * each, and the schedules are moved with another. A template that missed
+ * several occurrences (e.g. the run did not happen for a few days) is issued
+ * once per missed occurrence. Templates cannot start in the past, so catching
+ * up only happens after such an outage.
+ *
+ * The run has no authenticated user: invoices are recorded as created by the
+ * user who created their template.
+ */
+@Service
+@Slf4j
+public class RecurringInvoiceService {
+
+    private final RecurringInvoiceRepository recurringInvoiceRepository;
+    private final ClientRepository clientRepository;
+    private final InvoiceBatchService invoiceBatchService;
+    private final InvoiceEventPublisher eventPublisher;
+    private final VerifactuVerificationPublisher verificationPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final Counter generatedCounter;
+
+    public RecurringInvoiceService(
+            RecurringInvoiceRepository recurringInvoiceRepository,
+            ClientRepository clientRepository,
+            InvoiceBatchService invoiceBatchService,
+            InvoiceEventPublisher eventPublisher,
+            VerifactuVerificationPublisher verificationPublisher,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${recurring-invoices.chunk-size:500}") int chunkSize) {
+        this.recurringInvoiceRepository = recurringInvoiceRepository;
+        this.clientRepository = clientRepository;
+        this.invoiceBatchService = invoiceBatchService;
+        this.eventPublisher = eventPublisher;
+        this.verificationPublisher = verificationPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.generatedCounter = Counter.builder("recurring.invoices.generated")
+                .description("Invoices issued from recurring invoice templates")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param userId the user creating the template, recorded as the creator of
+     *               its invoices
+     * @throws BusinessException (400) if the start date is in the past, which
+     *                           would issue every occurrence since then at once
+     */
+    @Transactional
+    public RecurringInvoiceDTO create(Long companyId, Long userId, RecurringInvoiceRequest request) {
+        Client client = clientRepository.findById(request.getClientId())
+                .filter(found -> companyId.equals(found.getCompanyId()))
+                .orElseThrow(() -> new ClientNotFoundException(request.getClientId()));
+        if (request.getStartDate().isBefore(LocalDate.now())) {
+            throw new BusinessException("INVALID_RECURRING_INVOICE", "Start date must not be in the past");
+        }
+        if (request.getEndDate() != null && request.getEndDate().isBefore(request.getStartDate())) {
+            throw new BusinessException("INVALID_RECURRING_INVOICE", "End date must not be before start date");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        RecurringInvoiceJpaEntity recurringInvoice = RecurringInvoiceJpaEntity.builder()
+                .companyId(companyId)
+                .clientId(client.getId())
+                .createdByUserId(userId)
+                .frequency(request.getFrequency())
+                .startDate(request.getStartDate())
+                .endDate(request.getEndDate())
+                .nextRunDate(request.getStartDate())
+                .occurrences(0)
+                .active(true)
+                .irpfPercentage(request.getIrpfPercentage() != null ? request.getIrpfPercentage() : BigDecimal.ZERO)
+                .rePercentage(request.getRePercentage() != null ? request.getRePercentage() : BigDecimal.ZERO)
+                .notes(request.getNotes() != null && !request.getNotes().trim().isEmpty() ? request.getNotes() : null)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        for (CreateInvoiceItemRequest item : request.getItems()) {
+            recurringInvoice.addItem(RecurringInvoiceItemJpaEntity.builder()
+                    .description(item.getDescription())
+                    .units(item.getUnits())
+                    .price(item.getPrice())
+                    .vatPercentage(item.getVatPercentage())
+                    .discountPercentage(item.getDiscountPercentage() != null
+                            ? item.getDiscountPercentage()
+                            : BigDecimal.ZERO)
+                    .vehiclePlate(item.getVehiclePlate())
+                    .orderNumber(item.getOrderNumber())
+                    .zone(item.getZone())
+                    .gasPercentage(item.getGasPercentage())
+                    .build());
+        }
+
+        RecurringInvoiceJpaEntity saved = recurringInvoiceRepository.save(recurringInvoice);
+        log.info("Recurring invoice {} created for client {} of company {}, {} from {}", saved.getId(),
+                saved.getClientId(), companyId, saved.getFrequency(), saved.getStartDate());
+        return toDto(saved);
+    }
+
+    @Transactional(readOnly = true)
+    public List<RecurringInvoiceDTO> findAll(Long companyId) {
+        return recurringInvoiceRepository.findByCompanyId(companyId).stream().map(this::toDto).toList();
+    }
+
+    @Transactional(readOnly = true)
+    public RecurringInvoiceDTO find(Long companyId, Long id) {
+        return toDto(get(companyId, id));
+    }
+
+    /**
+     * Deletes a template; the invoices already issued from it are kept.
+     */
+    @Transactional
+    public void delete(Long companyId, Long id) {
+        recurringInvoiceRepository.delete(get(companyId, id));
+        log.info("Recurring invoice {} of company {} deleted", id, companyId);
+    }
+
+    /**
+     * Issues every template due on the given day, company by company. A company
+     * whose run fails is logged and retried on the next run; the chunks it
+     * already committed stay issued.
+     *
+     * @return the number of invoices issued
+     */
+    public int generateDue(LocalDate today) {
+        int total = 0;
+        for (Long companyId : recurringInvoiceRepository.findCompaniesWithDue(today)) {
+            try {
+                total += generateForCompany(companyId, today);
+            } catch (RuntimeException e) {
+                log.error("Recurring invoices of company {} failed, retrying on next run", companyId, e);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Issues the templates of a company due on the given day, one chunk per
+     * transaction, until none is left.
+     *
+     * @return the number of invoices issued
+     */
+    public int generateForCompany(Long companyId, LocalDate today) {
+        long start = System.nanoTime();
+        Map<Long, String> clientEmails = new HashMap<>();
+        for (Client client : clientRepository.findByCompanyId(companyId)) {
+            clientEmails.put(client.getId(), client.getEmail());
+        }
+
+        int total = 0;
+        int issued;
+        do {
+            issued = transactionTemplate.execute(status -> generateChunk(companyId, today, clientEmails));
+            total += issued;
+            generatedCounter.increment(issued);
+        } while (issued > 0);
+
+        if (total > 0) {
+            log.info("Issued {} recurring invoices for company {} in {} ms", total, companyId,
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+        return total;
+    }
+
+    private int generateChunk(Long companyId, LocalDate today, Map<Long, String> clientEmails) {
+        List<DueTemplate> due = recurringInvoiceRepository.claimDue(companyId, today, chunkSize);
+        if (due.isEmpty()) {
+            return 0;
+        }
+        Map<Long, RecurringInvoiceJpaEntity> templates = recurringInvoiceRepository
+                .findAllWithItems(due.stream().map(DueTemplate::id).toList()).stream()
+                .collect(Collectors.toMap(RecurringInvoiceJpaEntity::getId, Function.identity()));
+
+        LocalDateTime issuedAt = LocalDateTime.now();
+        List<Invoice> invoices = new ArrayList<>(due.size());
+        List<Long> creators = new ArrayList<>(due.size());
+        for (DueTemplate template : due) {
+            RecurringInvoiceJpaEntity recurringInvoice = templates.get(template.id());
+            invoices.add(toInvoice(recurringInvoice, issuedAt));
+            creators.add(recurringInvoice.getCreatedByUserId());
+        }
+        List<Invoice> saved = invoiceBatchService.createAll(companyId, invoices, creators);
+
+        eventPublisher.publishInvoicesCreated(saved, clientEmails);
+        verificationPublisher.enqueueAllForVerification(saved.stream().map(Invoice::getId).toList(),
+                "INVOICE_CREATED");
+
+        List<Advance> advances = new ArrayList<>(due.size());
+        for (int i = 0; i < due.size(); i++) {
+            advances.add(due.get(i).advance(saved.get(i).getId()));
+        }
+        recurringInvoiceRepository.advanceAll(advances);
+        return due.size();
+    }
+
+    private Invoice toInvoice(RecurringInvoiceJpaEntity template, LocalDateTime issuedAt) {
+        Invoice invoice = new Invoice(
+                null,
+                template.getCompanyId(),
+                template.getClientId(),
+                InvoiceBatchService.UNNUMBERED,
+                issuedAt,
+                template.getIrpfPercentage(),
+                template.getRePercentage());
+        for (RecurringInvoiceItemJpaEntity templateItem : template.getItems()) {
+            InvoiceItem item = new InvoiceItem(
+                    null,
+                    null,
+                    templateItem.getDescription(),
+                    templateItem.getUnits(),
+                    templateItem.getPrice(),
+                    templateItem.getVatPercentage(),
+                    templateItem.getDiscountPercentage());
+            if (templateItem.getVehiclePlate() != null) {
+                item.setVehiclePlate(templateItem.getVehiclePlate());
+            }
+            if (templateItem.getOrderNumber() != null) {
+                item.setOrderNumber(templateItem.getOrderNumber());
+            }
+            if (templateItem.getZone() != null) {
+                item.setZone(templateItem.getZone());
+            }
+            if (templateItem.getGasPercentage() != null) {
+                item.setGasPercentage(templateItem.getGasPercentage());
+            }
+            invoice.addItem(item);
+        }
+        if (template.getNotes() != null) {
+            invoice.setNotes(template.getNotes());
+        }
+        return invoice;
+    }
+
+    private RecurringInvoiceJpaEntity get(Long companyId, Long id) {
+        return recurringInvoiceRepository.findByIdAndCompanyId(id, companyId)
+                .orElseThrow(() -> new BusinessException("RECURRING_INVOICE_NOT_FOUND",
+                        "Recurring invoice not found with id: " + id, HttpStatus.NOT_FOUND));
+    }
+
+    private RecurringInvoiceDTO toDto(RecurringInvoiceJpaEntity recurringInvoice) {
+        return RecurringInvoiceDTO.builder()
+                .id(recurringInvoice.getId())
+                .clientId(recurringInvoice.getClientId())
+                .frequency(recurringInvoice.getFrequency())
+                .startDate(recurringInvoice.getStartDate())
+                .endDate(recurringInvoice.getEndDate())
+                .nextRunDate(recurringInvoice.getNextRunDate())
+                .occurrences(recurringInvoice.getOccurrences())
+                .active(recurringInvoice.isActive())
+                .lastInvoiceId(recurringInvoice.getLastInvoiceId())
+                .irpfPercentage(recurringInvoice.getIrpfPercentage())
+                .rePercentage(recurringInvoice.getRePercentage())
+                .notes(recurringInvoice.getNotes())
+                .items(recurringInvoice.getItems().stream()
+                        .map(item -> CreateInvoiceItemRequest.builder()
+                                .description(item.getDescription())
+                                .units(item.getUnits())
+                                .price(item.getPrice())
+                                .vatPercentage(item.getVatPercentage())
+                                .discountPercentage(item.getDiscountPercentage())
+                                .vehiclePlate(item.getVehiclePlate())
+                                .orderNumber(item.getOrderNumber())
+                                .zone(item.getZone())
+                                .gasPercentage(item.getGasPercentage())
+                                .build())
+                        .toList())
+                .build();
+    }
+}
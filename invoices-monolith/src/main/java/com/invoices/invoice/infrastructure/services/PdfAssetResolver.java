@@ -0,0 +1,136 @@
+package com.invoices.invoice.infrastructure.services;
+
+import com.invoices.document.domain.entities.LogoRendition;
+import com.invoices.document.domain.ports.AssetCache;
+import com.invoices.document.domain.services.LogoRenditionService;
+import com.openhtmltopdf.extend.FSStream;
+import com.openhtmltopdf.extend.FSStreamFactory;
+import com.openhtmltopdf.extend.FSUriResolver;
+import com.openhtmltopdf.swing.NaiveUserAgent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves images and stylesheets referenced by invoice templates without going
+ * through the network.
+ *
+ * References are rewritten to the {@code asset:} protocol and served from memory:
+ * - storage object names ({@code logos/company-7-...png}) and backend proxy URLs
+ * ({@code .../api/files/logos/...}) come from {@link AssetCache}; a missing
+ * PDF logo rendition (logos uploaded before renditions existed) is generated from
+ * the original on first use;
+ * - root-relative paths that exist under {@code classpath:static/} are read once
+ * and kept for the lifetime of the process.
+ *
+ * Anything else falls back to OpenHTMLtoPDF's default resolution.
+ */
+@Component
+@Slf4j
+public class PdfAssetResolver implements FSUriResolver, FSStreamFactory {
+
+    static final String PROTOCOL = "asset";
+
+    private static final String STORAGE_PREFIX = PROTOCOL + ":storage/";
+    private static final String STATIC_PREFIX = PROTOCOL + ":static/";
+    private static final String FILE_PROXY_PATH = "/api/files/";
+    private static final String LOGOS_PREFIX = "logos/";
+
+    private final AssetCache assetCache;
+    private final LogoRenditionService logoRenditionService;
+    private final FSUriResolver defaultResolver = new NaiveUserAgent.DefaultUriResolver();
+    private final Map<String, Optional<byte[]>> staticAssets = new ConcurrentHashMap<>();
+
+    public PdfAssetResolver(AssetCache assetCache, LogoRenditionService logoRenditionService) {
+        this.assetCache = assetCache;
+        this.logoRenditionService = logoRenditionService;
+    }
+
+    @Override
+    public String resolveURI(String baseUri, String uri) {
+        if (uri == null || uri.isBlank() || uri.startsWith(PROTOCOL + ":")) {
+            return uri;
+        }
+
+        int proxyIndex = uri.indexOf(FILE_PROXY_PATH);
+        if (proxyIndex >= 0) {
+            return STORAGE_PREFIX + uri.substring(proxyIndex + FILE_PROXY_PATH.length());
+        }
+        if (uri.startsWith(LOGOS_PREFIX)) {
+            return STORAGE_PREFIX + uri;
+        }
+        if (uri.startsWith("/") && loadStatic(uri.substring(1)).isPresent()) {
+            return STATIC_PREFIX + uri.substring(1);
+        }
+
+        return defaultResolver.resolveURI(baseUri, uri);
+    }
+
+    @Override
+    public FSStream getUrl(String url) {
+        Optional<byte[]> data = Optional.empty();
+        if (url.startsWith(STORAGE_PREFIX)) {
+            data = loadStored(url.substring(STORAGE_PREFIX.length()));
+        } else if (url.startsWith(STATIC_PREFIX)) {
+            data = loadStatic(url.substring(STATIC_PREFIX.length()));
+        }
+
+        if (data.isEmpty()) {
+            log.warn("PDF asset not found: {}", url);
+        }
+        return new InMemoryStream(data.orElse(null));
+    }
+
+    private Optional<byte[]> loadStored(String objectName) {
+        Optional<byte[]> data = assetCache.get(objectName);
+        if (data.isPresent()) {
+            return data;
+        }
+
+        Optional<String> original = LogoRendition.PDF.originalObjectName(objectName);
+        if (original.isEmpty()) {
+            return data;
+        }
+        return assetCache.get(original.get()).map(bytes -> {
+            try {
+                return logoRenditionService.backfill(original.get(), bytes, LogoRendition.PDF);
+            } catch (RuntimeException e) {
+                log.warn("Could not create PDF rendition for {}: {}", original.get(), e.getMessage());
+                return bytes;
+            }
+        });
+    }
+
+    private Optional<byte[]> loadStatic(String path) {
+        return staticAssets.computeIfAbsent(path, p -> {
+            try (InputStream in = getClass().getResourceAsStream("/static/" + p)) {
+                return in != null ? Optional.of(in.readAllBytes()) : Optional.empty();
+            } catch (IOException e) {
+                log.warn("Could not read static asset {}: {}", p, e.getMessage());
+                return Optional.empty();
+            }
+        });
+    }
+
+    private record InMemoryStream(byte[] data) implements FSStream {
+
+        @Override
+        public InputStream getStream() {
+            return data != null ? new ByteArrayInputStream(data) : null;
+        }
+
+        @Override
+        public Reader getReader() {
+            return data != null ? new InputStreamReader(getStream(), StandardCharsets.UTF_8) : null;
+        }
+    }
+}
@@ -1,13 +1,11 @@
 package com.invoices.invoice.infrastructure.services;
 
-import com.google.zxing.BarcodeFormat;
-import com.google.zxing.WriterException;
-import com.google.zxing.common.BitMatrix;
-import com.google.zxing.qrcode.QRCodeWriter;
+import com.invoices.document.domain.entities.LogoRendition;
 import com.invoices.invoice.domain.entities.Client;
 import com.invoices.invoice.domain.entities.Company;
 import com.invoices.invoice.domain.entities.Invoice;
 import com.invoices.invoice.domain.ports.PdfGenerator;
+import com.openhtmltopdf.pdfboxout.PdfBoxRenderer;
 import com.openhtmltopdf.pdfboxout.PdfRendererBuilder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,15 +13,11 @@ import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
-import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
-import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
 import org.apache.pdfbox.util.Matrix;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
 
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 
@@ -33,29 +27,58 @@ import java.io.IOException;
 public class PdfGenerationServiceImpl implements PdfGenerator {
 
     private final TemplateEngine templateEngine;
+    private final PdfRenderingContext renderingContext;
+    private final QrCodeRenderer qrCodeRenderer;
 
     @Override
     public byte[] generateInvoicePdf(Invoice invoice, Company company, Client client) {
         log.info("Starting PDF generation for invoice: {}", invoice.getInvoiceNumber());
 
         try {
-            // Phase 1: Generate PDF from HTML using OpenHTMLtoPDF
-            byte[] initialPdfBytes = generatePdfFromHtml(invoice, company, client);
-
-            // Phase 2: Post-process PDF using PDFBox (Watermark, Metadata)
-            return postProcessPdf(initialPdfBytes, invoice);
-
+            return renderPdf(invoice, company, client, null);
         } catch (Exception e) {
             log.error("Error generating PDF for invoice: {}", invoice.getInvoiceNumber(), e);
             throw new RuntimeException("Failed to generate PDF", e);
         }
     }
 
-    private byte[] generatePdfFromHtml(Invoice invoice, Company company, Client client) throws IOException {
+    /**
+     * Renders the invoice and applies every PDFBox decoration (metadata, watermarks
+     * and, when a payload is given, the VeriFactu QR) on the live document produced
+     * by OpenHTMLtoPDF, so the PDF is serialized exactly once.
+     */
+    private byte[] renderPdf(Invoice invoice, Company company, Client client, QrCodeRenderer.QrCode qrCode)
+            throws IOException {
+        String html = renderHtml(invoice, company, client);
+
+        try (ByteArrayOutputStream os = new ByteArrayOutputStream()) {
+            PdfRendererBuilder builder = renderingContext.newBuilder();
+            builder.withHtmlContent(html, "");
+            builder.toStream(os);
+
+            try (PdfBoxRenderer renderer = builder.buildPdfRenderer()) {
+                renderer.layout();
+                renderer.createPDFWithoutClosing();
+
+                PDDocument document = renderer.getPdfDocument();
+                postProcessPdf(document, invoice);
+                if (qrCode != null) {
+                    addQrCode(document, qrCode);
+                    addVerifiedWatermark(document);
+                }
+
+                document.save(os);
+            }
+            return os.toByteArray();
+        }
+    }
+
+    private String renderHtml(Invoice invoice, Company company, Client client) {
         Context context = new Context();
         context.setVariable("invoice", invoice);
         context.setVariable("company", company);
         context.setVariable("client", client);
+        context.setVariable("logoSrc", pdfLogoSource(company.getLogoUrl()));
 
         // Determine if it's a transport invoice based on items
         // Transport fields: vehiclePlate, zone, orderNumber, itemDate, gasPercentage
@@ -67,35 +90,33 @@ public class PdfGenerationServiceImpl implements PdfGenerator {
                         || item.getGasPercentage() != null);
         context.setVariable("isTransportInvoice", isTransportInvoice);
 
-        String html = templateEngine.process("invoice/invoice-template", context);
+        return templateEngine.process("invoice/invoice-template", context);
+    }
 
-        try (ByteArrayOutputStream os = new ByteArrayOutputStream()) {
-            PdfRendererBuilder builder = new PdfRendererBuilder();
-            builder.useFastMode();
-            builder.withHtmlContent(html, "");
-            builder.toStream(os);
-            builder.run();
-            return os.toByteArray();
+    /**
+     * Stored logos are embedded through their size-bounded PDF rendition; absolute
+     * URLs from legacy data are used as-is.
+     */
+    private String pdfLogoSource(String logoUrl) {
+        if (logoUrl == null || logoUrl.isBlank()) {
+            return null;
+        }
+        if (logoUrl.startsWith("http://") || logoUrl.startsWith("https://")) {
+            return logoUrl;
         }
+        return LogoRendition.PDF.objectName(logoUrl);
     }
 
-    private byte[] postProcessPdf(byte[] pdfBytes, Invoice invoice) throws IOException {
-        try (PDDocument document = PDDocument.load(new ByteArrayInputStream(pdfBytes));
-                ByteArrayOutputStream os = new ByteArrayOutputStream()) {
-
-            // Add Metadata
-            document.getDocumentInformation().setTitle("Factura " + invoice.getInvoiceNumber());
-            document.getDocumentInformation().setAuthor("Transolido SL");
-            document.getDocumentInformation().setCreator("Invoices System");
-            document.getDocumentInformation().setKeywords("Factura, Invoice, " + invoice.getInvoiceNumber());
-
-            // Add Watermark if not PAID
-            if (!"PAID".equalsIgnoreCase(invoice.getStatus().name())) {
-                addWatermark(document, "PENDIENTE");
-            }
+    private void postProcessPdf(PDDocument document, Invoice invoice) throws IOException {
+        // Add Metadata
+        document.getDocumentInformation().setTitle("Factura " + invoice.getInvoiceNumber());
+        document.getDocumentInformation().setAuthor("Transolido SL");
+        document.getDocumentInformation().setCreator("Invoices System");
+        document.getDocumentInformation().setKeywords("Factura, Invoice, " + invoice.getInvoiceNumber());
 
-            document.save(os);
-            return os.toByteArray();
+        // Add Watermark if not PAID
+        if (!"PAID".equalsIgnoreCase(invoice.getStatus().name())) {
+            addWatermark(document, "PENDIENTE");
         }
     }
 
@@ -129,85 +150,50 @@ public class PdfGenerationServiceImpl implements PdfGenerator {
     public byte[] generateInvoicePdfWithQr(Invoice invoice, Company company, Client client, String qrPayload) {
         log.info("Starting PDF generation with QR for invoice: {}", invoice.getInvoiceNumber());
 
-        BufferedImage qrImage = null;
         try {
-            // Phase 1: Generate base PDF
-            byte[] basePdf = generateInvoicePdf(invoice, company, client);
-
-            // Phase 2: Generate QR code
-            qrImage = generateQRCode(qrPayload, 200, 200); // 200x200 px
+            // Phase 1: Encode QR code (cached per payload)
+            QrCodeRenderer.QrCode qrCode = qrCodeRenderer.encode(qrPayload);
 
-            // Phase 3: Add QR code to PDF
-            return addQrCodeToPdf(basePdf, qrImage, invoice);
+            // Phase 2: Render PDF with QR code in the same pass
+            return renderPdf(invoice, company, client, qrCode);
 
         } catch (Exception e) {
             log.error("Error generating PDF with QR for invoice: {}", invoice.getInvoiceNumber(), e);
             throw new RuntimeException("Failed to generate PDF with QR", e);
-        } finally {
-            // Explicitly dispose BufferedImage to release native memory
-            if (qrImage != null) {
-                qrImage.flush();
-            }
         }
     }
 
-    private byte[] addQrCodeToPdf(byte[] basePdf, BufferedImage qrImage, Invoice invoice) throws IOException {
-        try (PDDocument document = PDDocument.load(new ByteArrayInputStream(basePdf));
-                ByteArrayOutputStream os = new ByteArrayOutputStream()) {
-
-            PDPage firstPage = document.getPage(0);
-
-            // Convert BufferedImage to PDImageXObject
-            PDImageXObject pdImage = LosslessFactory.createFromImage(document, qrImage);
-
-            try (PDPageContentStream contentStream = new PDPageContentStream(
-                    document, firstPage, PDPageContentStream.AppendMode.APPEND, true, true)) {
-
-                // VeriFactu QR size: 30-40mm. Using 30mm = 85pt (1mm ≈ 2.83pt)
-                float qrSize = 85;
-                float margin = 25;
-                float xPos = firstPage.getMediaBox().getWidth() - qrSize - margin;
-                float yPos = firstPage.getMediaBox().getHeight() - qrSize - margin - 10;
-
-                // Add "QR tributario" label above QR (VeriFactu requirement)
-                contentStream.setFont(PDType1Font.HELVETICA, 6);
-                contentStream.setNonStrokingColor(0.4f, 0.4f, 0.4f);
-                contentStream.beginText();
-                contentStream.newLineAtOffset(xPos + 20, yPos + qrSize + 3);
-                contentStream.showText("QR tributario");
-                contentStream.endText();
-
-                // Draw QR code
-                contentStream.drawImage(pdImage, xPos, yPos, qrSize, qrSize);
-
-                // Add "VERI*FACTU" text below QR
-                contentStream.setFont(PDType1Font.HELVETICA_BOLD, 7);
-                contentStream.setNonStrokingColor(0, 0.5f, 0); // Green
-                contentStream.beginText();
-                contentStream.newLineAtOffset(xPos + 15, yPos - 10);
-                contentStream.showText("VERI*FACTU");
-                contentStream.endText();
-            }
-
-            // Add verified watermark
-            addVerifiedWatermark(document);
-
-            document.save(os);
-            return os.toByteArray();
-        }
-    }
-
-    private BufferedImage generateQRCode(String data, int width, int height) throws WriterException {
-        QRCodeWriter qrCodeWriter = new QRCodeWriter();
-        BitMatrix bitMatrix = qrCodeWriter.encode(data, BarcodeFormat.QR_CODE, width, height);
-
-        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                image.setRGB(x, y, bitMatrix.get(x, y) ? 0xFF000000 : 0xFFFFFFFF);
-            }
+    private void addQrCode(PDDocument document, QrCodeRenderer.QrCode qrCode) throws IOException {
+        PDPage firstPage = document.getPage(0);
+
+        try (PDPageContentStream contentStream = new PDPageContentStream(
+                document, firstPage, PDPageContentStream.AppendMode.APPEND, true, true)) {
+
+            // VeriFactu QR size: 30-40mm. Using 30mm = 85pt (1mm ≈ 2.83pt)
+            float qrSize = 85;
+            float margin = 25;
+            float xPos = firstPage.getMediaBox().getWidth() - qrSize - margin;
+            float yPos = firstPage.getMediaBox().getHeight() - qrSize - margin - 10;
+
+            // Add "QR tributario" label above QR (VeriFactu requirement)
+            contentStream.setFont(PDType1Font.HELVETICA, 6);
+            contentStream.setNonStrokingColor(0.4f, 0.4f, 0.4f);
+            contentStream.beginText();
+            contentStream.newLineAtOffset(xPos + 20, yPos + qrSize + 3);
+            contentStream.showText("QR tributario");
+            contentStream.endText();
+
+            // Draw QR code as vector modules
+            qrCodeRenderer.draw(contentStream, qrCode, xPos, yPos, qrSize);
+
+            // Add "VERI*FACTU" text below QR
+            contentStream.setFont(PDType1Font.HELVETICA_BOLD, 7);
+            contentStream.setNonStrokingColor(0, 0.5f, 0); // Green
+            contentStream.beginText();
+            contentStream.newLineAtOffset(xPos + 15, yPos - 10);
+            contentStream.showText("VERI*FACTU");
+            contentStream.endText();
         }
-        return image;
     }
 
     private void addVerifiedWatermark(PDDocument document) throws IOException {
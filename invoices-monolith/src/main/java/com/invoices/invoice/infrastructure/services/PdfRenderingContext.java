@@ -0,0 +1,38 @@
+package com.invoices.invoice.infrastructure.services;
+
+import com.openhtmltopdf.pdfboxout.PdfRendererBuilder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Shared, pre-initialized state for OpenHTMLtoPDF rendering.
+ *
+ * A {@link PdfRendererBuilder} is not thread-safe, so one is still created per
+ * document, but everything that does not depend on the document is prepared once
+ * and reused by every render:
+ * - Logos and static assets are resolved in memory by {@link PdfAssetResolver},
+ * so rendering never performs network I/O for them.
+ *
+ * No fonts are embedded: the templates fall back to the renderer's built-in
+ * fonts.
+ */
+@Component
+public class PdfRenderingContext {
+
+    private final PdfAssetResolver assetResolver;
+
+    public PdfRenderingContext(PdfAssetResolver assetResolver) {
+        this.assetResolver = assetResolver;
+    }
+
+    /**
+     * Creates a builder for a single document, wired to the in-memory asset
+     * resolver.
+     */
+    public PdfRendererBuilder newBuilder() {
+        PdfRendererBuilder builder = new PdfRendererBuilder();
+        builder.useFastMode();
+        builder.useUriResolver(assetResolver);
+        builder.useProtocolsStreamImplementation(assetResolver, PdfAssetResolver.PROTOCOL);
+        return builder;
+    }
+}
@@ -0,0 +1,120 @@
+package com.invoices.invoice.infrastructure.services;
+
+import com.google.zxing.WriterException;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.encoder.ByteMatrix;
+import com.google.zxing.qrcode.encoder.Encoder;
+import com.google.zxing.qrcode.encoder.QRCode;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Draws VeriFactu QR codes as vector paths.
+ *
+ * The payload is encoded once into its module matrix and reduced to horizontal
+ * runs of dark modules; drawing is one rectangle per run and a single fill, with
+ * no bitmap or image XObject involved. Encoded codes are cached by payload, which
+ * is unique per invoice ({@code qr_payload}), so repeated downloads of a verified
+ * invoice never re-encode.
+ */
+@Component
+public class QrCodeRenderer {
+
+    /** Quiet zone required around the symbol by ISO/IEC 18004, in modules. */
+    private static final int QUIET_ZONE = 4;
+
+    private final Map<String, QrCode> cache;
+
+    public QrCodeRenderer(@Value("${verifactu.qr.cache-size:1000}") int cacheSize) {
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<String, QrCode>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, QrCode> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * Returns the encoded code for a payload, encoding it on first use.
+     */
+    public QrCode encode(String payload) throws WriterException {
+        QrCode cached = cache.get(payload);
+        if (cached != null) {
+            return cached;
+        }
+        QrCode encoded = QrCode.of(Encoder.encode(payload, ErrorCorrectionLevel.L));
+        cache.put(payload, encoded);
+        return encoded;
+    }
+
+    /**
+     * Draws the code, quiet zone included, as a {@code size} x {@code size} square
+     * whose lower-left corner is at ({@code x}, {@code y}).
+     */
+    public void draw(PDPageContentStream contentStream, QrCode qrCode, float x, float y, float size)
+            throws IOException {
+        int modules = qrCode.dimension() + 2 * QUIET_ZONE;
+        float moduleSize = size / modules;
+
+        contentStream.saveGraphicsState();
+        contentStream.setNonStrokingColor(1f, 1f, 1f);
+        contentStream.addRect(x, y, size, size);
+        contentStream.fill();
+
+        contentStream.setNonStrokingColor(0f, 0f, 0f);
+        int[] runs = qrCode.runs();
+        for (int i = 0; i < runs.length; i += 3) {
+            int row = runs[i];
+            int column = runs[i + 1];
+            int length = runs[i + 2];
+            // PDF y grows upwards, matrix rows grow downwards
+            contentStream.addRect(
+                    x + (QUIET_ZONE + column) * moduleSize,
+                    y + size - (QUIET_ZONE + row + 1) * moduleSize,
+                    length * moduleSize,
+                    moduleSize);
+        }
+        contentStream.fill();
+        contentStream.restoreGraphicsState();
+    }
+
+    /**
+     * Encoded QR symbol: its size in modules and its dark modules as
+     * {@code (row, column, length)} triples of horizontal runs.
+     */
+    public record QrCode(int dimension, int[] runs) {
+
+        static QrCode of(QRCode code) {
+            ByteMatrix matrix = code.getMatrix();
+            int dimension = matrix.getWidth();
+            // At most one run per two columns in each row
+            int[] runs = new int[dimension * ((dimension + 1) / 2) * 3];
+            int count = 0;
+
+            for (int row = 0; row < dimension; row++) {
+                int column = 0;
+                while (column < dimension) {
+                    if (matrix.get(column, row) != 1) {
+                        column++;
+                        continue;
+                    }
+                    int start = column;
+                    while (column < dimension && matrix.get(column, row) == 1) {
+                        column++;
+                    }
+                    runs[count++] = row;
+                    runs[count++] = start;
+                    runs[count++] = column - start;
+                }
+            }
+            return new QrCode(dimension, Arrays.copyOf(runs, count));
+        }
+    }
+}
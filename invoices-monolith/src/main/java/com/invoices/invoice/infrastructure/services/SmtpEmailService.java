@@ -1,28 +1,31 @@
 package com.invoices.invoice.infrastructure.services;
 
 import com.invoices.invoice.dto.BatchSummary;
-import jakarta.mail.internet.MimeMessage;
+import com.invoices.shared.infrastructure.mail.outbox.EmailChannel;
+import com.invoices.shared.infrastructure.mail.outbox.EmailOutbox;
+import com.invoices.shared.infrastructure.mail.outbox.OutboundEmail;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
 import java.time.format.DateTimeFormatter;
 
 /**
  * Service for sending emails (batch summaries, notifications, etc.)
+ *
+ * Messages are rendered here and queued in the email outbox, so callers (often
+ * inside a transaction) never wait for the SMTP server. VeriFactu failure
+ * alerts to the same address are folded into one digest.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class SmtpEmailService {
 
-    private final JavaMailSender mailSender;
+    private static final String VERIFACTU_FAILURE_COALESCE_KEY = "verifactu-failure";
 
-    @Value("${verifactu.email.from:noreply@invoices.com}")
-    private String fromEmail;
+    private final EmailOutbox emailOutbox;
 
     @Value("${verifactu.email.to:admin@invoices.com}")
     private String toEmail;
@@ -42,22 +45,18 @@ public class SmtpEmailService {
         }
 
         try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-            helper.setFrom(fromEmail);
-            helper.setTo(toEmail);
-            helper.setSubject(String.format("VERI*FACTU Batch Report - %s",
-                    summary.getTimestamp().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"))));
-
-            String htmlContent = buildEmailHtml(summary);
-            helper.setText(htmlContent, true);
-
-            mailSender.send(message);
-            log.info("Batch summary email sent successfully to {}", toEmail);
+            emailOutbox.enqueue(OutboundEmail.builder()
+                    .channel(EmailChannel.SMTP)
+                    .recipient(toEmail)
+                    .subject(String.format("VERI*FACTU Batch Report - %s",
+                            summary.getTimestamp().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"))))
+                    .body(buildEmailHtml(summary))
+                    .html(true)
+                    .build());
+            log.info("Batch summary email queued for {}", toEmail);
 
         } catch (Exception e) {
-            log.error("Failed to send batch summary email", e);
+            log.error("Failed to queue batch summary email", e);
         }
     }
 
@@ -197,21 +196,22 @@ public class SmtpEmailService {
         }
 
         try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-            helper.setFrom(fromEmail);
-            helper.setTo(toEmail);
-            helper.setSubject(String.format("⚠️ VeriFactu FALLÓ - Factura %s", invoiceNumber));
-
-            String htmlContent = buildFailureEmailHtml(invoiceId, invoiceNumber, companyId, retryCount, errorMessage);
-            helper.setText(htmlContent, true);
-
-            mailSender.send(message);
-            log.info("VeriFactu failure email sent for invoice {}", invoiceNumber);
+            emailOutbox.enqueue(OutboundEmail.builder()
+                    .channel(EmailChannel.SMTP)
+                    .recipient(toEmail)
+                    .subject(String.format("⚠️ VeriFactu FALLÓ - Factura %s", invoiceNumber))
+                    .body(buildFailureEmailHtml(invoiceId, invoiceNumber, companyId, retryCount, errorMessage))
+                    .html(true)
+                    .coalesceKey(VERIFACTU_FAILURE_COALESCE_KEY)
+                    .digestTitle("⚠️ VeriFactu FALLÓ - Facturas sin verificar")
+                    .summary(String.format("Factura %s (ID %d, empresa %d, %d intentos): %s", invoiceNumber,
+                            invoiceId, companyId, retryCount,
+                            errorMessage != null ? errorMessage : "Error desconocido"))
+                    .build());
+            log.info("VeriFactu failure email queued for invoice {}", invoiceNumber);
 
         } catch (Exception e) {
-            log.error("Failed to send VeriFactu failure email for invoice {}: {}", invoiceId, e.getMessage());
+            log.error("Failed to queue VeriFactu failure email for invoice {}: {}", invoiceId, e.getMessage());
         }
     }
 
@@ -0,0 +1,9 @@
+package com.invoices.invoice.infrastructure.status;
+
+/**
+ * Delivers invoice status events to the subscribers of every instance.
+ */
+public interface InvoiceStatusBroadcaster {
+
+    void broadcast(InvoiceStatusEvent event);
+}
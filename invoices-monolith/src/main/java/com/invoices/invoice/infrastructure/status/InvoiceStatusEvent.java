@@ -0,0 +1,40 @@
+package com.invoices.invoice.infrastructure.status;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A status transition of an invoice, pushed to the browsers of its company.
+ *
+ * The id is unique across instances (a random instance prefix and a sequence),
+ * and is sent as the SSE event id, so a client reconnecting with
+ * {@code Last-Event-ID} can be given what it missed.
+ */
+public record InvoiceStatusEvent(String id, Long companyId, Long invoiceId, String status, String txId,
+        String message, LocalDateTime timestamp) {
+
+    private static final String INSTANCE_PREFIX = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, 36);
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    public static InvoiceStatusEvent of(Long companyId, Long invoiceId, String status, String txId,
+            String message) {
+        return new InvoiceStatusEvent(INSTANCE_PREFIX + "-" + SEQUENCE.incrementAndGet(), companyId, invoiceId,
+                status, txId, message, LocalDateTime.now());
+    }
+
+    /**
+     * The data sent to the browser.
+     */
+    public Map<String, Object> payload() {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("invoiceId", invoiceId);
+        payload.put("status", status);
+        payload.put("timestamp", timestamp);
+        payload.put("txId", txId);
+        payload.put("message", message);
+        return payload;
+    }
+}
@@ -0,0 +1,292 @@
+package com.invoices.invoice.infrastructure.status;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The Server-Sent Events connections of this instance, grouped by company.
+ *
+ * Each event is sent to the open streams of its company only. The last
+ * {@code invoice-status.stream.replay-size} events of each company are kept,
+ * so a client reconnecting with {@code Last-Event-ID} is sent the events that
+ * followed it; if that id is no longer kept (or was never seen here) the
+ * client gets a {@value #RESYNC_EVENT} event and should reload the statuses it
+ * shows. Events of a company are queued to its streams under its lock, so
+ * replay and live delivery never interleave or reorder.
+ *
+ * Queuing never blocks: each stream has its own queue of at most
+ * {@code send-queue-size} events, written to the client by a small pool of
+ * {@code sender-threads}, one stream at a time. A client that falls further
+ * behind is disconnected and resumes with {@code Last-Event-ID}, so a slow
+ * client cannot hold up delivery to the others or the Redis listener.
+ *
+ * Streams are capped at {@code max-connections} per instance and
+ * {@code max-connections-per-company}; a comment is sent every
+ * {@code heartbeat-interval-millis} to keep proxies from closing idle streams
+ * and to notice clients that went away. Streams end after
+ * {@code timeout-millis} and browsers reconnect on their own.
+ */
+@Component
+@Slf4j
+public class InvoiceStatusStreamHub {
+
+    public static final String STATUS_EVENT = "invoice-status";
+    public static final String RESYNC_EVENT = "resync";
+
+    private final long timeoutMillis;
+    private final long reconnectMillis;
+    private final int maxConnections;
+    private final int maxConnectionsPerCompany;
+    private final int replaySize;
+    private final int sendQueueSize;
+    private final Executor sender;
+    private final Counter overflows;
+
+    private final Map<Long, CompanyChannel> channels = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+
+    private static final class CompanyChannel {
+        private final Set<Subscriber> subscribers = new CopyOnWriteArraySet<>();
+        // Guarded by this
+        private final Deque<InvoiceStatusEvent> recent = new ArrayDeque<>();
+
+        /**
+         * @return the events after the given one, or null if it is not kept
+         */
+        private List<InvoiceStatusEvent> after(String lastEventId) {
+            List<InvoiceStatusEvent> missed = new ArrayList<>();
+            Iterator<InvoiceStatusEvent> newestFirst = recent.descendingIterator();
+            while (newestFirst.hasNext()) {
+                InvoiceStatusEvent event = newestFirst.next();
+                if (event.id().equals(lastEventId)) {
+                    return missed.reversed();
+                }
+                missed.add(event);
+            }
+            return null;
+        }
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> pending;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // Set while a sender task owns the stream, so sends never run concurrently
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, int queueSize) {
+            this.emitter = emitter;
+            this.pending = new LinkedBlockingQueue<>(queueSize);
+        }
+    }
+
+    @Autowired
+    public InvoiceStatusStreamHub(MeterRegistry meterRegistry,
+            @Value("${invoice-status.stream.timeout-millis:1800000}") long timeoutMillis,
+            @Value("${invoice-status.stream.reconnect-millis:3000}") long reconnectMillis,
+            @Value("${invoice-status.stream.max-connections:2000}") int maxConnections,
+            @Value("${invoice-status.stream.max-connections-per-company:50}") int maxConnectionsPerCompany,
+            @Value("${invoice-status.stream.replay-size:200}") int replaySize,
+            @Value("${invoice-status.stream.send-queue-size:500}") int sendQueueSize,
+            @Value("${invoice-status.stream.sender-threads:4}") int senderThreads) {
+        this(meterRegistry, senderPool(senderThreads), timeoutMillis, reconnectMillis, maxConnections,
+                maxConnectionsPerCompany, replaySize, sendQueueSize);
+    }
+
+    /**
+     * @param sender writes queued events to the clients
+     */
+    InvoiceStatusStreamHub(MeterRegistry meterRegistry, Executor sender, long timeoutMillis, long reconnectMillis,
+            int maxConnections, int maxConnectionsPerCompany, int replaySize, int sendQueueSize) {
+        this.timeoutMillis = timeoutMillis;
+        this.reconnectMillis = reconnectMillis;
+        this.maxConnections = maxConnections;
+        this.maxConnectionsPerCompany = maxConnectionsPerCompany;
+        this.replaySize = replaySize;
+        this.sendQueueSize = sendQueueSize;
+        this.sender = sender;
+        meterRegistry.gauge("invoice.status.stream.connections", connections);
+        this.overflows = meterRegistry.counter("invoice.status.stream.overflows");
+    }
+
+    private static ExecutorService senderPool(int threads) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "invoice-status-sender-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (sender instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Opens a stream for a company.
+     *
+     * @param lastEventId the last event the client received, or null
+     * @return the stream, or empty if a connection limit is reached
+     */
+    public Optional<SseEmitter> subscribe(Long companyId, String lastEventId) {
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            log.warn("[Status Stream] Refusing stream of company {}: {} streams open on this instance", companyId,
+                    maxConnections);
+            return Optional.empty();
+        }
+
+        CompanyChannel channel = channels.computeIfAbsent(companyId, id -> new CompanyChannel());
+        Subscriber subscriber = new Subscriber(new SseEmitter(timeoutMillis), sendQueueSize);
+        synchronized (channel) {
+            if (channel.subscribers.size() >= maxConnectionsPerCompany) {
+                connections.decrementAndGet();
+                log.warn("[Status Stream] Refusing stream of company {}: {} streams open", companyId,
+                        maxConnectionsPerCompany);
+                return Optional.empty();
+            }
+            channel.subscribers.add(subscriber);
+            subscriber.emitter.onCompletion(() -> unsubscribe(channel, subscriber));
+            subscriber.emitter.onTimeout(() -> unsubscribe(channel, subscriber));
+            subscriber.emitter.onError(e -> unsubscribe(channel, subscriber));
+
+            enqueue(channel, subscriber, SseEmitter.event().reconnectTime(reconnectMillis).comment("connected"));
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                replay(channel, subscriber, lastEventId);
+            }
+        }
+        return Optional.of(subscriber.emitter);
+    }
+
+    /**
+     * Queues an event to the streams of its company on this instance. Does not
+     * wait for the clients.
+     */
+    public void deliver(InvoiceStatusEvent event) {
+        CompanyChannel channel = channels.computeIfAbsent(event.companyId(), id -> new CompanyChannel());
+        synchronized (channel) {
+            channel.recent.addLast(event);
+            while (channel.recent.size() > replaySize) {
+                channel.recent.removeFirst();
+            }
+            for (Subscriber subscriber : channel.subscribers) {
+                enqueue(channel, subscriber, statusEvent(event));
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${invoice-status.stream.heartbeat-interval-millis:15000}")
+    public void heartbeat() {
+        // Not under the company locks: comments carry no ordering
+        for (CompanyChannel channel : channels.values()) {
+            for (Subscriber subscriber : channel.subscribers) {
+                enqueue(channel, subscriber, SseEmitter.event().comment("heartbeat"));
+            }
+        }
+    }
+
+    int connectionCount() {
+        return connections.get();
+    }
+
+    private void replay(CompanyChannel channel, Subscriber subscriber, String lastEventId) {
+        List<InvoiceStatusEvent> missed = channel.after(lastEventId);
+        // The "connected" comment is already queued
+        if (missed == null || missed.size() >= sendQueueSize) {
+            enqueue(channel, subscriber, SseEmitter.event().name(RESYNC_EVENT)
+                    .data(Map.of("lastEventId", lastEventId), MediaType.APPLICATION_JSON));
+            return;
+        }
+        for (InvoiceStatusEvent event : missed) {
+            enqueue(channel, subscriber, statusEvent(event));
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder statusEvent(InvoiceStatusEvent event) {
+        return SseEmitter.event().id(event.id()).name(STATUS_EVENT).data(event.payload(), MediaType.APPLICATION_JSON);
+    }
+
+    private void enqueue(CompanyChannel channel, Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (subscriber.closed.get()) {
+            return;
+        }
+        if (!subscriber.pending.offer(event)) {
+            log.warn("[Status Stream] Dropping stream: client is {} events behind", sendQueueSize);
+            overflows.increment();
+            unsubscribe(channel, subscriber);
+            // Completed by a sender thread, as a send in progress holds the emitter
+            sender.execute(() -> complete(subscriber));
+            return;
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            sender.execute(() -> drain(channel, subscriber));
+        }
+    }
+
+    private void drain(CompanyChannel channel, Subscriber subscriber) {
+        do {
+            SseEmitter.SseEventBuilder event;
+            while (!subscriber.closed.get() && (event = subscriber.pending.poll()) != null) {
+                try {
+                    subscriber.emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    // The client went away; the container completes the emitter
+                    log.debug("[Status Stream] Dropping stream: {}", e.getMessage());
+                    unsubscribe(channel, subscriber);
+                }
+            }
+            subscriber.draining.set(false);
+            // An event queued after the last poll but before the flag was cleared
+            // found the stream still draining; pick it up here
+        } while (!subscriber.closed.get() && !subscriber.pending.isEmpty()
+                && subscriber.draining.compareAndSet(false, true));
+        if (subscriber.closed.get()) {
+            subscriber.pending.clear();
+        }
+    }
+
+    private static void complete(Subscriber subscriber) {
+        try {
+            subscriber.emitter.complete();
+        } catch (IllegalStateException e) {
+            log.debug("[Status Stream] Stream already completed: {}", e.getMessage());
+        }
+    }
+
+    private void unsubscribe(CompanyChannel channel, Subscriber subscriber) {
+        if (subscriber.closed.compareAndSet(false, true)) {
+            channel.subscribers.remove(subscriber);
+            connections.decrementAndGet();
+        }
+    }
+}
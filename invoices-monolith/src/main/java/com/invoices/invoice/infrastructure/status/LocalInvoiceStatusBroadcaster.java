@@ -0,0 +1,23 @@
+package com.invoices.invoice.infrastructure.status;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Delivers status events to the subscribers of this instance only
+ * ({@code invoice-status.stream.fanout=local}), for single-instance
+ * deployments without Redis.
+ */
+@Component
+@ConditionalOnProperty(prefix = "invoice-status.stream", name = "fanout", havingValue = "local")
+@RequiredArgsConstructor
+public class LocalInvoiceStatusBroadcaster implements InvoiceStatusBroadcaster {
+
+    private final InvoiceStatusStreamHub hub;
+
+    @Override
+    public void broadcast(InvoiceStatusEvent event) {
+        hub.deliver(event);
+    }
+}
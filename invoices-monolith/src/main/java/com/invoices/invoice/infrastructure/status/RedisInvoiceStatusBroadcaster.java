@@ -0,0 +1,106 @@
+package com.invoices.invoice.infrastructure.status;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Fans status events out to every instance through Redis pub/sub
+ * ({@code invoice-status.stream.fanout=redis}, the default).
+ *
+ * Events are published to {@code invoice-status.stream.channel} and delivered
+ * to the local {@link InvoiceStatusStreamHub} when they come back from Redis,
+ * including on the publishing instance, so every instance sees them in the
+ * same order and a client can resume on any of them. If publishing fails the
+ * event is delivered locally only; clients of other instances catch up from
+ * the REST API when they reconnect.
+ *
+ * Messages are handed to the hub by a single listener thread, in the order
+ * Redis delivers them; the container's default executor starts a thread per
+ * message, which would let them race for the company lock.
+ */
+@Component
+@ConditionalOnProperty(prefix = "invoice-status.stream", name = "fanout", havingValue = "redis", matchIfMissing = true)
+@Slf4j
+public class RedisInvoiceStatusBroadcaster implements InvoiceStatusBroadcaster, MessageListener {
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final InvoiceStatusStreamHub hub;
+    private final String channel;
+    private final ExecutorService listenerExecutor;
+
+    public RedisInvoiceStatusBroadcaster(RedisConnectionFactory connectionFactory, ObjectMapper objectMapper,
+            InvoiceStatusStreamHub hub,
+            @Value("${invoice-status.stream.channel:invoice-status}") String channel) {
+        this.redisTemplate = new StringRedisTemplate(connectionFactory);
+        this.listenerContainer = new RedisMessageListenerContainer();
+        this.listenerContainer.setConnectionFactory(connectionFactory);
+        this.listenerExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "invoice-status-listener");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.listenerContainer.setTaskExecutor(listenerExecutor);
+        this.objectMapper = objectMapper;
+        this.hub = hub;
+        this.channel = channel;
+    }
+
+    @PostConstruct
+    public void start() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(channel));
+        listenerContainer.afterPropertiesSet();
+        try {
+            listenerContainer.start();
+        } catch (RuntimeException e) {
+            // The container keeps retrying the subscription in the background
+            log.warn("[Status Stream] Could not subscribe to Redis channel {} yet: {}", channel, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws Exception {
+        listenerContainer.destroy();
+        listenerExecutor.shutdown();
+    }
+
+    @Override
+    public void broadcast(InvoiceStatusEvent event) {
+        try {
+            redisTemplate.convertAndSend(channel, objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("[Status Stream] Could not publish status of invoice {}, delivering locally only: {}",
+                    event.invoiceId(), e.getMessage());
+            hub.deliver(event);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        InvoiceStatusEvent event;
+        try {
+            event = objectMapper.readValue(message.getBody(), InvoiceStatusEvent.class);
+        } catch (IOException e) {
+            log.error("[Status Stream] Discarding malformed status event: {}", e.getMessage());
+            return;
+        }
+        hub.deliver(event);
+    }
+}
@@ -53,6 +53,7 @@ public class InvoiceController {
     private final CompanyRepository companyRepository;
     private final ClientRepository clientRepository;
     private final PdfGenerator pdfGenerator;
+    private final com.invoices.trace.domain.services.AuditService auditService;
 
     public InvoiceController(
             GetInvoiceByIdUseCase getInvoiceByIdUseCase,
@@ -64,7 +65,8 @@ public class InvoiceController {
             InvoiceRepository invoiceRepository,
             CompanyRepository companyRepository,
             ClientRepository clientRepository,
-            PdfGenerator pdfGenerator) {
+            PdfGenerator pdfGenerator,
+            com.invoices.trace.domain.services.AuditService auditService) {
         this.getInvoiceByIdUseCase = getInvoiceByIdUseCase;
         this.getAllInvoicesUseCase = getAllInvoicesUseCase;
         this.createInvoiceUseCase = createInvoiceUseCase;
@@ -75,6 +77,7 @@ public class InvoiceController {
         this.companyRepository = companyRepository;
         this.clientRepository = clientRepository;
         this.pdfGenerator = pdfGenerator;
+        this.auditService = auditService;
     }
 
     /**
@@ -405,6 +408,8 @@ public class InvoiceController {
             invoice.setVerifactuError(null);
             // Note: We keep the retryCount to track total attempts
             invoiceRepository.save(invoice);
+            auditService.logStatusChange(invoice.getCompanyId(), "VERIFACTU_STATUS_CHANGED", id,
+                    invoice.getInvoiceNumber(), currentStatus, "PENDING", "Manual retry");
 
             log.info("Invoice {} status reset to PENDING for manual retry", id);
 
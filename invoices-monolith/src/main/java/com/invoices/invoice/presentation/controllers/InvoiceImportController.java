@@ -0,0 +1,162 @@
+package com.invoices.invoice.presentation.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invoices.invoice.infrastructure.imports.InvoiceImport;
+import com.invoices.invoice.infrastructure.imports.InvoiceImportFormat;
+import com.invoices.invoice.infrastructure.imports.InvoiceImportService;
+import com.invoices.security.context.CompanyContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * REST controller for bulk invoice imports.
+ *
+ * POST /api/invoices/imports takes a CSV (text/csv) or NDJSON
+ * (application/x-ndjson) file and answers with NDJSON: one line per invoice of
+ * the file as it is committed ({@code line}, then {@code invoiceId} and
+ * {@code invoiceNumber}, or {@code error}), and a last line with the progress
+ * of the import. The Location header names the import as soon as it starts; if
+ * the upload is interrupted, sending the same file again with
+ * {@code ?importId=} continues after the last committed invoice.
+ */
+@RestController
+@RequestMapping("/api/invoices/imports")
+@RequiredArgsConstructor
+@Slf4j
+@PreAuthorize("!hasRole('PLATFORM_ADMIN')")
+public class InvoiceImportController {
+
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private final InvoiceImportService importService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * POST /api/invoices/imports - Import invoices from a CSV or NDJSON file
+     */
+    @PostMapping(consumes = { "text/csv", APPLICATION_NDJSON_VALUE })
+    public void importInvoices(
+            @RequestParam(required = false) String importId,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        Long companyId = CompanyContext.getCompanyId();
+        if (companyId == null) {
+            log.warn("No company context found for invoice import");
+            reject(response, HttpStatus.FORBIDDEN, "Company context required");
+            return;
+        }
+
+        InvoiceImportFormat format = InvoiceImportFormat.fromContentType(request.getContentType())
+                .orElseThrow();
+        InvoiceImport invoiceImport;
+        if (importId != null) {
+            Optional<InvoiceImport> existing = importService.find(companyId, importId);
+            if (existing.isEmpty()) {
+                reject(response, HttpStatus.NOT_FOUND, "Import not found: " + importId);
+                return;
+            }
+            invoiceImport = existing.get();
+            if (invoiceImport.getFormat() != format) {
+                reject(response, HttpStatus.BAD_REQUEST,
+                        "Import " + importId + " was started from a " + invoiceImport.getFormat() + " file");
+                return;
+            }
+            log.info("Resuming invoice import {} after line {}", importId, invoiceImport.getLastLine());
+        } else {
+            invoiceImport = importService.start(companyId, format);
+        }
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(APPLICATION_NDJSON_VALUE);
+        response.setHeader(HttpHeaders.LOCATION, "/api/invoices/imports/" + invoiceImport.getId());
+        // Keeps nginx from buffering the results
+        response.setHeader("X-Accel-Buffering", "no");
+        OutputStream out = response.getOutputStream();
+
+        Map<String, Object> summary;
+        try {
+            summary = importService.run(invoiceImport, request.getInputStream(), result -> write(out, result))
+                    .summary();
+        } catch (IOException | RuntimeException e) {
+            log.error("Invoice import {} stopped after line {}: {}", invoiceImport.getId(),
+                    invoiceImport.getLastLine(), e.getMessage());
+            summary = invoiceImport.summary();
+            summary.put("error", e.getMessage());
+        }
+
+        try {
+            write(out, summary);
+            out.flush();
+        } catch (UncheckedIOException e) {
+            log.debug("Client of invoice import {} went away: {}", invoiceImport.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * GET /api/invoices/imports/{importId} - Progress of an import
+     */
+    @GetMapping("/{importId}")
+    public ResponseEntity<Map<String, Object>> getImport(@PathVariable String importId) {
+        Long companyId = CompanyContext.getCompanyId();
+        if (companyId == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Company context required"));
+        }
+        return importService.find(companyId, importId)
+                .map(invoiceImport -> ResponseEntity.ok(invoiceImport.summary()))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Import not found: " + importId)));
+    }
+
+    /**
+     * GET /api/invoices/imports/{importId}/results - Outcome of every row
+     * committed so far, as NDJSON in file order
+     */
+    @GetMapping(value = "/{importId}/results", produces = APPLICATION_NDJSON_VALUE)
+    public void getImportResults(@PathVariable String importId, HttpServletResponse response) throws IOException {
+        Long companyId = CompanyContext.getCompanyId();
+        if (companyId == null) {
+            reject(response, HttpStatus.FORBIDDEN, "Company context required");
+            return;
+        }
+        Optional<InvoiceImport> invoiceImport = importService.find(companyId, importId);
+        if (invoiceImport.isEmpty()) {
+            reject(response, HttpStatus.NOT_FOUND, "Import not found: " + importId);
+            return;
+        }
+
+        response.setContentType(APPLICATION_NDJSON_VALUE);
+        OutputStream out = response.getOutputStream();
+        importService.forEachResult(invoiceImport.get(), result -> write(out, result));
+        out.flush();
+    }
+
+    private void write(OutputStream out, Object value) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getOutputStream().write(objectMapper.writeValueAsBytes(Map.of("error", message)));
+    }
+}
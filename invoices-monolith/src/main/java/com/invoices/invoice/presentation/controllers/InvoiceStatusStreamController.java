@@ -0,0 +1,57 @@
+package com.invoices.invoice.presentation.controllers;
+
+import com.invoices.invoice.infrastructure.status.InvoiceStatusStreamHub;
+import com.invoices.security.context.CompanyContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Server-Sent Events stream of the invoice status transitions of the current
+ * company, so the frontend no longer polls /{id}/verification-status.
+ *
+ * Events are named {@value InvoiceStatusStreamHub#STATUS_EVENT} and carry
+ * invoiceId, status, timestamp, txId and message. Browsers resend the last
+ * event id on reconnect and are sent what they missed; a
+ * {@value InvoiceStatusStreamHub#RESYNC_EVENT} event means it could not be,
+ * and the invoices shown should be reloaded.
+ */
+@RestController
+@RequestMapping("/api/invoices")
+@RequiredArgsConstructor
+@Slf4j
+public class InvoiceStatusStreamController {
+
+    private static final String RETRY_AFTER_SECONDS = "30";
+
+    private final InvoiceStatusStreamHub hub;
+
+    /**
+     * GET /api/invoices/status-stream - Stream invoice status transitions
+     */
+    @GetMapping(value = "/status-stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamStatus(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        Long companyId = CompanyContext.getCompanyId();
+        if (companyId == null) {
+            log.warn("No company context found - refusing status stream");
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        return hub.subscribe(companyId, lastEventId)
+                .map(emitter -> ResponseEntity.ok()
+                        // Keeps nginx from buffering the stream
+                        .header("X-Accel-Buffering", "no")
+                        .body(emitter))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header("Retry-After", RETRY_AFTER_SECONDS)
+                        .build());
+    }
+}
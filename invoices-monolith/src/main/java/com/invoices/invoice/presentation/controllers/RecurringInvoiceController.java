@@ -0,0 +1,82 @@
+package com.invoices.invoice.presentation.controllers;
+
+import com.invoices.invoice.dto.RecurringInvoiceDTO;
+import com.invoices.invoice.dto.RecurringInvoiceRequest;
+import com.invoices.invoice.infrastructure.recurring.RecurringInvoiceService;
+import com.invoices.security.context.CompanyContext;
+import com.invoices.shared.domain.exception.BusinessException;
+import com.invoices.user.domain.usecases.GetUserByEmailUseCase;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller for recurring invoices of the current company. The invoices
+ * are issued by the nightly run (RecurringInvoiceScheduler).
+ */
+@RestController
+@RequestMapping("/api/recurring-invoices")
+@RequiredArgsConstructor
+@Slf4j
+@PreAuthorize("!hasRole('PLATFORM_ADMIN')")
+public class RecurringInvoiceController {
+
+    private final RecurringInvoiceService recurringInvoiceService;
+    private final GetUserByEmailUseCase getUserByEmailUseCase;
+
+    /**
+     * GET /api/recurring-invoices - List recurring invoices
+     */
+    @GetMapping
+    public ResponseEntity<List<RecurringInvoiceDTO>> getRecurringInvoices() {
+        return ResponseEntity.ok(recurringInvoiceService.findAll(companyId()));
+    }
+
+    /**
+     * GET /api/recurring-invoices/{id} - Get a recurring invoice
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<RecurringInvoiceDTO> getRecurringInvoice(@PathVariable Long id) {
+        return ResponseEntity.ok(recurringInvoiceService.find(companyId(), id));
+    }
+
+    /**
+     * POST /api/recurring-invoices - Create a recurring invoice
+     */
+    @PostMapping
+    public ResponseEntity<RecurringInvoiceDTO> createRecurringInvoice(
+            @Valid @RequestBody RecurringInvoiceRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(recurringInvoiceService.create(companyId(), currentUserId(), request));
+    }
+
+    /**
+     * DELETE /api/recurring-invoices/{id} - Stop and delete a recurring invoice
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteRecurringInvoice(@PathVariable Long id) {
+        recurringInvoiceService.delete(companyId(), id);
+        return ResponseEntity.noContent().build();
+    }
+
+    private Long currentUserId() {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        return getUserByEmailUseCase.execute(email).getId();
+    }
+
+    private static Long companyId() {
+        Long companyId = CompanyContext.getCompanyId();
+        if (companyId == null) {
+            log.warn("No company context found for recurring invoices");
+            throw new BusinessException("COMPANY_CONTEXT_REQUIRED", "Company context required", HttpStatus.FORBIDDEN);
+        }
+        return companyId;
+    }
+}
@@ -0,0 +1,32 @@
+package com.invoices.outbox.domain.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Domain event stored in the transactional outbox.
+ *
+ * It is written in the same transaction as the change it describes and handed
+ * off by the relay afterwards. Events of one aggregate (aggregateType +
+ * aggregateId) are delivered in the order they were appended.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    private Long id;
+    private String aggregateType;
+    private String aggregateId;
+    private String eventType;
+    /** Event body as JSON */
+    private String payload;
+    private LocalDateTime createdAt;
+    /** Failed deliveries so far */
+    private int attempts;
+}
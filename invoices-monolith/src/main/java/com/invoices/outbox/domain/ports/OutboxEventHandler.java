@@ -0,0 +1,23 @@
+package com.invoices.outbox.domain.ports;
+
+import com.invoices.outbox.domain.entities.OutboxEvent;
+
+/**
+ * Delivers outbox events of some types; every handler supporting the type of an
+ * event gets it. Handlers run inside the relay transaction that deletes the
+ * event: database writes made through JDBC (or flushed before returning) commit
+ * together with the delete, so they happen exactly once. Calls to external
+ * systems may be repeated if the relay fails before committing, or if another
+ * handler of the event fails, and should be idempotent on
+ * {@link OutboxEvent#getId()}.
+ */
+public interface OutboxEventHandler {
+
+    boolean supports(String eventType);
+
+    /**
+     * @param event the event to deliver
+     * @throws RuntimeException if delivery fails; the event is retried later
+     */
+    void handle(OutboxEvent event);
+}
@@ -0,0 +1,59 @@
+package com.invoices.outbox.domain.ports;
+
+import com.invoices.outbox.domain.entities.OutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Port for the transactional outbox table.
+ */
+public interface OutboxRepository {
+
+    /**
+     * Appends an event in the caller's transaction, so it is stored if and only
+     * if the caller's changes are committed.
+     *
+     * @param event the event to append
+     */
+    void append(OutboxEvent event);
+
+    /**
+     * Appends several events in the caller's transaction with one batched
+     * insert, in list order.
+     *
+     * @param events the events to append
+     */
+    void appendAll(List<OutboxEvent> events);
+
+    /**
+     * Locks up to {@code limit} deliverable events, oldest first, skipping rows
+     * locked by other relays. Only the oldest pending event of each aggregate is
+     * deliverable, and only once its retry time has passed and it has fewer than
+     * {@code maxAttempts} failed attempts. Must be called in a transaction, which
+     * holds the locks until it ends.
+     *
+     * @param limit       maximum number of events
+     * @param now         current time, compared with the retry time
+     * @param maxAttempts attempts after which an event is parked
+     * @return the claimed events, in id order
+     */
+    List<OutboxEvent> claimBatch(int limit, LocalDateTime now, int maxAttempts);
+
+    /**
+     * Deletes delivered events.
+     *
+     * @param ids the event IDs
+     */
+    void deleteAll(List<Long> ids);
+
+    /**
+     * Records a failed delivery; the event is retried from {@code retryAt}.
+     *
+     * @param id       the event ID
+     * @param attempts failed attempts including this one
+     * @param retryAt  earliest time of the next attempt
+     * @param error    the failure message
+     */
+    void markFailed(Long id, int attempts, LocalDateTime retryAt, String error);
+}
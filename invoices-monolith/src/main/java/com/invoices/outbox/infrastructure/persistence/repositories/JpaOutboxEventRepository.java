@@ -0,0 +1,10 @@
+package com.invoices.outbox.infrastructure.persistence.repositories;
+
+import com.invoices.outbox.infrastructure.persistence.entities.OutboxEventJpaEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Spring Data JPA repository for OutboxEventJpaEntity.
+ */
+public interface JpaOutboxEventRepository extends JpaRepository<OutboxEventJpaEntity, Long> {
+}
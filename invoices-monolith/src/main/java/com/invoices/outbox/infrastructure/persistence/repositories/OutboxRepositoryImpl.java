@@ -0,0 +1,116 @@
+package com.invoices.outbox.infrastructure.persistence.repositories;
+
+import com.invoices.outbox.domain.entities.OutboxEvent;
+import com.invoices.outbox.domain.ports.OutboxRepository;
+import com.invoices.outbox.infrastructure.persistence.entities.OutboxEventJpaEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Implementation of OutboxRepository port.
+ *
+ * Events are appended through JPA, so they are flushed with the rest of the
+ * caller's unit of work; appendAll inserts at once with a JdbcTemplate batch,
+ * since IDENTITY ids disable Hibernate insert batching. Claiming uses plain
+ * SQL for FOR UPDATE SKIP LOCKED: concurrent relays never wait for each
+ * other, and since a row is only claimable while no older row of its aggregate
+ * exists, an aggregate whose head is locked (or waiting for a retry) is skipped
+ * as a whole, which keeps its events in order without any further
+ * coordination.
+ */
+@Repository
+public class OutboxRepositoryImpl implements OutboxRepository {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private static final String CLAIM_SQL = "SELECT o.id, o.aggregate_type, o.aggregate_id, o.event_type, "
+            + "o.payload, o.created_at, o.attempts FROM outbox o "
+            + "WHERE o.available_at <= ? AND o.attempts < ? "
+            + "AND NOT EXISTS (SELECT 1 FROM outbox p WHERE p.aggregate_type = o.aggregate_type "
+            + "AND p.aggregate_id = o.aggregate_id AND p.id < o.id) "
+            + "ORDER BY o.id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String INSERT_SQL = "INSERT INTO outbox (aggregate_type, aggregate_id, event_type, "
+            + "payload, created_at, available_at, attempts) VALUES (?, ?, ?, ?, ?, ?, 0)";
+
+    private static final String DELETE_SQL = "DELETE FROM outbox WHERE id = ?";
+
+    private static final String MARK_FAILED_SQL = "UPDATE outbox SET attempts = ?, available_at = ?, last_error = ? "
+            + "WHERE id = ?";
+
+    private static final RowMapper<OutboxEvent> ROW_MAPPER = (rs, rowNum) -> OutboxEvent.builder()
+            .id(rs.getLong("id"))
+            .aggregateType(rs.getString("aggregate_type"))
+            .aggregateId(rs.getString("aggregate_id"))
+            .eventType(rs.getString("event_type"))
+            .payload(rs.getString("payload"))
+            .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+            .attempts(rs.getInt("attempts"))
+            .build();
+
+    private final JpaOutboxEventRepository jpaOutboxEventRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public OutboxRepositoryImpl(JpaOutboxEventRepository jpaOutboxEventRepository, JdbcTemplate jdbcTemplate) {
+        this.jpaOutboxEventRepository = jpaOutboxEventRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void append(OutboxEvent event) {
+        LocalDateTime createdAt = event.getCreatedAt() != null ? event.getCreatedAt() : LocalDateTime.now();
+        OutboxEventJpaEntity saved = jpaOutboxEventRepository.save(OutboxEventJpaEntity.builder()
+                .aggregateType(event.getAggregateType())
+                .aggregateId(event.getAggregateId())
+                .eventType(event.getEventType())
+                .payload(event.getPayload())
+                .createdAt(createdAt)
+                .availableAt(createdAt)
+                .build());
+        event.setId(saved.getId());
+        event.setCreatedAt(createdAt);
+    }
+
+    @Override
+    public void appendAll(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (ps, event) -> {
+            Timestamp createdAt = event.getCreatedAt() != null ? Timestamp.valueOf(event.getCreatedAt()) : now;
+            ps.setString(1, event.getAggregateType());
+            ps.setString(2, event.getAggregateId());
+            ps.setString(3, event.getEventType());
+            ps.setString(4, event.getPayload());
+            ps.setTimestamp(5, createdAt);
+            ps.setTimestamp(6, createdAt);
+        });
+    }
+
+    @Override
+    public List<OutboxEvent> claimBatch(int limit, LocalDateTime now, int maxAttempts) {
+        return jdbcTemplate.query(CLAIM_SQL, ROW_MAPPER, Timestamp.valueOf(now), maxAttempts, limit);
+    }
+
+    @Override
+    public void deleteAll(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(DELETE_SQL, ids, ids.size(), (ps, id) -> ps.setLong(1, id));
+    }
+
+    @Override
+    public void markFailed(Long id, int attempts, LocalDateTime retryAt, String error) {
+        String lastError = error != null && error.length() > MAX_ERROR_LENGTH
+                ? error.substring(0, MAX_ERROR_LENGTH)
+                : error;
+        jdbcTemplate.update(MARK_FAILED_SQL, attempts, Timestamp.valueOf(retryAt), lastError, id);
+    }
+}
@@ -0,0 +1,200 @@
+package com.invoices.outbox.infrastructure.relay;
+
+import com.invoices.outbox.domain.entities.OutboxEvent;
+import com.invoices.outbox.domain.ports.OutboxEventHandler;
+import com.invoices.outbox.domain.ports.OutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hands off events from the transactional outbox (see V47).
+ *
+ * Each batch runs in one transaction: up to {@code outbox.relay.batch-size}
+ * events are claimed with FOR UPDATE SKIP LOCKED, so any number of instances can
+ * relay concurrently, delivered in id order to every {@link OutboxEventHandler}
+ * supporting their type, and deleted in the same transaction. If the relay dies
+ * before committing, the locks are released and the whole batch is delivered
+ * again; writes made by the handlers roll back with it.
+ *
+ * A handler that throws only undoes its own event, including what the other
+ * handlers wrote for it (a JDBC savepoint, which is why handlers must write
+ * through JDBC or flush before returning): the event is retried after an
+ * exponential backoff starting at {@code outbox.relay.retry-backoff-millis},
+ * and the later events of its aggregate wait for it. After
+ * {@code outbox.relay.max-attempts} failures the event is parked, holding back
+ * its aggregate until it is fixed or removed by hand. Events without a handler
+ * are logged and dropped.
+ *
+ * Metrics: {@code outbox.events.delivered}, {@code outbox.events.failed} and
+ * {@code outbox.events.parked}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "outbox.relay", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class OutboxRelay {
+
+    private static final String METRIC_PREFIX = "outbox";
+
+    private final OutboxRepository outboxRepository;
+    private final List<OutboxEventHandler> handlers;
+    private final DataSource dataSource;
+    private final TransactionTemplate batchTransaction;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final long maxBackoffMillis;
+
+    private final Counter delivered;
+    private final Counter failed;
+    private final Counter parked;
+
+    private record BatchResult(int claimed, int delivered, int failed, int parked) {
+    }
+
+    public OutboxRelay(OutboxRepository outboxRepository, List<OutboxEventHandler> handlers,
+            DataSource dataSource, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            @Value("${outbox.relay.batch-size:100}") int batchSize,
+            @Value("${outbox.relay.max-attempts:10}") int maxAttempts,
+            @Value("${outbox.relay.retry-backoff-millis:1000}") long retryBackoffMillis,
+            @Value("${outbox.relay.max-backoff-millis:300000}") long maxBackoffMillis) {
+        this.outboxRepository = outboxRepository;
+        this.handlers = handlers;
+        this.dataSource = dataSource;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+
+        this.delivered = meterRegistry.counter(METRIC_PREFIX + ".events.delivered");
+        this.failed = meterRegistry.counter(METRIC_PREFIX + ".events.failed");
+        this.parked = meterRegistry.counter(METRIC_PREFIX + ".events.parked");
+    }
+
+    /**
+     * Relays batches until the outbox has no more deliverable events.
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-interval-millis:500}")
+    public void drain() {
+        try {
+            int claimed;
+            do {
+                claimed = relayBatch();
+            } while (claimed == batchSize);
+        } catch (RuntimeException e) {
+            log.error("Outbox relay failed, retrying on next poll", e);
+        }
+    }
+
+    /**
+     * Claims, delivers and deletes one batch of events.
+     *
+     * @return the number of events claimed
+     */
+    public int relayBatch() {
+        BatchResult result = batchTransaction.execute(status -> {
+            List<OutboxEvent> batch = outboxRepository.claimBatch(batchSize, LocalDateTime.now(), maxAttempts);
+            List<Long> done = new ArrayList<>(batch.size());
+            int failedCount = 0;
+            int parkedCount = 0;
+            for (OutboxEvent event : batch) {
+                try {
+                    deliver(event);
+                    done.add(event.getId());
+                } catch (RuntimeException e) {
+                    failedCount++;
+                    if (fail(event, e)) {
+                        parkedCount++;
+                    }
+                }
+            }
+            outboxRepository.deleteAll(done);
+            return new BatchResult(batch.size(), done.size(), failedCount, parkedCount);
+        });
+
+        delivered.increment(result.delivered());
+        failed.increment(result.failed());
+        parked.increment(result.parked());
+        if (result.claimed() > 0) {
+            log.debug("Relayed outbox batch: {} claimed, {} delivered, {} failed", result.claimed(),
+                    result.delivered(), result.failed());
+        }
+        return result.claimed();
+    }
+
+    private void deliver(OutboxEvent event) {
+        List<OutboxEventHandler> supporting = handlers.stream()
+                .filter(h -> h.supports(event.getEventType()))
+                .toList();
+        if (supporting.isEmpty()) {
+            log.warn("No outbox handler for event {} of type {}, dropping it", event.getId(), event.getEventType());
+            return;
+        }
+        // Spring's nested transactions need savepoint support from the JpaDialect,
+        // which Hibernate's lacks, so the savepoint is set on the JDBC connection
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        Savepoint savepoint = setSavepoint(connection);
+        try {
+            for (OutboxEventHandler handler : supporting) {
+                handler.handle(event);
+            }
+        } catch (RuntimeException e) {
+            rollbackTo(connection, savepoint);
+            throw e;
+        }
+    }
+
+    private static Savepoint setSavepoint(Connection connection) {
+        try {
+            return connection.setSavepoint();
+        } catch (SQLException e) {
+            throw new TransactionSystemException("Could not create savepoint", e);
+        }
+    }
+
+    private static void rollbackTo(Connection connection, Savepoint savepoint) {
+        try {
+            connection.rollback(savepoint);
+        } catch (SQLException e) {
+            throw new TransactionSystemException("Could not roll back to savepoint", e);
+        }
+    }
+
+    /**
+     * Schedules the retry of a failed event.
+     *
+     * @return true if the event is now parked
+     */
+    private boolean fail(OutboxEvent event, RuntimeException e) {
+        int attempts = event.getAttempts() + 1;
+        long backoff = Math.min(retryBackoffMillis << Math.min(attempts - 1, 30), maxBackoffMillis);
+        outboxRepository.markFailed(event.getId(), attempts, LocalDateTime.now().plusNanos(backoff * 1_000_000),
+                e.toString());
+
+        if (attempts >= maxAttempts) {
+            log.error("Outbox event {} ({} of {} {}) parked after {} attempts", event.getId(), event.getEventType(),
+                    event.getAggregateType(), event.getAggregateId(), attempts, e);
+            return true;
+        }
+        log.warn("Outbox event {} ({}) failed, attempt {} of {}: {}", event.getId(), event.getEventType(), attempts,
+                maxAttempts, e.getMessage());
+        return false;
+    }
+}
@@ -1,5 +1,8 @@
 package com.invoices.security;
 
+import com.invoices.security.context.CompanyContext;
+import com.invoices.security.context.RequestSecurityContext;
+import com.invoices.user.infrastructure.security.UserSecurityStampCache;
 import com.invoices.user.exception.InvalidTokenException;
 import com.invoices.user.exception.TokenExpiredException;
 import jakarta.servlet.FilterChain;
@@ -10,7 +13,9 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -19,10 +24,20 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Filter that processes JWT authentication for each request.
  * Extends OncePerRequestFilter to ensure a single execution per request.
+ *
+ * The token is verified exactly once; its claims are published through
+ * {@link RequestSecurityContext} for the rest of the request.
+ *
+ * The principal is built from the token claims. Instead of loading the user, the
+ * token's security stamp is compared with the user's current one through
+ * {@link UserSecurityStampCache}, so steady-state requests run no auth queries.
+ * Tokens issued before stamps existed fall back to loading the user.
  */
 @Component
 @Slf4j
@@ -34,6 +49,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final UserSecurityStampCache securityStampCache;
 
     /**
      * Filters incoming requests to validate JWT tokens.
@@ -67,14 +83,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             try {
                 filterChain.doFilter(request, response);
             } finally {
-                // Clear company context to prevent data leakage in thread pool
-                com.invoices.security.context.CompanyContext.clear();
+                // Clear request contexts to prevent data leakage in thread pool
+                RequestSecurityContext.clear();
+                CompanyContext.clear();
             }
         }
     }
 
-    // ... (skip other methods)
-
     /**
      * Extracts JWT token from the Authorization header.
      *
@@ -100,30 +115,37 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
      * @param request the HTTP request
      */
     private void authenticateWithJwt(String jwt, HttpServletRequest request) {
-        String username = jwtUtil.extractUsername(jwt);
-        log.debug("Authenticating user: {}", username);
-
-        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        VerifiedToken token = jwtUtil.verify(jwt);
+        log.debug("Authenticating user: {}", token.username());
+
+        UserDetails userDetails;
+        if (token.securityStamp() != null) {
+            if (!securityStampCache.isCurrent(token.username(), token.securityStamp())) {
+                log.warn("Rejected JWT for user {}: account changed since the token was issued", token.username());
+                return;
+            }
+            userDetails = User.withUsername(token.username())
+                    .password("")
+                    .authorities(UserDetailsServiceImpl.toAuthorities(token.platformRole(), token.roles()))
+                    .build();
+        } else {
+            userDetails = userDetailsService.loadUserByUsername(token.username());
+        }
 
-        if (jwtUtil.validateToken(jwt, userDetails)) {
-            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                    userDetails,
-                    null,
-                    userDetails.getAuthorities());
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                userDetails,
+                null,
+                userDetails.getAuthorities());
 
-            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
 
-            // Set company context from token
-            Long companyId = jwtUtil.extractCompanyId(jwt);
-            if (companyId != null) {
-                com.invoices.security.context.CompanyContext.setCompanyId(companyId);
-                log.debug("Set company context to: {}", companyId);
-            }
+        // Publish verified claims (including company) for the rest of the request
+        Set<String> authorities = userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toUnmodifiableSet());
+        RequestSecurityContext.set(new RequestSecurityContext.Authenticated(token, authorities));
 
-            log.info("Successfully authenticated user: {}", username);
-        } else {
-            log.warn("JWT token validation failed for user: {}", username);
-        }
+        log.debug("Successfully authenticated user: {} (company {})", token.username(), token.companyId());
     }
 }
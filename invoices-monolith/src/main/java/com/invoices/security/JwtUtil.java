@@ -1,15 +1,19 @@
 package com.invoices.security;
 
+import com.invoices.user.domain.entities.User;
 import com.invoices.user.exception.InvalidTokenException;
 import com.invoices.user.exception.TokenExpiredException;
+import io.jsonwebtoken.ClaimJwtException;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -18,20 +22,29 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Utility class for generating and validating JWT tokens.
  * Uses HS256 algorithm for signing tokens.
+ *
+ * The signing key and the parser are built once at startup; {@link JwtParser} is
+ * immutable and thread-safe, so every request reuses them.
  */
 @Component
 @Slf4j
 @RequiredArgsConstructor
 public class JwtUtil {
 
+    private static final String PLATFORM_ROLE_CLAIM = "platformRole";
+    private static final String SECURITY_STAMP_CLAIM = "sst";
+
     @Value("${jwt.secret}")
     private String secret;
 
@@ -41,32 +54,45 @@ public class JwtUtil {
     @Value("${jwt.issuer}")
     private String issuer;
 
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .requireIssuer(issuer) // Validate issuer to prevent tokens from other systems
+                .build();
+    }
+
     /**
-     * Generates a JWT token for the given email, roles and companyId.
+     * Generates a JWT token for the given user and its current company.
+     *
+     * The token carries everything needed to authorize a request without loading
+     * the user: roles, platform role and the user's security stamp, which is
+     * checked against the current one to reject tokens issued before a password
+     * reset, role change or deactivation.
      *
-     * @param email     the user's email
-     * @param roles     the user's roles
-     * @param companyId the user's current company ID
+     * @param user the authenticated user
      * @return the generated JWT token
      */
-    public String generateToken(String email, java.util.Set<String> roles, Long companyId) {
+    public String generateToken(User user) {
         Map<String, Object> claims = new HashMap<>();
 
         // Add roles to claims
-        String rolesString = String.join(",", roles);
+        String rolesString = String.join(",", user.getRoles());
         claims.put("roles", rolesString);
+        claims.put(PLATFORM_ROLE_CLAIM, user.getPlatformRole().name());
+        claims.put(SECURITY_STAMP_CLAIM, user.getSecurityStamp());
 
-        // Note: platformRole should be passed if needed, but for now we rely on
-        // UserDetails flow
-        // or we could add an overload. For legacy/company flow, platformRole might not
-        // be primary.
-
+        Long companyId = user.getCurrentCompanyId();
         if (companyId != null) {
             claims.put("companyId", companyId);
         }
 
-        String token = createToken(claims, email);
-        log.info("Generated JWT token for user: {} with companyId: {}", email, companyId);
+        String token = createToken(claims, user.getEmail());
+        log.info("Generated JWT token for user: {} with companyId: {}", user.getEmail(), companyId);
 
         return token;
     }
@@ -78,15 +104,48 @@ public class JwtUtil {
      * @return the companyId or null if not present
      */
     public Long extractCompanyId(String token) {
-        return extractClaim(token, claims -> {
-            Object companyId = claims.get("companyId");
-            if (companyId instanceof Integer) {
-                return ((Integer) companyId).longValue();
-            } else if (companyId instanceof Long) {
-                return (Long) companyId;
-            }
-            return null;
-        });
+        return extractClaim(token, JwtUtil::companyId);
+    }
+
+    /**
+     * Verifies the token (signature, issuer and expiration) and returns its claims.
+     * This is the only parse needed to authenticate a request.
+     *
+     * @param token the JWT token
+     * @return the verified claims
+     * @throws InvalidTokenException if the token is invalid
+     * @throws TokenExpiredException if the token has expired
+     */
+    public VerifiedToken verify(String token) {
+        Claims claims = extractAllClaims(token);
+        return new VerifiedToken(
+                claims.getSubject(),
+                companyId(claims),
+                roles(claims),
+                claims.get(PLATFORM_ROLE_CLAIM, String.class),
+                claims.get(SECURITY_STAMP_CLAIM, String.class),
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null);
+    }
+
+    private static Long companyId(Claims claims) {
+        Object companyId = claims.get("companyId");
+        if (companyId instanceof Integer) {
+            return ((Integer) companyId).longValue();
+        } else if (companyId instanceof Long) {
+            return (Long) companyId;
+        }
+        return null;
+    }
+
+    private static Set<String> roles(Claims claims) {
+        Object roles = claims.get("roles");
+        if (!(roles instanceof String rolesString) || rolesString.isBlank()) {
+            return Set.of();
+        }
+        return Arrays.stream(rolesString.split(","))
+                .map(String::trim)
+                .filter(role -> !role.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
     }
 
     /**
@@ -106,7 +165,7 @@ public class JwtUtil {
                 .setIssuer(issuer)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -153,15 +212,13 @@ public class JwtUtil {
      */
     public Claims extractAllClaims(String token) {
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .requireIssuer(issuer) // Validate issuer to prevent tokens from other systems
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            return parser.parseClaimsJws(token).getBody();
         } catch (ExpiredJwtException e) {
             log.warn("JWT token has expired: {}", e.getMessage());
             throw new TokenExpiredException("JWT token has expired", e);
+        } catch (ClaimJwtException e) {
+            log.warn("JWT claim validation failed: {}", e.getMessage());
+            throw new InvalidTokenException("Invalid JWT claims", e);
         } catch (UnsupportedJwtException e) {
             log.warn("Unsupported JWT token: {}", e.getMessage());
             throw new InvalidTokenException("Unsupported JWT token", e);
@@ -177,22 +234,9 @@ public class JwtUtil {
         }
     }
 
-    /**
-     * Checks if the token has expired.
-     *
-     * @param token the JWT token
-     * @return true if expired, false otherwise
-     */
-    private Boolean isTokenExpired(String token) {
-        try {
-            return extractExpiration(token).before(new Date());
-        } catch (TokenExpiredException e) {
-            return true;
-        }
-    }
-
     /**
      * Validates the JWT token against user details.
+     * Expired tokens are rejected by the parser itself.
      *
      * @param token       the JWT token
      * @param userDetails the user details to validate against
@@ -201,10 +245,10 @@ public class JwtUtil {
     public Boolean validateToken(String token, UserDetails userDetails) {
         try {
             final String username = extractUsername(token);
-            boolean isValid = username.equals(userDetails.getUsername()) && !isTokenExpired(token);
+            boolean isValid = username.equals(userDetails.getUsername());
 
             if (isValid) {
-                log.info("JWT token validated successfully for user: {}", username);
+                log.debug("JWT token validated successfully for user: {}", username);
             } else {
                 log.warn("JWT token validation failed for user: {}", username);
             }
@@ -225,13 +269,8 @@ public class JwtUtil {
     public Boolean validateToken(String token) {
         try {
             extractAllClaims(token);
-            boolean isExpired = isTokenExpired(token);
-
-            if (!isExpired) {
-                log.info("JWT token is valid");
-            }
-
-            return !isExpired;
+            log.debug("JWT token is valid");
+            return true;
         } catch (InvalidTokenException | TokenExpiredException e) {
             log.warn("Token validation failed: {}", e.getMessage());
             return false;
@@ -246,14 +285,4 @@ public class JwtUtil {
     public Long getExpirationTime() {
         return expiration;
     }
-
-    /**
-     * Gets the signing key from the secret.
-     *
-     * @return the signing key
-     */
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
 }
@@ -1,12 +1,15 @@
 package com.invoices.security;
 
-import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
+import com.invoices.security.context.RequestSecurityContext;
+import com.invoices.security.ratelimit.RateLimitBuckets;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
@@ -15,58 +18,36 @@ import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 import java.time.Duration;
-import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Rate limiting filter using Bucket4j token bucket algorithm.
- * Limits requests per IP address to prevent abuse and DoS attacks.
+ * Limits requests to prevent abuse and DoS attacks.
  *
  * Configuration loaded from application.yml (rate-limit.* properties):
- * - General endpoints: Configurable requests/minute per IP (default: 100)
  * - Auth endpoints (/api/auth/*): Configurable requests/minute per IP (default:
  * 10)
+ * - Anonymous requests: Configurable requests/minute per IP (default: 100)
+ * - Authenticated requests: Configurable requests/minute per user (default: 300)
+ * and per tenant (company) (default: 1000)
+ *
+ * Runs after the Spring Security chain, so the verified token is available
+ * through {@link RequestSecurityContext}. Buckets are held by
+ * {@link RateLimitBuckets}, locally or in Redis (rate-limit.redis.enabled).
  */
 @Component
 @Order(1)
 @Slf4j
 public class RateLimitingFilter implements Filter {
 
-    /**
-     * Wrapper to track bucket access time for TTL-based eviction.
-     */
-    private static class BucketEntry {
-        final Bucket bucket;
-        long lastAccessTime;
-
-        BucketEntry(Bucket bucket) {
-            this.bucket = bucket;
-            this.lastAccessTime = System.currentTimeMillis();
-        }
-
-        void updateAccessTime() {
-            this.lastAccessTime = System.currentTimeMillis();
-        }
-    }
-
-    private final Map<String, BucketEntry> generalCache;
-    private final Map<String, BucketEntry> authCache;
+    private final RateLimitBuckets buckets;
     private final RateLimitProperties properties;
 
-    public RateLimitingFilter(RateLimitProperties properties) {
+    public RateLimitingFilter(RateLimitProperties properties, ObjectProvider<ProxyManager<String>> proxyManager) {
+        this.buckets = new RateLimitBuckets(properties.getMaxCacheEntries(), proxyManager.getIfAvailable(),
+                Duration.ofMillis(properties.getRedis().getTimeoutMillis()),
+                Duration.ofSeconds(properties.getRedis().getRetryAfterSeconds()));
         this.properties = properties;
-        // Use LinkedHashMap with LRU eviction to prevent unbounded growth
-        this.generalCache = Collections.synchronizedMap(new LinkedHashMap<String, BucketEntry>(16, 0.75f, true) {
-            @Override
-            protected boolean removeEldestEntry(Map.Entry<String, BucketEntry> eldest) {
-                return size() > properties.getMaxCacheEntries();
-            }
-        });
-        this.authCache = Collections.synchronizedMap(new LinkedHashMap<String, BucketEntry>(16, 0.75f, true) {
-            @Override
-            protected boolean removeEldestEntry(Map.Entry<String, BucketEntry> eldest) {
-                return size() > properties.getMaxCacheEntries();
-            }
-        });
     }
 
     /**
@@ -81,8 +62,20 @@ public class RateLimitingFilter implements Filter {
         private long generalRefillMinutes = 1; // Default: 1 minute
         private long authCapacity = 10; // Default: 10 requests/minute
         private long authRefillMinutes = 1; // Default: 1 minute
-        private int maxCacheEntries = 50; // Default: 50 per cache (optimized for 5 companies)
-        private long cacheEntryTtlMinutes = 5; // Default: 5 minutes
+        private long userCapacity = 300; // Default: 300 requests/minute per user
+        private long userRefillMinutes = 1; // Default: 1 minute
+        private long tenantCapacity = 1000; // Default: 1000 requests/minute per company
+        private long tenantRefillMinutes = 1; // Default: 1 minute
+        private int maxCacheEntries = 10000; // Soft cap; idle (fully refilled) buckets are swept above it
+        private Redis redis = new Redis();
+
+        @Data
+        public static class Redis {
+            private boolean enabled = false; // Share buckets across instances
+            private String keyPrefix = "rate-limit:";
+            private long timeoutMillis = 500; // Wait for Redis before falling back to the local bucket
+            private long retryAfterSeconds = 10; // Redis is skipped this long after a failure
+        }
     }
 
     @Override
@@ -103,31 +96,51 @@ public class RateLimitingFilter implements Filter {
 
         // Check if it's an auth endpoint
         boolean isAuthEndpoint = requestPath.startsWith("/api/auth/");
+        RequestSecurityContext.Authenticated authenticated = RequestSecurityContext.get();
+
+        ConsumptionProbe probe;
+        long limit;
+        if (isAuthEndpoint) {
+            // Per-IP limit for login/registration
+            limit = properties.getAuthCapacity();
+            probe = buckets.tryConsume("auth:ip:" + clientIp, limit,
+                    Duration.ofMinutes(properties.getAuthRefillMinutes()));
+        } else if (authenticated == null) {
+            // Per-IP limit for anonymous requests
+            limit = properties.getGeneralCapacity();
+            probe = buckets.tryConsume("ip:" + clientIp, limit,
+                    Duration.ofMinutes(properties.getGeneralRefillMinutes()));
+        } else {
+            // Per-user limit first, so a throttled user does not drain the tenant's bucket
+            limit = properties.getUserCapacity();
+            probe = buckets.tryConsume("user:" + authenticated.token().username(), limit,
+                    Duration.ofMinutes(properties.getUserRefillMinutes()));
+
+            Long companyId = authenticated.token().companyId();
+            if (probe.isConsumed() && companyId != null) {
+                ConsumptionProbe tenantProbe = buckets.tryConsume("tenant:" + companyId,
+                        properties.getTenantCapacity(), Duration.ofMinutes(properties.getTenantRefillMinutes()));
+                if (!tenantProbe.isConsumed() || tenantProbe.getRemainingTokens() < probe.getRemainingTokens()) {
+                    limit = properties.getTenantCapacity();
+                    probe = tenantProbe;
+                }
+            }
+        }
 
-        // Clean up expired entries periodically
-        cleanExpiredEntries(isAuthEndpoint);
-
-        // Get appropriate bucket
-        BucketEntry bucketEntry = resolveBucket(clientIp, isAuthEndpoint);
-        Bucket bucket = bucketEntry.bucket;
-
-        // Try to consume 1 token
-        if (bucket.tryConsume(1)) {
-            // Request allowed, update access time and add rate limit headers
-            bucketEntry.updateAccessTime();
-            long remainingTokens = bucket.getAvailableTokens();
-            httpResponse.setHeader("X-Rate-Limit-Remaining", String.valueOf(remainingTokens));
-            httpResponse.setHeader("X-Rate-Limit-Limit",
-                    String.valueOf(isAuthEndpoint ? properties.getAuthCapacity() : properties.getGeneralCapacity()));
+        if (probe.isConsumed()) {
+            // Request allowed, add rate limit headers
+            httpResponse.setHeader("X-Rate-Limit-Remaining", String.valueOf(probe.getRemainingTokens()));
+            httpResponse.setHeader("X-Rate-Limit-Limit", String.valueOf(limit));
 
             chain.doFilter(request, response);
         } else {
             // Rate limit exceeded
             log.warn("Rate limit exceeded for IP: {} on path: {}", clientIp, requestPath);
 
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(probe.getNanosToWaitForRefill()) + 1);
             httpResponse.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
             httpResponse.setContentType("application/json");
-            httpResponse.setHeader("X-Rate-Limit-Retry-After-Seconds", "60");
+            httpResponse.setHeader("X-Rate-Limit-Retry-After-Seconds", String.valueOf(retryAfterSeconds));
 
             String jsonResponse = String.format(
                     "{\"timestamp\":\"%s\",\"status\":429,\"error\":\"Too Many Requests\"," +
@@ -139,50 +152,6 @@ public class RateLimitingFilter implements Filter {
         }
     }
 
-    /**
-     * Cleans expired cache entries based on TTL.
-     * Runs periodically to remove entries for inactive IPs.
-     * Helps prevent memory buildup over time.
-     */
-    private void cleanExpiredEntries(boolean isAuthEndpoint) {
-        Map<String, BucketEntry> cache = isAuthEndpoint ? authCache : generalCache;
-        long currentTime = System.currentTimeMillis();
-        long ttlMillis = properties.getCacheEntryTtlMinutes() * 60 * 1000;
-
-        // Only clean periodically to avoid excessive overhead
-        // Clean every 100 requests (probabilistic)
-        if (System.nanoTime() % 100 == 0) {
-            cache.entrySet().removeIf(entry -> (currentTime - entry.getValue().lastAccessTime) > ttlMillis);
-        }
-    }
-
-    /**
-     * Resolves or creates a bucket for the given client IP.
-     * Uses different buckets for auth and general endpoints.
-     * Configuration is loaded from application.yml (rate-limit.* properties).
-     */
-    private BucketEntry resolveBucket(String clientIp, boolean isAuthEndpoint) {
-        Map<String, BucketEntry> cache = isAuthEndpoint ? authCache : generalCache;
-
-        return cache.computeIfAbsent(clientIp, key -> {
-            long capacity = isAuthEndpoint ? properties.getAuthCapacity() : properties.getGeneralCapacity();
-            Duration refillDuration = isAuthEndpoint
-                    ? Duration.ofMinutes(properties.getAuthRefillMinutes())
-                    : Duration.ofMinutes(properties.getGeneralRefillMinutes());
-
-            Bandwidth limit = Bandwidth.builder()
-                    .capacity(capacity)
-                    .refillIntervally(capacity, refillDuration)
-                    .build();
-
-            Bucket bucket = Bucket.builder()
-                    .addLimit(limit)
-                    .build();
-
-            return new BucketEntry(bucket);
-        });
-    }
-
     /**
      * Extracts client IP address from request.
      * Considers X-Forwarded-For header for proxied requests.
@@ -205,15 +174,17 @@ public class RateLimitingFilter implements Filter {
 
     @Override
     public void init(FilterConfig filterConfig) throws ServletException {
-        log.info("Rate limiting filter initialized with limits: General={}/{} min, Auth={}/{} min",
+        log.info("Rate limiting filter initialized with limits: General={}/{} min, Auth={}/{} min, "
+                + "User={}/{} min, Tenant={}/{} min (Redis: {})",
                 properties.getGeneralCapacity(), properties.getGeneralRefillMinutes(),
-                properties.getAuthCapacity(), properties.getAuthRefillMinutes());
+                properties.getAuthCapacity(), properties.getAuthRefillMinutes(),
+                properties.getUserCapacity(), properties.getUserRefillMinutes(),
+                properties.getTenantCapacity(), properties.getTenantRefillMinutes(),
+                properties.getRedis().isEnabled());
     }
 
     @Override
     public void destroy() {
-        generalCache.clear();
-        authCache.clear();
-        log.info("Rate limiting filter destroyed, caches cleared");
+        log.info("Rate limiting filter destroyed");
     }
 }
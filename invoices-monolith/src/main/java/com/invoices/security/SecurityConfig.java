@@ -1,5 +1,6 @@
 package com.invoices.security;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -51,6 +52,9 @@ public class SecurityConfig {
         @Value("${cors.allow-credentials}")
         private boolean allowCredentials;
 
+        @Value("${security.password.bcrypt-strength:12}")
+        private int bcryptStrength;
+
         /**
          * Configures the security filter chain.
          *
@@ -108,6 +112,11 @@ public class SecurityConfig {
 
                                 // Configure authorization rules
                                 .authorizeHttpRequests(auth -> auth
+                                                // Async dispatches resume requests that were already
+                                                // authorized (SSE and streamed responses); the JWT filter
+                                                // does not run on them
+                                                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                                                 // Public endpoints - authentication not required
                                                 .requestMatchers(
                                                                 "/api/auth/**",
@@ -169,15 +178,16 @@ public class SecurityConfig {
 
         /**
          * Creates a BCrypt password encoder bean.
-         * Strength 12 provides better security against brute force attacks
-         * while maintaining acceptable performance.
+         * Strength 12 (default) provides better security against brute force attacks
+         * while maintaining acceptable performance. Existing hashes with a lower
+         * strength are upgraded on the next successful login.
          *
          * @return the password encoder
          */
         @Bean
         public PasswordEncoder passwordEncoder() {
-                log.debug("Creating BCrypt password encoder with strength 12");
-                return new BCryptPasswordEncoder(12);
+                log.debug("Creating BCrypt password encoder with strength {}", bcryptStrength);
+                return new BCryptPasswordEncoder(bcryptStrength);
         }
 
         /**
@@ -0,0 +1,213 @@
+package com.invoices.security;
+
+import com.invoices.security.context.RequestSecurityContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps the number of expensive requests (ZIP and Excel exports, PDF rendering)
+ * a single company can have in flight at once, so one tenant cannot occupy the
+ * shared Tomcat threads and database connections.
+ *
+ * Each endpoint class ({@code bulkhead.classes.*}) has its own per-tenant limit.
+ * A request over the limit waits up to {@code max-wait-millis} for a slot, in
+ * arrival order, and is then rejected with 429 and a {@code Retry-After} header.
+ * Waiting blocks a request thread, so at most {@code max-queued} requests per
+ * tenant and class wait; further ones are rejected immediately.
+ * Requests are keyed by the company claim of the verified token, or by username
+ * when the token has no company. Other requests are not affected.
+ *
+ * Runs after {@link RateLimitingFilter}, so requests over their rate limit never
+ * hold a slot. Rejections are counted in {@code bulkhead.rejections} (tag
+ * {@code class}).
+ */
+@Component
+@Order(2)
+@Slf4j
+public class TenantBulkheadFilter implements Filter {
+
+    private final BulkheadProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final ConcurrentHashMap<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TenantBulkheadFilter(BulkheadProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        // No registry in web slice tests, which still pick up servlet filters
+        this(properties, meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    TenantBulkheadFilter(BulkheadProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Configuration properties for tenant bulkheads.
+     * Loaded from application.yml under 'bulkhead' prefix.
+     */
+    @Configuration
+    @ConfigurationProperties(prefix = "bulkhead")
+    @Data
+    public static class BulkheadProperties {
+        private boolean enabled = true;
+        private Map<String, EndpointClass> classes = defaultClasses();
+
+        @Data
+        public static class EndpointClass {
+            private List<String> paths = List.of();
+            private int maxConcurrent = 1; // In-flight requests per company
+            private int maxQueued = 2; // Requests per company that may wait for a slot
+            private long maxWaitMillis = 2000; // Time a request may wait for a slot
+            private long retryAfterSeconds = 5;
+
+            public EndpointClass() {
+            }
+
+            EndpointClass(List<String> paths, int maxConcurrent, long retryAfterSeconds) {
+                this.paths = paths;
+                this.maxConcurrent = maxConcurrent;
+                this.retryAfterSeconds = retryAfterSeconds;
+            }
+        }
+
+        private static Map<String, EndpointClass> defaultClasses() {
+            Map<String, EndpointClass> classes = new LinkedHashMap<>();
+            classes.put("zip-export", new EndpointClass(
+                    List.of("/api/invoices/download-quarter", "/api/invoices/download-all"), 1, 10));
+            classes.put("excel-export", new EndpointClass(List.of("/api/invoices/export"), 1, 5));
+            classes.put("pdf", new EndpointClass(
+                    List.of("/api/invoices/*/pdf", "/api/invoices/*/generate-pdf"), 2, 2));
+            EndpointClass invoiceImport = new EndpointClass(List.of("/api/invoices/imports"), 1, 30);
+            invoiceImport.setMaxQueued(0);
+            classes.put("invoice-import", invoiceImport);
+            return classes;
+        }
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        RequestSecurityContext.Authenticated authenticated = RequestSecurityContext.get();
+
+        String className = properties.isEnabled() && authenticated != null
+                ? classify(httpRequest.getRequestURI())
+                : null;
+        if (className == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        BulkheadProperties.EndpointClass endpointClass = properties.getClasses().get(className);
+        Long companyId = authenticated.token().companyId();
+        String tenant = companyId != null ? "tenant:" + companyId : "user:" + authenticated.token().username();
+        Bulkhead bulkhead = bulkheads.computeIfAbsent(className + ":" + tenant,
+                k -> new Bulkhead(endpointClass.getMaxConcurrent()));
+
+        boolean acquired;
+        try {
+            acquired = bulkhead.acquire(endpointClass);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            reject(httpRequest, (HttpServletResponse) response, className, tenant, endpointClass);
+            return;
+        }
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            bulkhead.slots.release();
+        }
+    }
+
+    /**
+     * In-flight slots and waiting requests of one tenant for one endpoint class.
+     */
+    private static final class Bulkhead {
+        final Semaphore slots;
+        final AtomicInteger queued = new AtomicInteger();
+
+        Bulkhead(int maxConcurrent) {
+            this.slots = new Semaphore(maxConcurrent, true);
+        }
+
+        boolean acquire(BulkheadProperties.EndpointClass endpointClass) throws InterruptedException {
+            // Timed form even without waiting, so a free slot is not taken ahead of queued requests
+            if (slots.tryAcquire(0, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+            if (queued.incrementAndGet() > endpointClass.getMaxQueued()) {
+                queued.decrementAndGet();
+                return false;
+            }
+            try {
+                return slots.tryAcquire(endpointClass.getMaxWaitMillis(), TimeUnit.MILLISECONDS);
+            } finally {
+                queued.decrementAndGet();
+            }
+        }
+    }
+
+    private String classify(String path) {
+        for (Map.Entry<String, BulkheadProperties.EndpointClass> entry : properties.getClasses().entrySet()) {
+            for (String pattern : entry.getValue().getPaths()) {
+                if (pathMatcher.match(pattern, path)) {
+                    return entry.getKey();
+                }
+            }
+        }
+        return null;
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, String className, String tenant,
+            BulkheadProperties.EndpointClass endpointClass) throws IOException {
+        log.warn("Bulkhead '{}' full for {} on path: {}", className, tenant, request.getRequestURI());
+        meterRegistry.counter("bulkhead.rejections", "class", className).increment();
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setContentType("application/json");
+        response.setHeader("Retry-After", String.valueOf(endpointClass.getRetryAfterSeconds()));
+
+        String jsonResponse = String.format(
+                "{\"timestamp\":\"%s\",\"status\":429,\"error\":\"Too Many Requests\"," +
+                        "\"message\":\"Too many concurrent %s requests for this company. Please try again later.\"," +
+                        "\"path\":\"%s\"}",
+                java.time.LocalDateTime.now().toString(),
+                className,
+                request.getRequestURI());
+
+        response.getWriter().write(jsonResponse);
+    }
+
+    @Override
+    public void init(FilterConfig filterConfig) {
+        log.info("Tenant bulkheads {}: {}", properties.isEnabled() ? "enabled" : "disabled",
+                properties.getClasses().keySet());
+    }
+}
@@ -66,15 +66,27 @@ public class UserDetailsServiceImpl implements UserDetailsService {
      * @return collection of granted authorities
      */
     private Collection<? extends GrantedAuthority> getAuthorities(User user) {
+        return toAuthorities(user.getPlatformRole() != null ? user.getPlatformRole().name() : null, user.getRoles());
+    }
+
+    /**
+     * Maps a platform role and company roles to authorities. Shared with the JWT
+     * filter, which builds the same authorities from token claims.
+     *
+     * @param platformRole the platform role name, or null
+     * @param roles        the company roles
+     * @return set of granted authorities
+     */
+    static Set<GrantedAuthority> toAuthorities(String platformRole, Collection<String> roles) {
         Set<GrantedAuthority> authorities = new HashSet<>();
 
         // Add Platform Role
-        if (user.getPlatformRole() != null) {
-            authorities.add(new SimpleGrantedAuthority("ROLE_" + user.getPlatformRole().name()));
+        if (platformRole != null) {
+            authorities.add(new SimpleGrantedAuthority("ROLE_" + platformRole));
         }
 
         // Add Company Roles
-        authorities.addAll(user.getRoles().stream()
+        authorities.addAll(roles.stream()
                 .map(role -> {
                     // Ensure role has ROLE_ prefix
                     String authority = role.startsWith("ROLE_") ? role : "ROLE_" + role;
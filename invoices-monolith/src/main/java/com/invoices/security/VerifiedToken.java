@@ -0,0 +1,20 @@
+package com.invoices.security;
+
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Claims of a JWT whose signature, issuer and expiration have been verified.
+ *
+ * @param username      the subject (user email)
+ * @param companyId     the company selected when the token was issued, or null
+ * @param roles         the company roles carried in the {@code roles} claim
+ * @param platformRole  the platform role name, or null for tokens issued
+ *                      before it was carried in claims
+ * @param securityStamp the user's security stamp when the token was issued, or
+ *                      null for tokens issued before stamps existed
+ * @param expiresAt     the token expiration
+ */
+public record VerifiedToken(String username, Long companyId, Set<String> roles, String platformRole,
+        String securityStamp, Instant expiresAt) {
+}
@@ -3,60 +3,99 @@ package com.invoices.security.application.services;
 import com.invoices.security.domain.entities.RefreshToken;
 import com.invoices.security.domain.ports.RefreshTokenRepository;
 
-import com.invoices.user.domain.ports.UserRepository;
+import com.invoices.user.exception.InvalidTokenException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.UUID;
 
+/**
+ * Issues, rotates and revokes refresh tokens.
+ *
+ * Each login starts a token family; rotation issues the replacement in the same
+ * family, so reuse of a rotated token revokes every token of that login.
+ *
+ * Storage is selected with security.refresh-token.store: {@code jpa} (the
+ * refresh_tokens table, default) or {@code redis}. Callers already hold an
+ * authenticated user id, so no user lookup is made; a token for a deleted user
+ * simply fails on the next refresh.
+ */
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class RefreshTokenService {
 
     @Value("${jwt.refresh-expiration-ms:2592000000}") // 30 days default
     private Long refreshTokenDurationMs;
 
     private final RefreshTokenRepository refreshTokenRepository;
-    private final UserRepository userRepository;
 
     public RefreshToken findByToken(String token) {
         return refreshTokenRepository.findByToken(token)
-                .orElseThrow(() -> new RuntimeException("Refresh token not found"));
+                .orElseThrow(() -> new InvalidTokenException("Refresh token not found"));
     }
 
     public RefreshToken verifyExpiration(RefreshToken token) {
         if (token.getExpiryDate().compareTo(Instant.now()) < 0) {
             refreshTokenRepository.delete(token);
-            throw new RuntimeException("Refresh token was expired. Please make a new signin request");
+            throw new InvalidTokenException("Refresh token was expired. Please make a new signin request");
         }
         return token;
     }
 
-    @Transactional
+    /**
+     * Issues the first refresh token of a new login.
+     */
     public RefreshToken createRefreshToken(Long userId) {
-        RefreshToken refreshToken = new RefreshToken();
+        return issue(userId, UUID.randomUUID().toString());
+    }
 
-        userRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
+    private RefreshToken issue(Long userId, String familyId) {
+        RefreshToken refreshToken = new RefreshToken();
 
         refreshToken.setUserId(userId);
+        refreshToken.setFamilyId(familyId);
         refreshToken.setExpiryDate(Instant.now().plusMillis(refreshTokenDurationMs));
         refreshToken.setToken(UUID.randomUUID().toString());
         refreshToken.setRevoked(false);
 
-        // Invalidate previous tokens for this user if needed, or allow multiple
-        // sessions
-        // For now, we keep it simple and allow multiple sessions or handle cleanup
-        // elsewhere
-
         return refreshTokenRepository.save(refreshToken);
     }
 
-    @Transactional
+    /**
+     * Exchange a refresh token for a new one of the same family. Every token can
+     * be used once: a token presented again after rotation has leaked, so its
+     * whole family is revoked (all of the user's tokens for tokens issued before
+     * families existed).
+     *
+     * @param token the presented refresh token
+     * @return the replacement token
+     * @throws InvalidTokenException if the token was already used
+     */
+    public RefreshToken rotate(String token) {
+        RefreshToken current = verifyExpiration(findByToken(token));
+
+        if (!refreshTokenRepository.revoke(current.getToken())) {
+            if (current.getFamilyId() != null) {
+                log.warn("Refresh token reuse detected for user {}, revoking token family {}", current.getUserId(),
+                        current.getFamilyId());
+                refreshTokenRepository.deleteByFamilyId(current.getFamilyId());
+            } else {
+                log.warn("Refresh token reuse detected for user {}, revoking all refresh tokens",
+                        current.getUserId());
+                refreshTokenRepository.deleteByUserId(current.getUserId());
+            }
+            throw new InvalidTokenException("Refresh token has already been used. Please make a new signin request");
+        }
+
+        return issue(current.getUserId(),
+                current.getFamilyId() != null ? current.getFamilyId() : UUID.randomUUID().toString());
+    }
+
     public int deleteByUserId(Long userId) {
-        userRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
         return refreshTokenRepository.deleteByUserId(userId);
     }
 }
@@ -1,5 +1,6 @@
 package com.invoices.security.aspects;
 
+import com.invoices.security.context.RequestSecurityContext;
 import com.invoices.security.exceptions.PlatformAdminAccessDeniedException;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.Aspect;
@@ -20,11 +21,13 @@ import org.springframework.stereotype.Component;
  * - Platform Admins CANNOT access individual invoice/client data
  * (privacy/security)
  * 
- * Executes BEFORE any invoice-related method to block access at infrastructure
- * level.
+ * Executes BEFORE invoice, client and VeriFactu metrics use cases and the
+ * controllers that expose them. The check runs at these entry points only, not
+ * on every repository, mapper and service call made while serving the request,
+ * so it costs one advised call per request instead of one per row.
  * 
- * Note: CompanyRepository is EXCLUDED because Platform Admin needs access to
- * company statistics (count, list, etc.)
+ * Note: repositories are NOT advised, so company services (e.g. platform
+ * statistics) can still count invoices on behalf of a Platform Admin.
  */
 @Aspect
 @Component
@@ -32,35 +35,31 @@ import org.springframework.stereotype.Component;
 public class InvoiceSecurityAspect {
 
     /**
-     * Pointcut for invoice-specific operations.
-     * Matches InvoiceRepository, InvoiceService, InvoiceController, etc.
+     * Pointcut for the invoice module's use cases.
+     * Matches GetAllInvoicesUseCase, CreateClientUseCase,
+     * GetVerifactuMetricsUseCase, GeneratePdfUseCase, etc.
      */
-    @Pointcut("execution(* com.invoices.invoice..*Invoice*.*(..))")
-    public void invoiceOperations() {
+    @Pointcut("execution(public * com.invoices.invoice.domain.usecases.*UseCase.*(..))")
+    public void invoiceUseCases() {
     }
 
     /**
-     * Pointcut for client-specific operations.
-     * Matches ClientRepository, ClientService, ClientController, etc.
+     * Pointcut for controllers serving invoice and client data, including
+     * endpoints that read repositories directly (export, ZIP, PDF).
+     * Matches InvoiceController, InvoiceExportController, ClientController,
+     * InvoiceVerifactuController, VerifactuMetricsController, etc.
      */
-    @Pointcut("execution(* com.invoices.invoice..*Client*.*(..))")
-    public void clientOperations() {
+    @Pointcut("execution(public * com.invoices..*Invoice*Controller.*(..))"
+            + " || execution(public * com.invoices..*Client*Controller.*(..))"
+            + " || execution(public * com.invoices..VerifactuMetrics*Controller.*(..))")
+    public void invoiceControllers() {
     }
 
     /**
-     * Pointcut for VeriFactu metrics (invoice-related).
+     * Combined pointcut for all invoice-related entry points that Platform Admin
+     * cannot call.
      */
-    @Pointcut("execution(* com.invoices.invoice..*VerifactuMetrics*.*(..))")
-    public void verifactuMetricsOperations() {
-    }
-
-    /**
-     * Combined pointcut for all invoice-related data that Platform Admin cannot
-     * access.
-     * Note: CompanyRepository is NOT included here - Platform Admin can access
-     * company data.
-     */
-    @Pointcut("invoiceOperations() || clientOperations() || verifactuMetricsOperations()")
+    @Pointcut("invoiceUseCases() || invoiceControllers()")
     public void restrictedInvoiceOperations() {
     }
 
@@ -82,8 +81,15 @@ public class InvoiceSecurityAspect {
 
     /**
      * Check if current user has PLATFORM_ADMIN role.
+     * Uses the decision made once per request by the JWT filter, falling back to
+     * the Spring Security context outside JWT-authenticated requests.
      */
     private boolean isPlatformAdmin() {
+        RequestSecurityContext.Authenticated authenticated = RequestSecurityContext.get();
+        if (authenticated != null) {
+            return authenticated.platformAdmin();
+        }
+
         Authentication authentication = SecurityContextHolder
                 .getContext()
                 .getAuthentication();
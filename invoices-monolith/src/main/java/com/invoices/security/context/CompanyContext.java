@@ -7,8 +7,17 @@ public class CompanyContext {
         currentCompanyId.set(companyId);
     }
 
+    /**
+     * Returns the company explicitly set for this thread, or else the company of
+     * the verified token of the current request.
+     */
     public static Long getCompanyId() {
-        return currentCompanyId.get();
+        Long companyId = currentCompanyId.get();
+        if (companyId != null) {
+            return companyId;
+        }
+        RequestSecurityContext.Authenticated authenticated = RequestSecurityContext.get();
+        return authenticated != null ? authenticated.token().companyId() : null;
     }
 
     public static void clear() {
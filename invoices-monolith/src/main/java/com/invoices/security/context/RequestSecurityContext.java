@@ -0,0 +1,58 @@
+package com.invoices.security.context;
+
+import com.invoices.security.VerifiedToken;
+
+import java.util.Set;
+
+/**
+ * Per-request holder for the token verified by {@code JwtAuthenticationFilter}.
+ *
+ * The token is parsed and its signature checked once per request; the interceptor,
+ * {@link CompanyContext} and the security aspects read the result from here instead
+ * of parsing the Authorization header again. Cleared by the filter when the request
+ * completes.
+ */
+public final class RequestSecurityContext {
+
+    private static final ThreadLocal<Authenticated> current = new ThreadLocal<>();
+
+    private RequestSecurityContext() {
+    }
+
+    /**
+     * @param token         the verified token
+     * @param authorities   the granted authorities of the authenticated principal
+     * @param platformAdmin whether the principal is a platform administrator,
+     *                      decided once when the request is authenticated
+     */
+    public record Authenticated(VerifiedToken token, Set<String> authorities, boolean platformAdmin) {
+
+        public Authenticated(VerifiedToken token, Set<String> authorities) {
+            this(token, authorities,
+                    authorities.contains("ROLE_PLATFORM_ADMIN") || authorities.contains("PLATFORM_ADMIN"));
+        }
+
+        public boolean hasAuthority(String authority) {
+            return authorities.contains(authority);
+        }
+
+        /**
+         * @return the company (tenant) the token was issued for, or null
+         */
+        public Long companyId() {
+            return token.companyId();
+        }
+    }
+
+    public static void set(Authenticated authenticated) {
+        current.set(authenticated);
+    }
+
+    public static Authenticated get() {
+        return current.get();
+    }
+
+    public static void clear() {
+        current.remove();
+    }
+}
@@ -26,6 +26,10 @@ public class RefreshToken {
     @Column(name = "user_id", nullable = false)
     private Long userId;
 
+    // Shared by every token rotated from the same login
+    @Column(name = "family_id", length = 36)
+    private String familyId;
+
     @Column(nullable = false)
     private Instant expiryDate;
 
@@ -34,6 +34,16 @@ public interface RefreshTokenRepository {
      */
     void delete(RefreshToken token);
 
+    /**
+     * Atomically mark a refresh token as revoked (used).
+     * Revoked tokens are kept until they expire so that reuse can be detected.
+     *
+     * @param token the token string
+     * @return true if this call revoked the token, false if it was already
+     *         revoked or does not exist
+     */
+    boolean revoke(String token);
+
     /**
      * Delete all refresh tokens for a user.
      *
@@ -41,4 +51,12 @@ public interface RefreshTokenRepository {
      * @return number of tokens deleted
      */
     int deleteByUserId(Long userId);
+
+    /**
+     * Delete all refresh tokens of a token family (one login and its rotations).
+     *
+     * @param familyId the family ID
+     * @return number of tokens deleted
+     */
+    int deleteByFamilyId(String familyId);
 }
@@ -1,36 +1,30 @@
 package com.invoices.security.infrastructure.interceptor;
 
-import com.invoices.security.JwtUtil;
 import com.invoices.security.context.CompanyContext;
+import com.invoices.security.context.RequestSecurityContext;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 
+/**
+ * Exposes the company of the verified request token through {@link CompanyContext}.
+ *
+ * The token itself is parsed once by {@code JwtAuthenticationFilter}; this
+ * interceptor only reads the claims it published.
+ */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class CompanySecurityInterceptor implements HandlerInterceptor {
 
-    private final JwtUtil jwtUtil;
-
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
             throws Exception {
-        String authHeader = request.getHeader("Authorization");
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
-            try {
-                Long companyId = jwtUtil.extractCompanyId(token);
-                if (companyId != null) {
-                    CompanyContext.setCompanyId(companyId);
-                    log.debug("Set company context to: {}", companyId);
-                }
-            } catch (Exception e) {
-                log.warn("Failed to extract company ID from token: {}", e.getMessage());
-            }
+        RequestSecurityContext.Authenticated authenticated = RequestSecurityContext.get();
+        if (authenticated != null && authenticated.token().companyId() != null) {
+            CompanyContext.setCompanyId(authenticated.token().companyId());
+            log.debug("Set company context to: {}", authenticated.token().companyId());
         }
         return true;
     }
@@ -4,6 +4,8 @@ import com.invoices.security.domain.entities.RefreshToken;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -14,4 +16,11 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long
 
     @Modifying
     int deleteByUserId(Long userId);
+
+    @Modifying
+    int deleteByFamilyId(String familyId);
+
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revoked = true WHERE t.token = :token AND t.revoked = false")
+    int revokeByToken(@Param("token") String token);
 }
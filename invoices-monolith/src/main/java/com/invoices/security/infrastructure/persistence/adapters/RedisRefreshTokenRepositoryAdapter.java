@@ -0,0 +1,126 @@
+package com.invoices.security.infrastructure.persistence.adapters;
+
+import com.invoices.security.domain.entities.RefreshToken;
+import com.invoices.security.domain.ports.RefreshTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Refresh-token store on Redis (security.refresh-token.store=redis).
+ *
+ * Each token is a hash under {@code refresh-token:<token>} that expires with the
+ * token itself, so no cleanup job is needed. Every user also has a set of their
+ * token strings under {@code refresh-token:user:<userId>}, and every token family
+ * (one login and its rotations) one under {@code refresh-token:family:<familyId>}.
+ * "Logout everywhere" and revoking a family are then a single script call
+ * instead of a table scan. Writes that touch several keys run as Lua scripts, so
+ * they are atomic and take one round trip.
+ */
+@Repository
+@Slf4j
+@ConditionalOnProperty(prefix = "security.refresh-token", name = "store", havingValue = "redis")
+public class RedisRefreshTokenRepositoryAdapter implements RefreshTokenRepository {
+
+    private static final String TOKEN_PREFIX = "refresh-token:";
+    private static final String USER_PREFIX = "refresh-token:user:";
+    private static final String FAMILY_PREFIX = "refresh-token:family:";
+
+    private static final RedisScript<Long> SAVE_SCRIPT = RedisScript.of("""
+            redis.call('hset', KEYS[1], 'userId', ARGV[1], 'expiry', ARGV[2], 'revoked', ARGV[3], 'family', ARGV[6])
+            redis.call('pexpire', KEYS[1], ARGV[4])
+            for i = 2, #KEYS do
+                redis.call('sadd', KEYS[i], ARGV[5])
+                if redis.call('pttl', KEYS[i]) < tonumber(ARGV[4]) then
+                    redis.call('pexpire', KEYS[i], ARGV[4])
+                end
+            end
+            return 1""", Long.class);
+
+    private static final RedisScript<Long> REVOKE_SCRIPT = RedisScript.of("""
+            if redis.call('hget', KEYS[1], 'revoked') == '0' then
+                redis.call('hset', KEYS[1], 'revoked', '1')
+                return 1
+            end
+            return 0""", Long.class);
+
+    // Deletes every token listed in a user or family set, then the set
+    private static final RedisScript<Long> DELETE_SET_SCRIPT = RedisScript.of("""
+            local deleted = 0
+            for _, token in ipairs(redis.call('smembers', KEYS[1])) do
+                deleted = deleted + redis.call('del', ARGV[1] .. token)
+            end
+            redis.call('del', KEYS[1])
+            return deleted""", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisRefreshTokenRepositoryAdapter(RedisConnectionFactory connectionFactory) {
+        this.redisTemplate = new StringRedisTemplate(connectionFactory);
+        log.info("Refresh tokens are stored in Redis");
+    }
+
+    @Override
+    public Optional<RefreshToken> findByToken(String token) {
+        Map<Object, Object> fields = redisTemplate.opsForHash().entries(TOKEN_PREFIX + token);
+        if (fields.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(RefreshToken.builder()
+                .token(token)
+                .userId(Long.valueOf((String) fields.get("userId")))
+                .expiryDate(Instant.ofEpochMilli(Long.parseLong((String) fields.get("expiry"))))
+                .revoked("1".equals(fields.get("revoked")))
+                .familyId(fields.get("family") instanceof String family && !family.isEmpty() ? family : null)
+                .build());
+    }
+
+    @Override
+    public RefreshToken save(RefreshToken token) {
+        long expiry = token.getExpiryDate().toEpochMilli();
+        long ttlMillis = Math.max(1L, expiry - System.currentTimeMillis());
+        List<String> keys = token.getFamilyId() != null
+                ? List.of(TOKEN_PREFIX + token.getToken(), USER_PREFIX + token.getUserId(),
+                        FAMILY_PREFIX + token.getFamilyId())
+                : List.of(TOKEN_PREFIX + token.getToken(), USER_PREFIX + token.getUserId());
+        redisTemplate.execute(SAVE_SCRIPT, keys,
+                token.getUserId().toString(), Long.toString(expiry), token.isRevoked() ? "1" : "0",
+                Long.toString(ttlMillis), token.getToken(), token.getFamilyId() != null ? token.getFamilyId() : "");
+        return token;
+    }
+
+    @Override
+    public void delete(RefreshToken token) {
+        redisTemplate.delete(TOKEN_PREFIX + token.getToken());
+        redisTemplate.opsForSet().remove(USER_PREFIX + token.getUserId(), token.getToken());
+        if (token.getFamilyId() != null) {
+            redisTemplate.opsForSet().remove(FAMILY_PREFIX + token.getFamilyId(), token.getToken());
+        }
+    }
+
+    @Override
+    public boolean revoke(String token) {
+        Long revoked = redisTemplate.execute(REVOKE_SCRIPT, List.of(TOKEN_PREFIX + token));
+        return revoked != null && revoked == 1L;
+    }
+
+    @Override
+    public int deleteByUserId(Long userId) {
+        Long deleted = redisTemplate.execute(DELETE_SET_SCRIPT, List.of(USER_PREFIX + userId), TOKEN_PREFIX);
+        return deleted != null ? deleted.intValue() : 0;
+    }
+
+    @Override
+    public int deleteByFamilyId(String familyId) {
+        Long deleted = redisTemplate.execute(DELETE_SET_SCRIPT, List.of(FAMILY_PREFIX + familyId), TOKEN_PREFIX);
+        return deleted != null ? deleted.intValue() : 0;
+    }
+}
@@ -3,12 +3,15 @@ package com.invoices.security.infrastructure.persistence.adapters;
 import com.invoices.security.domain.entities.RefreshToken;
 import com.invoices.security.domain.ports.RefreshTokenRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
 @Repository
 @RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "security.refresh-token", name = "store", havingValue = "jpa", matchIfMissing = true)
 public class RefreshTokenRepositoryAdapter implements RefreshTokenRepository {
 
     private final com.invoices.security.infrastructure.persistence.RefreshTokenRepository jpaRepository;
@@ -29,7 +32,20 @@ public class RefreshTokenRepositoryAdapter implements RefreshTokenRepository {
     }
 
     @Override
+    @Transactional
+    public boolean revoke(String token) {
+        return jpaRepository.revokeByToken(token) == 1;
+    }
+
+    @Override
+    @Transactional
     public int deleteByUserId(Long userId) {
         return jpaRepository.deleteByUserId(userId);
     }
+
+    @Override
+    @Transactional
+    public int deleteByFamilyId(String familyId) {
+        return jpaRepository.deleteByFamilyId(familyId);
+    }
 }
@@ -0,0 +1,152 @@
+package com.invoices.security.ratelimit;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.distributed.AsyncBucketProxy;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.distributed.proxy.optimization.Optimizations;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets for rate limiting, keyed by an arbitrary string
+ * ({@code ip:...}, {@code user:...}, {@code tenant:...}).
+ *
+ * The local tier is a {@link ConcurrentHashMap}, so lookups do not serialize on
+ * a shared monitor. A bucket that has been idle for a full refill period is
+ * full again and indistinguishable from a new one, so it is dropped by a
+ * periodic sweep without losing any limit state.
+ *
+ * When a {@link ProxyManager} is given (rate-limit.redis.enabled) buckets
+ * live in Redis and limits are shared across instances; the local bucket is
+ * then only used while Redis is unreachable. A Redis call is only waited on for
+ * a short timeout, and after a failure Redis is skipped for a back-off period,
+ * so an outage costs one timeout per period instead of one per request.
+ */
+@Slf4j
+public class RateLimitBuckets {
+
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final long MIN_SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final ConcurrentHashMap<String, Entry> buckets = new ConcurrentHashMap<>();
+    private final ProxyManager<String> proxyManager;
+    private final int maxEntries;
+    private final AtomicLong lastSweep = new AtomicLong(System.nanoTime());
+    private final long redisTimeoutNanos;
+    private final long redisRetryAfterNanos;
+    private volatile long redisRetryAt = System.nanoTime();
+
+    /**
+     * @param maxEntries   soft cap that triggers more frequent sweeps
+     * @param proxyManager Redis-backed proxy manager, or null for local buckets only
+     */
+    public RateLimitBuckets(int maxEntries, ProxyManager<String> proxyManager) {
+        this(maxEntries, proxyManager, Duration.ofMillis(500), Duration.ofSeconds(10));
+    }
+
+    /**
+     * @param maxEntries      soft cap that triggers more frequent sweeps
+     * @param proxyManager    Redis-backed proxy manager, or null for local buckets only
+     * @param redisTimeout    how long a request waits for Redis before using its local bucket
+     * @param redisRetryAfter how long Redis is skipped after a failure or timeout
+     */
+    public RateLimitBuckets(int maxEntries, ProxyManager<String> proxyManager, Duration redisTimeout,
+            Duration redisRetryAfter) {
+        this.proxyManager = proxyManager;
+        this.maxEntries = maxEntries;
+        this.redisTimeoutNanos = redisTimeout.toNanos();
+        this.redisRetryAfterNanos = redisRetryAfter.toNanos();
+        if (proxyManager != null) {
+            log.info("Rate limiting buckets are shared through Redis");
+        }
+    }
+
+    /**
+     * Consumes one token from the bucket for the given key, creating it on first use.
+     *
+     * @param key      bucket key
+     * @param capacity tokens per refill period
+     * @param refill   refill period
+     * @return the consumption result, including remaining tokens and wait time
+     */
+    public ConsumptionProbe tryConsume(String key, long capacity, Duration refill) {
+        long now = System.nanoTime();
+        Entry entry = buckets.computeIfAbsent(key, k -> newEntry(k, capacity, refill));
+        if (now - entry.lastAccess > MIN_SWEEP_INTERVAL_NANOS) {
+            // Coarse access time: avoids a shared write on every request for hot keys
+            entry.lastAccess = now;
+        }
+        sweepIfDue(now);
+
+        if (entry.remote != null && now - redisRetryAt >= 0) {
+            try {
+                return entry.remote.tryConsumeAndReturnRemaining(1).get(redisTimeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException | TimeoutException | RuntimeException e) {
+                redisRetryAt = System.nanoTime() + redisRetryAfterNanos;
+                Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+                log.warn("Redis rate limiting unavailable, using local buckets for {}s: {}",
+                        TimeUnit.NANOSECONDS.toSeconds(redisRetryAfterNanos), cause.toString());
+            }
+        }
+        return entry.local.tryConsumeAndReturnRemaining(1);
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    private Entry newEntry(String key, long capacity, Duration refill) {
+        BucketConfiguration configuration = BucketConfiguration.builder()
+                .addLimit(Bandwidth.builder().capacity(capacity).refillIntervally(capacity, refill).build())
+                .build();
+        Bucket local = Bucket.builder().addLimit(configuration.getBandwidths()[0]).build();
+        AsyncBucketProxy remote = proxyManager != null
+                ? proxyManager.asAsync().builder().withOptimization(Optimizations.batching())
+                        .build(key, () -> CompletableFuture.completedFuture(configuration))
+                : null;
+        return new Entry(local, remote, refill.toNanos(), System.nanoTime());
+    }
+
+    /**
+     * Drops buckets idle for longer than their refill period. Runs on whichever
+     * request thread wins the race, every 30s, or every second while the map is
+     * larger than max-cache-entries.
+     */
+    private void sweepIfDue(long now) {
+        long last = lastSweep.get();
+        if (now - last < MIN_SWEEP_INTERVAL_NANOS
+                || (now - last < SWEEP_INTERVAL_NANOS && buckets.size() <= maxEntries)
+                || !lastSweep.compareAndSet(last, now)) {
+            return;
+        }
+        int before = buckets.size();
+        buckets.values().removeIf(entry -> now - entry.lastAccess > entry.idleNanos);
+        log.debug("Rate limit bucket sweep: {} -> {} entries", before, buckets.size());
+    }
+
+    private static final class Entry {
+        final Bucket local;
+        final AsyncBucketProxy remote;
+        final long idleNanos;
+        volatile long lastAccess;
+
+        Entry(Bucket local, AsyncBucketProxy remote, long idleNanos, long lastAccess) {
+            this.local = local;
+            this.remote = remote;
+            this.idleNanos = idleNanos;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
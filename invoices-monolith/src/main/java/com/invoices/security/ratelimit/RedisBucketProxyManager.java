@@ -0,0 +1,168 @@
+package com.invoices.security.ratelimit;
+
+import com.invoices.security.RateLimitingFilter.RateLimitProperties;
+import io.github.bucket4j.distributed.ExpirationAfterWriteStrategy;
+import io.github.bucket4j.distributed.proxy.ClientSideConfig;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AbstractCompareAndSwapBasedProxyManager;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AsyncCompareAndSwapOperation;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.CompareAndSwapOperation;
+import io.github.bucket4j.distributed.remote.RemoteBucketState;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Bucket4j proxy manager that keeps bucket state in Redis, so every instance
+ * enforces the same limits.
+ *
+ * State is updated with an optimistic compare-and-swap executed as a Lua script
+ * (the same protocol as bucket4j's Lettuce integration), on the application's
+ * existing Lettuce connection. Keys expire once the bucket would have refilled.
+ * The asynchronous variants issue the same commands through Lettuce's async API,
+ * so {@code asAsync()} callers never block on Redis.
+ */
+@Component
+@ConditionalOnProperty(prefix = "rate-limit.redis", name = "enabled", havingValue = "true")
+public class RedisBucketProxyManager extends AbstractCompareAndSwapBasedProxyManager<String> {
+
+    private static final String INSERT_SCRIPT = """
+            if redis.call('set', KEYS[1], ARGV[1], 'nx', 'px', ARGV[2]) then
+                return 1
+            else
+                return 0
+            end""";
+
+    private static final String REPLACE_SCRIPT = """
+            local current = redis.call('get', KEYS[1])
+            if not current then
+                return 0
+            end
+            if current == ARGV[1] then
+                redis.call('psetex', KEYS[1], ARGV[3], ARGV[2])
+                return 1
+            else
+                return 0
+            end""";
+
+    private final RedisConnectionFactory connectionFactory;
+    private final ExpirationAfterWriteStrategy expiration;
+    private final String keyPrefix;
+
+    public RedisBucketProxyManager(RedisConnectionFactory connectionFactory, RateLimitProperties properties) {
+        super(ClientSideConfig.getDefault());
+        this.connectionFactory = connectionFactory;
+        this.expiration = ExpirationAfterWriteStrategy.basedOnTimeForRefillingBucketUpToMax(Duration.ofSeconds(10));
+        this.keyPrefix = properties.getRedis().getKeyPrefix();
+    }
+
+    @Override
+    protected CompareAndSwapOperation beginCompareAndSwapOperation(String key) {
+        byte[] redisKey = redisKey(key);
+        return new CompareAndSwapOperation() {
+            @Override
+            public Optional<byte[]> getStateData() {
+                return Optional.ofNullable(withConnection(connection -> connection.stringCommands().get(redisKey)));
+            }
+
+            @Override
+            public boolean compareAndSwap(byte[] originalData, byte[] newData, RemoteBucketState newState) {
+                byte[] ttl = ttl(newState);
+                Boolean swapped = withConnection(connection -> originalData == null
+                        ? connection.scriptingCommands().eval(INSERT_SCRIPT.getBytes(StandardCharsets.UTF_8),
+                                ReturnType.BOOLEAN, 1, redisKey, newData, ttl)
+                        : connection.scriptingCommands().eval(REPLACE_SCRIPT.getBytes(StandardCharsets.UTF_8),
+                                ReturnType.BOOLEAN, 1, redisKey, originalData, newData, ttl));
+                return Boolean.TRUE.equals(swapped);
+            }
+        };
+    }
+
+    @Override
+    protected AsyncCompareAndSwapOperation beginAsyncCompareAndSwapOperation(String key) {
+        byte[] redisKey = redisKey(key);
+        byte[][] keys = {redisKey};
+        return new AsyncCompareAndSwapOperation() {
+            @Override
+            public CompletableFuture<Optional<byte[]>> getStateData() {
+                return withAsyncCommands(commands -> commands.get(redisKey)).thenApply(Optional::ofNullable);
+            }
+
+            @Override
+            public CompletableFuture<Boolean> compareAndSwap(byte[] originalData, byte[] newData,
+                    RemoteBucketState newState) {
+                byte[] ttl = ttl(newState);
+                CompletableFuture<Boolean> swapped = withAsyncCommands(commands -> originalData == null
+                        ? commands.eval(INSERT_SCRIPT, ScriptOutputType.BOOLEAN, keys, newData, ttl)
+                        : commands.eval(REPLACE_SCRIPT, ScriptOutputType.BOOLEAN, keys, originalData, newData, ttl));
+                return swapped.thenApply(Boolean.TRUE::equals);
+            }
+        };
+    }
+
+    @Override
+    public void removeProxy(String key) {
+        withConnection(connection -> connection.keyCommands().del(redisKey(key)));
+    }
+
+    @Override
+    protected CompletableFuture<Void> removeAsync(String key) {
+        return withAsyncCommands(commands -> commands.del(redisKey(key))).thenApply(deleted -> null);
+    }
+
+    @Override
+    public boolean isAsyncModeSupported() {
+        return true;
+    }
+
+    private byte[] ttl(RemoteBucketState newState) {
+        long ttlMillis = Math.max(1L,
+                expiration.calculateTimeToLiveMillis(newState, System.currentTimeMillis() * 1_000_000L));
+        return Long.toString(ttlMillis).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] redisKey(String key) {
+        return (keyPrefix + key).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private <T> T withConnection(Function<RedisConnection, T> action) {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            return action.apply(connection);
+        }
+    }
+
+    /**
+     * Runs an async Lettuce command; the connection is released once the command
+     * completes. Connection failures surface as a failed future, not an exception.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> withAsyncCommands(
+            Function<RedisClusterAsyncCommands<byte[], byte[]>, RedisFuture<T>> action) {
+        RedisConnection connection;
+        try {
+            connection = connectionFactory.getConnection();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        try {
+            if (!(connection.getNativeConnection() instanceof RedisClusterAsyncCommands<?, ?> commands)) {
+                throw new IllegalStateException("Asynchronous rate limiting requires a Lettuce connection");
+            }
+            return action.apply((RedisClusterAsyncCommands<byte[], byte[]>) commands).toCompletableFuture()
+                    .whenComplete((result, error) -> connection.close());
+        } catch (RuntimeException e) {
+            connection.close();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
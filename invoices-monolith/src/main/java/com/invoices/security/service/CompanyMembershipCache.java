@@ -0,0 +1,146 @@
+package com.invoices.security.service;
+
+import com.invoices.company.domain.events.UserJoinedCompanyEvent;
+import com.invoices.company.infrastructure.persistence.entities.UserCompany;
+import com.invoices.company.infrastructure.persistence.entities.UserCompanyId;
+import com.invoices.company.infrastructure.persistence.repositories.UserCompanyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Cache of company memberships keyed by (userId, companyId), backing the
+ * permission checks that run on every company-scoped request.
+ *
+ * Non-memberships are cached too. Entries are evicted as soon as a membership is
+ * saved or deleted (and again when the surrounding transaction completes, so a
+ * concurrent read cannot re-cache the pre-commit row). The TTL only bounds how
+ * long another instance may serve a revoked membership.
+ *
+ * Metrics: {@code permission.membership.cache.requests} (tag {@code result} =
+ * hit/miss), {@code permission.membership.cache.invalidations},
+ * {@code permission.membership.cache.size} and
+ * {@code permission.membership.cache.entry.age} (seconds since an entry served
+ * from cache was loaded).
+ */
+@Component
+@Slf4j
+public class CompanyMembershipCache {
+
+    private static final String METRIC_PREFIX = "permission.membership.cache";
+
+    private final UserCompanyRepository userCompanyRepository;
+    private final long ttlNanos;
+    private final Map<Key, Entry> entries;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter invalidations;
+    private final DistributionSummary entryAge;
+
+    public CompanyMembershipCache(UserCompanyRepository userCompanyRepository, MeterRegistry meterRegistry,
+            @Value("${security.permission-cache.ttl-seconds:60}") long ttlSeconds,
+            @Value("${security.permission-cache.max-entries:10000}") int maxEntries) {
+        this.userCompanyRepository = userCompanyRepository;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        });
+
+        this.hits = meterRegistry.counter(METRIC_PREFIX + ".requests", "result", "hit");
+        this.misses = meterRegistry.counter(METRIC_PREFIX + ".requests", "result", "miss");
+        this.invalidations = meterRegistry.counter(METRIC_PREFIX + ".invalidations");
+        this.entryAge = DistributionSummary.builder(METRIC_PREFIX + ".entry.age")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".size", entries, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * @param userId    User ID
+     * @param companyId Company ID
+     * @return the user's role in the company, or empty if not a member
+     */
+    public Optional<String> getRole(Long userId, Long companyId) {
+        Key key = new Key(userId, companyId);
+        long now = System.nanoTime();
+
+        Entry entry = entries.get(key);
+        if (entry != null && now - entry.loadedAt() < ttlNanos) {
+            hits.increment();
+            entryAge.record((now - entry.loadedAt()) / 1_000_000_000.0);
+            return Optional.ofNullable(entry.role());
+        }
+
+        misses.increment();
+        String role = userCompanyRepository.findById(new UserCompanyId(userId, companyId))
+                .map(UserCompany::getRole)
+                .orElse(null);
+        entries.put(key, new Entry(role, now));
+        return Optional.ofNullable(role);
+    }
+
+    public void evict(Long userId, Long companyId) {
+        Key key = new Key(userId, companyId);
+        invalidate(k -> k.equals(key));
+    }
+
+    public void evictUser(Long userId) {
+        invalidate(k -> k.userId().equals(userId));
+    }
+
+    public void evictCompany(Long companyId) {
+        invalidate(k -> k.companyId().equals(companyId));
+    }
+
+    @EventListener
+    public void onUserJoinedCompany(UserJoinedCompanyEvent event) {
+        evict(event.getUserId(), event.getCompanyId());
+    }
+
+    private void invalidate(Predicate<Key> matcher) {
+        removeMatching(matcher);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    removeMatching(matcher);
+                }
+            });
+        }
+    }
+
+    private void removeMatching(Predicate<Key> matcher) {
+        boolean removed;
+        synchronized (entries) {
+            removed = entries.keySet().removeIf(matcher);
+        }
+        if (removed) {
+            invalidations.increment();
+            log.debug("Invalidated cached company memberships");
+        }
+    }
+
+    private record Key(Long userId, Long companyId) {
+    }
+
+    private record Entry(String role, long loadedAt) {
+    }
+}
@@ -1,8 +1,5 @@
 package com.invoices.security.service;
 
-import com.invoices.company.infrastructure.persistence.entities.UserCompany;
-import com.invoices.company.infrastructure.persistence.entities.UserCompanyId;
-import com.invoices.company.infrastructure.persistence.repositories.UserCompanyRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
@@ -13,13 +10,15 @@ import java.util.Optional;
 /**
  * Service for checking user permissions based on their role in companies.
  * Implements role-based access control (RBAC) for multi-company environment.
+ *
+ * Memberships are read through {@link CompanyMembershipCache}.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class PermissionService {
 
-    private final UserCompanyRepository userCompanyRepository;
+    private final CompanyMembershipCache membershipCache;
 
     /**
      * Check if user can edit an invoice.
@@ -113,15 +112,14 @@ public class PermissionService {
      * @return true if user is ADMIN in the company
      */
     public boolean isAdminInCompany(Long userId, Long companyId) {
-        UserCompanyId id = new UserCompanyId(userId, companyId);
-        Optional<UserCompany> userCompany = userCompanyRepository.findById(id);
+        Optional<String> role = membershipCache.getRole(userId, companyId);
 
-        if (userCompany.isEmpty()) {
+        if (role.isEmpty()) {
             log.warn("User {} does not belong to company {}", userId, companyId);
             return false;
         }
 
-        return "ADMIN".equals(userCompany.get().getRole());
+        return "ADMIN".equals(role.get());
     }
 
     /**
@@ -133,10 +131,7 @@ public class PermissionService {
      *         company
      */
     public String getUserRoleInCompany(Long userId, Long companyId) {
-        UserCompanyId id = new UserCompanyId(userId, companyId);
-        Optional<UserCompany> userCompany = userCompanyRepository.findById(id);
-
-        return userCompany.map(UserCompany::getRole).orElse(null);
+        return membershipCache.getRole(userId, companyId).orElse(null);
     }
 
     /**
@@ -151,8 +146,7 @@ public class PermissionService {
      * Check if user belongs to a company.
      */
     public boolean belongsToCompany(Long userId, Long companyId) {
-        UserCompanyId id = new UserCompanyId(userId, companyId);
-        return userCompanyRepository.findById(id).isPresent();
+        return membershipCache.getRole(userId, companyId).isPresent();
     }
 
     /**
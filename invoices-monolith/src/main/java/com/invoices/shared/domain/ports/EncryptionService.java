@@ -24,4 +24,15 @@ public interface EncryptionService {
      * @throws Exception if decryption fails
      */
     String decrypt(String encryptedText) throws Exception;
+
+    /**
+     * Tells whether a stored value was encrypted with the current key, so it can
+     * be written back as is instead of being re-encrypted.
+     *
+     * @param encryptedText the stored value
+     * @return true if the value needs no re-encryption
+     */
+    default boolean isEncryptedWithCurrentKey(String encryptedText) {
+        return false;
+    }
 }
@@ -109,6 +109,18 @@ public class GlobalExceptionHandler {
                                                 .build());
         }
 
+        @ExceptionHandler(com.invoices.user.exception.PasswordHashingBusyException.class)
+        public ResponseEntity<ErrorResponse> handlePasswordHashingBusy(
+                        com.invoices.user.exception.PasswordHashingBusyException e) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                .header(org.springframework.http.HttpHeaders.RETRY_AFTER, "1")
+                                .body(ErrorResponse.builder()
+                                                .code("LOGIN_BUSY")
+                                                .message(e.getMessage())
+                                                .timestamp(Instant.now())
+                                                .build());
+        }
+
         @ExceptionHandler(org.springframework.security.access.AccessDeniedException.class)
         public ResponseEntity<ErrorResponse> handleAccessDenied(
                         org.springframework.security.access.AccessDeniedException e) {
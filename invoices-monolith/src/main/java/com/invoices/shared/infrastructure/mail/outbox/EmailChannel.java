@@ -0,0 +1,11 @@
+package com.invoices.shared.infrastructure.mail.outbox;
+
+/**
+ * How an outbox message leaves the application.
+ */
+public enum EmailChannel {
+    /** JavaMailSender (spring.mail.*): operational reports and alerts */
+    SMTP,
+    /** Mailgun HTTP API (mailgun.*): user-facing email */
+    MAILGUN
+}
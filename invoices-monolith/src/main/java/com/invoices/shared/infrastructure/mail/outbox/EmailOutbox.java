@@ -0,0 +1,39 @@
+package com.invoices.shared.infrastructure.mail.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Queues email for {@link EmailOutboxDispatcher}. Messages are written in the
+ * caller's transaction, so they are only sent if it commits, and the caller
+ * never waits for a mail server.
+ *
+ * Messages with a coalesce key are held for
+ * {@code email.outbox.coalesce-window-seconds}, so that those following
+ * shortly after are sent in the same digest.
+ */
+@Component
+@Slf4j
+public class EmailOutbox {
+
+    private final EmailOutboxRepository repository;
+    private final long coalesceWindowSeconds;
+
+    public EmailOutbox(EmailOutboxRepository repository,
+            @Value("${email.outbox.coalesce-window-seconds:60}") long coalesceWindowSeconds) {
+        this.repository = repository;
+        this.coalesceWindowSeconds = coalesceWindowSeconds;
+    }
+
+    public void enqueue(OutboundEmail email) {
+        LocalDateTime sendAt = LocalDateTime.now();
+        if (email.getCoalesceKey() != null) {
+            sendAt = sendAt.plusSeconds(coalesceWindowSeconds);
+        }
+        repository.append(email, sendAt);
+        log.debug("Queued {} email {} to {}", email.getChannel(), email.getId(), email.getRecipient());
+    }
+}
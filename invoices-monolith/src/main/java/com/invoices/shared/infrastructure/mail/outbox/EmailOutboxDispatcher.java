@@ -0,0 +1,270 @@
+package com.invoices.shared.infrastructure.mail.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.util.HtmlUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends the email outbox (see {@link EmailOutbox}).
+ *
+ * {@code email.outbox.workers} threads of their own, so a slow mail server
+ * never holds up request threads or other scheduled jobs, each claim up to
+ * {@code batch-size} due messages every {@code poll-interval-millis}. Claiming
+ * counts an attempt and leases the messages for {@code lease-seconds} in a
+ * short transaction; they are then sent outside it, one transport call per
+ * channel (a single SMTP connection for the whole batch), and deleted once
+ * sent. If the dispatcher dies meanwhile, the messages are sent again when the
+ * lease expires.
+ *
+ * Messages sharing recipient and coalesce key are sent as one digest listing
+ * their summaries. A failed message is retried after
+ * {@code retry-backoff-seconds}, doubled on every attempt up to
+ * {@code max-backoff-seconds}; after {@code max-attempts} it is marked failed
+ * and kept.
+ *
+ * Metrics: {@code email.outbox.sent}, {@code email.outbox.failed} and
+ * {@code email.outbox.parked}, counted per queued message.
+ */
+@Component
+@ConditionalOnProperty(prefix = "email.outbox", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class EmailOutboxDispatcher {
+
+    private static final String METRIC_PREFIX = "email.outbox";
+
+    /**
+     * A message to send and the queued messages it stands for.
+     */
+    record Delivery(OutboundEmail message, List<OutboundEmail> sources) {
+    }
+
+    private record DigestKey(EmailChannel channel, String recipient, String coalesceKey) {
+    }
+
+    private final EmailOutboxRepository repository;
+    private final Map<EmailChannel, EmailTransport> transports = new EnumMap<>(EmailChannel.class);
+    private final TransactionTemplate claimTransaction;
+    private final int workers;
+    private final int batchSize;
+    private final long pollIntervalMillis;
+    private final long leaseSeconds;
+    private final int maxAttempts;
+    private final long retryBackoffSeconds;
+    private final long maxBackoffSeconds;
+
+    private final Counter sent;
+    private final Counter failed;
+    private final Counter parked;
+
+    private ScheduledExecutorService executor;
+
+    public EmailOutboxDispatcher(EmailOutboxRepository repository, List<EmailTransport> transports,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            @Value("${email.outbox.workers:1}") int workers,
+            @Value("${email.outbox.batch-size:50}") int batchSize,
+            @Value("${email.outbox.poll-interval-millis:2000}") long pollIntervalMillis,
+            @Value("${email.outbox.lease-seconds:120}") long leaseSeconds,
+            @Value("${email.outbox.max-attempts:8}") int maxAttempts,
+            @Value("${email.outbox.retry-backoff-seconds:30}") long retryBackoffSeconds,
+            @Value("${email.outbox.max-backoff-seconds:3600}") long maxBackoffSeconds) {
+        this.repository = repository;
+        transports.forEach(transport -> this.transports.put(transport.channel(), transport));
+        this.claimTransaction = new TransactionTemplate(transactionManager);
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.leaseSeconds = leaseSeconds;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffSeconds = retryBackoffSeconds;
+        this.maxBackoffSeconds = maxBackoffSeconds;
+
+        this.sent = meterRegistry.counter(METRIC_PREFIX + ".sent");
+        this.failed = meterRegistry.counter(METRIC_PREFIX + ".failed");
+        this.parked = meterRegistry.counter(METRIC_PREFIX + ".parked");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newScheduledThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "email-outbox-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workers; i++) {
+            executor.scheduleWithFixedDelay(this::drain, pollIntervalMillis, pollIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+        log.info("[Email Outbox] Started {} workers (batch {}, poll {}ms)", workers, batchSize, pollIntervalMillis);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (executor == null) {
+            return;
+        }
+        // Lets a batch being sent complete; what is left is sent after restart
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor = null;
+    }
+
+    /**
+     * Sends batches until no more messages are due.
+     */
+    void drain() {
+        try {
+            int claimed;
+            do {
+                claimed = dispatchOnce();
+            } while (claimed >= batchSize);
+        } catch (RuntimeException e) {
+            log.error("[Email Outbox] Dispatch failed, retrying on next poll", e);
+        }
+    }
+
+    /**
+     * Claims, sends and settles one batch of messages.
+     *
+     * @return the number of messages claimed
+     */
+    public int dispatchOnce() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboundEmail> claimed = claimTransaction
+                .execute(status -> repository.claim(batchSize, now, now.plusSeconds(leaseSeconds)));
+        if (claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
+
+        List<OutboundEmail> sendable = new ArrayList<>(claimed.size());
+        for (OutboundEmail email : claimed) {
+            if (email.getAttempts() > maxAttempts) {
+                // Its lease expired on every attempt: the dispatcher died or hung each time
+                park(email, "Lease expired on the last attempt");
+            } else {
+                sendable.add(email);
+            }
+        }
+
+        Map<EmailChannel, List<Delivery>> byChannel = new EnumMap<>(EmailChannel.class);
+        for (Delivery delivery : coalesce(sendable)) {
+            byChannel.computeIfAbsent(delivery.message().getChannel(), c -> new ArrayList<>()).add(delivery);
+        }
+        byChannel.forEach(this::send);
+        return claimed.size();
+    }
+
+    private void send(EmailChannel channel, List<Delivery> deliveries) {
+        EmailTransport transport = transports.get(channel);
+        Map<Integer, Exception> failures;
+        if (transport == null) {
+            IllegalStateException missing = new IllegalStateException("No email transport for channel " + channel);
+            failures = new LinkedHashMap<>();
+            for (int i = 0; i < deliveries.size(); i++) {
+                failures.put(i, missing);
+            }
+        } else {
+            failures = transport.send(deliveries.stream().map(Delivery::message).toList());
+        }
+
+        List<Long> done = new ArrayList<>();
+        for (int i = 0; i < deliveries.size(); i++) {
+            Exception failure = failures.get(i);
+            for (OutboundEmail source : deliveries.get(i).sources()) {
+                if (failure == null) {
+                    done.add(source.getId());
+                } else {
+                    fail(source, failure);
+                }
+            }
+        }
+        repository.deleteAll(done);
+        sent.increment(done.size());
+    }
+
+    private void fail(OutboundEmail email, Exception e) {
+        failed.increment();
+        if (email.getAttempts() >= maxAttempts) {
+            park(email, e.toString());
+            return;
+        }
+        long backoff = Math.min(retryBackoffSeconds << Math.min(email.getAttempts() - 1, 20), maxBackoffSeconds);
+        log.warn("[Email Outbox] Email {} to {} failed, attempt {} of {}: {}", email.getId(), email.getRecipient(),
+                email.getAttempts(), maxAttempts, e.getMessage());
+        repository.retryAt(email.getId(), LocalDateTime.now().plusSeconds(backoff), e.toString());
+    }
+
+    private void park(OutboundEmail email, String error) {
+        log.error("[Email Outbox] Giving up on email {} to {} after {} attempts: {}", email.getId(),
+                email.getRecipient(), email.getAttempts(), error);
+        repository.markFailed(email.getId(), error);
+        parked.increment();
+    }
+
+    /**
+     * Folds messages sharing channel, recipient and coalesce key into digests.
+     */
+    static List<Delivery> coalesce(List<OutboundEmail> emails) {
+        List<Delivery> deliveries = new ArrayList<>();
+        Map<DigestKey, List<OutboundEmail>> digests = new LinkedHashMap<>();
+        for (OutboundEmail email : emails) {
+            if (email.getCoalesceKey() == null) {
+                deliveries.add(new Delivery(email, List.of(email)));
+            } else {
+                digests.computeIfAbsent(new DigestKey(email.getChannel(), email.getRecipient(),
+                        email.getCoalesceKey()), k -> new ArrayList<>()).add(email);
+            }
+        }
+        for (List<OutboundEmail> group : digests.values()) {
+            deliveries.add(new Delivery(group.size() == 1 ? group.get(0) : digest(group), group));
+        }
+        return deliveries;
+    }
+
+    private static OutboundEmail digest(List<OutboundEmail> group) {
+        OutboundEmail first = group.get(0);
+        String title = first.getDigestTitle() != null ? first.getDigestTitle() : first.getSubject();
+        StringBuilder body = new StringBuilder()
+                .append("<!DOCTYPE html><html><head><meta charset=\"UTF-8\"></head>")
+                .append("<body style=\"font-family: Arial, sans-serif;\"><h2>")
+                .append(HtmlUtils.htmlEscape(title))
+                .append("</h2><ul>");
+        for (OutboundEmail email : group) {
+            String summary = email.getSummary() != null ? email.getSummary() : email.getSubject();
+            body.append("<li>").append(HtmlUtils.htmlEscape(summary)).append("</li>");
+        }
+        body.append("</ul></body></html>");
+
+        return OutboundEmail.builder()
+                .channel(first.getChannel())
+                .recipient(first.getRecipient())
+                .subject(title + " (" + group.size() + ")")
+                .body(body.toString())
+                .html(true)
+                .build();
+    }
+}
@@ -0,0 +1,69 @@
+package com.invoices.shared.infrastructure.mail.outbox;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * JPA Entity for the email outbox (V49). Only used to enqueue messages; the
+ * dispatcher claims and deletes rows through plain SQL.
+ */
+@Entity
+@Table(name = "email_outbox", indexes = {
+        @Index(name = "idx_email_outbox_next_attempt_at", columnList = "next_attempt_at, id"),
+        @Index(name = "idx_email_outbox_coalesce", columnList = "recipient, coalesce_key")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailOutboxJpaEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private EmailChannel channel;
+
+    @Column(nullable = false, length = 320)
+    private String recipient;
+
+    @Column(nullable = false, length = 998)
+    private String subject;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    @Column(nullable = false)
+    private boolean html;
+
+    @Column(name = "coalesce_key", length = 100)
+    private String coalesceKey;
+
+    @Column(name = "digest_title", length = 200)
+    private String digestTitle;
+
+    @Column(length = 1000)
+    private String summary;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "failed_at")
+    private LocalDateTime failedAt;
+}
@@ -0,0 +1,132 @@
+package com.invoices.shared.infrastructure.mail.outbox;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Storage of the email outbox (V49).
+ *
+ * Messages are appended through JPA, so they are flushed with the rest of the
+ * caller's unit of work. Claiming uses plain SQL for FOR UPDATE SKIP LOCKED, so
+ * dispatchers never wait for each other, and must run in a transaction.
+ */
+@Repository
+public class EmailOutboxRepository {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private static final String COLUMNS = "id, channel, recipient, subject, body, html, coalesce_key, digest_title, "
+            + "summary, attempts";
+    private static final String CLAIM_SQL = "SELECT " + COLUMNS + " FROM email_outbox "
+            + "WHERE next_attempt_at <= ? AND failed_at IS NULL ORDER BY next_attempt_at, id LIMIT ? "
+            + "FOR UPDATE SKIP LOCKED";
+    // Pending messages of a digest that are not due yet (the due ones are in the claim)
+    private static final String CLAIM_COALESCED_SQL = "SELECT " + COLUMNS + " FROM email_outbox "
+            + "WHERE channel = ? AND recipient = ? AND coalesce_key = ? AND next_attempt_at > ? "
+            + "AND failed_at IS NULL ORDER BY id FOR UPDATE SKIP LOCKED";
+    private static final String LEASE_SQL = "UPDATE email_outbox SET attempts = attempts + 1, next_attempt_at = ? "
+            + "WHERE id = ?";
+    private static final String DELETE_SQL = "DELETE FROM email_outbox WHERE id = ?";
+    private static final String RETRY_SQL = "UPDATE email_outbox SET next_attempt_at = ?, last_error = ? WHERE id = ?";
+    private static final String FAIL_SQL = "UPDATE email_outbox SET failed_at = ?, last_error = ? WHERE id = ?";
+
+    /**
+     * Maps a claimed row; attempts includes the one being made.
+     */
+    private static final RowMapper<OutboundEmail> CLAIM_MAPPER = (rs, rowNum) -> OutboundEmail.builder()
+            .id(rs.getLong("id"))
+            .channel(EmailChannel.valueOf(rs.getString("channel")))
+            .recipient(rs.getString("recipient"))
+            .subject(rs.getString("subject"))
+            .body(rs.getString("body"))
+            .html(rs.getBoolean("html"))
+            .coalesceKey(rs.getString("coalesce_key"))
+            .digestTitle(rs.getString("digest_title"))
+            .summary(rs.getString("summary"))
+            .attempts(rs.getInt("attempts") + 1)
+            .build();
+
+    private record DigestKey(EmailChannel channel, String recipient, String coalesceKey) {
+    }
+
+    private final JpaEmailOutboxRepository jpaEmailOutboxRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public EmailOutboxRepository(JpaEmailOutboxRepository jpaEmailOutboxRepository, JdbcTemplate jdbcTemplate) {
+        this.jpaEmailOutboxRepository = jpaEmailOutboxRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void append(OutboundEmail email, LocalDateTime sendAt) {
+        EmailOutboxJpaEntity saved = jpaEmailOutboxRepository.save(EmailOutboxJpaEntity.builder()
+                .channel(email.getChannel())
+                .recipient(email.getRecipient())
+                .subject(email.getSubject())
+                .body(email.getBody())
+                .html(email.isHtml())
+                .coalesceKey(email.getCoalesceKey())
+                .digestTitle(email.getDigestTitle())
+                .summary(email.getSummary())
+                .createdAt(LocalDateTime.now())
+                .nextAttemptAt(sendAt)
+                .build());
+        email.setId(saved.getId());
+    }
+
+    /**
+     * Claims up to limit due messages, plus the pending messages that will be
+     * folded into the same digests, and leases them until leaseUntil.
+     */
+    public List<OutboundEmail> claim(int limit, LocalDateTime now, LocalDateTime leaseUntil) {
+        Timestamp nowTimestamp = Timestamp.valueOf(now);
+        List<OutboundEmail> claimed = new ArrayList<>(jdbcTemplate.query(CLAIM_SQL, CLAIM_MAPPER, nowTimestamp,
+                limit));
+
+        Set<DigestKey> digests = new LinkedHashSet<>();
+        for (OutboundEmail email : claimed) {
+            if (email.getCoalesceKey() != null) {
+                digests.add(new DigestKey(email.getChannel(), email.getRecipient(), email.getCoalesceKey()));
+            }
+        }
+        for (DigestKey digest : digests) {
+            claimed.addAll(jdbcTemplate.query(CLAIM_COALESCED_SQL, CLAIM_MAPPER, digest.channel().name(),
+                    digest.recipient(), digest.coalesceKey(), nowTimestamp));
+        }
+
+        if (!claimed.isEmpty()) {
+            Timestamp leaseEnd = Timestamp.valueOf(leaseUntil);
+            jdbcTemplate.batchUpdate(LEASE_SQL, claimed, claimed.size(), (ps, email) -> {
+                ps.setTimestamp(1, leaseEnd);
+                ps.setLong(2, email.getId());
+            });
+        }
+        return claimed;
+    }
+
+    public void deleteAll(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(DELETE_SQL, ids, ids.size(), (ps, id) -> ps.setLong(1, id));
+    }
+
+    public void retryAt(Long id, LocalDateTime nextAttemptAt, String error) {
+        jdbcTemplate.update(RETRY_SQL, Timestamp.valueOf(nextAttemptAt), truncate(error), id);
+    }
+
+    public void markFailed(Long id, String error) {
+        jdbcTemplate.update(FAIL_SQL, Timestamp.valueOf(LocalDateTime.now()), truncate(error), id);
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
@@ -0,0 +1,19 @@
+package com.invoices.shared.infrastructure.mail.outbox;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends outbox messages through one {@link EmailChannel}.
+ */
+public interface EmailTransport {
+
+    EmailChannel channel();
+
+    /**
+     * Sends the messages, over a single connection where the transport allows it.
+     *
+     * @return the failure of each message that was not sent, by its index in messages
+     */
+    Map<Integer, Exception> send(List<OutboundEmail> messages);
+}
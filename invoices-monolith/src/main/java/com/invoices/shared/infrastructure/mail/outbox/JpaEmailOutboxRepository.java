@@ -0,0 +1,9 @@
+package com.invoices.shared.infrastructure.mail.outbox;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Spring Data JPA repository for EmailOutboxJpaEntity.
+ */
+public interface JpaEmailOutboxRepository extends JpaRepository<EmailOutboxJpaEntity, Long> {
+}
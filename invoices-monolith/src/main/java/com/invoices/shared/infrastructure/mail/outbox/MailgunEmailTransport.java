@@ -0,0 +1,67 @@
+package com.invoices.shared.infrastructure.mail.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RestClient;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends Mailgun outbox messages through the Mailgun HTTP API, one request per
+ * message on the pooled connections of the shared RestClient.
+ */
+@Component
+@Slf4j
+public class MailgunEmailTransport implements EmailTransport {
+
+    private final RestClient restClient;
+    private final String mailgunDomain;
+    private final String mailgunApiKey;
+    private final String fromEmail;
+
+    public MailgunEmailTransport(RestClient restClient,
+            @Value("${mailgun.domain}") String mailgunDomain,
+            @Value("${mailgun.api-key}") String mailgunApiKey,
+            @Value("${verifactu.email.from:noreply@invoices.com}") String fromEmail) {
+        this.restClient = restClient;
+        this.mailgunDomain = mailgunDomain;
+        this.mailgunApiKey = mailgunApiKey;
+        this.fromEmail = fromEmail;
+    }
+
+    @Override
+    public EmailChannel channel() {
+        return EmailChannel.MAILGUN;
+    }
+
+    @Override
+    public Map<Integer, Exception> send(List<OutboundEmail> messages) {
+        Map<Integer, Exception> failures = new HashMap<>();
+        for (int i = 0; i < messages.size(); i++) {
+            OutboundEmail email = messages.get(i);
+            try {
+                MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
+                form.add("from", fromEmail);
+                form.add("to", email.getRecipient());
+                form.add("subject", email.getSubject());
+                form.add(email.isHtml() ? "html" : "text", email.getBody());
+
+                restClient.post()
+                        .uri("https://api.mailgun.net/v3/" + mailgunDomain + "/messages")
+                        .headers(headers -> headers.setBasicAuth("api", mailgunApiKey))
+                        .body(form)
+                        .retrieve()
+                        .body(String.class);
+                log.info("Email sent successfully to: {}", email.getRecipient());
+            } catch (RuntimeException e) {
+                failures.put(i, e);
+            }
+        }
+        return failures;
+    }
+}
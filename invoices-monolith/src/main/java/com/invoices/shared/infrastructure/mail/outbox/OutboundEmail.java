@@ -0,0 +1,31 @@
+package com.invoices.shared.infrastructure.mail.outbox;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * An email in the outbox, with its body already rendered.
+ *
+ * Messages with a coalesceKey may be folded into a digest with the other
+ * pending messages of the same recipient and key: the digest is titled
+ * digestTitle and lists the summary of each message.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboundEmail {
+
+    private Long id;
+    private EmailChannel channel;
+    private String recipient;
+    private String subject;
+    private String body;
+    private boolean html;
+    private String coalesceKey;
+    private String digestTitle;
+    private String summary;
+    private int attempts;
+}
@@ -0,0 +1,83 @@
+package com.invoices.shared.infrastructure.mail.outbox;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends SMTP outbox messages. A batch is handed to JavaMailSender in one call,
+ * which sends it over a single connection instead of one per message.
+ */
+@Component
+@Slf4j
+public class SmtpEmailTransport implements EmailTransport {
+
+    private final JavaMailSender mailSender;
+    private final String fromEmail;
+
+    public SmtpEmailTransport(JavaMailSender mailSender,
+            @Value("${verifactu.email.from:noreply@invoices.com}") String fromEmail) {
+        this.mailSender = mailSender;
+        this.fromEmail = fromEmail;
+    }
+
+    @Override
+    public EmailChannel channel() {
+        return EmailChannel.SMTP;
+    }
+
+    @Override
+    public Map<Integer, Exception> send(List<OutboundEmail> messages) {
+        Map<Integer, Exception> failures = new HashMap<>();
+        Map<MimeMessage, Integer> indexes = new IdentityHashMap<>();
+        List<MimeMessage> mimeMessages = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            try {
+                MimeMessage mimeMessage = toMimeMessage(messages.get(i));
+                indexes.put(mimeMessage, i);
+                mimeMessages.add(mimeMessage);
+            } catch (MessagingException e) {
+                failures.put(i, e);
+            }
+        }
+        if (mimeMessages.isEmpty()) {
+            return failures;
+        }
+
+        try {
+            mailSender.send(mimeMessages.toArray(MimeMessage[]::new));
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty()) {
+                indexes.values().forEach(i -> failures.put(i, e));
+            }
+            e.getFailedMessages().forEach((message, failure) -> failures.put(indexes.get(message), failure));
+        } catch (MailException e) {
+            // Connection or authentication failure: nothing was sent
+            indexes.values().forEach(i -> failures.put(i, e));
+        }
+        log.debug("Sent {} of {} SMTP messages", messages.size() - failures.size(), messages.size());
+        return failures;
+    }
+
+    private MimeMessage toMimeMessage(OutboundEmail email) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setFrom(fromEmail);
+        helper.setTo(email.getRecipient());
+        helper.setSubject(email.getSubject());
+        helper.setText(email.getBody(), email.isHtml());
+        return message;
+    }
+}
@@ -1,6 +1,8 @@
 package com.invoices.shared.infrastructure.security.encryption;
 
 import com.invoices.shared.domain.ports.EncryptionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -8,22 +10,83 @@ import javax.crypto.Cipher;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
-import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.SecureRandom;
 import java.util.Base64;
-
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * AES-256-GCM encryption with versioned keys.
+ *
+ * Ciphertext is written as {@code <keyId>:<base64(iv || ciphertext || tag)>}.
+ * Rotating the key means setting a new security.encryption.key and key-id and
+ * moving the old key to security.encryption.previous-keys: existing values stay
+ * readable and are re-encrypted with the new key the next time they are written.
+ * Values without a key-id prefix were written before versioning and are read
+ * with key id {@value #LEGACY_KEY_ID}.
+ *
+ * {@link Cipher} instances are reused per thread; only {@code init} runs per call.
+ */
 @Service
+@Slf4j
 public class AesEncryptionService implements EncryptionService {
 
     private static final String ALGORITHM = "AES/GCM/NoPadding";
     private static final int TAG_LENGTH_BIT = 128;
     private static final int IV_LENGTH_BYTE = 12;
+    static final String LEGACY_KEY_ID = "1";
+    private static final char KEY_ID_SEPARATOR = ':';
+
+    private static final ThreadLocal<Cipher> CIPHER = ThreadLocal.withInitial(() -> {
+        try {
+            return Cipher.getInstance(ALGORITHM);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("AES/GCM is not available", e);
+        }
+    });
 
-    private final SecretKey secretKey;
+    private final String activePrefix;
+    private final SecretKey activeKey;
+    private final Map<String, SecretKey> keys = new HashMap<>();
     private final SecureRandom secureRandom;
 
-    public AesEncryptionService(@Value("${security.encryption.key}") String base64Key) {
+    public AesEncryptionService(String base64Key) {
+        this(base64Key, LEGACY_KEY_ID, "");
+    }
+
+    /**
+     * @param base64Key    the active key (Base64, 32 bytes)
+     * @param keyId        id written in front of new ciphertext
+     * @param previousKeys retired keys still accepted for decryption, as
+     *                     {@code id:base64Key} separated by commas
+     */
+    @Autowired
+    public AesEncryptionService(@Value("${security.encryption.key}") String base64Key,
+            @Value("${security.encryption.key-id:" + LEGACY_KEY_ID + "}") String keyId,
+            @Value("${security.encryption.previous-keys:}") String previousKeys) {
+        if (keyId.isBlank() || keyId.indexOf(KEY_ID_SEPARATOR) >= 0) {
+            throw new IllegalArgumentException("Invalid encryption key id: " + keyId);
+        }
+        for (String entry : previousKeys.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.indexOf(KEY_ID_SEPARATOR);
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Previous encryption keys must be given as id:base64Key");
+            }
+            keys.put(entry.substring(0, separator).trim(), toKey(entry.substring(separator + 1).trim()));
+        }
+        this.activePrefix = keyId + KEY_ID_SEPARATOR;
+        this.activeKey = toKey(base64Key);
+        this.keys.put(keyId, activeKey);
+        this.secureRandom = new SecureRandom();
+        log.info("Field encryption uses key id {} ({} key(s) accepted for decryption)", keyId, keys.size());
+    }
+
+    private static SecretKey toKey(String base64Key) {
         byte[] decodedKey;
         try {
             decodedKey = Base64.getDecoder().decode(base64Key);
@@ -35,8 +98,7 @@ public class AesEncryptionService implements EncryptionService {
                 throw new IllegalArgumentException("Invalid Base64 encryption key", ex);
             }
         }
-        this.secretKey = new SecretKeySpec(decodedKey, "AES");
-        this.secureRandom = new SecureRandom();
+        return new SecretKeySpec(decodedKey, "AES");
     }
 
     @Override
@@ -46,61 +108,69 @@ public class AesEncryptionService implements EncryptionService {
         }
 
         try {
+            byte[] plain = plainText.getBytes(StandardCharsets.UTF_8);
+            Cipher cipher = CIPHER.get();
             byte[] iv = new byte[IV_LENGTH_BYTE];
             secureRandom.nextBytes(iv);
+            cipher.init(Cipher.ENCRYPT_MODE, activeKey, new GCMParameterSpec(TAG_LENGTH_BIT, iv));
 
-            Cipher cipher = Cipher.getInstance(ALGORITHM);
-            GCMParameterSpec parameterSpec = new GCMParameterSpec(TAG_LENGTH_BIT, iv);
-            cipher.init(Cipher.ENCRYPT_MODE, secretKey, parameterSpec);
-
-            byte[] cipherText = cipher.doFinal(plainText.getBytes(StandardCharsets.UTF_8));
+            byte[] output = new byte[IV_LENGTH_BYTE + cipher.getOutputSize(plain.length)];
+            System.arraycopy(iv, 0, output, 0, IV_LENGTH_BYTE);
+            cipher.doFinal(plain, 0, plain.length, output, IV_LENGTH_BYTE);
 
-            ByteBuffer byteBuffer = ByteBuffer.allocate(iv.length + cipherText.length);
-            byteBuffer.put(iv);
-            byteBuffer.put(cipherText);
-
-            return Base64.getEncoder().encodeToString(byteBuffer.array());
+            return activePrefix + Base64.getEncoder().encodeToString(output);
         } catch (Exception e) {
             throw new RuntimeException("Error encrypting data", e);
         }
     }
 
+    /**
+     * Values that are not shaped like ciphertext (Base64 of at least an IV and a
+     * tag, with an optional key id prefix) were stored before encryption was
+     * introduced and are returned as they are. A value that is ciphertext but
+     * cannot be decrypted, e.g. because its key id was removed from
+     * previous-keys, fails instead: returning it would have it re-encrypted as
+     * if it were plaintext on the next write, and it could never be recovered.
+     *
+     * @throws IllegalStateException if ciphertext uses an unknown key or fails authentication
+     */
     @Override
     public String decrypt(String encryptedText) {
         if (encryptedText == null) {
             return null;
         }
 
+        // Base64 never contains ':', so a separator means a key id prefix
+        int separator = encryptedText.indexOf(KEY_ID_SEPARATOR);
+        String keyId = separator > 0 ? encryptedText.substring(0, separator) : LEGACY_KEY_ID;
+        byte[] decoded;
         try {
-            byte[] decoded = Base64.getDecoder().decode(encryptedText);
-
-            ByteBuffer byteBuffer = ByteBuffer.wrap(decoded);
-            byte[] iv = new byte[IV_LENGTH_BYTE];
-            byteBuffer.get(iv);
-            byte[] cipherText = new byte[byteBuffer.remaining()];
-            byteBuffer.get(cipherText);
+            decoded = Base64.getDecoder().decode(encryptedText.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            return encryptedText;
+        }
+        if (decoded.length < IV_LENGTH_BYTE + TAG_LENGTH_BIT / 8) {
+            return encryptedText;
+        }
 
-            Cipher cipher = Cipher.getInstance(ALGORITHM);
-            GCMParameterSpec parameterSpec = new GCMParameterSpec(TAG_LENGTH_BIT, iv);
-            cipher.init(Cipher.DECRYPT_MODE, secretKey, parameterSpec);
+        SecretKey key = keys.get(keyId);
+        if (key == null) {
+            throw new IllegalStateException("Unknown encryption key id " + keyId
+                    + "; add the key to security.encryption.previous-keys to read this value");
+        }
+        try {
+            Cipher cipher = CIPHER.get();
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BIT, decoded, 0, IV_LENGTH_BYTE));
 
-            byte[] plainText = cipher.doFinal(cipherText);
+            byte[] plainText = cipher.doFinal(decoded, IV_LENGTH_BYTE, decoded.length - IV_LENGTH_BYTE);
             return new String(plainText, StandardCharsets.UTF_8);
-        } catch (Exception e) {
-            // Soft Fail: If decryption fails (e.g., data was not encrypted), return
-            // original text
-            // This is useful for migration or if data is mixed.
-            // However, in a strict environment, we might want to log this or throw.
-            // For now, let's assume if it's not valid Base64 or decryption fails, it might
-            // be plain text.
-            // BUT, GCM failure usually means auth tag mismatch or wrong key.
-            // Let's try to return the original text ONLY if it looks like it wasn't
-            // encrypted (e.g. not base64)
-            // or as a fallback strategy.
-
-            // Simple heuristic: If exception, return original.
-            // WARNING: This could mask errors. Use with caution.
-            return encryptedText;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not decrypt value encrypted with key id " + keyId, e);
         }
     }
+
+    @Override
+    public boolean isEncryptedWithCurrentKey(String encryptedText) {
+        return encryptedText != null && encryptedText.startsWith(activePrefix);
+    }
 }
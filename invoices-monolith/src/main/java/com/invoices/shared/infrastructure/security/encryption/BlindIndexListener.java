@@ -0,0 +1,29 @@
+package com.invoices.shared.infrastructure.security.encryption;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener that maintains the blind indexes of {@link BlindIndexed}
+ * entities on insert and update, so repositories and mappers never compute them.
+ */
+@Component
+public class BlindIndexListener {
+
+    private static BlindIndexer blindIndexer;
+
+    @Autowired
+    public void setBlindIndexer(BlindIndexer indexer) {
+        BlindIndexListener.blindIndexer = indexer;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void updateBlindIndexes(Object entity) {
+        if (entity instanceof BlindIndexed indexed) {
+            indexed.updateBlindIndexes(blindIndexer);
+        }
+    }
+}
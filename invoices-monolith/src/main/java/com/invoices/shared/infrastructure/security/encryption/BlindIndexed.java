@@ -0,0 +1,16 @@
+package com.invoices.shared.infrastructure.security.encryption;
+
+/**
+ * Entity with blind-index columns, kept up to date by {@link BlindIndexListener}.
+ */
+public interface BlindIndexed {
+
+    /**
+     * Recompute the blind indexes of columns whose value changed or that were
+     * never indexed.
+     *
+     * @param indexer the blind indexer
+     * @return true if any index changed
+     */
+    boolean updateBlindIndexes(BlindIndexer indexer);
+}
@@ -0,0 +1,141 @@
+package com.invoices.shared.infrastructure.security.encryption;
+
+import com.invoices.shared.domain.exception.BusinessException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Computes blind indexes for encrypted columns: a keyed HMAC-SHA256 of the
+ * normalized value, truncated to 128 bits, that can be stored next to the
+ * ciphertext and looked up with an ordinary B-tree index.
+ *
+ * Two variants exist per column. {@link #exact} hashes the whole normalized
+ * value; {@link #prefix} hashes its first {@value #PREFIX_LENGTH} characters and
+ * serves "starts with" searches, whose candidates are then checked with
+ * {@link #matchesPrefix} after decryption. Normalization strips accents, case
+ * and anything that is not a letter, digit or {@code @}, so "José" and "jose",
+ * or "+34 600-123-123" and "34600123123", index the same. The column name is
+ * part of the HMAC input, so equal values in different columns do not match.
+ *
+ * The HMAC key (security.encryption.blind-index-key) must differ from the
+ * encryption key. Changing it requires recomputing every index.
+ */
+@Component
+public class BlindIndexer {
+
+    public static final int PREFIX_LENGTH = 3;
+    private static final int INDEX_BYTES = 16;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NOT_INDEXED = Pattern.compile("[^\\p{L}\\p{N}@]+");
+
+    private final ThreadLocal<Mac> mac;
+
+    public BlindIndexer(@Value("${security.encryption.blind-index-key}") String base64Key) {
+        SecretKeySpec key = new SecretKeySpec(Base64.getDecoder().decode(base64Key), "HmacSHA256");
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance("HmacSHA256");
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 is not available", e);
+            }
+        });
+    }
+
+    /**
+     * @param column column name, e.g. {@code users.first_name}
+     * @param value  plaintext value, may be null
+     * @return the exact-match index, or null for a null or blank value
+     */
+    public String exact(String column, String value) {
+        String normalized = normalize(value);
+        return normalized.isEmpty() ? null : hmac(column, normalized);
+    }
+
+    /**
+     * @param column column name, e.g. {@code users.first_name}
+     * @param value  plaintext value or search term, may be null
+     * @return the index of the first {@value #PREFIX_LENGTH} normalized
+     *         characters, or null for a null or blank value
+     */
+    public String prefix(String column, String value) {
+        String normalized = normalize(value);
+        if (normalized.isEmpty()) {
+            return null;
+        }
+        return hmac(column, normalized.substring(0, Math.min(PREFIX_LENGTH, normalized.length())));
+    }
+
+    public String exact(String column, EncryptedString value) {
+        return exact(column, EncryptedString.plaintextOf(value));
+    }
+
+    public String prefix(String column, EncryptedString value) {
+        return prefix(column, EncryptedString.plaintextOf(value));
+    }
+
+    /**
+     * Whether the stored indexes of a column must be recomputed: the value was
+     * set from plaintext since it was loaded, or it has not been indexed yet.
+     */
+    public static boolean isStale(EncryptedString value, String exactIndex) {
+        if (value == null) {
+            return exactIndex != null;
+        }
+        return !value.isPersisted() || exactIndex == null;
+    }
+
+    /**
+     * @return true if the term has enough letters or digits to be looked up by
+     *         its prefix index; shorter terms would hash a different prefix than
+     *         the stored values and never match
+     */
+    public static boolean isSearchable(String term) {
+        return normalize(term).length() >= PREFIX_LENGTH;
+    }
+
+    /**
+     * @throws BusinessException (400) if the term is not {@link #isSearchable}
+     */
+    public static void requireSearchable(String term) {
+        if (!isSearchable(term)) {
+            throw new BusinessException("SEARCH_TERM_TOO_SHORT",
+                    "Search terms need at least " + PREFIX_LENGTH + " letters or digits");
+        }
+    }
+
+    /**
+     * @return true if the normalized candidate starts with the normalized term
+     */
+    public static boolean matchesPrefix(String candidate, String term) {
+        return candidate != null && normalize(candidate).startsWith(normalize(term));
+    }
+
+    public static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        String withoutMarks = MARKS.matcher(decomposed).replaceAll("");
+        return NOT_INDEXED.matcher(withoutMarks.toLowerCase(Locale.ROOT)).replaceAll("");
+    }
+
+    private String hmac(String column, String normalized) {
+        Mac instance = mac.get();
+        instance.update(column.getBytes(StandardCharsets.UTF_8));
+        instance.update((byte) 0);
+        byte[] digest = instance.doFinal(normalized.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, INDEX_BYTES));
+    }
+}
@@ -0,0 +1,96 @@
+package com.invoices.shared.infrastructure.security.encryption;
+
+import java.util.Objects;
+
+/**
+ * Value of an encrypted column, decrypted on first access.
+ *
+ * Entities hold this instead of a String so that loading a row does not pay for
+ * decrypting columns the caller never reads. A value loaded from the database
+ * keeps its ciphertext and is written back unchanged unless it was encrypted
+ * with a retired key. Instances are immutable; setting a new plaintext replaces
+ * the instance.
+ */
+public final class EncryptedString {
+
+    private final String ciphertext;
+    private volatile String plaintext;
+
+    private EncryptedString(String ciphertext, String plaintext) {
+        this.ciphertext = ciphertext;
+        this.plaintext = plaintext;
+    }
+
+    /**
+     * @param plaintext the clear value, may be null
+     * @return a value to be encrypted when persisted, or null
+     */
+    public static EncryptedString of(String plaintext) {
+        return plaintext == null ? null : new EncryptedString(null, plaintext);
+    }
+
+    static EncryptedString fromDatabase(String ciphertext) {
+        return new EncryptedString(ciphertext, null);
+    }
+
+    /**
+     * Null-safe accessor for entity getters.
+     *
+     * @param value the encrypted value, may be null
+     * @return the decrypted value, or null
+     */
+    public static String plaintextOf(EncryptedString value) {
+        return value == null ? null : value.get();
+    }
+
+    /**
+     * @return the decrypted value; decrypts on the first call only
+     */
+    public String get() {
+        String value = plaintext;
+        if (value == null) {
+            value = EncryptedStringConverter.decrypt(ciphertext);
+            plaintext = value;
+        }
+        return value;
+    }
+
+    String ciphertext() {
+        return ciphertext;
+    }
+
+    /**
+     * @return true if this value was loaded from the database and not replaced since
+     */
+    public boolean isPersisted() {
+        return ciphertext != null;
+    }
+
+    boolean isDecrypted() {
+        return plaintext != null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof EncryptedString other)) {
+            return false;
+        }
+        if (ciphertext != null && ciphertext.equals(other.ciphertext)) {
+            return true;
+        }
+        return get().equals(other.get());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(get());
+    }
+
+    @Override
+    public String toString() {
+        return "EncryptedString[***]";
+    }
+}
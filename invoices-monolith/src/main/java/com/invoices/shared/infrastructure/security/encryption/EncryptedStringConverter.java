@@ -3,12 +3,20 @@ package com.invoices.shared.infrastructure.security.encryption;
 import com.invoices.shared.domain.ports.EncryptionService;
 import jakarta.persistence.AttributeConverter;
 import jakarta.persistence.Converter;
+import org.hibernate.annotations.Immutable;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+/**
+ * Maps encrypted columns to {@link EncryptedString}. Loading only wraps the
+ * stored ciphertext; decryption happens when the entity getter is called.
+ * Values are immutable, so Hibernate's dirty check compares instances without
+ * decrypting unchanged columns.
+ */
 @Converter
 @Component
-public class EncryptedStringConverter implements AttributeConverter<String, String> {
+@Immutable
+public class EncryptedStringConverter implements AttributeConverter<EncryptedString, String> {
 
     private static EncryptionService encryptionService;
 
@@ -18,22 +26,30 @@ public class EncryptedStringConverter implements AttributeConverter<String, Stri
     }
 
     @Override
-    public String convertToDatabaseColumn(String attribute) {
+    public String convertToDatabaseColumn(EncryptedString attribute) {
         if (attribute == null) {
             return null;
         }
+        String stored = attribute.ciphertext();
+        if (stored != null && encryptionService.isEncryptedWithCurrentKey(stored)) {
+            return stored;
+        }
         try {
-            return encryptionService.encrypt(attribute);
+            return encryptionService.encrypt(attribute.get());
         } catch (Exception e) {
             throw new RuntimeException("Error encrypting attribute", e);
         }
     }
 
     @Override
-    public String convertToEntityAttribute(String dbData) {
+    public EncryptedString convertToEntityAttribute(String dbData) {
         if (dbData == null) {
             return null;
         }
+        return EncryptedString.fromDatabase(dbData);
+    }
+
+    static String decrypt(String dbData) {
         try {
             return encryptionService.decrypt(dbData);
         } catch (Exception e) {
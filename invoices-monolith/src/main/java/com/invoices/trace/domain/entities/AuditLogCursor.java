@@ -0,0 +1,50 @@
+package com.invoices.trace.domain.entities;
+
+import com.invoices.shared.domain.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Position in an audit trail for keyset pagination: the creation time and ID of
+ * the last entry of a page. Trails are ordered newest first, so the next page
+ * holds the entries strictly before this position, however many rows precede it.
+ * Clients see it only as an opaque string ({@link #encode()}).
+ */
+public record AuditLogCursor(LocalDateTime createdAt, Long id) {
+
+    public AuditLogCursor {
+        Objects.requireNonNull(createdAt, "createdAt cannot be null");
+        Objects.requireNonNull(id, "id cannot be null");
+    }
+
+    public static AuditLogCursor after(AuditLog auditLog) {
+        return new AuditLogCursor(auditLog.getCreatedAt(), auditLog.getId());
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param value an encoded cursor, or null/blank for the first page
+     * @return the cursor, or null for the first page
+     * @throws BusinessException (400) if the value is not a cursor
+     */
+    public static AuditLogCursor decode(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new AuditLogCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new BusinessException("INVALID_CURSOR", "Invalid audit log cursor");
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.invoices.trace.domain.entities;
+
+import com.invoices.shared.domain.exception.BusinessException;
+
+import java.util.List;
+
+/**
+ * One page of an audit trail, newest first, and the cursor to the next page
+ * (null on the last page). No total count is computed: counting a company's
+ * whole trail would cost as much as reading it.
+ */
+public record AuditLogPage(List<AuditLog> items, AuditLogCursor nextCursor) {
+
+    public static final int MAX_LIMIT = 500;
+
+    /**
+     * Builds a page from a query that fetched up to {@code limit + 1} rows; the
+     * extra row only signals that there is a next page.
+     */
+    public static AuditLogPage of(List<AuditLog> fetched, int limit) {
+        if (fetched.size() <= limit) {
+            return new AuditLogPage(fetched, null);
+        }
+        List<AuditLog> items = fetched.subList(0, limit);
+        return new AuditLogPage(items, AuditLogCursor.after(items.get(limit - 1)));
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+
+    /**
+     * @throws BusinessException (400) unless 1 <= limit <= {@value #MAX_LIMIT}
+     */
+    public static void checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BusinessException("INVALID_PAGE_SIZE", "Page size must be between 1 and " + MAX_LIMIT);
+        }
+    }
+}
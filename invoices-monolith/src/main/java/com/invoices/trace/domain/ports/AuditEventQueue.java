@@ -0,0 +1,19 @@
+package com.invoices.trace.domain.ports;
+
+import com.invoices.trace.domain.entities.AuditLog;
+
+/**
+ * Port for handing audit events to the capture pipeline.
+ * Implementations persist events asynchronously and in batches, so recording an
+ * event never costs the caller a database round trip.
+ */
+public interface AuditEventQueue {
+
+    /**
+     * Queues an audit event for persistence.
+     *
+     * @param auditLog the event to record
+     * @return false if the event was dropped because the queue was full
+     */
+    boolean offer(AuditLog auditLog);
+}
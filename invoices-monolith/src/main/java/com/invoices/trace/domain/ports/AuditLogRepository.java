@@ -1,8 +1,8 @@
 package com.invoices.trace.domain.ports;
 
 import com.invoices.trace.domain.entities.AuditLog;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import com.invoices.trace.domain.entities.AuditLogCursor;
+import com.invoices.trace.domain.entities.AuditLogPage;
 
 import java.util.List;
 import java.util.Optional;
@@ -24,48 +24,97 @@ public interface AuditLogRepository {
     Optional<AuditLog> findById(Long id);
 
     /**
-     * Find all audit logs for a specific invoice, ordered by creation date (newest
-     * first).
+     * Find a page of the audit trail of a specific invoice, newest first.
      *
      * @param invoiceId the invoice ID
-     * @return List of audit logs for the invoice
+     * @param after     position of the last entry of the previous page, or null
+     *                  for the first page
+     * @param limit     maximum number of entries
+     * @return the page and the cursor to the next one
      */
-    List<AuditLog> findByInvoiceId(Long invoiceId);
+    AuditLogPage findByInvoiceId(Long invoiceId, AuditLogCursor after, int limit);
 
     /**
-     * Find all audit logs for a specific client, ordered by creation date (newest
-     * first).
+     * Find a page of the audit trail of a specific invoice within one company,
+     * newest first.
+     *
+     * @param companyId the company ID
+     * @param invoiceId the invoice ID
+     * @param after     position of the last entry of the previous page, or null
+     *                  for the first page
+     * @param limit     maximum number of entries
+     * @return the page and the cursor to the next one
+     */
+    AuditLogPage findByCompanyIdAndInvoiceId(Long companyId, Long invoiceId, AuditLogCursor after, int limit);
+
+    /**
+     * Find a page of the audit trail of a specific client, newest first.
      *
      * @param clientId the client ID
-     * @return List of audit logs for the client
+     * @param after    position of the last entry of the previous page, or null
+     *                 for the first page
+     * @param limit    maximum number of entries
+     * @return the page and the cursor to the next one
+     */
+    AuditLogPage findByClientId(Long clientId, AuditLogCursor after, int limit);
+
+    /**
+     * Find a page of the audit trail of a specific client within one company,
+     * newest first.
+     *
+     * @param companyId the company ID
+     * @param clientId  the client ID
+     * @param after     position of the last entry of the previous page, or null
+     *                  for the first page
+     * @param limit     maximum number of entries
+     * @return the page and the cursor to the next one
      */
-    List<AuditLog> findByClientId(Long clientId);
+    AuditLogPage findByCompanyIdAndClientId(Long companyId, Long clientId, AuditLogCursor after, int limit);
 
     /**
-     * Find all audit logs for a specific company, ordered by creation date (newest
-     * first).
+     * Find a page of the audit trail of a specific company, newest first.
      *
      * @param companyId the company ID
-     * @return List of audit logs for the company
+     * @param after     position of the last entry of the previous page, or null
+     *                  for the first page
+     * @param limit     maximum number of entries
+     * @return the page and the cursor to the next one
      */
-    List<AuditLog> findByCompanyId(Long companyId);
+    AuditLogPage findByCompanyId(Long companyId, AuditLogCursor after, int limit);
 
     /**
-     * Find all audit logs of a specific event type, ordered by creation date
-     * (newest first).
+     * Find a page of the audit logs of a specific event type, newest first.
      *
      * @param eventType the event type
-     * @return List of audit logs matching the event type
+     * @param after     position of the last entry of the previous page, or null
+     *                  for the first page
+     * @param limit     maximum number of entries
+     * @return the page and the cursor to the next one
      */
-    List<AuditLog> findByEventType(String eventType);
+    AuditLogPage findByEventType(String eventType, AuditLogCursor after, int limit);
 
     /**
-     * Find all audit logs with pagination support.
+     * Find a page of the audit logs of a specific event type within one company,
+     * newest first.
      *
-     * @param pageable pagination information
-     * @return Page of audit logs
+     * @param companyId the company ID
+     * @param eventType the event type
+     * @param after     position of the last entry of the previous page, or null
+     *                  for the first page
+     * @param limit     maximum number of entries
+     * @return the page and the cursor to the next one
+     */
+    AuditLogPage findByCompanyIdAndEventType(Long companyId, String eventType, AuditLogCursor after, int limit);
+
+    /**
+     * Find a page of all audit logs, newest first.
+     *
+     * @param after position of the last entry of the previous page, or null for
+     *              the first page
+     * @param limit maximum number of entries
+     * @return the page and the cursor to the next one
      */
-    Page<AuditLog> findAll(Pageable pageable);
+    AuditLogPage findAll(AuditLogCursor after, int limit);
 
     /**
      * Save an audit log (create or update).
@@ -75,6 +124,13 @@ public interface AuditLogRepository {
      */
     AuditLog save(AuditLog auditLog);
 
+    /**
+     * Insert audit logs in a single JDBC batch. Generated IDs are not returned.
+     *
+     * @param auditLogs the audit logs to insert
+     */
+    void saveAll(List<AuditLog> auditLogs);
+
     /**
      * Delete an audit log by ID.
      *
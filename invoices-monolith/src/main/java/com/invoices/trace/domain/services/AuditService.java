@@ -1,28 +1,31 @@
 package com.invoices.trace.domain.services;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.invoices.trace.domain.entities.AuditLog;
-import com.invoices.trace.domain.ports.AuditLogRepository;
+import com.invoices.trace.domain.ports.AuditEventQueue;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AuditService {
 
-    private final AuditLogRepository auditLogRepository;
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final AuditEventQueue auditEventQueue;
 
     /**
-     * Asynchronously logs an event to the audit log.
-     * Uses REQUIRES_NEW propagation to ensure the log is committed even if the main
-     * transaction fails (optional, depending on requirements).
-     * For now, we use default propagation but async execution.
+     * Records an event in the audit log.
+     * The event is queued and written in a batch by the audit pipeline, outside
+     * the caller's transaction, so it is kept even if that transaction rolls back.
+     * Never throws, to avoid affecting the main flow.
      *
      * @param companyId     The company ID
      * @param eventType     The type of event
@@ -33,29 +36,69 @@ public class AuditService {
      * @param status        The status (optional)
      * @param eventData     Additional data in JSON format (optional)
      */
-    @Async
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void logEvent(Long companyId, String eventType, Long invoiceId, String invoiceNumber,
             Long clientId, String clientEmail, String status, String eventData) {
-        try {
-            AuditLog auditLog = AuditLog.builder()
-                    .companyId(companyId)
-                    .eventType(eventType)
-                    .invoiceId(invoiceId)
-                    .invoiceNumber(invoiceNumber)
-                    .clientId(clientId)
-                    .clientEmail(clientEmail)
-                    .status(status)
-                    .eventData(eventData)
-                    .createdAt(LocalDateTime.now())
-                    .build();
-
-            auditLogRepository.save(auditLog);
-            log.debug("Audit log saved: {}", eventType);
+        record(AuditLog.builder()
+                .companyId(companyId)
+                .eventType(eventType)
+                .invoiceId(invoiceId)
+                .invoiceNumber(invoiceNumber)
+                .clientId(clientId)
+                .clientEmail(clientEmail)
+                .status(status)
+                .eventData(eventData)
+                .build());
+    }
+
+    /**
+     * Records a status transition of an invoice. The event data holds the
+     * previous and new status and an optional detail message.
+     *
+     * @param companyId     The company ID
+     * @param eventType     The type of event
+     * @param invoiceId     The invoice ID
+     * @param invoiceNumber The invoice number (optional)
+     * @param fromStatus    The previous status (optional)
+     * @param toStatus      The new status, also stored as the entry's status
+     * @param detail        Additional detail, e.g. an error message (optional)
+     */
+    public void logStatusChange(Long companyId, String eventType, Long invoiceId, String invoiceNumber,
+            String fromStatus, String toStatus, String detail) {
+        Map<String, String> data = new LinkedHashMap<>();
+        data.put("from", fromStatus);
+        data.put("to", toStatus);
+        if (detail != null) {
+            data.put("detail", detail);
+        }
+        logEvent(companyId, eventType, invoiceId, invoiceNumber, null, null, toStatus, toJson(data));
+    }
 
+    /**
+     * Records a fully built audit log entry. The creation time is set here if missing.
+     *
+     * @param auditLog the entry to record
+     */
+    public void record(AuditLog auditLog) {
+        try {
+            if (auditLog.getCreatedAt() == null) {
+                auditLog.setCreatedAt(LocalDateTime.now());
+            }
+            auditEventQueue.offer(auditLog);
         } catch (Exception e) {
-            log.error("Failed to save audit log", e);
-            // Do not rethrow to avoid affecting the main flow
+            log.error("Failed to record audit log", e);
+        }
+    }
+
+    /**
+     * Serializes event details for the {@code eventData} column.
+     *
+     * @return the JSON, or null if serialization fails
+     */
+    public static String toJson(Map<String, ?> details) {
+        try {
+            return JSON.writeValueAsString(details);
+        } catch (JsonProcessingException e) {
+            return null;
         }
     }
 }
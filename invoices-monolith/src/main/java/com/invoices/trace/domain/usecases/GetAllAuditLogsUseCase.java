@@ -1,12 +1,11 @@
 package com.invoices.trace.domain.usecases;
 
-import com.invoices.trace.domain.entities.AuditLog;
+import com.invoices.trace.domain.entities.AuditLogCursor;
+import com.invoices.trace.domain.entities.AuditLogPage;
 import com.invoices.trace.domain.ports.AuditLogRepository;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 
 /**
- * Use Case for retrieving all audit logs with pagination support.
+ * Use Case for retrieving all audit logs with cursor pagination.
  */
 public class GetAllAuditLogsUseCase {
 
@@ -19,13 +18,12 @@ public class GetAllAuditLogsUseCase {
     /**
      * Executes the get all audit logs use case with pagination.
      *
-     * @param pageable pagination information (page number, size, sort)
-     * @return Page of audit logs
+     * @param after cursor from the previous page, or null for the first page
+     * @param limit page size, at most {@value AuditLogPage#MAX_LIMIT}
+     * @return One page of audit logs, newest first
      */
-    public Page<AuditLog> execute(Pageable pageable) {
-        if (pageable == null) {
-            throw new IllegalArgumentException("Pageable cannot be null");
-        }
-        return auditLogRepository.findAll(pageable);
+    public AuditLogPage execute(AuditLogCursor after, int limit) {
+        AuditLogPage.checkLimit(limit);
+        return auditLogRepository.findAll(after, limit);
     }
 }
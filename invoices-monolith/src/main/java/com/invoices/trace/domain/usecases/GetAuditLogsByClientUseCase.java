@@ -1,10 +1,9 @@
 package com.invoices.trace.domain.usecases;
 
-import com.invoices.trace.domain.entities.AuditLog;
+import com.invoices.trace.domain.entities.AuditLogCursor;
+import com.invoices.trace.domain.entities.AuditLogPage;
 import com.invoices.trace.domain.ports.AuditLogRepository;
 
-import java.util.List;
-
 /**
  * Use Case for retrieving all audit logs for a specific client.
  */
@@ -20,12 +19,30 @@ public class GetAuditLogsByClientUseCase {
      * Executes the get audit logs by client use case.
      *
      * @param clientId the ID of the client
-     * @return List of audit logs for the client, ordered by creation date (newest first)
+     * @param after    cursor from the previous page, or null for the first page
+     * @param limit    page size, at most {@value AuditLogPage#MAX_LIMIT}
+     * @return One page of the audit logs for the client, newest first
+     */
+    public AuditLogPage execute(Long clientId, AuditLogCursor after, int limit) {
+        return execute(clientId, null, after, limit);
+    }
+
+    /**
+     * Executes the get audit logs by client use case within one company.
+     *
+     * @param clientId  the ID of the client
+     * @param companyId the company the logs must belong to, or null for any
+     * @param after     cursor from the previous page, or null for the first page
+     * @param limit     page size, at most {@value AuditLogPage#MAX_LIMIT}
+     * @return One page of the audit logs for the client, newest first
      */
-    public List<AuditLog> execute(Long clientId) {
+    public AuditLogPage execute(Long clientId, Long companyId, AuditLogCursor after, int limit) {
         if (clientId == null) {
             throw new IllegalArgumentException("Client ID cannot be null");
         }
-        return auditLogRepository.findByClientId(clientId);
+        AuditLogPage.checkLimit(limit);
+        return companyId == null
+                ? auditLogRepository.findByClientId(clientId, after, limit)
+                : auditLogRepository.findByCompanyIdAndClientId(companyId, clientId, after, limit);
     }
 }
@@ -1,10 +1,9 @@
 package com.invoices.trace.domain.usecases;
 
-import com.invoices.trace.domain.entities.AuditLog;
+import com.invoices.trace.domain.entities.AuditLogCursor;
+import com.invoices.trace.domain.entities.AuditLogPage;
 import com.invoices.trace.domain.ports.AuditLogRepository;
 
-import java.util.List;
-
 import org.springframework.stereotype.Service;
 
 /**
@@ -23,12 +22,15 @@ public class GetAuditLogsByCompanyUseCase {
      * Executes the use case.
      *
      * @param companyId the company ID
-     * @return List of audit logs for the company
+     * @param after     cursor from the previous page, or null for the first page
+     * @param limit     page size, at most {@value AuditLogPage#MAX_LIMIT}
+     * @return One page of the audit logs for the company, newest first
      */
-    public List<AuditLog> execute(Long companyId) {
+    public AuditLogPage execute(Long companyId, AuditLogCursor after, int limit) {
         if (companyId == null) {
             throw new IllegalArgumentException("Company ID cannot be null");
         }
-        return auditLogRepository.findByCompanyId(companyId);
+        AuditLogPage.checkLimit(limit);
+        return auditLogRepository.findByCompanyId(companyId, after, limit);
     }
 }
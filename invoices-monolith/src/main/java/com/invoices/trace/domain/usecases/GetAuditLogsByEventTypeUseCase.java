@@ -1,10 +1,9 @@
 package com.invoices.trace.domain.usecases;
 
-import com.invoices.trace.domain.entities.AuditLog;
+import com.invoices.trace.domain.entities.AuditLogCursor;
+import com.invoices.trace.domain.entities.AuditLogPage;
 import com.invoices.trace.domain.ports.AuditLogRepository;
 
-import java.util.List;
-
 /**
  * Use Case for retrieving all audit logs of a specific event type.
  */
@@ -20,12 +19,30 @@ public class GetAuditLogsByEventTypeUseCase {
      * Executes the get audit logs by event type use case.
      *
      * @param eventType the event type
-     * @return List of audit logs matching the event type, ordered by creation date (newest first)
+     * @param after     cursor from the previous page, or null for the first page
+     * @param limit     page size, at most {@value AuditLogPage#MAX_LIMIT}
+     * @return One page of the audit logs matching the event type, newest first
+     */
+    public AuditLogPage execute(String eventType, AuditLogCursor after, int limit) {
+        return execute(eventType, null, after, limit);
+    }
+
+    /**
+     * Executes the get audit logs by event type use case within one company.
+     *
+     * @param eventType the event type
+     * @param companyId the company the logs must belong to, or null for any
+     * @param after     cursor from the previous page, or null for the first page
+     * @param limit     page size, at most {@value AuditLogPage#MAX_LIMIT}
+     * @return One page of the audit logs matching the event type, newest first
      */
-    public List<AuditLog> execute(String eventType) {
+    public AuditLogPage execute(String eventType, Long companyId, AuditLogCursor after, int limit) {
         if (eventType == null || eventType.trim().isEmpty()) {
             throw new IllegalArgumentException("Event type cannot be null or empty");
         }
-        return auditLogRepository.findByEventType(eventType);
+        AuditLogPage.checkLimit(limit);
+        return companyId == null
+                ? auditLogRepository.findByEventType(eventType, after, limit)
+                : auditLogRepository.findByCompanyIdAndEventType(companyId, eventType, after, limit);
     }
 }
@@ -1,10 +1,9 @@
 package com.invoices.trace.domain.usecases;
 
-import com.invoices.trace.domain.entities.AuditLog;
+import com.invoices.trace.domain.entities.AuditLogCursor;
+import com.invoices.trace.domain.entities.AuditLogPage;
 import com.invoices.trace.domain.ports.AuditLogRepository;
 
-import java.util.List;
-
 /**
  * Use Case for retrieving all audit logs for a specific invoice.
  */
@@ -20,12 +19,30 @@ public class GetAuditLogsByInvoiceUseCase {
      * Executes the get audit logs by invoice use case.
      *
      * @param invoiceId the ID of the invoice
-     * @return List of audit logs for the invoice, ordered by creation date (newest first)
+     * @param after     cursor from the previous page, or null for the first page
+     * @param limit     page size, at most {@value AuditLogPage#MAX_LIMIT}
+     * @return One page of the audit logs for the invoice, newest first
+     */
+    public AuditLogPage execute(Long invoiceId, AuditLogCursor after, int limit) {
+        return execute(invoiceId, null, after, limit);
+    }
+
+    /**
+     * Executes the get audit logs by invoice use case within one company.
+     *
+     * @param invoiceId the ID of the invoice
+     * @param companyId the company the logs must belong to, or null for any
+     * @param after     cursor from the previous page, or null for the first page
+     * @param limit     page size, at most {@value AuditLogPage#MAX_LIMIT}
+     * @return One page of the audit logs for the invoice, newest first
      */
-    public List<AuditLog> execute(Long invoiceId) {
+    public AuditLogPage execute(Long invoiceId, Long companyId, AuditLogCursor after, int limit) {
         if (invoiceId == null) {
             throw new IllegalArgumentException("Invoice ID cannot be null");
         }
-        return auditLogRepository.findByInvoiceId(invoiceId);
+        AuditLogPage.checkLimit(limit);
+        return companyId == null
+                ? auditLogRepository.findByInvoiceId(invoiceId, after, limit)
+                : auditLogRepository.findByCompanyIdAndInvoiceId(companyId, invoiceId, after, limit);
     }
 }
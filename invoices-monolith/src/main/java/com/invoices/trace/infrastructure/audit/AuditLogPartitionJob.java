@@ -0,0 +1,293 @@
+package com.invoices.trace.infrastructure.audit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.invoices.document.domain.entities.FileContent;
+import com.invoices.document.domain.ports.FileStorageService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Maintains the monthly partitions of {@code audit_logs} (see V45).
+ *
+ * Partitions for the current month and the next
+ * {@code audit.partitions.months-ahead} months are created at startup and by the
+ * nightly run. Rows outside every monthly range (e.g. after the job has been
+ * down for months) land in the {@code audit_logs_default} partition instead of
+ * failing the insert; when their month is created later, they are moved into it
+ * before the new partition is attached. Partitions older than
+ * {@code audit.partitions.retention-months} are exported as gzipped NDJSON (one
+ * row per line) to the file storage under {@code audit.partitions.archive-prefix}
+ * and dropped only once the archive object is confirmed to exist.
+ *
+ * Each step runs in its own transaction holding a PostgreSQL advisory lock, so
+ * only one instance maintains partitions at a time. Does nothing when the table
+ * is not partitioned (e.g. H2 in tests).
+ */
+@Component
+@ConditionalOnProperty(prefix = "audit.partitions", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class AuditLogPartitionJob {
+
+    private static final String PARENT_TABLE = "audit_logs";
+    private static final String DEFAULT_PARTITION = "audit_logs_default";
+    private static final Pattern PARTITION_NAME = Pattern.compile("audit_logs_p(\\d{6})");
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final long ADVISORY_LOCK_KEY = 0x6175646974L; // "audit"
+    private static final int EXPORT_FETCH_SIZE = 1000;
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final FileStorageService fileStorageService;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final String archivePrefix;
+
+    private Boolean partitioned;
+
+    public AuditLogPartitionJob(DataSource dataSource, FileStorageService fileStorageService,
+            @Value("${audit.partitions.months-ahead:3}") int monthsAhead,
+            @Value("${audit.partitions.retention-months:48}") int retentionMonths,
+            @Value("${audit.partitions.archive-prefix:audit-archive/}") String archivePrefix) {
+        // Own template so the archive export can stream rows instead of loading a month at once
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(EXPORT_FETCH_SIZE);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.fileStorageService = fileStorageService;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.archivePrefix = archivePrefix;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createPartitionsOnStartup() {
+        if (isPartitioned()) {
+            withLock(() -> createPartitions(YearMonth.now()));
+        }
+    }
+
+    /**
+     * Runs nightly. Cron: second minute hour day month weekday
+     */
+    @Scheduled(cron = "${audit.partitions.cron:0 30 3 * * *}")
+    public void maintainPartitions() {
+        if (!isPartitioned()) {
+            return;
+        }
+        YearMonth current = YearMonth.now();
+        withLock(() -> createPartitions(current));
+
+        List<String> expired = expiredPartitions(listPartitions(), current);
+        if (expired.isEmpty()) {
+            log.debug("No audit log partitions older than {} months", retentionMonths);
+            return;
+        }
+        for (String partition : expired) {
+            try {
+                withLock(() -> {
+                    archive(partition);
+                    jdbcTemplate.execute("DROP TABLE " + partition);
+                    log.info("Archived and dropped audit log partition {}", partition);
+                });
+            } catch (RuntimeException e) {
+                // Kept in place and retried on the next run
+                log.error("Failed to archive audit log partition {}: {}", partition, e.getMessage(), e);
+            }
+        }
+    }
+
+    static String partitionName(YearMonth month) {
+        return PARENT_TABLE + "_p" + month.format(SUFFIX);
+    }
+
+    /**
+     * Partitions whose whole month lies before the retention window, oldest first.
+     * Tables not following the naming scheme are never returned.
+     */
+    List<String> expiredPartitions(List<String> partitions, YearMonth current) {
+        YearMonth oldestKept = current.minusMonths(retentionMonths);
+        return partitions.stream()
+                .map(PARTITION_NAME::matcher)
+                .filter(Matcher::matches)
+                .filter(m -> YearMonth.parse(m.group(1), SUFFIX).isBefore(oldestKept))
+                .map(m -> m.group(0))
+                .sorted()
+                .toList();
+    }
+
+    /**
+     * Exports every row of the partition to {@code <archive-prefix><partition>.ndjson.gz}.
+     *
+     * @throws IllegalStateException if the stored archive cannot be found afterwards
+     */
+    void archive(String partition) {
+        String objectName = archivePrefix + partition + ".ndjson.gz";
+        Path file = null;
+        try {
+            file = Files.createTempFile(partition, ".ndjson.gz");
+            long rows;
+            try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(file)),
+                    StandardCharsets.UTF_8)) {
+                rows = export(partition, writer);
+            }
+            Path archived = file;
+            fileStorageService.storeFile(objectName,
+                    new FileContent(() -> Files.newInputStream(archived), Files.size(archived), "application/gzip"));
+            log.info("Exported {} audit log rows from {} to {}", rows, partition, objectName);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to export audit log partition " + partition, e);
+        } finally {
+            if (file != null) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    log.warn("Could not delete temporary archive {}: {}", file, e.getMessage());
+                }
+            }
+        }
+        if (!fileStorageService.fileExists(objectName)) {
+            throw new IllegalStateException("Archive " + objectName + " not found after upload");
+        }
+    }
+
+    private long export(String partition, Writer writer) {
+        long[] rows = { 0 };
+        jdbcTemplate.query("SELECT * FROM " + partition + " ORDER BY created_at, id", (RowCallbackHandler) rs -> {
+            try {
+                writer.write(JSON.writeValueAsString(toJson(rs)));
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            rows[0]++;
+        });
+        return rows[0];
+    }
+
+    private static ObjectNode toJson(ResultSet rs) throws SQLException {
+        ObjectNode row = JSON.createObjectNode();
+        row.put("id", rs.getLong("id"));
+        row.put("company_id", rs.getObject("company_id", Long.class));
+        row.put("event_type", rs.getString("event_type"));
+        row.put("invoice_id", rs.getObject("invoice_id", Long.class));
+        row.put("invoice_number", rs.getString("invoice_number"));
+        row.put("client_id", rs.getObject("client_id", Long.class));
+        row.put("client_email", rs.getString("client_email"));
+        row.put("total", rs.getBigDecimal("total"));
+        row.put("status", rs.getString("status"));
+        row.set("event_data", eventData(rs.getString("event_data")));
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        row.put("created_at", createdAt != null ? createdAt.toLocalDateTime().toString() : null);
+        return row;
+    }
+
+    private static JsonNode eventData(String value) {
+        if (value == null) {
+            return JSON.nullNode();
+        }
+        try {
+            return JSON.readTree(value);
+        } catch (IOException e) {
+            return JSON.getNodeFactory().textNode(value);
+        }
+    }
+
+    private void createPartitions(YearMonth current) {
+        for (int i = 0; i <= monthsAhead; i++) {
+            createPartition(current.plusMonths(i));
+        }
+        Integer stray = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + DEFAULT_PARTITION, Integer.class);
+        if (stray != null && stray > 0) {
+            log.warn("{} audit log rows are outside every monthly partition and kept in {}", stray,
+                    DEFAULT_PARTITION);
+        }
+    }
+
+    /**
+     * Creates the month's partition unless it exists. PostgreSQL refuses to add a
+     * range partition while the default partition holds rows in that range, so
+     * the table is created detached, those rows are moved into it and only then
+     * is it attached.
+     */
+    private void createPartition(YearMonth month) {
+        String partition = partitionName(month);
+        if (jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, partition)) {
+            return;
+        }
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+        jdbcTemplate.execute(String.format("CREATE TABLE %s (LIKE %s INCLUDING DEFAULTS)", partition, PARENT_TABLE));
+        int moved = jdbcTemplate.update(String.format(
+                "WITH moved AS (DELETE FROM %s WHERE created_at >= ? AND created_at < ? RETURNING *) "
+                        + "INSERT INTO %s SELECT * FROM moved", DEFAULT_PARTITION, partition), from, to);
+        jdbcTemplate.execute(String.format("ALTER TABLE %s ATTACH PARTITION %s FOR VALUES FROM ('%s') TO ('%s')",
+                PARENT_TABLE, partition, from.toLocalDate(), to.toLocalDate()));
+        if (moved > 0) {
+            log.warn("Moved {} audit log rows from {} into the new partition {}", moved, DEFAULT_PARTITION,
+                    partition);
+        }
+    }
+
+    private List<String> listPartitions() {
+        return jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                        + "WHERE i.inhparent = CAST(? AS regclass)",
+                String.class, PARENT_TABLE);
+    }
+
+    private void withLock(Runnable action) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class,
+                    ADVISORY_LOCK_KEY);
+            if (Boolean.TRUE.equals(locked)) {
+                action.run();
+            } else {
+                log.info("Audit log partitions are being maintained by another instance");
+            }
+        });
+    }
+
+    private boolean isPartitioned() {
+        if (partitioned == null) {
+            partitioned = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()))
+                    && jdbcTemplate.queryForList("SELECT relkind::text FROM pg_class WHERE oid = to_regclass(?)",
+                            String.class, PARENT_TABLE).contains("p");
+            if (!partitioned) {
+                log.info("{} is not a partitioned table, partition maintenance disabled", PARENT_TABLE);
+            }
+        }
+        return partitioned;
+    }
+}
@@ -0,0 +1,176 @@
+package com.invoices.trace.infrastructure.audit;
+
+import com.invoices.trace.domain.entities.AuditLog;
+import com.invoices.trace.domain.ports.AuditEventQueue;
+import com.invoices.trace.domain.ports.AuditLogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Audit capture pipeline: events are accepted into a bounded in-memory ring
+ * buffer and written by a single background thread in JDBC batches of up to
+ * {@code audit.buffer.batch-size} rows, as soon as a batch is full or
+ * {@code audit.buffer.flush-interval-millis} after its first event.
+ *
+ * Overflow policy ({@code audit.buffer.overflow-policy}) when the buffer is full:
+ * <ul>
+ * <li>{@code BLOCK} (default): the caller waits up to
+ * {@code audit.buffer.offer-timeout-millis} for space, then the event is dropped</li>
+ * <li>{@code DROP}: the event is dropped immediately</li>
+ * </ul>
+ * Dropped events are logged and counted, never thrown to the caller. A batch
+ * that fails to insert is logged and counted as failed; it is not retried.
+ * Events still buffered at shutdown are flushed before the context closes.
+ *
+ * Metrics: {@code audit.events.written}, {@code audit.events.dropped},
+ * {@code audit.events.failed} and {@code audit.buffer.size}.
+ */
+@Component
+@Slf4j
+public class RingBufferAuditEventQueue implements AuditEventQueue {
+
+    public enum OverflowPolicy {
+        BLOCK, DROP
+    }
+
+    private static final String METRIC_PREFIX = "audit";
+
+    private final AuditLogRepository auditLogRepository;
+    private final ArrayBlockingQueue<AuditLog> buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final OverflowPolicy overflowPolicy;
+    private final long offerTimeoutMillis;
+
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failed;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public RingBufferAuditEventQueue(AuditLogRepository auditLogRepository, MeterRegistry meterRegistry,
+            @Value("${audit.buffer.capacity:10000}") int capacity,
+            @Value("${audit.buffer.batch-size:500}") int batchSize,
+            @Value("${audit.buffer.flush-interval-millis:1000}") long flushIntervalMillis,
+            @Value("${audit.buffer.overflow-policy:BLOCK}") OverflowPolicy overflowPolicy,
+            @Value("${audit.buffer.offer-timeout-millis:50}") long offerTimeoutMillis) {
+        this.auditLogRepository = auditLogRepository;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.overflowPolicy = overflowPolicy;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+
+        this.written = meterRegistry.counter(METRIC_PREFIX + ".events.written");
+        this.dropped = meterRegistry.counter(METRIC_PREFIX + ".events.dropped");
+        this.failed = meterRegistry.counter(METRIC_PREFIX + ".events.failed");
+        Gauge.builder(METRIC_PREFIX + ".buffer.size", buffer, ArrayBlockingQueue::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        flusher = new Thread(this::flushLoop, "audit-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("Audit buffer started: capacity={}, batchSize={}, flushInterval={}ms, overflow={}",
+                buffer.remainingCapacity(), batchSize, TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos),
+                overflowPolicy);
+    }
+
+    @PreDestroy
+    public void stop() {
+        // Not interrupted, so a batch insert in progress completes; the flusher
+        // notices within one flush interval
+        running = false;
+        if (flusher != null) {
+            try {
+                flusher.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // Whatever the flusher did not get to before stopping
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            write(batch);
+        }
+    }
+
+    @Override
+    public boolean offer(AuditLog auditLog) {
+        boolean accepted;
+        if (overflowPolicy == OverflowPolicy.BLOCK) {
+            try {
+                accepted = buffer.offer(auditLog, offerTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                accepted = false;
+            }
+        } else {
+            accepted = buffer.offer(auditLog);
+        }
+        if (!accepted) {
+            dropped.increment();
+            log.warn("Audit buffer full, dropped {} event for invoice {}", auditLog.getEventType(),
+                    auditLog.getInvoiceId());
+        }
+        return accepted;
+    }
+
+    private void flushLoop() {
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                AuditLog first = buffer.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    if (buffer.drainTo(batch, batchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    AuditLog next = remaining > 0 ? buffer.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            write(batch);
+        }
+    }
+
+    private void write(List<AuditLog> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            auditLogRepository.saveAll(batch);
+            written.increment(batch.size());
+        } catch (Exception e) {
+            failed.increment(batch.size());
+            log.error("Failed to write {} audit events: {}", batch.size(), e.getMessage());
+        } finally {
+            batch.clear();
+        }
+    }
+}
@@ -14,13 +14,17 @@ import java.time.LocalDateTime;
  * JPA Entity for audit log persistence.
  * This is the infrastructure representation of an AuditLog,
  * separate from the domain entity to maintain clean architecture.
+ *
+ * The table is range-partitioned by month on created_at (V45), with primary key
+ * (id, created_at); id alone is still unique as it comes from one sequence.
  */
 @Entity
 @Table(name = "audit_logs", indexes = {
-        @Index(name = "idx_audit_log_invoice_id", columnList = "invoice_id"),
-        @Index(name = "idx_audit_log_client_id", columnList = "client_id"),
-        @Index(name = "idx_audit_log_event_type", columnList = "event_type"),
-        @Index(name = "idx_audit_log_created_at", columnList = "created_at")
+        @Index(name = "idx_audit_log_invoice_id", columnList = "invoice_id, created_at DESC, id DESC"),
+        @Index(name = "idx_audit_log_client_id", columnList = "client_id, created_at DESC, id DESC"),
+        @Index(name = "idx_audit_log_company_id", columnList = "company_id, created_at DESC, id DESC"),
+        @Index(name = "idx_audit_log_event_type", columnList = "event_type, created_at DESC, id DESC"),
+        @Index(name = "idx_audit_log_created_at", columnList = "created_at DESC, id DESC")
 })
 @Data
 @Builder
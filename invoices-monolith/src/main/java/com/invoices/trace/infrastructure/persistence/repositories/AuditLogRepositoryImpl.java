@@ -1,13 +1,19 @@
 package com.invoices.trace.infrastructure.persistence.repositories;
 
 import com.invoices.trace.domain.entities.AuditLog;
+import com.invoices.trace.domain.entities.AuditLogCursor;
+import com.invoices.trace.domain.entities.AuditLogPage;
 import com.invoices.trace.domain.ports.AuditLogRepository;
 import com.invoices.trace.infrastructure.persistence.entities.AuditLogJpaEntity;
 import com.invoices.trace.infrastructure.persistence.mappers.AuditLogJpaMapper;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -19,12 +25,22 @@ import java.util.stream.Collectors;
 @Repository
 public class AuditLogRepositoryImpl implements AuditLogRepository {
 
+    private static final String INSERT_SQL = "INSERT INTO audit_logs (company_id, event_type, invoice_id, "
+            + "invoice_number, client_id, client_email, total, status, event_data, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, CAST(? AS jsonb), ?)";
+
+    private static final AuditLogCursor NEWEST = new AuditLogCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59),
+            Long.MAX_VALUE);
+
     private final JpaAuditLogRepository jpaAuditLogRepository;
     private final AuditLogJpaMapper mapper;
+    private final JdbcTemplate jdbcTemplate;
 
-    public AuditLogRepositoryImpl(JpaAuditLogRepository jpaAuditLogRepository, AuditLogJpaMapper mapper) {
+    public AuditLogRepositoryImpl(JpaAuditLogRepository jpaAuditLogRepository, AuditLogJpaMapper mapper,
+            JdbcTemplate jdbcTemplate) {
         this.jpaAuditLogRepository = jpaAuditLogRepository;
         this.mapper = mapper;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     @Override
@@ -34,37 +50,82 @@ public class AuditLogRepositoryImpl implements AuditLogRepository {
     }
 
     @Override
-    public List<AuditLog> findByInvoiceId(Long invoiceId) {
-        return jpaAuditLogRepository.findByInvoiceIdOrderByCreatedAtDesc(invoiceId).stream()
-                .map(mapper::toDomainEntity)
-                .collect(Collectors.toList());
+    public AuditLogPage findByInvoiceId(Long invoiceId, AuditLogCursor after, int limit) {
+        AuditLogCursor from = from(after);
+        return page(jpaAuditLogRepository.findByInvoiceIdBefore(invoiceId, from.createdAt(), from.id(),
+                fetchSize(limit)), limit);
     }
 
     @Override
-    public List<AuditLog> findByClientId(Long clientId) {
-        return jpaAuditLogRepository.findByClientIdOrderByCreatedAtDesc(clientId).stream()
-                .map(mapper::toDomainEntity)
-                .collect(Collectors.toList());
+    public AuditLogPage findByCompanyIdAndInvoiceId(Long companyId, Long invoiceId, AuditLogCursor after,
+            int limit) {
+        AuditLogCursor from = from(after);
+        return page(jpaAuditLogRepository.findByCompanyIdAndInvoiceIdBefore(companyId, invoiceId,
+                from.createdAt(), from.id(), fetchSize(limit)), limit);
     }
 
     @Override
-    public List<AuditLog> findByCompanyId(Long companyId) {
-        return jpaAuditLogRepository.findByCompanyIdOrderByCreatedAtDesc(companyId).stream()
-                .map(mapper::toDomainEntity)
-                .collect(Collectors.toList());
+    public AuditLogPage findByClientId(Long clientId, AuditLogCursor after, int limit) {
+        AuditLogCursor from = from(after);
+        return page(jpaAuditLogRepository.findByClientIdBefore(clientId, from.createdAt(), from.id(),
+                fetchSize(limit)), limit);
     }
 
     @Override
-    public List<AuditLog> findByEventType(String eventType) {
-        return jpaAuditLogRepository.findByEventTypeOrderByCreatedAtDesc(eventType).stream()
-                .map(mapper::toDomainEntity)
-                .collect(Collectors.toList());
+    public AuditLogPage findByCompanyIdAndClientId(Long companyId, Long clientId, AuditLogCursor after, int limit) {
+        AuditLogCursor from = from(after);
+        return page(jpaAuditLogRepository.findByCompanyIdAndClientIdBefore(companyId, clientId,
+                from.createdAt(), from.id(), fetchSize(limit)), limit);
     }
 
     @Override
-    public Page<AuditLog> findAll(Pageable pageable) {
-        return jpaAuditLogRepository.findAll(pageable)
-                .map(mapper::toDomainEntity);
+    public AuditLogPage findByCompanyId(Long companyId, AuditLogCursor after, int limit) {
+        AuditLogCursor from = from(after);
+        return page(jpaAuditLogRepository.findByCompanyIdBefore(companyId, from.createdAt(), from.id(),
+                fetchSize(limit)), limit);
+    }
+
+    @Override
+    public AuditLogPage findByEventType(String eventType, AuditLogCursor after, int limit) {
+        AuditLogCursor from = from(after);
+        return page(jpaAuditLogRepository.findByEventTypeBefore(eventType, from.createdAt(), from.id(),
+                fetchSize(limit)), limit);
+    }
+
+    @Override
+    public AuditLogPage findByCompanyIdAndEventType(Long companyId, String eventType, AuditLogCursor after,
+            int limit) {
+        AuditLogCursor from = from(after);
+        return page(jpaAuditLogRepository.findByCompanyIdAndEventTypeBefore(companyId, eventType,
+                from.createdAt(), from.id(), fetchSize(limit)), limit);
+    }
+
+    @Override
+    public AuditLogPage findAll(AuditLogCursor after, int limit) {
+        AuditLogCursor from = from(after);
+        return page(jpaAuditLogRepository.findAllBefore(from.createdAt(), from.id(), fetchSize(limit)), limit);
+    }
+
+    /**
+     * The first page starts before a position later than any entry, so every
+     * page uses the same keyset query.
+     */
+    private static AuditLogCursor from(AuditLogCursor after) {
+        return after != null ? after : NEWEST;
+    }
+
+    /**
+     * One row more than the page, to know whether there is a next page without
+     * counting.
+     */
+    private static Pageable fetchSize(int limit) {
+        return PageRequest.ofSize(limit + 1);
+    }
+
+    private AuditLogPage page(List<AuditLogJpaEntity> entities, int limit) {
+        return AuditLogPage.of(entities.stream()
+                .map(mapper::toDomainEntity)
+                .collect(Collectors.toList()), limit);
     }
 
     @Override
@@ -74,6 +135,27 @@ public class AuditLogRepositoryImpl implements AuditLogRepository {
         return mapper.toDomainEntity(savedEntity);
     }
 
+    /**
+     * Plain JDBC rather than saveAll on the JPA repository: IDENTITY ids disable
+     * Hibernate insert batching, so that would still be one round trip per row.
+     */
+    @Override
+    public void saveAll(List<AuditLog> auditLogs) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, auditLogs, auditLogs.size(), (ps, auditLog) -> {
+            ps.setObject(1, auditLog.getCompanyId(), Types.BIGINT);
+            ps.setString(2, auditLog.getEventType());
+            ps.setObject(3, auditLog.getInvoiceId(), Types.BIGINT);
+            ps.setString(4, auditLog.getInvoiceNumber());
+            ps.setObject(5, auditLog.getClientId(), Types.BIGINT);
+            ps.setString(6, auditLog.getClientEmail());
+            ps.setBigDecimal(7, auditLog.getTotal());
+            ps.setString(8, auditLog.getStatus());
+            ps.setString(9, auditLog.getEventData());
+            LocalDateTime createdAt = auditLog.getCreatedAt() != null ? auditLog.getCreatedAt() : LocalDateTime.now();
+            ps.setTimestamp(10, Timestamp.valueOf(createdAt));
+        });
+    }
+
     @Override
     public void deleteById(Long id) {
         jpaAuditLogRepository.deleteById(id);
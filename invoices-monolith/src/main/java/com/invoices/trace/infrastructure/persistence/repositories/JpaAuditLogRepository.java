@@ -1,8 +1,12 @@
 package com.invoices.trace.infrastructure.persistence.repositories;
 
 import com.invoices.trace.infrastructure.persistence.entities.AuditLogJpaEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -14,38 +18,85 @@ import java.util.List;
 public interface JpaAuditLogRepository extends JpaRepository<AuditLogJpaEntity, Long> {
 
     /**
-     * Find all audit logs for a specific invoice, ordered by creation date (newest
-     * first).
+     * Keyset condition: entries strictly before the cursor in
+     * (createdAt DESC, id DESC) order. Bound to :createdAt and :id.
+     */
+    String BEFORE_CURSOR = "(a.createdAt < :createdAt OR (a.createdAt = :createdAt AND a.id < :id))";
+    String NEWEST_FIRST = " ORDER BY a.createdAt DESC, a.id DESC";
+
+    /**
+     * Find audit logs for a specific invoice created before the cursor, newest
+     * first. Served by idx_audit_logs_invoice_id.
      *
      * @param invoiceId the invoice ID
+     * @param createdAt cursor creation time
+     * @param id        cursor ID
+     * @param page      first page of the wanted size
      * @return List of audit logs for the invoice
      */
-    List<AuditLogJpaEntity> findByInvoiceIdOrderByCreatedAtDesc(Long invoiceId);
+    @Query("SELECT a FROM AuditLogJpaEntity a WHERE a.invoiceId = :invoiceId AND " + BEFORE_CURSOR + NEWEST_FIRST)
+    List<AuditLogJpaEntity> findByInvoiceIdBefore(@Param("invoiceId") Long invoiceId,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable page);
 
     /**
-     * Find all audit logs for a specific client, ordered by creation date (newest
-     * first).
-     *
-     * @param clientId the client ID
-     * @return List of audit logs for the client
+     * Find audit logs of a company for a specific invoice created before the
+     * cursor, newest first. Served by idx_audit_logs_company_invoice_id.
      */
-    List<AuditLogJpaEntity> findByClientIdOrderByCreatedAtDesc(Long clientId);
+    @Query("SELECT a FROM AuditLogJpaEntity a WHERE a.companyId = :companyId AND a.invoiceId = :invoiceId AND "
+            + BEFORE_CURSOR + NEWEST_FIRST)
+    List<AuditLogJpaEntity> findByCompanyIdAndInvoiceIdBefore(@Param("companyId") Long companyId,
+            @Param("invoiceId") Long invoiceId, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+            Pageable page);
 
     /**
-     * Find all audit logs for a specific company, ordered by creation date (newest
-     * first).
-     *
-     * @param companyId the company ID
-     * @return List of audit logs for the company
+     * Find audit logs for a specific client created before the cursor, newest
+     * first. Served by idx_audit_logs_client_id.
      */
-    List<AuditLogJpaEntity> findByCompanyIdOrderByCreatedAtDesc(Long companyId);
+    @Query("SELECT a FROM AuditLogJpaEntity a WHERE a.clientId = :clientId AND " + BEFORE_CURSOR + NEWEST_FIRST)
+    List<AuditLogJpaEntity> findByClientIdBefore(@Param("clientId") Long clientId,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable page);
 
     /**
-     * Find all audit logs of a specific event type, ordered by creation date
-     * (newest first).
-     *
-     * @param eventType the event type
-     * @return List of audit logs matching the event type
+     * Find audit logs of a company for a specific client created before the
+     * cursor, newest first. Served by idx_audit_logs_company_client_id.
+     */
+    @Query("SELECT a FROM AuditLogJpaEntity a WHERE a.companyId = :companyId AND a.clientId = :clientId AND "
+            + BEFORE_CURSOR + NEWEST_FIRST)
+    List<AuditLogJpaEntity> findByCompanyIdAndClientIdBefore(@Param("companyId") Long companyId,
+            @Param("clientId") Long clientId, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+            Pageable page);
+
+    /**
+     * Find audit logs for a specific company created before the cursor, newest
+     * first. Served by idx_audit_logs_company_id.
+     */
+    @Query("SELECT a FROM AuditLogJpaEntity a WHERE a.companyId = :companyId AND " + BEFORE_CURSOR + NEWEST_FIRST)
+    List<AuditLogJpaEntity> findByCompanyIdBefore(@Param("companyId") Long companyId,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable page);
+
+    /**
+     * Find audit logs of a specific event type created before the cursor, newest
+     * first. Served by idx_audit_logs_event_type.
+     */
+    @Query("SELECT a FROM AuditLogJpaEntity a WHERE a.eventType = :eventType AND " + BEFORE_CURSOR + NEWEST_FIRST)
+    List<AuditLogJpaEntity> findByEventTypeBefore(@Param("eventType") String eventType,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable page);
+
+    /**
+     * Find audit logs of a company of a specific event type created before the
+     * cursor, newest first. Served by idx_audit_logs_company_event_type.
+     */
+    @Query("SELECT a FROM AuditLogJpaEntity a WHERE a.companyId = :companyId AND a.eventType = :eventType AND "
+            + BEFORE_CURSOR + NEWEST_FIRST)
+    List<AuditLogJpaEntity> findByCompanyIdAndEventTypeBefore(@Param("companyId") Long companyId,
+            @Param("eventType") String eventType, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+            Pageable page);
+
+    /**
+     * Find audit logs created before the cursor, newest first. Served by
+     * idx_audit_logs_created_at.
      */
-    List<AuditLogJpaEntity> findByEventTypeOrderByCreatedAtDesc(String eventType);
+    @Query("SELECT a FROM AuditLogJpaEntity a WHERE " + BEFORE_CURSOR + NEWEST_FIRST)
+    List<AuditLogJpaEntity> findAllBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+            Pageable page);
 }
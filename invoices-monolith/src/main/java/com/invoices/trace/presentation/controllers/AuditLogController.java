@@ -1,8 +1,16 @@
 package com.invoices.trace.presentation.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invoices.security.context.CompanyContext;
+import com.invoices.security.utils.SecurityUtils;
+import com.invoices.shared.domain.exception.BusinessException;
 import com.invoices.trace.domain.entities.AuditLog;
+import com.invoices.trace.domain.entities.AuditLogCursor;
+import com.invoices.trace.domain.entities.AuditLogPage;
 import com.invoices.trace.domain.usecases.*;
+import com.invoices.trace.exception.AuditLogNotFoundException;
 import com.invoices.trace.presentation.dto.AuditLogDTO;
+import com.invoices.trace.presentation.dto.AuditLogPageDTO;
 import com.invoices.trace.presentation.mappers.AuditLogDtoMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -13,19 +21,27 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 /**
  * REST controller for audit log management operations (Clean Architecture).
  * Uses Use Cases from domain layer instead of service layer.
+ *
+ * Audit trails are paged with an opaque cursor (newest first) rather than page
+ * numbers, so deep pages cost the same as the first one. Requests with
+ * {@code Accept: application/x-ndjson} get the whole trail streamed as one JSON
+ * object per line, read page by page from the database.
+ *
+ * Users only see the audit logs of the company of their token; asking for
+ * another company is rejected. Only platform admins may read other companies'
+ * trails or every company's at once.
  */
 @RestController
 @RequestMapping("/api/traces")
@@ -34,6 +50,9 @@ import java.util.stream.Collectors;
 @Tag(name = "Trace Service", description = "Audit log management API for tracking invoice events")
 public class AuditLogController {
 
+        public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+        private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType(APPLICATION_NDJSON_VALUE);
+
         private final GetAuditLogByIdUseCase getAuditLogByIdUseCase;
         private final GetAuditLogsByInvoiceUseCase getAuditLogsByInvoiceUseCase;
         private final GetAuditLogsByClientUseCase getAuditLogsByClientUseCase;
@@ -41,13 +60,23 @@ public class AuditLogController {
         private final GetAuditLogsByCompanyUseCase getAuditLogsByCompanyUseCase;
         private final GetAllAuditLogsUseCase getAllAuditLogsUseCase;
         private final AuditLogDtoMapper mapper;
+        private final ObjectMapper objectMapper;
+
+        /**
+         * Reads one page of an audit trail.
+         */
+        @FunctionalInterface
+        private interface PageReader {
+                AuditLogPage read(AuditLogCursor after, int limit);
+        }
 
-        @GetMapping
-        @Operation(summary = "Get audit logs", description = "Retrieve audit logs with optional filters and pagination")
+        @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+        @Operation(summary = "Get audit logs", description = "Retrieve audit logs with optional filters, newest first, paged by cursor")
         @ApiResponses(value = {
-                        @ApiResponse(responseCode = "200", description = "Logs retrieved successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = AuditLogDTO.class)))
+                        @ApiResponse(responseCode = "200", description = "Logs retrieved successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = AuditLogPageDTO.class))),
+                        @ApiResponse(responseCode = "400", description = "Invalid cursor or page size")
         })
-        public ResponseEntity<?> getAuditLogs(
+        public ResponseEntity<AuditLogPageDTO> getAuditLogs(
                         @Parameter(description = "Invoice ID filter") @RequestParam(required = false) Long invoiceId,
 
                         @Parameter(description = "Client ID filter") @RequestParam(required = false) Long clientId,
@@ -56,63 +85,34 @@ public class AuditLogController {
 
                         @Parameter(description = "Event type filter") @RequestParam(required = false) String eventType,
 
-                        @Parameter(description = "Page number (0-indexed)") @RequestParam(defaultValue = "0") int page,
-
-                        @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
+                        @Parameter(description = "nextCursor of the previous page; omit for the first page") @RequestParam(required = false) String cursor,
 
-                        @Parameter(description = "Sort field") @RequestParam(defaultValue = "createdAt") String sortBy,
+                        @Parameter(description = "Page size (max 500)") @RequestParam(defaultValue = "50") int size) {
+                log.info("GET /api/traces - invoiceId={}, clientId={}, companyId={}, eventType={}, size={}",
+                                invoiceId, clientId, companyId, eventType, size);
 
-                        @Parameter(description = "Sort direction (ASC or DESC)") @RequestParam(defaultValue = "DESC") String sortDir) {
-                log.info("GET /api/traces - invoiceId={}, clientId={}, companyId={}, eventType={}, page={}, size={}",
-                                invoiceId, clientId, companyId, eventType, page, size);
-
-                // If specific filters are provided, return a list (use cases handle filtering)
-                if (invoiceId != null) {
-                        List<AuditLog> logs = getAuditLogsByInvoiceUseCase.execute(invoiceId);
-                        List<AuditLogDTO> logDTOs = logs.stream()
-                                        .map(mapper::toDTO)
-                                        .collect(Collectors.toList());
-                        log.info("Retrieved {} audit logs for invoice {}", logDTOs.size(), invoiceId);
-                        return ResponseEntity.ok(logDTOs);
-                }
+                AuditLogPage page = reader(invoiceId, clientId, scopedCompanyId(companyId), eventType)
+                                .read(AuditLogCursor.decode(cursor), size);
 
-                if (clientId != null) {
-                        List<AuditLog> logs = getAuditLogsByClientUseCase.execute(clientId);
-                        List<AuditLogDTO> logDTOs = logs.stream()
-                                        .map(mapper::toDTO)
-                                        .collect(Collectors.toList());
-                        log.info("Retrieved {} audit logs for client {}", logDTOs.size(), clientId);
-                        return ResponseEntity.ok(logDTOs);
-                }
+                log.info("Retrieved {} audit logs (more: {})", page.items().size(), page.hasMore());
+                return ResponseEntity.ok(mapper.toPageDTO(page));
+        }
 
-                if (companyId != null) {
-                        List<AuditLog> logs = getAuditLogsByCompanyUseCase.execute(companyId);
-                        List<AuditLogDTO> logDTOs = logs.stream()
-                                        .map(mapper::toDTO)
-                                        .collect(Collectors.toList());
-                        log.info("Retrieved {} audit logs for company {}", logDTOs.size(), companyId);
-                        return ResponseEntity.ok(logDTOs);
-                }
+        @GetMapping(produces = APPLICATION_NDJSON_VALUE)
+        @Operation(summary = "Stream audit logs", description = "Stream all audit logs matching the filters as NDJSON, newest first")
+        public ResponseEntity<StreamingResponseBody> streamAuditLogs(
+                        @Parameter(description = "Invoice ID filter") @RequestParam(required = false) Long invoiceId,
 
-                if (eventType != null) {
-                        List<AuditLog> logs = getAuditLogsByEventTypeUseCase.execute(eventType);
-                        List<AuditLogDTO> logDTOs = logs.stream()
-                                        .map(mapper::toDTO)
-                                        .collect(Collectors.toList());
-                        log.info("Retrieved {} audit logs for event type '{}'", logDTOs.size(), eventType);
-                        return ResponseEntity.ok(logDTOs);
-                }
+                        @Parameter(description = "Client ID filter") @RequestParam(required = false) Long clientId,
 
-                // Otherwise, return paginated results using GetAllAuditLogsUseCase
-                Sort.Direction direction = sortDir.equalsIgnoreCase("ASC") ? Sort.Direction.ASC : Sort.Direction.DESC;
-                Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
+                        @Parameter(description = "Company ID filter") @RequestParam(required = false) Long companyId,
 
-                Page<AuditLog> logsPage = getAllAuditLogsUseCase.execute(pageable);
-                Page<AuditLogDTO> logDTOsPage = logsPage.map(mapper::toDTO);
+                        @Parameter(description = "Event type filter") @RequestParam(required = false) String eventType) {
+                log.info("GET /api/traces (NDJSON) - invoiceId={}, clientId={}, companyId={}, eventType={}",
+                                invoiceId, clientId, companyId, eventType);
 
-                log.info("Retrieved {} total audit logs (page {}/{})",
-                                logsPage.getTotalElements(), page, logsPage.getTotalPages());
-                return ResponseEntity.ok(logDTOsPage);
+                return streamForCompany(companyId,
+                                scopedCompanyId -> reader(invoiceId, clientId, scopedCompanyId, eventType));
         }
 
         @GetMapping("/{id}")
@@ -126,27 +126,130 @@ public class AuditLogController {
                 log.info("GET /api/traces/{} - Fetching audit log", id);
 
                 AuditLog auditLog = getAuditLogByIdUseCase.execute(id);
+                Long companyId = scopedCompanyId(null);
+                if (companyId != null && !companyId.equals(auditLog.getCompanyId())) {
+                        throw new AuditLogNotFoundException(id);
+                }
                 AuditLogDTO auditLogDTO = mapper.toDTO(auditLog);
 
                 log.info("Audit log {} retrieved successfully", id);
                 return ResponseEntity.ok(auditLogDTO);
         }
 
-        @GetMapping("/company/{companyId}")
-        @Operation(summary = "Get audit logs by company", description = "Retrieve audit logs for a specific company")
+        @GetMapping(value = "/company/{companyId}", produces = MediaType.APPLICATION_JSON_VALUE)
+        @Operation(summary = "Get audit logs by company", description = "Retrieve audit logs for a specific company, newest first, paged by cursor")
         @ApiResponses(value = {
-                        @ApiResponse(responseCode = "200", description = "Logs retrieved successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = AuditLogDTO.class)))
+                        @ApiResponse(responseCode = "200", description = "Logs retrieved successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = AuditLogPageDTO.class))),
+                        @ApiResponse(responseCode = "400", description = "Invalid cursor or page size")
         })
-        public ResponseEntity<List<AuditLogDTO>> getAuditLogsByCompany(
-                        @Parameter(description = "Company ID", required = true) @PathVariable Long companyId) {
+        public ResponseEntity<AuditLogPageDTO> getAuditLogsByCompany(
+                        @Parameter(description = "Company ID", required = true) @PathVariable Long companyId,
+
+                        @Parameter(description = "nextCursor of the previous page; omit for the first page") @RequestParam(required = false) String cursor,
+
+                        @Parameter(description = "Page size (max 500)") @RequestParam(defaultValue = "50") int size) {
                 log.info("GET /api/traces/company/{} - Fetching audit logs", companyId);
+                scopedCompanyId(companyId);
+
+                AuditLogPage page = getAuditLogsByCompanyUseCase.execute(companyId, AuditLogCursor.decode(cursor), size);
+
+                log.info("Retrieved {} audit logs for company {} (more: {})", page.items().size(), companyId,
+                                page.hasMore());
+                return ResponseEntity.ok(mapper.toPageDTO(page));
+        }
+
+        @GetMapping(value = "/company/{companyId}", produces = APPLICATION_NDJSON_VALUE)
+        @Operation(summary = "Stream audit logs by company", description = "Stream the whole audit trail of a company as NDJSON, newest first")
+        public ResponseEntity<StreamingResponseBody> streamAuditLogsByCompany(
+                        @Parameter(description = "Company ID", required = true) @PathVariable Long companyId) {
+                log.info("GET /api/traces/company/{} (NDJSON) - Streaming audit logs", companyId);
+
+                return streamForCompany(companyId, scopedCompanyId -> (after, limit) -> getAuditLogsByCompanyUseCase
+                                .execute(scopedCompanyId, after, limit));
+        }
+
+        /**
+         * The company whose audit logs the caller may read: the requested one for
+         * platform admins (null meaning every company), otherwise the company of
+         * the caller's token.
+         *
+         * @throws AccessDeniedException if a non-admin asks for another company
+         */
+        private Long scopedCompanyId(Long requested) {
+                if (SecurityUtils.isPlatformAdmin()) {
+                        return requested;
+                }
+                Long companyId = CompanyContext.getCompanyId();
+                if (companyId == null) {
+                        throw new BusinessException("COMPANY_CONTEXT_REQUIRED", "Company context required",
+                                        HttpStatus.FORBIDDEN);
+                }
+                if (requested != null && !requested.equals(companyId)) {
+                        throw new AccessDeniedException("Audit logs of company " + requested + " requested from company "
+                                        + companyId);
+                }
+                return companyId;
+        }
+
+        /**
+         * The most specific filter wins: invoice, then client and event type,
+         * restricted to the company if one is given; then company; without
+         * filters, all audit logs.
+         */
+        private PageReader reader(Long invoiceId, Long clientId, Long companyId, String eventType) {
+                if (invoiceId != null) {
+                        return (after, limit) -> getAuditLogsByInvoiceUseCase.execute(invoiceId, companyId, after, limit);
+                }
+                if (clientId != null) {
+                        return (after, limit) -> getAuditLogsByClientUseCase.execute(clientId, companyId, after, limit);
+                }
+                if (eventType != null) {
+                        return (after, limit) -> getAuditLogsByEventTypeUseCase.execute(eventType, companyId, after,
+                                        limit);
+                }
+                if (companyId != null) {
+                        return (after, limit) -> getAuditLogsByCompanyUseCase.execute(companyId, after, limit);
+                }
+                return getAllAuditLogsUseCase::execute;
+        }
 
-                List<AuditLog> logs = getAuditLogsByCompanyUseCase.execute(companyId);
-                List<AuditLogDTO> logDTOs = logs.stream()
-                                .map(mapper::toDTO)
-                                .collect(Collectors.toList());
+        /**
+         * Streams the trail of the company the caller may read. Refusals are
+         * answered with a bare 403, as an NDJSON client cannot accept the JSON
+         * error body.
+         */
+        private ResponseEntity<StreamingResponseBody> streamForCompany(Long requested,
+                        Function<Long, PageReader> readerForCompany) {
+                Long companyId;
+                try {
+                        companyId = scopedCompanyId(requested);
+                } catch (AccessDeniedException | BusinessException e) {
+                        log.warn("Audit log stream refused: {}", e.getMessage());
+                        return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+                }
+                return stream(readerForCompany.apply(companyId));
+        }
 
-                log.info("Retrieved {} audit logs for company {}", logDTOs.size(), companyId);
-                return ResponseEntity.ok(logDTOs);
+        /**
+         * Writes the trail one page at a time, so at most one page is in memory and
+         * no database connection is held between pages.
+         */
+        private ResponseEntity<StreamingResponseBody> stream(PageReader reader) {
+                StreamingResponseBody body = out -> {
+                        long written = 0;
+                        AuditLogCursor after = null;
+                        do {
+                                AuditLogPage page = reader.read(after, AuditLogPage.MAX_LIMIT);
+                                for (AuditLog auditLog : page.items()) {
+                                        out.write(objectMapper.writeValueAsBytes(mapper.toDTO(auditLog)));
+                                        out.write('\n');
+                                }
+                                out.flush();
+                                written += page.items().size();
+                                after = page.nextCursor();
+                        } while (after != null);
+                        log.info("Streamed {} audit logs", written);
+                };
+                return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
         }
 }
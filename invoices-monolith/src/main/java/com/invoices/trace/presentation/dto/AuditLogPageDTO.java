@@ -0,0 +1,21 @@
+package com.invoices.trace.presentation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of audit logs, newest first. Pass nextCursor as the cursor parameter
+ * to get the next page; it is null on the last page.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditLogPageDTO {
+    private List<AuditLogDTO> items;
+    private String nextCursor;
+}
@@ -1,7 +1,9 @@
 package com.invoices.trace.presentation.mappers;
 
 import com.invoices.trace.domain.entities.AuditLog;
+import com.invoices.trace.domain.entities.AuditLogPage;
 import com.invoices.trace.presentation.dto.AuditLogDTO;
+import com.invoices.trace.presentation.dto.AuditLogPageDTO;
 import org.springframework.stereotype.Component;
 
 /**
@@ -36,4 +38,17 @@ public class AuditLogDtoMapper {
                 .createdAt(domainAuditLog.getCreatedAt())
                 .build();
     }
+
+    /**
+     * Converts a page of domain audit logs to an AuditLogPageDTO.
+     *
+     * @param page the domain page
+     * @return the AuditLogPageDTO, with the next cursor encoded
+     */
+    public AuditLogPageDTO toPageDTO(AuditLogPage page) {
+        return AuditLogPageDTO.builder()
+                .items(page.items().stream().map(this::toDTO).toList())
+                .nextCursor(page.hasMore() ? page.nextCursor().encode() : null)
+                .build();
+    }
 }
@@ -1,10 +1,16 @@
 package com.invoices.user.domain.entities;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.regex.Pattern;
 
 /**
@@ -111,6 +117,28 @@ public class User {
         return enabled && accountNonExpired && accountNonLocked && credentialsNonExpired;
     }
 
+    /**
+     * Fingerprint of the security-relevant state: password hash, roles, account
+     * flags and platform role. It changes on password reset, role change or
+     * deactivation, so tokens carrying an older stamp can be rejected.
+     */
+    public String getSecurityStamp() {
+        String state = String.join("|",
+                password,
+                String.join(",", new TreeSet<>(roles)),
+                Boolean.toString(enabled),
+                Boolean.toString(accountNonExpired),
+                Boolean.toString(accountNonLocked),
+                Boolean.toString(credentialsNonExpired),
+                platformRole.name());
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(state.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
     /**
      * Create a new User with updated last login time
      */
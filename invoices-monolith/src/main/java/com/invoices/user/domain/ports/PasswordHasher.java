@@ -23,4 +23,15 @@ public interface PasswordHasher {
      * @return true if passwords match, false otherwise
      */
     boolean matches(String plainPassword, String hashedPassword);
+
+    /**
+     * Check if a stored hash was created with weaker settings than the current ones
+     * and should be replaced after a successful login
+     *
+     * @param hashedPassword the stored hashed password
+     * @return true if the password should be hashed again
+     */
+    default boolean needsRehash(String hashedPassword) {
+        return false;
+    }
 }
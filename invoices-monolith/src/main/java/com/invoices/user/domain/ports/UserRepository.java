@@ -53,6 +53,18 @@ public interface UserRepository {
     org.springframework.data.domain.Page<User> findAllByCompanyId(Long companyId,
             org.springframework.data.domain.Pageable pageable);
 
+    /**
+     * Find users whose first or last name starts with the given term, ignoring
+     * case, accents and punctuation. Uses the name blind indexes, so only users
+     * sharing the term's first three characters are loaded and decrypted.
+     *
+     * @param term the search term
+     * @return matching users
+     * @throws com.invoices.shared.domain.exception.BusinessException if the term
+     *         has fewer than three letters or digits
+     */
+    List<User> searchByName(String term);
+
     /**
      * Save a user (create or update)
      *
@@ -37,6 +37,19 @@ public class AuthenticateUserUseCase {
      * @throws InvalidCredentialsException if credentials are invalid
      */
     public User execute(String email, String plainPassword) {
+        User user = findActiveUser(email);
+        return completeLogin(user, verifyPassword(user, plainPassword));
+    }
+
+    /**
+     * First step of a login: loads the user and checks the account may log in.
+     *
+     * @param email the user's email
+     * @return the user, not yet authenticated
+     * @throws InvalidCredentialsException if the user does not exist or the
+     *                                     account is disabled, expired or locked
+     */
+    public User findActiveUser(String email) {
         log.debug("Authenticating user with email: {}", email);
 
         // Find user by email
@@ -61,19 +74,50 @@ public class AuthenticateUserUseCase {
             throw new InvalidCredentialsException(
                     "User account is not valid (expired, locked, or credentials expired)");
         }
+        return user;
+    }
 
-        // Verify password
+    /**
+     * Second step of a login: checks the password. This is the CPU-bound part
+     * (BCrypt) and does no I/O, so callers can run it on a dedicated executor.
+     *
+     * @param user          the user returned by {@link #findActiveUser(String)}
+     * @param plainPassword the user's plain text password
+     * @return a new hash at the current cost factor if the stored one should be
+     *         upgraded, otherwise null
+     * @throws InvalidCredentialsException if the password does not match
+     */
+    public String verifyPassword(User user, String plainPassword) {
         log.debug("Attempting password match...");
         boolean matches = passwordHasher.matches(plainPassword, user.getPassword());
         log.debug("Password match result: {}", matches);
 
         if (!matches) {
-            log.warn("Password mismatch for user: {}", email);
+            log.warn("Password mismatch for user: {}", user.getEmail());
             throw new InvalidCredentialsException(
                     "Invalid email or password");
         }
 
-        log.info("Authentication successful for user: {}", email);
+        log.info("Authentication successful for user: {}", user.getEmail());
+
+        // Transparently upgrade hashes created with a lower cost factor
+        return passwordHasher.needsRehash(user.getPassword()) ? passwordHasher.hash(plainPassword) : null;
+    }
+
+    /**
+     * Last step of a login: stores an upgraded password hash and selects a
+     * company for users without one.
+     *
+     * @param user              the user returned by {@link #findActiveUser(String)}
+     * @param rehashedPassword  the result of {@link #verifyPassword(User, String)}
+     * @return the authenticated user
+     */
+    public User completeLogin(User user, String rehashedPassword) {
+        String email = user.getEmail();
+        if (rehashedPassword != null) {
+            log.info("Rehashing password for user {} with the current cost factor", email);
+            user = userRepository.save(user.withPassword(rehashedPassword));
+        }
 
         // Auto-select first company if currentCompanyId is null
         if (user.getCurrentCompanyId() == null) {
@@ -0,0 +1,12 @@
+package com.invoices.user.exception;
+
+/**
+ * Exception thrown when the password hashing executor is saturated and a login
+ * cannot be accepted right now.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    public PasswordHashingBusyException() {
+        super("Too many login attempts in progress, please retry shortly");
+    }
+}
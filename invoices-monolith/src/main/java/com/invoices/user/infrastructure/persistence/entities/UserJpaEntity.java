@@ -4,6 +4,10 @@ import jakarta.persistence.*;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import com.invoices.user.domain.entities.PlatformRole;
+import com.invoices.shared.infrastructure.security.encryption.BlindIndexListener;
+import com.invoices.shared.infrastructure.security.encryption.BlindIndexed;
+import com.invoices.shared.infrastructure.security.encryption.BlindIndexer;
+import com.invoices.shared.infrastructure.security.encryption.EncryptedString;
 import com.invoices.shared.infrastructure.security.encryption.EncryptedStringConverter;
 
 import java.time.LocalDateTime;
@@ -19,7 +23,11 @@ import java.util.Set;
 @Table(name = "users", indexes = {
         @Index(name = "idx_user_email", columnList = "email")
 })
-public class UserJpaEntity {
+@EntityListeners(BlindIndexListener.class)
+public class UserJpaEntity implements BlindIndexed {
+
+    public static final String FIRST_NAME_COLUMN = "users.first_name";
+    public static final String LAST_NAME_COLUMN = "users.last_name";
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -33,11 +41,24 @@ public class UserJpaEntity {
 
     @Column(name = "first_name", length = 100)
     @Convert(converter = EncryptedStringConverter.class)
-    private String firstName;
+    private EncryptedString firstName;
 
     @Column(name = "last_name", length = 100)
     @Convert(converter = EncryptedStringConverter.class)
-    private String lastName;
+    private EncryptedString lastName;
+
+    // Blind indexes, maintained by BlindIndexListener
+    @Column(name = "first_name_bidx", length = 32)
+    private String firstNameBidx;
+
+    @Column(name = "first_name_prefix_bidx", length = 32)
+    private String firstNamePrefixBidx;
+
+    @Column(name = "last_name_bidx", length = 32)
+    private String lastNameBidx;
+
+    @Column(name = "last_name_prefix_bidx", length = 32)
+    private String lastNamePrefixBidx;
 
     @ElementCollection(fetch = FetchType.EAGER)
     @CollectionTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"))
@@ -78,6 +99,22 @@ public class UserJpaEntity {
     public UserJpaEntity() {
     }
 
+    @Override
+    public boolean updateBlindIndexes(BlindIndexer indexer) {
+        boolean changed = false;
+        if (BlindIndexer.isStale(firstName, firstNameBidx)) {
+            firstNameBidx = indexer.exact(FIRST_NAME_COLUMN, firstName);
+            firstNamePrefixBidx = indexer.prefix(FIRST_NAME_COLUMN, firstName);
+            changed = true;
+        }
+        if (BlindIndexer.isStale(lastName, lastNameBidx)) {
+            lastNameBidx = indexer.exact(LAST_NAME_COLUMN, lastName);
+            lastNamePrefixBidx = indexer.prefix(LAST_NAME_COLUMN, lastName);
+            changed = true;
+        }
+        return changed;
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -104,19 +141,19 @@ public class UserJpaEntity {
     }
 
     public String getFirstName() {
-        return firstName;
+        return EncryptedString.plaintextOf(firstName);
     }
 
     public void setFirstName(String firstName) {
-        this.firstName = firstName;
+        this.firstName = EncryptedString.of(firstName);
     }
 
     public String getLastName() {
-        return lastName;
+        return EncryptedString.plaintextOf(lastName);
     }
 
     public void setLastName(String lastName) {
-        this.lastName = lastName;
+        this.lastName = EncryptedString.of(lastName);
     }
 
     public Set<String> getRoles() {
@@ -3,6 +3,9 @@ package com.invoices.user.infrastructure.persistence.repositories;
 import com.invoices.user.infrastructure.persistence.entities.UserJpaEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 
 import java.util.Optional;
 
@@ -33,4 +36,21 @@ public interface JpaUserRepository extends JpaRepository<UserJpaEntity, Long> {
     @Query("SELECT u FROM UserJpaEntity u WHERE u.id IN (SELECT uc.id.userId FROM UserCompany uc WHERE uc.id.companyId = :companyId)")
     org.springframework.data.domain.Page<UserJpaEntity> findByCompanyId(Long companyId,
             org.springframework.data.domain.Pageable pageable);
+
+    /**
+     * Candidates for a name search, by the prefix blind index of each name column.
+     */
+    @Query("SELECT u FROM UserJpaEntity u WHERE u.firstNamePrefixBidx = :firstNamePrefix "
+            + "OR u.lastNamePrefixBidx = :lastNamePrefix")
+    List<UserJpaEntity> findByNamePrefixIndex(@Param("firstNamePrefix") String firstNamePrefix,
+            @Param("lastNamePrefix") String lastNamePrefix);
+
+    /**
+     * Users written before blind indexes existed, in id order.
+     */
+    @Query("SELECT u FROM UserJpaEntity u WHERE u.id > :afterId AND ("
+            + "(u.firstName IS NOT NULL AND u.firstNameBidx IS NULL) "
+            + "OR (u.lastName IS NOT NULL AND u.lastNameBidx IS NULL)) ORDER BY u.id")
+    List<UserJpaEntity> findMissingBlindIndexes(@Param("afterId") Long afterId,
+            org.springframework.data.domain.Pageable pageable);
 }
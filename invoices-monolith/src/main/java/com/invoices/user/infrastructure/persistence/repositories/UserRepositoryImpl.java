@@ -1,9 +1,11 @@
 package com.invoices.user.infrastructure.persistence.repositories;
 
 import com.invoices.user.domain.entities.User;
+import com.invoices.shared.infrastructure.security.encryption.BlindIndexer;
 import com.invoices.user.domain.ports.UserRepository;
 import com.invoices.user.infrastructure.persistence.entities.UserJpaEntity;
 import com.invoices.user.infrastructure.persistence.mappers.UserJpaMapper;
+import com.invoices.user.infrastructure.security.UserSecurityStampCache;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -19,10 +21,15 @@ public class UserRepositoryImpl implements UserRepository {
 
     private final JpaUserRepository jpaUserRepository;
     private final UserJpaMapper mapper;
+    private final UserSecurityStampCache securityStampCache;
+    private final BlindIndexer blindIndexer;
 
-    public UserRepositoryImpl(JpaUserRepository jpaUserRepository, UserJpaMapper mapper) {
+    public UserRepositoryImpl(JpaUserRepository jpaUserRepository, UserJpaMapper mapper,
+            UserSecurityStampCache securityStampCache, BlindIndexer blindIndexer) {
         this.jpaUserRepository = jpaUserRepository;
         this.mapper = mapper;
+        this.securityStampCache = securityStampCache;
+        this.blindIndexer = blindIndexer;
     }
 
     @Override
@@ -57,15 +64,29 @@ public class UserRepositoryImpl implements UserRepository {
                 .map(mapper::toDomainEntity);
     }
 
+    @Override
+    public List<User> searchByName(String term) {
+        BlindIndexer.requireSearchable(term);
+        return jpaUserRepository.findByNamePrefixIndex(
+                blindIndexer.prefix(UserJpaEntity.FIRST_NAME_COLUMN, term),
+                blindIndexer.prefix(UserJpaEntity.LAST_NAME_COLUMN, term)).stream()
+                .map(mapper::toDomainEntity)
+                .filter(user -> BlindIndexer.matchesPrefix(user.getFirstName(), term)
+                        || BlindIndexer.matchesPrefix(user.getLastName(), term))
+                .collect(Collectors.toList());
+    }
+
     @Override
     public User save(User user) {
         UserJpaEntity jpaEntity = mapper.toJpaEntity(user);
         UserJpaEntity savedEntity = jpaUserRepository.save(jpaEntity);
+        securityStampCache.evict(user.getEmail());
         return mapper.toDomainEntity(savedEntity);
     }
 
     @Override
     public void deleteById(Long id) {
+        jpaUserRepository.findById(id).ifPresent(user -> securityStampCache.evict(user.getEmail()));
         jpaUserRepository.deleteById(id);
     }
 
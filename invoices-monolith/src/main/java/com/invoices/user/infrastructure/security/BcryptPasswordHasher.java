@@ -35,4 +35,9 @@ public class BcryptPasswordHasher implements PasswordHasher {
         log.debug("BCrypt match result: {}", result);
         return result;
     }
+
+    @Override
+    public boolean needsRehash(String hashedPassword) {
+        return passwordEncoder.upgradeEncoding(hashedPassword);
+    }
 }
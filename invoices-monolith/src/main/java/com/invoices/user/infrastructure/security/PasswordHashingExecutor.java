@@ -0,0 +1,83 @@
+package com.invoices.user.infrastructure.security;
+
+import com.invoices.user.exception.PasswordHashingBusyException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Dedicated, CPU-sized executor for password verification.
+ *
+ * A BCrypt verify at strength 12 costs a few hundred milliseconds of CPU. Running
+ * it here instead of on Tomcat worker threads (with async request handling)
+ * keeps a login burst from occupying every worker and stalling other traffic.
+ * Only the hashing itself belongs here: the pool is sized to the CPUs, so a task
+ * blocking on the database or Redis would leave a core idle.
+ * The queue is bounded; when it is full the login is rejected immediately with
+ * {@link PasswordHashingBusyException} (503) instead of waiting.
+ */
+@Component
+@Slf4j
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+
+    public PasswordHashingExecutor(
+            @Value("${security.password-hashing.threads:0}") int threads,
+            @Value("${security.password-hashing.queue-capacity:0}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        int capacity = queueCapacity > 0 ? queueCapacity : poolSize * 4;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacity),
+                r -> {
+                    Thread thread = new Thread(r, "password-hash-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        log.info("Password hashing executor: {} threads, queue capacity {}", poolSize, capacity);
+    }
+
+    /**
+     * Runs the task on the hashing executor.
+     *
+     * @param task the work to run (a password verification or hash)
+     * @return a future completed with the task result
+     * @throws PasswordHashingBusyException if the executor queue is full
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                if (mdc != null) {
+                    MDC.setContextMap(mdc);
+                }
+                try {
+                    return task.get();
+                } finally {
+                    MDC.clear();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            log.warn("Password hashing executor saturated ({} queued), rejecting login", executor.getQueue().size());
+            throw new PasswordHashingBusyException();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
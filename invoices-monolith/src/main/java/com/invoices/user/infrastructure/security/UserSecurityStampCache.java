@@ -0,0 +1,94 @@
+package com.invoices.user.infrastructure.security;
+
+import com.invoices.user.domain.entities.User;
+import com.invoices.user.infrastructure.persistence.mappers.UserJpaMapper;
+import com.invoices.user.infrastructure.persistence.repositories.JpaUserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Short-TTL cache of each user's current security stamp, used to accept JWTs
+ * without loading the user on every request.
+ *
+ * Entries are evicted locally whenever a user is saved or deleted, and again
+ * once the surrounding transaction completes, so a request that reloads the
+ * stamp before the change is committed cannot keep the old one cached; other
+ * instances pick up the change when the TTL expires, which bounds how long a
+ * token issued before a password reset, role change or deactivation stays usable.
+ * Users that are disabled, locked or expired have no valid stamp.
+ */
+@Component
+@Slf4j
+public class UserSecurityStampCache {
+
+    private final JpaUserRepository jpaUserRepository;
+    private final UserJpaMapper mapper;
+    private final long ttlNanos;
+    private final Map<String, Entry> entries;
+
+    public UserSecurityStampCache(JpaUserRepository jpaUserRepository, UserJpaMapper mapper,
+            @Value("${security.principal-cache.ttl-seconds:30}") long ttlSeconds,
+            @Value("${security.principal-cache.max-entries:10000}") int maxEntries) {
+        this.jpaUserRepository = jpaUserRepository;
+        this.mapper = mapper;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * @param email the user email (token subject)
+     * @param stamp the stamp carried by the token
+     * @return true if the stamp matches the user's current, valid account state
+     */
+    public boolean isCurrent(String email, String stamp) {
+        return stamp != null && stamp.equals(currentStamp(email));
+    }
+
+    public void evict(String email) {
+        if (email == null) {
+            return;
+        }
+        entries.remove(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    entries.remove(email);
+                }
+            });
+        }
+    }
+
+    private String currentStamp(String email) {
+        long now = System.nanoTime();
+        Entry entry = entries.get(email);
+        if (entry != null && now - entry.loadedAt() < ttlNanos) {
+            return entry.stamp();
+        }
+
+        String stamp = jpaUserRepository.findByEmail(email)
+                .map(mapper::toDomainEntity)
+                .filter(User::isAccountValid)
+                .map(User::getSecurityStamp)
+                .orElse(null);
+        entries.put(email, new Entry(stamp, now));
+        log.debug("Loaded security stamp for {}", email);
+        return stamp;
+    }
+
+    private record Entry(String stamp, long loadedAt) {
+    }
+}
@@ -4,13 +4,20 @@ import com.invoices.company.application.services.CompanyInvitationService;
 import com.invoices.company.application.services.CompanyManagementService;
 import com.invoices.invoice.domain.entities.Company;
 import com.invoices.security.JwtUtil;
+import com.invoices.security.application.services.RefreshTokenService;
+import com.invoices.security.domain.entities.RefreshToken;
 import com.invoices.user.domain.entities.User;
 import com.invoices.user.domain.usecases.AuthenticateUserUseCase;
 import com.invoices.user.domain.usecases.CreateUserUseCase;
+import com.invoices.user.domain.usecases.GetUserByIdUseCase;
 import com.invoices.user.domain.usecases.UpdateUserLastLoginUseCase;
+import com.invoices.user.exception.InvalidTokenException;
+import com.invoices.user.exception.UserNotFoundException;
+import com.invoices.user.infrastructure.security.PasswordHashingExecutor;
 import com.invoices.user.presentation.dto.AuthResponse;
 import com.invoices.user.presentation.dto.CreateUserRequest;
 import com.invoices.user.presentation.dto.LoginRequest;
+import com.invoices.user.presentation.dto.RefreshTokenRequest;
 
 import com.invoices.shared.domain.ports.EmailService;
 import com.invoices.user.presentation.mappers.UserDtoMapper;
@@ -33,9 +40,14 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 /**
  * REST controller for authentication operations (Clean Architecture).
  * Handles user registration and login using domain Use Cases.
+ * Login and registration also return a single-use refresh token, exchanged at
+ * /api/auth/refresh (see RefreshTokenService).
  */
 @RestController
 @RequestMapping("/api/auth")
@@ -48,8 +60,12 @@ public class AuthController {
         private final CreateUserUseCase createUserUseCase;
         private final AuthenticateUserUseCase authenticateUserUseCase;
         private final UpdateUserLastLoginUseCase updateUserLastLoginUseCase;
+        private final GetUserByIdUseCase getUserByIdUseCase;
+        private final RefreshTokenService refreshTokenService;
         private final CompanyManagementService companyManagementService;
         private final CompanyInvitationService companyInvitationService;
+        private final PasswordHashingExecutor passwordHashingExecutor;
+        private final Executor taskExecutor;
 
         private final JwtUtil jwtUtil;
         private final UserDtoMapper userDtoMapper;
@@ -118,12 +134,12 @@ public class AuthController {
                 }
 
                 // Generate JWT token with email, roles and companyId
-                String token = jwtUtil.generateToken(createdUser.getEmail(), createdUser.getRoles(),
-                                createdUser.getCurrentCompanyId());
+                String token = jwtUtil.generateToken(createdUser);
 
                 AuthResponse response = AuthResponse.builder()
                                 .token(token)
                                 .expiresIn(jwtUtil.getExpirationTime())
+                                .refreshToken(refreshTokenService.createRefreshToken(createdUser.getId()).getToken())
                                 .user(userDtoMapper.toDTO(createdUser))
                                 .build();
 
@@ -144,6 +160,10 @@ public class AuthController {
 
         /**
          * Authenticates a user and returns JWT token.
+         * The user is loaded on the request thread. Only the BCrypt verification
+         * (and rehash) runs on the password hashing executor, so its CPU-sized pool
+         * never waits on I/O; the last-login update, refresh token and JWT are then
+         * produced on the application task executor.
          *
          * @param request the login request
          * @return authentication response with JWT token
@@ -153,26 +173,32 @@ public class AuthController {
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "Login successful", content = @Content(schema = @Schema(implementation = AuthResponse.class))),
                         @ApiResponse(responseCode = "400", description = "Validation error", content = @Content),
-                        @ApiResponse(responseCode = "401", description = "Invalid credentials", content = @Content)
+                        @ApiResponse(responseCode = "401", description = "Invalid credentials", content = @Content),
+                        @ApiResponse(responseCode = "503", description = "Too many logins in progress, retry shortly", content = @Content)
         })
-        public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
+        public CompletableFuture<ResponseEntity<AuthResponse>> login(@Valid @RequestBody LoginRequest request) {
                 log.info("POST /api/auth/login - Login attempt for user: {}", request.getEmail());
 
-                // Authenticate user using domain use case
-                User authenticatedUser = authenticateUserUseCase.execute(
-                                request.getEmail(),
-                                request.getPassword());
+                User user = authenticateUserUseCase.findActiveUser(request.getEmail());
+                return passwordHashingExecutor
+                                .submit(() -> authenticateUserUseCase.verifyPassword(user, request.getPassword()))
+                                .thenApplyAsync(rehashedPassword -> completeLogin(request,
+                                                authenticateUserUseCase.completeLogin(user, rehashedPassword)),
+                                                taskExecutor);
+        }
 
+        private ResponseEntity<AuthResponse> completeLogin(LoginRequest request, User authenticatedUser) {
                 // Update last login timestamp
                 updateUserLastLoginUseCase.execute(authenticatedUser.getId());
 
                 // Generate JWT token with email, roles and companyId
-                String token = jwtUtil.generateToken(authenticatedUser.getEmail(), authenticatedUser.getRoles(),
-                                authenticatedUser.getCurrentCompanyId());
+                String token = jwtUtil.generateToken(authenticatedUser);
 
                 AuthResponse response = AuthResponse.builder()
                                 .token(token)
                                 .expiresIn(jwtUtil.getExpirationTime())
+                                .refreshToken(refreshTokenService.createRefreshToken(authenticatedUser.getId())
+                                                .getToken())
                                 .user(userDtoMapper.toDTO(authenticatedUser))
                                 .build();
 
@@ -180,6 +206,46 @@ public class AuthController {
                 return ResponseEntity.ok(response);
         }
 
+        /**
+         * Exchanges a refresh token for a new access token and a new refresh token.
+         * The presented token is used up; presenting it again revokes its whole
+         * token family.
+         *
+         * @param request the refresh request
+         * @return authentication response with new JWT and refresh tokens
+         */
+        @PostMapping("/refresh")
+        @Operation(summary = "Refresh token", description = "Rotates a refresh token and returns a new JWT token")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Token refreshed successfully", content = @Content(schema = @Schema(implementation = AuthResponse.class))),
+                        @ApiResponse(responseCode = "400", description = "Validation error", content = @Content),
+                        @ApiResponse(responseCode = "401", description = "Invalid, expired or reused refresh token", content = @Content)
+        })
+        public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+                RefreshToken rotated = refreshTokenService.rotate(request.getRefreshToken());
+
+                User user;
+                try {
+                        user = getUserByIdUseCase.execute(rotated.getUserId());
+                } catch (UserNotFoundException e) {
+                        throw new InvalidTokenException("Refresh token user no longer exists");
+                }
+                if (!user.isAccountValid()) {
+                        refreshTokenService.deleteByUserId(user.getId());
+                        throw new InvalidTokenException("Account is disabled. Please contact support");
+                }
+
+                AuthResponse response = AuthResponse.builder()
+                                .token(jwtUtil.generateToken(user))
+                                .expiresIn(jwtUtil.getExpirationTime())
+                                .refreshToken(rotated.getToken())
+                                .user(userDtoMapper.toDTO(user))
+                                .build();
+
+                log.debug("Refresh token rotated for user {}", user.getId());
+                return ResponseEntity.ok(response);
+        }
+
         /**
          * Switches the current company context for the authenticated user.
          *
@@ -206,8 +272,7 @@ public class AuthController {
                                 .orElseThrow(() -> new RuntimeException("User not found after switch"));
 
                 // Generate new JWT token with updated companyId
-                String token = jwtUtil.generateToken(updatedUser.getEmail(), updatedUser.getRoles(),
-                                updatedUser.getCurrentCompanyId());
+                String token = jwtUtil.generateToken(updatedUser);
 
                 AuthResponse response = AuthResponse.builder()
                                 .token(token)
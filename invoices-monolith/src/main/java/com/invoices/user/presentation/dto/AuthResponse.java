@@ -21,5 +21,8 @@ public class AuthResponse {
 
     private Long expiresIn;
 
+    // Single-use; exchange at /api/auth/refresh for a new access and refresh token
+    private String refreshToken;
+
     private UserDTO user;
 }
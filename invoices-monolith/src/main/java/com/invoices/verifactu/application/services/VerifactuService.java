@@ -4,8 +4,10 @@ import com.invoices.invoice.domain.entities.Client;
 import com.invoices.invoice.domain.entities.Company;
 import com.invoices.invoice.domain.entities.Invoice;
 import com.invoices.invoice.domain.ports.ClientRepository;
+import com.invoices.invoice.domain.ports.InvoiceEventPublisher;
 import com.invoices.invoice.domain.ports.InvoiceRepository;
 import com.invoices.shared.domain.exception.BusinessException;
+import com.invoices.trace.domain.services.AuditService;
 import com.invoices.verifactu.domain.model.AeatResponse;
 import com.invoices.verifactu.domain.model.VerifactuMode;
 import com.invoices.verifactu.domain.model.VerifactuResponse;
@@ -27,6 +29,8 @@ public class VerifactuService implements VerifactuPort {
     private final InvoiceChainService chainService;
     private final CompanyCertificateService certificateService;
     private final VerifactuIntegrationPort integrationService;
+    private final AuditService auditService;
+    private final InvoiceEventPublisher eventPublisher;
 
     @Value("${verifactu.mode:SANDBOX}")
     private String verifactuModeConfig;
@@ -89,13 +93,15 @@ public class VerifactuService implements VerifactuPort {
 
             // 7. Handle Response
             if (response.isSuccess()) {
-                handleSuccess(invoice, company, response);
+                handleSuccess(invoice, company, client, response);
             } else {
                 handleError(invoice, response);
             }
 
         } catch (Exception e) {
             log.error("Error sending invoice {} to Veri*Factu", invoiceId, e);
+            auditService.logStatusChange(companyId, "INVOICE_SEND_FAILED", invoiceId, invoice.getInvoiceNumber(),
+                    "SENDING", "REJECTED", e.getMessage());
             invoice.markAsRejected();
             // In a real worker, we might schedule a retry here
             invoiceRepository.save(invoice);
@@ -103,16 +109,21 @@ public class VerifactuService implements VerifactuPort {
         }
     }
 
-    private void handleSuccess(Invoice invoice, Company company, VerifactuResponse response) {
+    private void handleSuccess(Invoice invoice, Company company, Client client, VerifactuResponse response) {
         log.info("Invoice {} accepted by AEAT. CSV: {}", invoice.getInvoiceNumber(), response.getCsv());
 
         invoice.markAsSent();
         invoice.setCsvAcuse(response.getCsv());
         invoice.setQrData(response.getQrData());
         invoiceRepository.save(invoice);
+        auditService.logStatusChange(company.getId(), "INVOICE_SENT", invoice.getId(), invoice.getInvoiceNumber(),
+                "SENDING", "SENT", "CSV: " + response.getCsv());
 
         // Update company hash chain
         chainService.updateTenantLastHash(company.getId(), invoice.getHash());
+
+        // Committed with the status, delivered to the company's webhooks afterwards
+        eventPublisher.publishInvoiceAccepted(invoice, client.getEmail());
     }
 
     private void handleError(Invoice invoice, VerifactuResponse response) {
@@ -3,6 +3,7 @@ package com.invoices.verifactu.infrastructure.jobs;
 import com.invoices.invoice.domain.entities.Invoice;
 import com.invoices.invoice.domain.ports.InvoiceRepository;
 import com.invoices.invoice.infrastructure.services.SmtpEmailService;
+import com.invoices.trace.domain.services.AuditService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -33,6 +34,7 @@ public class VerifactuRetryJob {
 
     private final InvoiceRepository invoiceRepository;
     private final SmtpEmailService emailService;
+    private final AuditService auditService;
 
     /**
      * Runs every 5 minutes to retry pending VeriFactu submissions.
@@ -75,6 +77,9 @@ public class VerifactuRetryJob {
                         invoice.setVerifactuStatus("PENDING");
                         invoice.incrementRetryCount();
                         invoiceRepository.save(invoice);
+                        auditService.logStatusChange(invoice.getCompanyId(), "VERIFACTU_STATUS_CHANGED",
+                                invoice.getId(), invoice.getInvoiceNumber(), "PROCESSING", "PENDING",
+                                "Retry attempt " + invoice.getVerifactuRetryCount());
                         retryCount++;
                     } else {
                         // Already PENDING, skip
@@ -99,9 +104,12 @@ public class VerifactuRetryJob {
         String errorMessage = "Max retry attempts (" + MAX_RETRY_ATTEMPTS
                 + ") exceeded. Please check invoice data and retry manually.";
 
+        String previousStatus = invoice.getVerifactuStatus();
         invoice.setVerifactuStatus("FAILED");
         invoice.setVerifactuError(errorMessage);
         invoiceRepository.save(invoice);
+        auditService.logStatusChange(invoice.getCompanyId(), "VERIFACTU_STATUS_CHANGED", invoice.getId(),
+                invoice.getInvoiceNumber(), previousStatus, "FAILED", errorMessage);
 
         log.warn("Invoice {} marked as FAILED after {} attempts. Company: {}",
                 invoice.getId(), MAX_RETRY_ATTEMPTS, invoice.getCompanyId());
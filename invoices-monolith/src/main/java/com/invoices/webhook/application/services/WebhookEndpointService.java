@@ -0,0 +1,151 @@
+package com.invoices.webhook.application.services;
+
+import com.invoices.shared.domain.exception.BusinessException;
+import com.invoices.webhook.domain.entities.WebhookEvent;
+import com.invoices.webhook.infrastructure.delivery.WebhookAddressGuard;
+import com.invoices.webhook.infrastructure.persistence.entities.WebhookEndpointJpaEntity;
+import com.invoices.webhook.infrastructure.persistence.repositories.JpaWebhookEndpointRepository;
+import com.invoices.webhook.presentation.dto.WebhookEndpointDTO;
+import com.invoices.webhook.presentation.dto.WebhookEndpointRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Webhook endpoints of a company. Events are queued for them by
+ * WebhookOutboxHandler and sent by WebhookDispatcher.
+ */
+@Service
+@Slf4j
+public class WebhookEndpointService {
+
+    private static final int SECRET_BYTES = 32;
+
+    private final JpaWebhookEndpointRepository endpointRepository;
+    private final WebhookAddressGuard addressGuard;
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final boolean allowHttp;
+
+    public WebhookEndpointService(JpaWebhookEndpointRepository endpointRepository, WebhookAddressGuard addressGuard,
+            @Value("${webhooks.allow-http:false}") boolean allowHttp) {
+        this.endpointRepository = endpointRepository;
+        this.addressGuard = addressGuard;
+        this.allowHttp = allowHttp;
+    }
+
+    /**
+     * Registers an endpoint with a new signing secret, returned only here.
+     */
+    @Transactional
+    public WebhookEndpointDTO create(Long companyId, WebhookEndpointRequest request) {
+        LocalDateTime now = LocalDateTime.now();
+        String secret = newSecret();
+        WebhookEndpointJpaEntity endpoint = WebhookEndpointJpaEntity.builder()
+                .companyId(companyId)
+                .createdAt(now)
+                .build();
+        endpoint.setSecret(secret);
+        apply(endpoint, request, now);
+
+        WebhookEndpointJpaEntity saved = endpointRepository.save(endpoint);
+        log.info("Webhook endpoint {} created for company {}: {} {}", saved.getId(), companyId, saved.getUrl(),
+                saved.getEvents());
+        WebhookEndpointDTO dto = toDto(saved);
+        dto.setSecret(secret);
+        return dto;
+    }
+
+    @Transactional
+    public WebhookEndpointDTO update(Long companyId, Long id, WebhookEndpointRequest request) {
+        WebhookEndpointJpaEntity endpoint = get(companyId, id);
+        apply(endpoint, request, LocalDateTime.now());
+        log.info("Webhook endpoint {} of company {} updated: {} {}, active {}", id, companyId, endpoint.getUrl(),
+                endpoint.getEvents(), endpoint.isActive());
+        return toDto(endpoint);
+    }
+
+    @Transactional(readOnly = true)
+    public List<WebhookEndpointDTO> findAll(Long companyId) {
+        return endpointRepository.findByCompanyIdOrderById(companyId).stream().map(this::toDto).toList();
+    }
+
+    @Transactional(readOnly = true)
+    public WebhookEndpointDTO find(Long companyId, Long id) {
+        return toDto(get(companyId, id));
+    }
+
+    /**
+     * Deletes an endpoint together with its pending deliveries.
+     */
+    @Transactional
+    public void delete(Long companyId, Long id) {
+        endpointRepository.delete(get(companyId, id));
+        log.info("Webhook endpoint {} of company {} deleted", id, companyId);
+    }
+
+    private void apply(WebhookEndpointJpaEntity endpoint, WebhookEndpointRequest request, LocalDateTime now) {
+        endpoint.setUrl(validateUrl(request.getUrl()));
+        endpoint.setDescription(request.getDescription() != null && !request.getDescription().isBlank()
+                ? request.getDescription().trim()
+                : null);
+        endpoint.setEvents(EnumSet.copyOf(request.getEvents()));
+        endpoint.setMaxConcurrency(request.getMaxConcurrency() != null ? request.getMaxConcurrency() : 1);
+        endpoint.setActive(request.getActive() == null || request.getActive());
+        endpoint.setUpdatedAt(now);
+    }
+
+    private String validateUrl(String url) {
+        URI uri;
+        try {
+            uri = new URI(url.trim());
+        } catch (URISyntaxException e) {
+            throw new BusinessException("INVALID_WEBHOOK_URL", "Invalid webhook URL: " + url);
+        }
+        String scheme = uri.getScheme() != null ? uri.getScheme().toLowerCase(Locale.ROOT) : "";
+        if (uri.getHost() == null || !(scheme.equals("https") || (allowHttp && scheme.equals("http")))) {
+            throw new BusinessException("INVALID_WEBHOOK_URL",
+                    allowHttp ? "Webhook URL must be an http(s) URL" : "Webhook URL must be an https URL");
+        }
+        String blocked = addressGuard.check(uri.getHost());
+        if (blocked != null) {
+            throw new BusinessException("INVALID_WEBHOOK_URL", blocked);
+        }
+        return uri.toString();
+    }
+
+    private String newSecret() {
+        byte[] bytes = new byte[SECRET_BYTES];
+        secureRandom.nextBytes(bytes);
+        return "whsec_" + Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private WebhookEndpointJpaEntity get(Long companyId, Long id) {
+        return endpointRepository.findByIdAndCompanyId(id, companyId)
+                .orElseThrow(() -> new BusinessException("WEBHOOK_ENDPOINT_NOT_FOUND",
+                        "Webhook endpoint not found with id: " + id, HttpStatus.NOT_FOUND));
+    }
+
+    private WebhookEndpointDTO toDto(WebhookEndpointJpaEntity endpoint) {
+        return WebhookEndpointDTO.builder()
+                .id(endpoint.getId())
+                .url(endpoint.getUrl())
+                .description(endpoint.getDescription())
+                .events(EnumSet.copyOf(endpoint.getEvents()))
+                .maxConcurrency(endpoint.getMaxConcurrency())
+                .active(endpoint.isActive())
+                .createdAt(endpoint.getCreatedAt())
+                .updatedAt(endpoint.getUpdatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,32 @@
+package com.invoices.webhook.domain.entities;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Events a company can receive on its webhook endpoints, and the outbox event
+ * each one is delivered from.
+ */
+public enum WebhookEvent {
+
+    /** An invoice was created (by hand, by an import or by a recurring invoice) */
+    INVOICE_CREATED("INVOICE_CREATED"),
+    /** AEAT accepted the VeriFactu record of an invoice */
+    INVOICE_ACCEPTED("VERIFACTU_ACCEPTED");
+
+    private final String outboxEventType;
+
+    WebhookEvent(String outboxEventType) {
+        this.outboxEventType = outboxEventType;
+    }
+
+    public String getOutboxEventType() {
+        return outboxEventType;
+    }
+
+    public static Optional<WebhookEvent> fromOutboxEventType(String eventType) {
+        return Arrays.stream(values())
+                .filter(event -> event.outboxEventType.equals(eventType))
+                .findFirst();
+    }
+}
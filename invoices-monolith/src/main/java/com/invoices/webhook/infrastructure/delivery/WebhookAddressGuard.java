@@ -0,0 +1,60 @@
+package com.invoices.webhook.infrastructure.delivery;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * Keeps webhook requests away from the internal network: a host is only
+ * accepted if every address it resolves to is public, so a customer cannot
+ * point an endpoint at loopback, private (10/8, 172.16/12, 192.168/16, fc00::/7),
+ * link-local (169.254/16, e.g. cloud metadata, fe80::/10), wildcard or
+ * multicast addresses and probe them through our requests.
+ *
+ * The host is checked when an endpoint is registered and again before every
+ * request, so a DNS record changed afterwards is caught on the next delivery.
+ * {@code webhooks.allow-private-addresses} turns the check off for local
+ * development and tests.
+ */
+@Component
+public class WebhookAddressGuard {
+
+    private final boolean allowPrivateAddresses;
+
+    public WebhookAddressGuard(@Value("${webhooks.allow-private-addresses:false}") boolean allowPrivateAddresses) {
+        this.allowPrivateAddresses = allowPrivateAddresses;
+    }
+
+    /**
+     * @return null if requests may be sent to the host, otherwise why not
+     */
+    public String check(String host) {
+        if (allowPrivateAddresses) {
+            return null;
+        }
+        InetAddress[] addresses;
+        try {
+            addresses = InetAddress.getAllByName(host);
+        } catch (UnknownHostException e) {
+            return "Host " + host + " cannot be resolved";
+        }
+        for (InetAddress address : addresses) {
+            if (!isPublic(address)) {
+                return "Host " + host + " resolves to the non-public address " + address.getHostAddress();
+            }
+        }
+        return null;
+    }
+
+    static boolean isPublic(InetAddress address) {
+        if (address.isLoopbackAddress() || address.isAnyLocalAddress() || address.isLinkLocalAddress()
+                || address.isSiteLocalAddress() || address.isMulticastAddress()) {
+            return false;
+        }
+        byte[] bytes = address.getAddress();
+        // IPv6 unique local addresses (fc00::/7), not covered by isSiteLocalAddress
+        return !(bytes.length == 16 && (bytes[0] & 0xfe) == 0xfc);
+    }
+}
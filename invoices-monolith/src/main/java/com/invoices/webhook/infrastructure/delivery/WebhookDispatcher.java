@@ -0,0 +1,374 @@
+package com.invoices.webhook.infrastructure.delivery;
+
+import com.invoices.shared.domain.ports.EncryptionService;
+import com.invoices.webhook.infrastructure.persistence.repositories.WebhookDeliveryRepository;
+import com.invoices.webhook.infrastructure.persistence.repositories.WebhookDeliveryRepository.Delivery;
+import com.invoices.webhook.infrastructure.persistence.repositories.WebhookDeliveryRepository.Target;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends the webhook delivery queue (see V52).
+ *
+ * A poller thread looks for endpoints with deliveries due every
+ * {@code poll-interval-millis} and, for each one, claims up to
+ * {@code batch-size} of them in a short transaction, which counts an attempt
+ * and leases them for {@code lease-seconds}. A batch is sent as one signed
+ * POST (see {@link WebhookSigner}) of {@code {"events": [...]}} in the order
+ * the events were queued, so bursts cost one request per batch rather than per
+ * event, and deleted once the endpoint answers 2xx. If the dispatcher dies
+ * meanwhile, the batch is sent again when the lease expires: receivers should
+ * ignore event IDs they have already seen.
+ *
+ * Before every request the endpoint host is resolved and checked by
+ * {@link WebhookAddressGuard}; a host now resolving to an internal address
+ * fails the batch like an unreachable endpoint.
+ *
+ * Requests run on {@code threads} threads of their own, with connect and
+ * request timeouts, so a slow or dead endpoint never holds up request threads,
+ * the outbox relay or other endpoints. Each endpoint has at most its
+ * {@code max_concurrency} batches in flight (per instance); with more than one,
+ * batches may arrive out of order.
+ *
+ * A failed batch, and every other pending delivery of its endpoint, is retried
+ * after {@code retry-backoff-seconds}, doubled on every attempt up to
+ * {@code max-backoff-seconds}; after {@code max-attempts} a delivery is marked
+ * failed and kept.
+ *
+ * Metrics: {@code webhooks.deliveries.sent}, {@code webhooks.deliveries.failed}
+ * and {@code webhooks.deliveries.parked}, counted per event.
+ */
+@Component
+@ConditionalOnProperty(prefix = "webhooks.dispatcher", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class WebhookDispatcher {
+
+    private static final String METRIC_PREFIX = "webhooks.deliveries";
+    private static final String USER_AGENT = "invoices-webhooks/1.0";
+
+    private final WebhookDeliveryRepository repository;
+    private final EncryptionService encryptionService;
+    private final WebhookAddressGuard addressGuard;
+    private final TransactionTemplate claimTransaction;
+    private final HttpClient httpClient;
+    private final Executor deliveryExecutor;
+    private final Semaphore deliverySlots;
+    // Batches in flight per endpoint, guarded by itself
+    private final Map<Long, Integer> inFlight = new HashMap<>();
+    private final int targetsPerPoll;
+    private final int batchSize;
+    private final long pollIntervalMillis;
+    private final long leaseSeconds;
+    private final Duration requestTimeout;
+    private final int maxAttempts;
+    private final long retryBackoffSeconds;
+    private final long maxBackoffSeconds;
+
+    private final Counter sent;
+    private final Counter failed;
+    private final Counter parked;
+
+    private ScheduledExecutorService poller;
+
+    @Autowired
+    public WebhookDispatcher(WebhookDeliveryRepository repository, EncryptionService encryptionService,
+            WebhookAddressGuard addressGuard, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${webhooks.dispatcher.threads:8}") int threads,
+            @Value("${webhooks.dispatcher.batch-size:50}") int batchSize,
+            @Value("${webhooks.dispatcher.poll-interval-millis:1000}") long pollIntervalMillis,
+            @Value("${webhooks.dispatcher.lease-seconds:60}") long leaseSeconds,
+            @Value("${webhooks.dispatcher.connect-timeout-millis:5000}") long connectTimeoutMillis,
+            @Value("${webhooks.dispatcher.request-timeout-millis:10000}") long requestTimeoutMillis,
+            @Value("${webhooks.dispatcher.max-attempts:12}") int maxAttempts,
+            @Value("${webhooks.dispatcher.retry-backoff-seconds:30}") long retryBackoffSeconds,
+            @Value("${webhooks.dispatcher.max-backoff-seconds:21600}") long maxBackoffSeconds) {
+        this(repository, encryptionService, addressGuard, transactionManager, meterRegistry, deliveryPool(threads),
+                threads, batchSize, pollIntervalMillis, leaseSeconds, connectTimeoutMillis, requestTimeoutMillis,
+                maxAttempts, retryBackoffSeconds, maxBackoffSeconds);
+    }
+
+    /**
+     * @param deliveryExecutor runs the requests; at most {@code threads} at once
+     */
+    WebhookDispatcher(WebhookDeliveryRepository repository, EncryptionService encryptionService,
+            WebhookAddressGuard addressGuard, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry, Executor deliveryExecutor,
+            int threads, int batchSize, long pollIntervalMillis, long leaseSeconds, long connectTimeoutMillis,
+            long requestTimeoutMillis, int maxAttempts, long retryBackoffSeconds, long maxBackoffSeconds) {
+        this.repository = repository;
+        this.encryptionService = encryptionService;
+        this.addressGuard = addressGuard;
+        this.claimTransaction = new TransactionTemplate(transactionManager);
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        this.deliveryExecutor = deliveryExecutor;
+        this.deliverySlots = new Semaphore(threads);
+        // Endpoints at their own limit hold at least one slot each, so this many
+        // includes enough endpoints below their limit to fill every free slot
+        this.targetsPerPoll = threads * 2;
+        this.batchSize = batchSize;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.leaseSeconds = leaseSeconds;
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMillis);
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffSeconds = retryBackoffSeconds;
+        this.maxBackoffSeconds = maxBackoffSeconds;
+
+        this.sent = meterRegistry.counter(METRIC_PREFIX + ".sent");
+        this.failed = meterRegistry.counter(METRIC_PREFIX + ".failed");
+        this.parked = meterRegistry.counter(METRIC_PREFIX + ".parked");
+    }
+
+    private static ExecutorService deliveryPool(int threads) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "webhook-delivery-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "webhook-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::drain, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        log.info("[Webhooks] Dispatcher started ({} delivery threads, batch {}, poll {}ms)",
+                deliverySlots.availablePermits(), batchSize, pollIntervalMillis);
+    }
+
+    // Stopped when the context starts closing, before the data source or schema
+    // the poller queries is torn down
+    @EventListener(ContextClosedEvent.class)
+    @PreDestroy
+    public synchronized void stop() {
+        if (poller != null) {
+            poller.shutdown();
+            poller = null;
+        }
+        if (deliveryExecutor instanceof ExecutorService executorService) {
+            // Lets requests in flight complete; what is left is sent after restart
+            executorService.shutdown();
+            try {
+                executorService.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Hands out batches until no delivery slot or due delivery is left.
+     */
+    void drain() {
+        try {
+            while (dispatchOnce() > 0) {
+                // Claims again: the batches handed out may have freed endpoints
+            }
+        } catch (RuntimeException e) {
+            log.error("[Webhooks] Dispatch failed, retrying on next poll", e);
+        }
+    }
+
+    /**
+     * Claims due deliveries of the endpoints below their concurrency limit and
+     * hands them to the delivery threads, one request per batch. Must only be
+     * called from one thread at a time.
+     *
+     * @return the number of deliveries claimed
+     */
+    public int dispatchOnce() {
+        LocalDateTime now = LocalDateTime.now();
+        int claimed = 0;
+        for (Target target : repository.findDueTargets(now, targetsPerPoll)) {
+            claimed += dispatch(target, now);
+        }
+        return claimed;
+    }
+
+    private int dispatch(Target target, LocalDateTime now) {
+        int claimed = 0;
+        while (acquire(target)) {
+            List<Delivery> batch;
+            try {
+                batch = claimTransaction.execute(status -> repository.claim(target.id(), batchSize, now,
+                        now.plusSeconds(leaseSeconds)));
+            } catch (RuntimeException e) {
+                release(target);
+                throw e;
+            }
+            if (batch == null || batch.isEmpty()) {
+                release(target);
+                break;
+            }
+            claimed += batch.size();
+            try {
+                deliveryExecutor.execute(() -> {
+                    try {
+                        deliver(target, batch);
+                    } finally {
+                        release(target);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // Shutting down: the lease expires and the batch is sent after restart
+                release(target);
+                break;
+            }
+        }
+        return claimed;
+    }
+
+    private boolean acquire(Target target) {
+        synchronized (inFlight) {
+            int endpointInFlight = inFlight.getOrDefault(target.id(), 0);
+            if (endpointInFlight >= target.maxConcurrency() || !deliverySlots.tryAcquire()) {
+                return false;
+            }
+            inFlight.put(target.id(), endpointInFlight + 1);
+            return true;
+        }
+    }
+
+    private void release(Target target) {
+        synchronized (inFlight) {
+            inFlight.computeIfPresent(target.id(), (id, count) -> count > 1 ? count - 1 : null);
+            deliverySlots.release();
+        }
+    }
+
+    private void deliver(Target target, List<Delivery> batch) {
+        try {
+            List<Delivery> sendable = new ArrayList<>(batch.size());
+            List<Long> expired = new ArrayList<>();
+            for (Delivery delivery : batch) {
+                if (delivery.attempts() > maxAttempts) {
+                    // Its lease expired on every attempt: the dispatcher died or hung each time
+                    expired.add(delivery.id());
+                } else {
+                    sendable.add(delivery);
+                }
+            }
+            park(target, expired, "Lease expired on the last attempt");
+            if (sendable.isEmpty()) {
+                return;
+            }
+
+            String error = post(target, sendable);
+            if (error == null) {
+                repository.deleteAll(sendable.stream().map(Delivery::id).toList());
+                sent.increment(sendable.size());
+            } else {
+                fail(target, sendable, error);
+            }
+        } catch (RuntimeException e) {
+            // The lease expires and the batch is sent again
+            log.error("[Webhooks] Could not settle a batch for endpoint {}", target.id(), e);
+        }
+    }
+
+    /**
+     * @return null if the endpoint accepted the batch, otherwise the failure
+     */
+    private String post(Target target, List<Delivery> batch) {
+        StringBuilder body = new StringBuilder("{\"events\":[");
+        for (int i = 0; i < batch.size(); i++) {
+            body.append(i > 0 ? "," : "").append(batch.get(i).payload());
+        }
+        String json = body.append("]}").toString();
+
+        try {
+            URI uri = URI.create(target.url());
+            String blocked = addressGuard.check(uri.getHost());
+            if (blocked != null) {
+                return blocked;
+            }
+            String secret = encryptionService.decrypt(target.encryptedSecret());
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .timeout(requestTimeout)
+                    .header("Content-Type", "application/json")
+                    .header("User-Agent", USER_AGENT)
+                    .header(WebhookSigner.SIGNATURE_HEADER,
+                            WebhookSigner.signatureHeader(secret, Instant.now().getEpochSecond(), json))
+                    .POST(HttpRequest.BodyPublishers.ofString(json, StandardCharsets.UTF_8))
+                    .build();
+            int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            return status >= 200 && status < 300 ? null : "HTTP " + status;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return e.toString();
+        } catch (Exception e) {
+            return e.toString();
+        }
+    }
+
+    private void fail(Target target, List<Delivery> batch, String error) {
+        failed.increment(batch.size());
+        int attempts = batch.stream().mapToInt(Delivery::attempts).max().orElse(1);
+        long backoff = Math.min(retryBackoffSeconds << Math.min(attempts - 1, 20), maxBackoffSeconds);
+        LocalDateTime retryAt = LocalDateTime.now().plusSeconds(backoff);
+
+        List<Long> retry = new ArrayList<>(batch.size());
+        List<Long> exhausted = new ArrayList<>();
+        for (Delivery delivery : batch) {
+            if (delivery.attempts() >= maxAttempts) {
+                exhausted.add(delivery.id());
+            } else {
+                retry.add(delivery.id());
+            }
+        }
+        log.warn("[Webhooks] Batch of {} events to endpoint {} failed, attempt {} of {}: {}", batch.size(),
+                target.id(), attempts, maxAttempts, error);
+        repository.retryAt(retry, retryAt, error);
+        park(target, exhausted, error);
+        repository.deferEndpoint(target.id(), retryAt);
+    }
+
+    private void park(Target target, List<Long> ids, String error) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        log.error("[Webhooks] Giving up on {} events to endpoint {}: {}", ids.size(), target.id(), error);
+        repository.markFailed(ids, error);
+        parked.increment(ids.size());
+    }
+}
@@ -0,0 +1,37 @@
+package com.invoices.webhook.infrastructure.delivery;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.HexFormat;
+
+/**
+ * Signature of webhook requests, sent in {@value #SIGNATURE_HEADER} as
+ * {@code t=<unix seconds>,v1=<hex HMAC-SHA256 of "<t>.<body>">} keyed with the
+ * endpoint secret. Receivers recompute it over the raw body and reject old
+ * timestamps, so a captured request cannot be replayed later.
+ */
+public final class WebhookSigner {
+
+    public static final String SIGNATURE_HEADER = "X-Webhook-Signature";
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private WebhookSigner() {
+    }
+
+    public static String signatureHeader(String secret, long timestamp, String body) {
+        return "t=" + timestamp + ",v1=" + sign(secret, timestamp, body);
+    }
+
+    public static String sign(String secret, long timestamp, String body) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+            return HexFormat.of().formatHex(mac.doFinal((timestamp + "." + body).getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+}
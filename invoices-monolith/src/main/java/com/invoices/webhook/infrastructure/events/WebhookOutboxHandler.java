@@ -0,0 +1,64 @@
+package com.invoices.webhook.infrastructure.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.invoices.outbox.domain.entities.OutboxEvent;
+import com.invoices.outbox.domain.ports.OutboxEventHandler;
+import com.invoices.webhook.domain.entities.WebhookEvent;
+import com.invoices.webhook.infrastructure.persistence.repositories.WebhookDeliveryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Queues outbox events for the webhook endpoints of their company (see
+ * {@link WebhookEvent}). Only inserts the delivery rows, in the relay
+ * transaction, so each event is queued exactly once and the relay never waits
+ * for a customer endpoint; WebhookDispatcher sends them.
+ *
+ * The event sent is {@code {"id", "type", "createdAt", "data"}}, where id is
+ * the outbox event ID, the same for every endpoint and every retry, and data
+ * the outbox payload.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WebhookOutboxHandler implements OutboxEventHandler {
+
+    private final WebhookDeliveryRepository deliveryRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public boolean supports(String eventType) {
+        return WebhookEvent.fromOutboxEventType(eventType).isPresent();
+    }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        WebhookEvent webhookEvent = WebhookEvent.fromOutboxEventType(event.getEventType()).orElseThrow();
+        JsonNode data;
+        try {
+            data = objectMapper.readTree(event.getPayload());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid payload of outbox event " + event.getId(), e);
+        }
+        JsonNode companyId = data.path("companyId");
+        if (!companyId.canConvertToLong()) {
+            log.warn("[Webhooks] Outbox event {} has no company, not sent", event.getId());
+            return;
+        }
+
+        LocalDateTime createdAt = event.getCreatedAt() != null ? event.getCreatedAt() : LocalDateTime.now();
+        ObjectNode payload = objectMapper.createObjectNode()
+                .put("id", event.getId())
+                .put("type", webhookEvent.name())
+                .put("createdAt", createdAt.toString());
+        payload.set("data", data);
+        deliveryRepository.enqueue(companyId.asLong(), webhookEvent, payload.toString(), createdAt,
+                LocalDateTime.now());
+    }
+}
@@ -0,0 +1,54 @@
+package com.invoices.webhook.infrastructure.persistence.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * JPA Entity for the webhook delivery queue (V52). Only maps the table; rows
+ * are inserted, claimed and deleted through plain SQL
+ * (WebhookDeliveryRepository).
+ */
+@Entity
+@Table(name = "webhook_deliveries", indexes = {
+        @Index(name = "idx_webhook_deliveries_due", columnList = "endpoint_id, next_attempt_at, id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebhookDeliveryJpaEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "endpoint_id", nullable = false)
+    private Long endpointId;
+
+    @Column(name = "event_type", nullable = false, length = 50)
+    private String eventType;
+
+    /** The event as sent, a JSON object */
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "failed_at")
+    private LocalDateTime failedAt;
+}
@@ -0,0 +1,75 @@
+package com.invoices.webhook.infrastructure.persistence.entities;
+
+import com.invoices.shared.infrastructure.security.encryption.EncryptedString;
+import com.invoices.shared.infrastructure.security.encryption.EncryptedStringConverter;
+import com.invoices.webhook.domain.entities.WebhookEvent;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * JPA Entity for webhook endpoints (V52). Their pending deliveries are written
+ * and sent through plain SQL (WebhookDeliveryRepository).
+ */
+@Entity
+@Table(name = "webhook_endpoints", indexes = {
+        @Index(name = "idx_webhook_endpoints_company", columnList = "company_id")
+})
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebhookEndpointJpaEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "company_id", nullable = false)
+    private Long companyId;
+
+    @Column(nullable = false, length = 2000)
+    private String url;
+
+    @Column(nullable = false, length = 500)
+    @Convert(converter = EncryptedStringConverter.class)
+    private EncryptedString secret;
+
+    @Column(length = 255)
+    private String description;
+
+    @Column(name = "max_concurrency", nullable = false)
+    private int maxConcurrency;
+
+    @Column(nullable = false)
+    private boolean active;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "webhook_endpoint_events", joinColumns = @JoinColumn(name = "endpoint_id"))
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", length = 50)
+    @Builder.Default
+    private Set<WebhookEvent> events = EnumSet.noneOf(WebhookEvent.class);
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public String getSecret() {
+        return EncryptedString.plaintextOf(secret);
+    }
+
+    public void setSecret(String secret) {
+        this.secret = EncryptedString.of(secret);
+    }
+}
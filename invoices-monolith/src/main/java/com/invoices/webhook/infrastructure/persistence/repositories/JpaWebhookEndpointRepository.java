@@ -0,0 +1,17 @@
+package com.invoices.webhook.infrastructure.persistence.repositories;
+
+import com.invoices.webhook.infrastructure.persistence.entities.WebhookEndpointJpaEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Spring Data JPA repository for WebhookEndpointJpaEntity.
+ */
+public interface JpaWebhookEndpointRepository extends JpaRepository<WebhookEndpointJpaEntity, Long> {
+
+    List<WebhookEndpointJpaEntity> findByCompanyIdOrderById(Long companyId);
+
+    Optional<WebhookEndpointJpaEntity> findByIdAndCompanyId(Long id, Long companyId);
+}
@@ -0,0 +1,156 @@
+package com.invoices.webhook.infrastructure.persistence.repositories;
+
+import com.invoices.webhook.domain.entities.WebhookEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Storage of the webhook delivery queue (V52), through plain SQL.
+ *
+ * Events are queued with one INSERT ... SELECT per event, whatever the number
+ * of subscribed endpoints. Claiming uses FOR UPDATE SKIP LOCKED, so dispatchers
+ * never wait for each other, and must run in a transaction.
+ */
+@Repository
+public class WebhookDeliveryRepository {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private static final String ENQUEUE_SQL = "INSERT INTO webhook_deliveries (endpoint_id, event_type, payload, "
+            + "created_at, next_attempt_at, attempts) "
+            + "SELECT e.id, ?, ?, ?, ?, 0 FROM webhook_endpoints e "
+            + "JOIN webhook_endpoint_events s ON s.endpoint_id = e.id "
+            + "WHERE e.company_id = ? AND e.active = TRUE AND s.event_type = ?";
+    // Oldest waiting first, so an endpoint with a backlog does not starve the others
+    private static final String DUE_TARGETS_SQL = "SELECT e.id, e.url, e.secret, e.max_concurrency "
+            + "FROM webhook_endpoints e JOIN (SELECT endpoint_id, MIN(next_attempt_at) AS due_at "
+            + "FROM webhook_deliveries WHERE next_attempt_at <= ? AND failed_at IS NULL GROUP BY endpoint_id) d "
+            + "ON d.endpoint_id = e.id WHERE e.active = TRUE ORDER BY d.due_at, e.id LIMIT ?";
+    private static final String CLAIM_SQL = "SELECT id, payload, attempts FROM webhook_deliveries "
+            + "WHERE endpoint_id = ? AND next_attempt_at <= ? AND failed_at IS NULL ORDER BY id LIMIT ? "
+            + "FOR UPDATE SKIP LOCKED";
+    private static final String LEASE_SQL = "UPDATE webhook_deliveries SET attempts = attempts + 1, "
+            + "next_attempt_at = ? WHERE id = ?";
+    private static final String DELETE_SQL = "DELETE FROM webhook_deliveries WHERE id = ?";
+    private static final String RETRY_SQL = "UPDATE webhook_deliveries SET next_attempt_at = ?, last_error = ? "
+            + "WHERE id = ?";
+    private static final String DEFER_SQL = "UPDATE webhook_deliveries SET next_attempt_at = ? "
+            + "WHERE endpoint_id = ? AND next_attempt_at < ? AND failed_at IS NULL";
+    private static final String FAIL_SQL = "UPDATE webhook_deliveries SET failed_at = ?, last_error = ? WHERE id = ?";
+
+    /**
+     * An endpoint with deliveries due; the secret is still encrypted.
+     */
+    public record Target(Long id, String url, String encryptedSecret, int maxConcurrency) {
+    }
+
+    /**
+     * A claimed delivery; attempts includes the one being made.
+     */
+    public record Delivery(Long id, String payload, int attempts) {
+    }
+
+    private static final RowMapper<Target> TARGET_MAPPER = (rs, rowNum) -> new Target(
+            rs.getLong("id"),
+            rs.getString("url"),
+            rs.getString("secret"),
+            rs.getInt("max_concurrency"));
+
+    private static final RowMapper<Delivery> CLAIM_MAPPER = (rs, rowNum) -> new Delivery(
+            rs.getLong("id"),
+            rs.getString("payload"),
+            rs.getInt("attempts") + 1);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public WebhookDeliveryRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Queues an event for every active endpoint of the company subscribed to it.
+     *
+     * @return the number of deliveries queued
+     */
+    public int enqueue(Long companyId, WebhookEvent event, String payload, LocalDateTime createdAt,
+            LocalDateTime sendAt) {
+        return jdbcTemplate.update(ENQUEUE_SQL, event.name(), payload, Timestamp.valueOf(createdAt),
+                Timestamp.valueOf(sendAt), companyId, event.name());
+    }
+
+    /**
+     * Active endpoints with deliveries due, those waiting longest first.
+     */
+    public List<Target> findDueTargets(LocalDateTime now, int limit) {
+        return jdbcTemplate.query(DUE_TARGETS_SQL, TARGET_MAPPER, Timestamp.valueOf(now), limit);
+    }
+
+    /**
+     * Claims up to limit due deliveries of an endpoint, in the order they were
+     * queued, and leases them until leaseUntil.
+     */
+    public List<Delivery> claim(Long endpointId, int limit, LocalDateTime now, LocalDateTime leaseUntil) {
+        List<Delivery> claimed = jdbcTemplate.query(CLAIM_SQL, CLAIM_MAPPER, endpointId, Timestamp.valueOf(now),
+                limit);
+        if (!claimed.isEmpty()) {
+            Timestamp leaseEnd = Timestamp.valueOf(leaseUntil);
+            jdbcTemplate.batchUpdate(LEASE_SQL, claimed, claimed.size(), (ps, delivery) -> {
+                ps.setTimestamp(1, leaseEnd);
+                ps.setLong(2, delivery.id());
+            });
+        }
+        return claimed;
+    }
+
+    public void deleteAll(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(DELETE_SQL, ids, ids.size(), (ps, id) -> ps.setLong(1, id));
+    }
+
+    public void retryAt(List<Long> ids, LocalDateTime nextAttemptAt, String error) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Timestamp retryAt = Timestamp.valueOf(nextAttemptAt);
+        String lastError = truncate(error);
+        jdbcTemplate.batchUpdate(RETRY_SQL, ids, ids.size(), (ps, id) -> {
+            ps.setTimestamp(1, retryAt);
+            ps.setString(2, lastError);
+            ps.setLong(3, id);
+        });
+    }
+
+    /**
+     * Holds back the other pending deliveries of an endpoint until the given
+     * time, so that a failing endpoint is not called again before its backoff
+     * ends.
+     */
+    public void deferEndpoint(Long endpointId, LocalDateTime until) {
+        Timestamp untilTimestamp = Timestamp.valueOf(until);
+        jdbcTemplate.update(DEFER_SQL, untilTimestamp, endpointId, untilTimestamp);
+    }
+
+    public void markFailed(List<Long> ids, String error) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Timestamp failedAt = Timestamp.valueOf(LocalDateTime.now());
+        String lastError = truncate(error);
+        jdbcTemplate.batchUpdate(FAIL_SQL, ids, ids.size(), (ps, id) -> {
+            ps.setTimestamp(1, failedAt);
+            ps.setString(2, lastError);
+            ps.setLong(3, id);
+        });
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
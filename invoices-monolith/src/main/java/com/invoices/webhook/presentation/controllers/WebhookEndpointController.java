@@ -0,0 +1,84 @@
+package com.invoices.webhook.presentation.controllers;
+
+import com.invoices.security.context.CompanyContext;
+import com.invoices.shared.domain.exception.BusinessException;
+import com.invoices.webhook.application.services.WebhookEndpointService;
+import com.invoices.webhook.presentation.dto.WebhookEndpointDTO;
+import com.invoices.webhook.presentation.dto.WebhookEndpointRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller for the webhook endpoints of the current company, managed by
+ * its administrators. Requests are signed as described in WebhookSigner.
+ */
+@RestController
+@RequestMapping("/api/webhooks")
+@RequiredArgsConstructor
+@Slf4j
+@PreAuthorize("@companySecurity.hasCompanyAccess(T(com.invoices.security.context.CompanyContext).getCompanyId(), 'ADMIN')")
+public class WebhookEndpointController {
+
+    private final WebhookEndpointService webhookEndpointService;
+
+    /**
+     * GET /api/webhooks - List webhook endpoints
+     */
+    @GetMapping
+    public ResponseEntity<List<WebhookEndpointDTO>> getWebhookEndpoints() {
+        return ResponseEntity.ok(webhookEndpointService.findAll(companyId()));
+    }
+
+    /**
+     * GET /api/webhooks/{id} - Get a webhook endpoint
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<WebhookEndpointDTO> getWebhookEndpoint(@PathVariable Long id) {
+        return ResponseEntity.ok(webhookEndpointService.find(companyId(), id));
+    }
+
+    /**
+     * POST /api/webhooks - Register a webhook endpoint; the response carries its
+     * signing secret, which is not shown again
+     */
+    @PostMapping
+    public ResponseEntity<WebhookEndpointDTO> createWebhookEndpoint(
+            @Valid @RequestBody WebhookEndpointRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(webhookEndpointService.create(companyId(), request));
+    }
+
+    /**
+     * PUT /api/webhooks/{id} - Change a webhook endpoint
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<WebhookEndpointDTO> updateWebhookEndpoint(@PathVariable Long id,
+            @Valid @RequestBody WebhookEndpointRequest request) {
+        return ResponseEntity.ok(webhookEndpointService.update(companyId(), id, request));
+    }
+
+    /**
+     * DELETE /api/webhooks/{id} - Delete a webhook endpoint and its pending events
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteWebhookEndpoint(@PathVariable Long id) {
+        webhookEndpointService.delete(companyId(), id);
+        return ResponseEntity.noContent().build();
+    }
+
+    private static Long companyId() {
+        Long companyId = CompanyContext.getCompanyId();
+        if (companyId == null) {
+            log.warn("No company context found for webhooks");
+            throw new BusinessException("COMPANY_CONTEXT_REQUIRED", "Company context required", HttpStatus.FORBIDDEN);
+        }
+        return companyId;
+    }
+}
@@ -0,0 +1,32 @@
+package com.invoices.webhook.presentation.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.invoices.webhook.domain.entities.WebhookEvent;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * DTO for a webhook endpoint. The signing secret is only returned when the
+ * endpoint is created.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class WebhookEndpointDTO {
+    private Long id;
+    private String url;
+    private String description;
+    private Set<WebhookEvent> events;
+    private int maxConcurrency;
+    private boolean active;
+    private String secret;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
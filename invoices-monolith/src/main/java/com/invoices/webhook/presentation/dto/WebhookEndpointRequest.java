@@ -0,0 +1,42 @@
+package com.invoices.webhook.presentation.dto;
+
+import com.invoices.webhook.domain.entities.WebhookEvent;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+/**
+ * Request DTO for registering or changing a webhook endpoint.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebhookEndpointRequest {
+
+    @NotBlank(message = "URL is required")
+    @Size(max = 2000, message = "URL must not exceed 2000 characters")
+    private String url;
+
+    @Size(max = 255, message = "Description must not exceed 255 characters")
+    private String description;
+
+    @NotEmpty(message = "At least one event is required")
+    private Set<WebhookEvent> events;
+
+    /** Requests in flight to the endpoint at once; 1 (the default) keeps events in order */
+    @Min(value = 1, message = "Max concurrency must be at least 1")
+    @Max(value = 10, message = "Max concurrency must not exceed 10")
+    private Integer maxConcurrency;
+
+    /** Inactive endpoints keep their pending events until they are activated again */
+    private Boolean active;
+}
@@ -0,0 +1,26 @@
+-- Blind indexes (truncated keyed HMACs) for encrypted personal data, so it can be
+-- searched without decrypting whole tables. *_bidx hashes the normalized value,
+-- *_prefix_bidx its first three normalized characters. Computed by the application;
+-- rows written before this migration are backfilled at startup.
+ALTER TABLE users ADD COLUMN IF NOT EXISTS first_name_bidx VARCHAR(32);
+ALTER TABLE users ADD COLUMN IF NOT EXISTS first_name_prefix_bidx VARCHAR(32);
+ALTER TABLE users ADD COLUMN IF NOT EXISTS last_name_bidx VARCHAR(32);
+ALTER TABLE users ADD COLUMN IF NOT EXISTS last_name_prefix_bidx VARCHAR(32);
+
+ALTER TABLE companies ADD COLUMN IF NOT EXISTS email_bidx VARCHAR(32);
+ALTER TABLE companies ADD COLUMN IF NOT EXISTS email_prefix_bidx VARCHAR(32);
+ALTER TABLE companies ADD COLUMN IF NOT EXISTS phone_bidx VARCHAR(32);
+ALTER TABLE companies ADD COLUMN IF NOT EXISTS phone_prefix_bidx VARCHAR(32);
+
+CREATE INDEX IF NOT EXISTS idx_users_first_name_bidx ON users(first_name_bidx);
+CREATE INDEX IF NOT EXISTS idx_users_first_name_prefix_bidx ON users(first_name_prefix_bidx);
+CREATE INDEX IF NOT EXISTS idx_users_last_name_bidx ON users(last_name_bidx);
+CREATE INDEX IF NOT EXISTS idx_users_last_name_prefix_bidx ON users(last_name_prefix_bidx);
+
+CREATE INDEX IF NOT EXISTS idx_companies_email_bidx ON companies(email_bidx);
+CREATE INDEX IF NOT EXISTS idx_companies_email_prefix_bidx ON companies(email_prefix_bidx);
+CREATE INDEX IF NOT EXISTS idx_companies_phone_bidx ON companies(phone_bidx);
+CREATE INDEX IF NOT EXISTS idx_companies_phone_prefix_bidx ON companies(phone_prefix_bidx);
+
+-- first_name/last_name hold random-IV ciphertext, so this index can never be used
+DROP INDEX IF EXISTS idx_users_names;
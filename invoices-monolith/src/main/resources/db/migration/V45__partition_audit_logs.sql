@@ -0,0 +1,63 @@
+-- Monthly range partitioning of audit_logs on created_at, so that retention can
+-- drop whole months instead of deleting rows. Partitions are named
+-- audit_logs_pYYYYMM; AuditLogPartitionJob creates upcoming months and archives
+-- and drops months past retention. audit_logs_default catches rows outside every
+-- month, so inserts keep working if the job has not run for a while. The primary key must include the partition
+-- key, hence (id, created_at); ids keep coming from the existing sequence.
+ALTER TABLE audit_logs RENAME TO audit_logs_unpartitioned;
+ALTER TABLE audit_logs_unpartitioned RENAME CONSTRAINT audit_logs_pkey TO audit_logs_unpartitioned_pkey;
+
+CREATE TABLE audit_logs (
+    id BIGINT NOT NULL DEFAULT nextval('audit_logs_id_seq'),
+    event_type VARCHAR(50) NOT NULL,
+    invoice_id BIGINT,
+    invoice_number VARCHAR(50),
+    client_id BIGINT,
+    client_email VARCHAR(255),
+    total DECIMAL(10,2),
+    status VARCHAR(20),
+    event_data JSONB,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    company_id BIGINT,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- One partition per month from the oldest row to three months ahead
+DO $$
+DECLARE
+    first_month DATE;
+    last_month DATE;
+    partition_month DATE;
+BEGIN
+    SELECT date_trunc('month', COALESCE(MIN(created_at), NOW()))::date,
+           date_trunc('month', GREATEST(COALESCE(MAX(created_at), NOW()), NOW() + INTERVAL '3 months'))::date
+      INTO first_month, last_month
+      FROM audit_logs_unpartitioned;
+
+    partition_month := first_month;
+    WHILE partition_month <= last_month LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF audit_logs FOR VALUES FROM (%L) TO (%L)',
+                       'audit_logs_p' || to_char(partition_month, 'YYYYMM'),
+                       partition_month, (partition_month + INTERVAL '1 month')::date);
+        partition_month := (partition_month + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+CREATE TABLE audit_logs_default PARTITION OF audit_logs DEFAULT;
+
+INSERT INTO audit_logs (id, event_type, invoice_id, invoice_number, client_id, client_email, total, status,
+                        event_data, created_at, company_id)
+SELECT id, event_type, invoice_id, invoice_number, client_id, client_email, total, status,
+       event_data, created_at, company_id
+  FROM audit_logs_unpartitioned;
+
+ALTER SEQUENCE audit_logs_id_seq OWNED BY audit_logs.id;
+DROP TABLE audit_logs_unpartitioned;
+
+-- Created on the parent, so every partition (including future ones) gets them.
+-- All audit lookups filter on one column and sort by created_at.
+CREATE INDEX idx_audit_logs_invoice_id ON audit_logs(invoice_id, created_at DESC);
+CREATE INDEX idx_audit_logs_client_id ON audit_logs(client_id, created_at DESC);
+CREATE INDEX idx_audit_logs_company_id ON audit_logs(company_id, created_at DESC);
+CREATE INDEX idx_audit_logs_event_type ON audit_logs(event_type, created_at DESC);
+CREATE INDEX idx_audit_logs_created_at ON audit_logs(created_at DESC);
@@ -0,0 +1,20 @@
+-- Audit trails are paged by keyset on (created_at, id), newest first. With id as
+-- the last key column each filtered page is a single ordered index range scan,
+-- including pages that start in the middle of a run of equal timestamps.
+DROP INDEX IF EXISTS idx_audit_logs_invoice_id;
+DROP INDEX IF EXISTS idx_audit_logs_client_id;
+DROP INDEX IF EXISTS idx_audit_logs_company_id;
+DROP INDEX IF EXISTS idx_audit_logs_event_type;
+DROP INDEX IF EXISTS idx_audit_logs_created_at;
+
+CREATE INDEX idx_audit_logs_invoice_id ON audit_logs(invoice_id, created_at DESC, id DESC);
+CREATE INDEX idx_audit_logs_client_id ON audit_logs(client_id, created_at DESC, id DESC);
+CREATE INDEX idx_audit_logs_company_id ON audit_logs(company_id, created_at DESC, id DESC);
+CREATE INDEX idx_audit_logs_event_type ON audit_logs(event_type, created_at DESC, id DESC);
+CREATE INDEX idx_audit_logs_created_at ON audit_logs(created_at DESC, id DESC);
+
+-- Users only read their own company's logs, so the invoice, client and event
+-- type filters are also served within one company.
+CREATE INDEX idx_audit_logs_company_invoice_id ON audit_logs(company_id, invoice_id, created_at DESC, id DESC);
+CREATE INDEX idx_audit_logs_company_client_id ON audit_logs(company_id, client_id, created_at DESC, id DESC);
+CREATE INDEX idx_audit_logs_company_event_type ON audit_logs(company_id, event_type, created_at DESC, id DESC);
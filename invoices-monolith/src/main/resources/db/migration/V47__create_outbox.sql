@@ -0,0 +1,20 @@
+-- Transactional outbox: domain events are inserted in the same transaction as
+-- the change they describe and handed off afterwards by OutboxRelay, which
+-- deletes each row once delivered. Events of one aggregate are delivered in id
+-- order; a failed event is retried at available_at and holds back the later
+-- events of its aggregate.
+CREATE TABLE outbox (
+    id BIGSERIAL PRIMARY KEY,
+    aggregate_type VARCHAR(50) NOT NULL,
+    aggregate_id VARCHAR(64) NOT NULL,
+    event_type VARCHAR(64) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    available_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    attempts INT NOT NULL DEFAULT 0,
+    last_error VARCHAR(1000)
+);
+
+-- Head-of-aggregate lookup made by every relay claim
+CREATE INDEX idx_outbox_aggregate ON outbox(aggregate_type, aggregate_id, id);
+CREATE INDEX idx_outbox_available_at ON outbox(available_at);
@@ -0,0 +1,18 @@
+-- PostgreSQL work queue for VeriFactu verification (verifactu.transport=postgres).
+-- A job is runnable once run_at has passed. Claiming a job moves run_at forward
+-- by the visibility timeout, so a job whose worker died is claimed again later.
+-- Failed jobs are rescheduled with backoff; after the last attempt failed_at is
+-- set and the job is kept for inspection.
+CREATE TABLE verifactu_jobs (
+    id BIGSERIAL PRIMARY KEY,
+    invoice_id BIGINT NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    outbox_id BIGINT,
+    run_at TIMESTAMP NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    last_error VARCHAR(1000),
+    failed_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_verifactu_jobs_run_at ON verifactu_jobs(run_at, id);
@@ -0,0 +1,28 @@
+-- Outgoing email, inserted in the sender's transaction with the body already
+-- rendered and sent afterwards by EmailOutboxDispatcher, which deletes each row
+-- once delivered. Claiming a row moves next_attempt_at forward by a lease, so a
+-- message whose dispatcher died is sent again later. Failed messages are
+-- retried with backoff; after the last attempt failed_at is set and the row is
+-- kept for inspection.
+--
+-- Rows sharing recipient and coalesce_key (e.g. VeriFactu failure alerts) that
+-- are pending together are sent as one digest of their summary lines.
+CREATE TABLE email_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    channel VARCHAR(20) NOT NULL,
+    recipient VARCHAR(320) NOT NULL,
+    subject VARCHAR(998) NOT NULL,
+    body TEXT NOT NULL,
+    html BOOLEAN NOT NULL DEFAULT FALSE,
+    coalesce_key VARCHAR(100),
+    digest_title VARCHAR(200),
+    summary VARCHAR(1000),
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    attempts INT NOT NULL DEFAULT 0,
+    last_error VARCHAR(1000),
+    failed_at TIMESTAMP
+);
+
+CREATE INDEX idx_email_outbox_next_attempt_at ON email_outbox(next_attempt_at, id);
+CREATE INDEX idx_email_outbox_coalesce ON email_outbox(recipient, coalesce_key);
@@ -0,0 +1,30 @@
+-- Bulk invoice imports (POST /api/invoices/imports). Rows are committed in
+-- chunks; each chunk also advances last_line and records the outcome of its
+-- rows, so an interrupted import resumes after its last committed row when the
+-- same file is sent again.
+CREATE TABLE invoice_imports (
+    id VARCHAR(36) PRIMARY KEY,
+    company_id BIGINT NOT NULL,
+    format VARCHAR(10) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    last_line BIGINT NOT NULL DEFAULT 0,
+    created_count INT NOT NULL DEFAULT 0,
+    rejected_count INT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_invoice_imports_company ON invoice_imports(company_id);
+
+-- Outcome of every imported row: the invoice created from it, or the reason it
+-- was rejected. line is the line of the file where the invoice starts.
+CREATE TABLE invoice_import_results (
+    id BIGSERIAL PRIMARY KEY,
+    import_id VARCHAR(36) NOT NULL REFERENCES invoice_imports(id) ON DELETE CASCADE,
+    line BIGINT NOT NULL,
+    invoice_id BIGINT,
+    invoice_number VARCHAR(50),
+    error VARCHAR(1000)
+);
+
+CREATE UNIQUE INDEX uk_invoice_import_results_line ON invoice_import_results(import_id, line);
@@ -0,0 +1,47 @@
+-- Recurring invoices: a template of an invoice issued to a client every
+-- frequency, from start_date until end_date (inclusive, open-ended if null).
+-- next_run_date is start_date plus occurrences periods; the nightly run
+-- generates every active template with next_run_date up to today and moves it
+-- one period ahead, deactivating it once it passes end_date. The invoices are
+-- recorded as created by the user who created the template, as the run has no
+-- authenticated user.
+CREATE TABLE recurring_invoices (
+    id BIGSERIAL PRIMARY KEY,
+    company_id BIGINT NOT NULL REFERENCES companies(id) ON DELETE CASCADE,
+    client_id BIGINT NOT NULL REFERENCES clients(id) ON DELETE CASCADE,
+    created_by_user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    frequency VARCHAR(20) NOT NULL,
+    start_date DATE NOT NULL,
+    end_date DATE,
+    next_run_date DATE NOT NULL,
+    occurrences INT NOT NULL DEFAULT 0,
+    active BOOLEAN NOT NULL DEFAULT TRUE,
+    irpf_percentage DECIMAL(5,2) NOT NULL DEFAULT 0,
+    re_percentage DECIMAL(5,2) NOT NULL DEFAULT 0,
+    notes TEXT,
+    last_invoice_id BIGINT,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_recurring_invoices_company ON recurring_invoices(company_id);
+-- Due templates of a company, for the nightly run
+CREATE INDEX idx_recurring_invoices_due ON recurring_invoices(company_id, next_run_date) WHERE active;
+
+-- Lines copied to every invoice generated from a template, in position order
+CREATE TABLE recurring_invoice_items (
+    id BIGSERIAL PRIMARY KEY,
+    recurring_invoice_id BIGINT NOT NULL REFERENCES recurring_invoices(id) ON DELETE CASCADE,
+    position INT NOT NULL,
+    description VARCHAR(500) NOT NULL,
+    units INT NOT NULL,
+    price DECIMAL(10,2) NOT NULL,
+    vat_percentage DECIMAL(5,2) NOT NULL,
+    discount_percentage DECIMAL(5,2) NOT NULL DEFAULT 0,
+    vehicle_plate VARCHAR(50),
+    order_number VARCHAR(50),
+    zone VARCHAR(100),
+    gas_percentage DECIMAL(5,2)
+);
+
+CREATE INDEX idx_recurring_invoice_items_template ON recurring_invoice_items(recurring_invoice_id);
@@ -0,0 +1,44 @@
+-- Outbound webhooks: HTTPS endpoints registered by a company and the events
+-- each one subscribes to.
+CREATE TABLE webhook_endpoints (
+    id BIGSERIAL PRIMARY KEY,
+    company_id BIGINT NOT NULL REFERENCES companies(id) ON DELETE CASCADE,
+    url VARCHAR(2000) NOT NULL,
+    -- Key of the HMAC-SHA256 signature, encrypted with security.encryption.key
+    secret VARCHAR(500) NOT NULL,
+    description VARCHAR(255),
+    -- Requests in flight to the endpoint at once (per instance)
+    max_concurrency INT NOT NULL DEFAULT 1,
+    active BOOLEAN NOT NULL DEFAULT TRUE,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_webhook_endpoints_company ON webhook_endpoints(company_id);
+
+CREATE TABLE webhook_endpoint_events (
+    endpoint_id BIGINT NOT NULL REFERENCES webhook_endpoints(id) ON DELETE CASCADE,
+    event_type VARCHAR(50) NOT NULL,
+    PRIMARY KEY (endpoint_id, event_type)
+);
+
+-- Events waiting to be delivered, one row per subscribed endpoint, inserted by
+-- WebhookOutboxHandler in the outbox relay transaction and POSTed in batches by
+-- WebhookDispatcher, which deletes them once the endpoint answers 2xx. Claiming
+-- a row counts an attempt and moves next_attempt_at forward by a lease, so an
+-- event whose dispatcher died is sent again later. Failed rows are retried with
+-- backoff; after the last attempt failed_at is set and the row is kept for
+-- inspection.
+CREATE TABLE webhook_deliveries (
+    id BIGSERIAL PRIMARY KEY,
+    endpoint_id BIGINT NOT NULL REFERENCES webhook_endpoints(id) ON DELETE CASCADE,
+    event_type VARCHAR(50) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    attempts INT NOT NULL DEFAULT 0,
+    last_error VARCHAR(1000),
+    failed_at TIMESTAMP
+);
+
+CREATE INDEX idx_webhook_deliveries_due ON webhook_deliveries(endpoint_id, next_attempt_at, id);
@@ -0,0 +1,6 @@
+-- Refresh tokens issued by rotating one another share a family, so reuse of a
+-- rotated token revokes that login's tokens only. Tokens issued before this
+-- migration have no family; reuse of one of them revokes all of the user's tokens.
+ALTER TABLE refresh_tokens ADD COLUMN IF NOT EXISTS family_id VARCHAR(36);
+
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_family_id ON refresh_tokens(family_id);
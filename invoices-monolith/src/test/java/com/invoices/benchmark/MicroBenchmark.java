@@ -0,0 +1,91 @@
+package com.invoices.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Minimal in-process benchmark harness shared by the {@code *BenchmarkTest} classes.
+ *
+ * Benchmarks are skipped in the regular build and only run on demand:
+ * <pre>
+ * mvn test -Dbenchmark=true -Dtest=PdfGenerationBenchmarkTest
+ * </pre>
+ * Latency is measured per operation with {@link System#nanoTime()} and allocation
+ * through the HotSpot per-thread allocation counter, so numbers are comparable
+ * between two implementations run in the same JVM, not absolute.
+ */
+public final class MicroBenchmark {
+
+    public static final String ENABLED_PROPERTY = "benchmark";
+
+    private MicroBenchmark() {
+    }
+
+    @FunctionalInterface
+    public interface Operation {
+        void run() throws Exception;
+    }
+
+    public static Result run(String name, int warmupIterations, int iterations, Operation operation)
+            throws Exception {
+        for (int i = 0; i < warmupIterations; i++) {
+            operation.run();
+        }
+
+        long[] samples = new long[iterations];
+        long allocatedBefore = allocatedBytes();
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            operation.run();
+            samples[i] = System.nanoTime() - start;
+        }
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        Result result = new Result(name, iterations, samples, allocated / iterations);
+        System.out.println(result);
+        return result;
+    }
+
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean) {
+            return bean.getThreadAllocatedBytes(Thread.currentThread().threadId());
+        }
+        return 0L;
+    }
+
+    public static final class Result {
+        private final String name;
+        private final int iterations;
+        private final double meanMicros;
+        private final double p50Micros;
+        private final double p99Micros;
+        private final long bytesPerOp;
+
+        private Result(String name, int iterations, long[] samples, long bytesPerOp) {
+            long[] sorted = samples.clone();
+            Arrays.sort(sorted);
+            this.name = name;
+            this.iterations = iterations;
+            this.meanMicros = Arrays.stream(sorted).average().orElse(0) / 1_000d;
+            this.p50Micros = sorted[(int) (sorted.length * 0.50)] / 1_000d;
+            this.p99Micros = sorted[Math.min(sorted.length - 1, (int) (sorted.length * 0.99))] / 1_000d;
+            this.bytesPerOp = bytesPerOp;
+        }
+
+        public double meanMicros() {
+            return meanMicros;
+        }
+
+        public long bytesPerOp() {
+            return bytesPerOp;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "[benchmark] %-40s n=%-6d mean=%10.1fus p50=%10.1fus p99=%10.1fus alloc=%,d B/op",
+                    name, iterations, meanMicros, p50Micros, p99Micros, bytesPerOp);
+        }
+    }
+}
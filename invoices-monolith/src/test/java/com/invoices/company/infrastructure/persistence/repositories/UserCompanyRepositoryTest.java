@@ -5,6 +5,8 @@ import com.invoices.company.infrastructure.persistence.entities.UserCompanyId;
 import com.invoices.invoice.infrastructure.persistence.entities.CompanyJpaEntity;
 import com.invoices.user.infrastructure.persistence.entities.UserJpaEntity;
 import com.invoices.shared.domain.ports.EncryptionService;
+import com.invoices.shared.infrastructure.security.encryption.BlindIndexListener;
+import com.invoices.shared.infrastructure.security.encryption.BlindIndexer;
 import com.invoices.shared.infrastructure.security.encryption.EncryptedStringConverter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -46,6 +48,7 @@ class UserCompanyRepositoryTest {
         // Manually inject into the static field of the converter
         // We create a new instance just to call the setter, which sets the static field
         new EncryptedStringConverter().setEncryptionService(encryptionService);
+        new BlindIndexListener().setBlindIndexer(new BlindIndexer("MDEyMzQ1Njc4OWFiY2RlZjAxMjM0NTY3ODlhYmNkZWY="));
     }
 
     @Test
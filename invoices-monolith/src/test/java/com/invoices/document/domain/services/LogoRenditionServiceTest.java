@@ -0,0 +1,108 @@
+package com.invoices.document.domain.services;
+
+import com.invoices.document.domain.entities.FileContent;
+import com.invoices.document.domain.entities.LogoRendition;
+import com.invoices.document.domain.ports.FileStorageService;
+import com.invoices.document.exception.InvalidFileTypeException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LogoRenditionServiceTest {
+
+    private static final String OBJECT_NAME = "logos/company-7-1718000000000.png";
+
+    @Mock
+    private FileStorageService fileStorageService;
+
+    @InjectMocks
+    private LogoRenditionService logoRenditionService;
+
+    @Test
+    void shouldStoreOriginalAndBoundedRenditions() throws IOException {
+        // Given
+        byte[] original = png(1800, 600, BufferedImage.TYPE_INT_ARGB);
+
+        // When
+        logoRenditionService.storeWithRenditions(OBJECT_NAME, original);
+
+        // Then
+        ArgumentCaptor<FileContent> content = ArgumentCaptor.forClass(FileContent.class);
+        verify(fileStorageService).storeFile(eq(OBJECT_NAME), any());
+        verify(fileStorageService).storeFile(eq("logos/company-7-1718000000000-pdf.png"), content.capture());
+        BufferedImage pdf = read(content.getValue());
+        assertEquals(600, pdf.getWidth());
+        assertEquals(200, pdf.getHeight());
+        assertTrue(pdf.getColorModel().hasAlpha());
+
+        verify(fileStorageService).storeFile(eq("logos/company-7-1718000000000-thumb.png"), content.capture());
+        BufferedImage thumbnail = read(content.getValue());
+        assertEquals(240, thumbnail.getWidth());
+        assertEquals(80, thumbnail.getHeight());
+    }
+
+    @Test
+    void shouldNotUpscaleSmallLogos() throws IOException {
+        // Given
+        byte[] original = png(120, 40, BufferedImage.TYPE_INT_RGB);
+
+        // When
+        byte[] rendition = logoRenditionService.backfill(OBJECT_NAME, original, LogoRendition.PDF);
+
+        // Then
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(rendition));
+        assertEquals(120, image.getWidth());
+        assertEquals(40, image.getHeight());
+        verify(fileStorageService).storeFile(eq("logos/company-7-1718000000000-pdf.png"), any());
+    }
+
+    @Test
+    void shouldRejectDataThatIsNotAnImage() {
+        // When/Then
+        assertThrows(InvalidFileTypeException.class,
+                () -> logoRenditionService.storeWithRenditions(OBJECT_NAME, "not an image".getBytes()));
+        verifyNoInteractions(fileStorageService);
+    }
+
+    @Test
+    void shouldDeleteRenditionsEvenIfOneDeletionFails() {
+        // Given
+        doThrow(new RuntimeException("boom")).when(fileStorageService)
+                .deleteFile("logos/company-7-1718000000000-pdf.png");
+
+        // When
+        logoRenditionService.deleteWithRenditions(OBJECT_NAME);
+
+        // Then
+        verify(fileStorageService).deleteFile("logos/company-7-1718000000000-thumb.png");
+        verify(fileStorageService).deleteFile(OBJECT_NAME);
+    }
+
+    private static byte[] png(int width, int height, int type) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, type), "png", out);
+        return out.toByteArray();
+    }
+
+    private static BufferedImage read(FileContent content) throws IOException {
+        try (InputStream in = content.getInputStream()) {
+            return ImageIO.read(in);
+        }
+    }
+}
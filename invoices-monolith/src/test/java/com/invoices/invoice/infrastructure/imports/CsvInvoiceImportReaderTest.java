@@ -0,0 +1,82 @@
+package com.invoices.invoice.infrastructure.imports;
+
+import com.invoices.invoice.dto.CreateInvoiceRequest;
+import com.invoices.shared.domain.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvInvoiceImportReaderTest {
+
+    @Test
+    void shouldGroupConsecutiveRecordsOfTheSameInvoice() throws IOException {
+        List<InvoiceImportRow> rows = read(
+                "invoice,clientId,description,units,price,vatPercentage\n"
+                        + "A,1,First,1,10.00,21\n"
+                        + "A,1,Second,2,5.00,21\n"
+                        + "B,2,Third,1,7.50,10\n");
+
+        assertThat(rows).extracting(InvoiceImportRow::line).containsExactly(2L, 4L);
+        assertThat(rows.get(0).request().getItems()).extracting("description").containsExactly("First", "Second");
+        assertThat(rows.get(1).request().getClientId()).isEqualTo(2L);
+    }
+
+    @Test
+    void shouldReadQuotedFieldsAcrossLines() throws IOException {
+        List<InvoiceImportRow> rows = read(
+                "clientId,notes,description,units,price,vatPercentage\r\n"
+                        + "1,\"Paid by \"\"transfer\"\",\nsee contract\",Route,1,10,21\r\n"
+                        + "\r\n"
+                        + "1,,Route,1,10,21\r\n");
+
+        assertThat(rows).extracting(InvoiceImportRow::line).containsExactly(2L, 5L);
+        assertThat(rows.get(0).request().getNotes()).isEqualTo("Paid by \"transfer\",\nsee contract");
+    }
+
+    @Test
+    void shouldReadSemicolonsWithDecimalCommas() throws IOException {
+        List<InvoiceImportRow> rows = read(
+                "\uFEFFclientId;description;units;price;vatPercentage;irpfPercentage\n"
+                        + "1;Route;1;12,50;21;15\n");
+
+        CreateInvoiceRequest request = rows.get(0).request();
+        assertThat(request.getItems().get(0).getPrice()).isEqualByComparingTo("12.50");
+        assertThat(request.getIrpfPercentage()).isEqualByComparingTo("15");
+    }
+
+    @Test
+    void shouldReportUnparseableValuesWithTheirLine() throws IOException {
+        List<InvoiceImportRow> rows = read(
+                "clientId,description,units,price,vatPercentage\n"
+                        + "1,Route,many,10,21\n");
+
+        assertThat(rows.get(0).request()).isNull();
+        assertThat(rows.get(0).error()).isEqualTo("Invalid units 'many' on line 2");
+    }
+
+    @Test
+    void shouldRejectHeaderWithoutRequiredColumns() {
+        assertThatThrownBy(() -> read("clientId,description\n1,Route\n"))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("units");
+    }
+
+    private static List<InvoiceImportRow> read(String csv) throws IOException {
+        List<InvoiceImportRow> rows = new ArrayList<>();
+        try (CsvInvoiceImportReader reader = new CsvInvoiceImportReader(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)))) {
+            InvoiceImportRow row;
+            while ((row = reader.next()) != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
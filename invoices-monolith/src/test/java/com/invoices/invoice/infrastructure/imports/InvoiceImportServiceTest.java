@@ -0,0 +1,246 @@
+package com.invoices.invoice.infrastructure.imports;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invoices.invoice.domain.entities.Client;
+import com.invoices.invoice.domain.entities.Company;
+import com.invoices.invoice.domain.entities.Invoice;
+import com.invoices.invoice.domain.entities.InvoiceItem;
+import com.invoices.invoice.domain.ports.ClientRepository;
+import com.invoices.invoice.domain.ports.CompanyRepository;
+import com.invoices.invoice.domain.ports.InvoiceRepository;
+import com.invoices.invoice.presentation.controllers.InvoiceImportController;
+import com.invoices.security.context.CompanyContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Bulk import through its controller against the test database, in chunks of
+ * two invoices.
+ */
+@SpringBootTest(properties = "invoice-import.chunk-size=2")
+@ActiveProfiles("test")
+@Transactional
+class InvoiceImportServiceTest {
+
+    @org.springframework.boot.test.context.TestConfiguration
+    static class TestConfig {
+        @org.springframework.context.annotation.Bean
+        @org.springframework.context.annotation.Primary
+        public io.minio.MinioClient testMinioClient() {
+            return org.mockito.Mockito.mock(io.minio.MinioClient.class);
+        }
+
+        @org.springframework.context.annotation.Bean
+        public com.invoices.document.config.MinioConfig.MinioProperties minioProperties() {
+            com.invoices.document.config.MinioConfig.MinioProperties properties = new com.invoices.document.config.MinioConfig.MinioProperties();
+            properties.setBucketName("test-bucket");
+            properties.setEndpoint("http://localhost:9000");
+            properties.setAccessKey("test");
+            properties.setSecretKey("test");
+            return properties;
+        }
+
+        @SuppressWarnings("unchecked")
+        @org.springframework.context.annotation.Bean
+        public org.springframework.data.redis.core.RedisTemplate<String, Object> redisTemplate() {
+            return org.mockito.Mockito.mock(org.springframework.data.redis.core.RedisTemplate.class);
+        }
+
+        @org.springframework.context.annotation.Bean
+        @org.springframework.context.annotation.Primary
+        public org.springframework.mail.javamail.JavaMailSender javaMailSender() {
+            return org.mockito.Mockito.mock(org.springframework.mail.javamail.JavaMailSender.class);
+        }
+    }
+
+    private static final String YEAR = String.valueOf(Year.now().getValue());
+
+    @Autowired
+    private InvoiceImportService importService;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MockMvc mockMvc;
+    private Company company;
+    private Client client;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new InvoiceImportController(importService, objectMapper)).build();
+
+        long unique = System.nanoTime();
+        company = companyRepository.save(new Company(null, "Import Test S.L.", "B" + (unique % 100000000),
+                "Address", "City", "12345", "Province", "123456789", "import@test.com",
+                "ES12345678901234567890"));
+        client = clientRepository.save(new Client(null, "Import Client", "A" + (unique % 100000000),
+                "Address", "City", "54321", "Province", "987654321", "client@import.test", company.getId()));
+        CompanyContext.setCompanyId(company.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        CompanyContext.clear();
+    }
+
+    @Test
+    void importCsv_ShouldNumberAndChainInvoicesAndReportEveryRow() throws Exception {
+        String csv = String.join("\n",
+                "invoice,clientId,notes,description,units,price,vatPercentage",
+                "A," + client.getId() + ",\"Transport, March\",Route 1,2,100.00,21",
+                "A," + client.getId() + ",,Route 2,1,50.00,21",
+                "B,999999,,Route 3,1,10.00,21",
+                "C," + client.getId() + ",,Route 4,3,20.00,10",
+                "D," + client.getId() + ",,Route 5,1,5.00,21");
+
+        MockHttpServletResponse response = mockMvc.perform(post("/api/invoices/imports")
+                .contentType("text/csv")
+                .content(csv))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+
+        List<JsonNode> lines = lines(response);
+        assertThat(lines).hasSize(5);
+        assertThat(lines.get(0).get("line").asLong()).isEqualTo(2);
+        assertThat(lines.get(0).get("invoiceNumber").asText()).isEqualTo("001/" + YEAR);
+        assertThat(lines.get(1).get("line").asLong()).isEqualTo(4);
+        assertThat(lines.get(1).get("error").asText()).contains("Client not found");
+        assertThat(lines.get(2).get("invoiceNumber").asText()).isEqualTo("002/" + YEAR);
+        assertThat(lines.get(3).get("invoiceNumber").asText()).isEqualTo("003/" + YEAR);
+        JsonNode summary = lines.get(4);
+        assertThat(summary.get("status").asText()).isEqualTo("COMPLETED");
+        assertThat(summary.get("created").asInt()).isEqualTo(3);
+        assertThat(summary.get("rejected").asInt()).isEqualTo(1);
+        assertThat(response.getHeader(HttpHeaders.LOCATION))
+                .isEqualTo("/api/invoices/imports/" + summary.get("importId").asText());
+
+        List<Invoice> invoices = invoices();
+        assertThat(invoices).hasSize(3);
+        Invoice grouped = invoices.get(0);
+        assertThat(grouped.getItems()).hasSize(2);
+        assertThat(grouped.getNotes()).isEqualTo("Transport, March");
+        assertThat(grouped.getTotalAmount()).isEqualByComparingTo("302.50");
+
+        assertThat(invoices.get(0).getLastHashBefore()).isNull();
+        assertThat(invoices.get(1).getLastHashBefore()).isEqualTo(invoices.get(0).getHash());
+        assertThat(invoices.get(2).getLastHashBefore()).isEqualTo(invoices.get(1).getHash());
+        assertThat(companyRepository.findById(company.getId()).orElseThrow().getLastHash())
+                .isEqualTo(invoices.get(2).getHash());
+    }
+
+    @Test
+    void importNdjson_ShouldResumeAfterTheLastCommittedChunk() throws Exception {
+        List<String> rows = new ArrayList<>();
+        for (int units = 1; units <= 4; units++) {
+            rows.add("{\"clientId\":" + client.getId() + ",\"items\":[{\"description\":\"Route\",\"units\":"
+                    + units + ",\"price\":10,\"vatPercentage\":21}]}");
+        }
+        InvoiceImport started = importService.start(company.getId(), InvoiceImportFormat.NDJSON);
+
+        // The connection drops after the first two lines (one chunk)
+        InputStream interrupted = new SequenceInputStream(
+                new ByteArrayInputStream((rows.get(0) + "\n" + rows.get(1) + "\n").getBytes(StandardCharsets.UTF_8)),
+                new InputStream() {
+                    @Override
+                    public int read() throws IOException {
+                        throw new IOException("Connection reset");
+                    }
+                });
+        List<InvoiceImportResult> firstResults = new ArrayList<>();
+        assertThatThrownBy(() -> importService.run(started, interrupted, firstResults::add))
+                .isInstanceOf(IOException.class);
+        assertThat(firstResults).extracting(InvoiceImportResult::line).containsExactly(1L, 2L);
+
+        List<JsonNode> lines = lines(mockMvc.perform(post("/api/invoices/imports")
+                .param("importId", started.getId())
+                .contentType(InvoiceImportController.APPLICATION_NDJSON_VALUE)
+                .content(String.join("\n", rows)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse());
+
+        assertThat(lines).hasSize(3);
+        assertThat(lines.get(0).get("line").asLong()).isEqualTo(3);
+        assertThat(lines.get(1).get("invoiceNumber").asText()).isEqualTo("004/" + YEAR);
+        assertThat(lines.get(2).get("created").asInt()).isEqualTo(4);
+        assertThat(invoices()).extracting(invoice -> invoice.getItems().get(0).getUnits())
+                .containsExactly(1, 2, 3, 4);
+
+        List<JsonNode> results = lines(mockMvc.perform(get("/api/invoices/imports/{id}/results", started.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse());
+        assertThat(results).extracting(result -> result.get("line").asLong()).containsExactly(1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    void importNdjson_ShouldNumberPastNineHundredNinetyNine() throws Exception {
+        Invoice last = new Invoice(null, company.getId(), client.getId(), "999/" + YEAR, LocalDateTime.now(),
+                BigDecimal.ZERO, BigDecimal.ZERO);
+        last.addItem(new InvoiceItem(null, null, "Route", 1, BigDecimal.TEN, BigDecimal.ZERO, BigDecimal.ZERO));
+        invoiceRepository.save(last);
+
+        String row = "{\"clientId\":" + client.getId()
+                + ",\"items\":[{\"description\":\"Route\",\"units\":1,\"price\":10,\"vatPercentage\":21}]}";
+        List<JsonNode> lines = lines(mockMvc.perform(post("/api/invoices/imports")
+                .contentType(InvoiceImportController.APPLICATION_NDJSON_VALUE)
+                .content(row + "\n" + row))
+                .andExpect(status().isOk())
+                .andReturn().getResponse());
+
+        assertThat(lines.get(0).get("invoiceNumber").asText()).isEqualTo("1000/" + YEAR);
+        assertThat(lines.get(1).get("invoiceNumber").asText()).isEqualTo("1001/" + YEAR);
+    }
+
+    private List<Invoice> invoices() {
+        return invoiceRepository.findByCompanyId(company.getId()).stream()
+                .map(invoice -> invoiceRepository.findById(invoice.getId()).orElseThrow())
+                .sorted(Comparator.comparing(Invoice::getId))
+                .toList();
+    }
+
+    private List<JsonNode> lines(MockHttpServletResponse response) throws Exception {
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : Arrays.stream(response.getContentAsString().split("\n")).filter(l -> !l.isBlank())
+                .toList()) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+}
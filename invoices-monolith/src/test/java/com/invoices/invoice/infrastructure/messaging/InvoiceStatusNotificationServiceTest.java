@@ -1,145 +1,127 @@
 package com.invoices.invoice.infrastructure.messaging;
 
+import com.invoices.invoice.domain.entities.Invoice;
+import com.invoices.invoice.domain.ports.InvoiceRepository;
+import com.invoices.invoice.infrastructure.status.InvoiceStatusBroadcaster;
+import com.invoices.invoice.infrastructure.status.InvoiceStatusEvent;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 
 import java.util.Map;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * Unit test for InvoiceStatusNotificationService using mocks.
- * 
- * This test verifies the business logic without requiring actual WebSocket
- * connectivity.
- * Preferred over integration tests due to WebSocket testing limitations in
- * embedded containers.
+ *
+ * The delivery to browsers is covered by InvoiceStatusStreamHubTest; this test
+ * verifies the events handed to the broadcaster.
  */
 @ExtendWith(MockitoExtension.class)
-@SuppressWarnings({ "unchecked" }) // ArgumentCaptor with Map generics
 class InvoiceStatusNotificationServiceTest {
 
         @Mock
-        private SimpMessagingTemplate messagingTemplate;
+        private InvoiceRepository invoiceRepository;
+
+        @Mock
+        private InvoiceStatusBroadcaster broadcaster;
 
         @InjectMocks
         private InvoiceStatusNotificationService notificationService;
 
         @Test
-        void shouldSendStatusNotificationToCorrectTopic() {
+        void shouldBroadcastStatusToInvoiceCompany() {
                 // Given
-                Long invoiceId = 123L;
-                String status = "processing";
+                givenInvoice(123L, 7L);
 
                 // When
-                notificationService.notifyStatus(invoiceId, status);
+                notificationService.notifyStatus(123L, "processing");
 
                 // Then
-                ArgumentCaptor<Map<String, Object>> messageCaptor = ArgumentCaptor.forClass(Map.class);
-                verify(messagingTemplate).convertAndSend(
-                                eq("/topic/invoice/" + invoiceId + "/status"),
-                                messageCaptor.capture());
-
-                Map<String, Object> sentMessage = messageCaptor.getValue();
-                assertThat(sentMessage).isNotNull();
-                assertThat(sentMessage.get("invoiceId")).isEqualTo(invoiceId);
-                assertThat(sentMessage.get("status")).isEqualTo(status);
-                assertThat(sentMessage.get("timestamp")).isNotNull();
+                InvoiceStatusEvent event = broadcastEvent();
+                assertThat(event.companyId()).isEqualTo(7L);
+                assertThat(event.id()).isNotBlank();
+
+                Map<String, Object> payload = event.payload();
+                assertThat(payload.get("invoiceId")).isEqualTo(123L);
+                assertThat(payload.get("status")).isEqualTo("processing");
+                assertThat(payload.get("timestamp")).isNotNull();
         }
 
         @Test
         void shouldSendStatusWithTxNotification() {
                 // Given
-                Long invoiceId = 456L;
-                String status = "accepted";
-                String txId = "TX-12345";
-                String message = "Invoice accepted by VeriFactu";
+                givenInvoice(456L, 7L);
 
                 // When
-                notificationService.notifyStatusWithTx(invoiceId, status, txId, message);
+                notificationService.notifyStatusWithTx(456L, "accepted", "TX-12345", "Invoice accepted by VeriFactu");
 
                 // Then
-                ArgumentCaptor<Map<String, Object>> messageCaptor = ArgumentCaptor.forClass(Map.class);
-                verify(messagingTemplate).convertAndSend(
-                                eq("/topic/invoice/" + invoiceId + "/status"),
-                                messageCaptor.capture());
-
-                Map<String, Object> sentMessage = messageCaptor.getValue();
-                assertThat(sentMessage).isNotNull();
-                assertThat(sentMessage.get("invoiceId")).isEqualTo(invoiceId);
-                assertThat(sentMessage.get("status")).isEqualTo(status);
-                assertThat(sentMessage.get("txId")).isEqualTo(txId);
-                assertThat(sentMessage.get("message")).isEqualTo(message);
-                assertThat(sentMessage.get("timestamp")).isNotNull();
+                Map<String, Object> payload = broadcastEvent().payload();
+                assertThat(payload.get("invoiceId")).isEqualTo(456L);
+                assertThat(payload.get("status")).isEqualTo("accepted");
+                assertThat(payload.get("txId")).isEqualTo("TX-12345");
+                assertThat(payload.get("message")).isEqualTo("Invoice accepted by VeriFactu");
         }
 
         @Test
-        void shouldHandleNullTxIdGracefully() {
+        void shouldGiveEveryEventItsOwnId() {
                 // Given
-                Long invoiceId = 789L;
-                String status = "pending";
+                givenInvoice(111L, 7L);
 
                 // When
-                notificationService.notifyStatusWithTx(invoiceId, status, null, null);
-
-                // Then - Should not throw exception
-                ArgumentCaptor<Map<String, Object>> messageCaptor = ArgumentCaptor.forClass(Map.class);
-                verify(messagingTemplate).convertAndSend(
-                                eq("/topic/invoice/" + invoiceId + "/status"),
-                                messageCaptor.capture());
-
-                Map<String, Object> sentMessage = messageCaptor.getValue();
-                assertThat(sentMessage).isNotNull();
-                assertThat(sentMessage.get("invoiceId")).isEqualTo(invoiceId);
-                assertThat(sentMessage.get("status")).isEqualTo(status);
+                notificationService.notifyStatus(111L, "processing");
+                notificationService.notifyStatus(111L, "completed");
+
+                // Then
+                ArgumentCaptor<InvoiceStatusEvent> captor = ArgumentCaptor.forClass(InvoiceStatusEvent.class);
+                verify(broadcaster, times(2)).broadcast(captor.capture());
+                assertThat(captor.getAllValues()).extracting(InvoiceStatusEvent::id).doesNotHaveDuplicates();
         }
 
         @Test
-        void shouldIncludeTimestampInAllNotifications() {
+        void shouldSkipUnknownInvoices() {
                 // Given
-                Long invoiceId = 999L;
-                String status = "completed";
+                when(invoiceRepository.findById(789L)).thenReturn(Optional.empty());
 
                 // When
-                notificationService.notifyStatus(invoiceId, status);
+                notificationService.notifyStatus(789L, "pending");
 
                 // Then
-                ArgumentCaptor<Map<String, Object>> messageCaptor = ArgumentCaptor.forClass(Map.class);
-                verify(messagingTemplate).convertAndSend(
-                                eq("/topic/invoice/" + invoiceId + "/status"),
-                                messageCaptor.capture());
-
-                Map<String, Object> sentMessage = messageCaptor.getValue();
-                assertThat(sentMessage.get("timestamp"))
-                                .isNotNull()
-                                .isInstanceOf(String.class)
-                                .asString()
-                                .contains("2025"); // Verify it's a valid timestamp string
+                verify(broadcaster, never()).broadcast(any());
         }
 
         @Test
-        void shouldSendToInvoiceSpecificTopic() {
+        void shouldNotFailWhenBroadcastFails() {
                 // Given
-                Long invoiceId1 = 111L;
-                Long invoiceId2 = 222L;
+                givenInvoice(999L, 7L);
+                doThrow(new IllegalStateException("Redis down")).when(broadcaster).broadcast(any());
 
-                // When
-                notificationService.notifyStatus(invoiceId1, "draft");
-                notificationService.notifyStatus(invoiceId2, "sent");
-
-                // Then - Each notification goes to its own topic
-                verify(messagingTemplate).convertAndSend(
-                                eq("/topic/invoice/111/status"),
-                                org.mockito.ArgumentMatchers.any(Map.class));
-                verify(messagingTemplate).convertAndSend(
-                                eq("/topic/invoice/222/status"),
-                                org.mockito.ArgumentMatchers.any(Map.class));
+                // When / Then - Should not throw exception
+                notificationService.notifyStatus(999L, "completed");
+        }
+
+        private void givenInvoice(Long invoiceId, Long companyId) {
+                Invoice invoice = mock(Invoice.class);
+                when(invoice.getCompanyId()).thenReturn(companyId);
+                when(invoiceRepository.findById(invoiceId)).thenReturn(Optional.of(invoice));
+        }
+
+        private InvoiceStatusEvent broadcastEvent() {
+                ArgumentCaptor<InvoiceStatusEvent> captor = ArgumentCaptor.forClass(InvoiceStatusEvent.class);
+                verify(broadcaster).broadcast(captor.capture());
+                return captor.getValue();
         }
 }
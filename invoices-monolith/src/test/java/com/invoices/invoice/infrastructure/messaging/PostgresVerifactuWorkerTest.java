@@ -0,0 +1,123 @@
+package com.invoices.invoice.infrastructure.messaging;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * The job queue against H2 in PostgreSQL mode, created from the V48 migration.
+ * H2 has no LISTEN/NOTIFY, so workers only poll here.
+ */
+class PostgresVerifactuWorkerTest {
+
+    private final VerifactuJobHandler jobHandler = mock(VerifactuJobHandler.class);
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private PostgresVerifactuQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:verifactu-jobs-" + System.nanoTime() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V48__create_verifactu_jobs.sql"))
+                .execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        queue = new PostgresVerifactuQueue(jdbcTemplate);
+    }
+
+    @Test
+    void pollOnce_ShouldProcessRunnableJobsAndLeaveDelayedOnes() throws Exception {
+        queue.enqueueForVerification(1L, "INVOICE_CREATED");
+        queue.enqueueForVerification(2L, "INVOICE_UPDATED", 40L);
+        queue.schedule(3L, "INVOICE_CREATED", null, Duration.ofHours(1));
+
+        assertThat(worker(300, 4).pollOnce()).isEqualTo(2);
+
+        verify(jobHandler).process(1L, "INVOICE_CREATED");
+        verify(jobHandler).process(2L, "INVOICE_UPDATED");
+        assertThat(jdbcTemplate.queryForList("SELECT invoice_id FROM verifactu_jobs", Long.class)).containsExactly(3L);
+    }
+
+    @Test
+    void pollOnce_ShouldRetryFailedJobsAndGiveUpAfterMaxAttempts() throws Exception {
+        doThrow(new IllegalStateException("AEAT unavailable")).when(jobHandler).process(anyLong(), any());
+        queue.enqueueForVerification(1L, "INVOICE_CREATED");
+        PostgresVerifactuWorker worker = worker(300, 2);
+
+        assertThat(worker.pollOnce()).isEqualTo(1);
+        assertThat(worker.pollOnce()).isEqualTo(1);
+        assertThat(worker.pollOnce()).isZero();
+
+        verify(jobHandler, times(2)).process(1L, "INVOICE_CREATED");
+        verify(jobHandler).giveUp(1L);
+        Map<String, Object> job = jdbcTemplate.queryForMap("SELECT attempts, last_error, failed_at FROM verifactu_jobs");
+        assertThat(job.get("ATTEMPTS")).isEqualTo(2);
+        assertThat((String) job.get("LAST_ERROR")).contains("AEAT unavailable");
+        assertThat(job.get("FAILED_AT")).isNotNull();
+    }
+
+    @Test
+    void pollOnce_ShouldReclaimJobOnlyOnceItsVisibilityTimeoutExpired() throws Exception {
+        doThrow(new Error("worker died")).doNothing().when(jobHandler).process(anyLong(), any());
+        queue.enqueueForVerification(1L, "INVOICE_CREATED");
+        PostgresVerifactuWorker worker = worker(300, 4);
+
+        try {
+            worker.pollOnce();
+        } catch (Error crash) {
+            // The job stays leased to the dead worker
+        }
+        assertThat(worker.pollOnce()).isZero();
+
+        jdbcTemplate.update("UPDATE verifactu_jobs SET run_at = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusSeconds(1)));
+        assertThat(worker.pollOnce()).isEqualTo(1);
+
+        verify(jobHandler, times(2)).process(1L, "INVOICE_CREATED");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM verifactu_jobs", Integer.class)).isZero();
+    }
+
+    @Test
+    void workers_ShouldProcessEveryJobExactlyOnce() throws Exception {
+        List<Long> processed = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> processed.add(invocation.getArgument(0))).when(jobHandler).process(anyLong(), any());
+        for (long invoiceId = 1; invoiceId <= 50; invoiceId++) {
+            queue.enqueueForVerification(invoiceId, "INVOICE_CREATED");
+        }
+        PostgresVerifactuWorker worker = worker(300, 4);
+
+        worker.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (processed.size() < 50 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        worker.stop();
+
+        assertThat(processed).hasSize(50).doesNotHaveDuplicates();
+    }
+
+    private PostgresVerifactuWorker worker(long visibilityTimeoutSeconds, int maxAttempts) {
+        return new PostgresVerifactuWorker(dataSource, jobHandler, 3, 5, 20, visibilityTimeoutSeconds, maxAttempts,
+                0, "", "", "");
+    }
+}
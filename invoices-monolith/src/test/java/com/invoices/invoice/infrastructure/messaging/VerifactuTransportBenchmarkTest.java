@@ -0,0 +1,168 @@
+package com.invoices.invoice.infrastructure.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.invoices.benchmark.MicroBenchmark;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Verification requests per second, from enqueue until the consumer has handed
+ * them to {@link VerifactuJobHandler}, through Redis Streams
+ * ({@link RedisVerifactuProducer} and {@link VerifactuConsumer}) and through the
+ * PostgreSQL job table ({@link PostgresVerifactuQueue} and
+ * {@link PostgresVerifactuWorker}). The handler only counts, so the numbers are
+ * the cost of the transport alone. Needs real servers:
+ * <pre>
+ * mvn test -Dbenchmark=true -Dtest=VerifactuTransportBenchmarkTest \
+ *     -Dbenchmark.redis.host=localhost \
+ *     -Dbenchmark.postgres.url=jdbc:postgresql://localhost:5432/bench \
+ *     -Dbenchmark.postgres.username=bench -Dbenchmark.postgres.password=bench
+ * </pre>
+ * Each transport is skipped when its server is not configured. The Redis
+ * consumer is driven the way its scheduler does, minus the 5 s delay between
+ * reads; the PostgreSQL workers are woken by NOTIFY.
+ */
+@EnabledIfSystemProperty(named = MicroBenchmark.ENABLED_PROPERTY, matches = "true")
+class VerifactuTransportBenchmarkTest {
+
+    private static final int JOBS = 10_000;
+
+    @Test
+    void redisStreams() throws Exception {
+        String host = System.getProperty("benchmark.redis.host");
+        assumeTrue(host != null, "benchmark.redis.host not set");
+
+        LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(host, Integer.getInteger("benchmark.redis.port", 6379)));
+        connectionFactory.afterPropertiesSet();
+        try {
+            RedisTemplate<String, Object> redisTemplate = redisTemplate(connectionFactory);
+            String streamKey = "verifactu-benchmark-" + System.nanoTime();
+
+            CountingHandler handler = new CountingHandler(JOBS);
+            VerifactuConsumer consumer = new VerifactuConsumer(redisTemplate, handler);
+            ReflectionTestUtils.setField(consumer, "streamKey", streamKey);
+            ReflectionTestUtils.setField(consumer, "consumerGroup", "verifactu-benchmark");
+            ReflectionTestUtils.setField(consumer, "dlqKey", streamKey + "-dlq");
+            ReflectionTestUtils.setField(consumer, "executorPoolSize", 1);
+            consumer.init();
+            RedisVerifactuProducer producer = new RedisVerifactuProducer(redisTemplate);
+            ReflectionTestUtils.setField(producer, "streamKey", streamKey);
+
+            // Creates the consumer group before anything is added
+            consumer.consumeInvoices();
+            long start = System.nanoTime();
+            for (long i = 0; i < JOBS; i++) {
+                producer.enqueueForVerification(i, "INVOICE_CREATED", null);
+            }
+            long enqueued = System.nanoTime() - start;
+            long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(5);
+            while (handler.processed.getCount() > 0 && System.nanoTime() < deadline) {
+                consumer.consumeInvoices();
+            }
+            report("redis streams", enqueued, System.nanoTime() - start, handler);
+
+            consumer.shutdown();
+            redisTemplate.delete(streamKey);
+        } finally {
+            connectionFactory.destroy();
+        }
+    }
+
+    @Test
+    void postgresQueue() throws Exception {
+        String url = System.getProperty("benchmark.postgres.url");
+        assumeTrue(url != null, "benchmark.postgres.url not set");
+        String username = System.getProperty("benchmark.postgres.username", "postgres");
+        String password = System.getProperty("benchmark.postgres.password", "");
+
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        // The production pool size
+        config.setMaximumPoolSize(5);
+        try (HikariDataSource dataSource = new HikariDataSource(config)) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.execute("DROP TABLE IF EXISTS verifactu_jobs");
+            new ResourceDatabasePopulator(new ClassPathResource("db/migration/V48__create_verifactu_jobs.sql"))
+                    .execute(dataSource);
+
+            for (int workers : new int[] { 1, 4 }) {
+                CountingHandler handler = new CountingHandler(JOBS);
+                PostgresVerifactuWorker worker = new PostgresVerifactuWorker(dataSource, handler, workers, 10, 5000,
+                        300, 4, 5, url, username, password);
+                PostgresVerifactuQueue queue = new PostgresVerifactuQueue(jdbcTemplate);
+                worker.start();
+
+                long start = System.nanoTime();
+                for (long i = 0; i < JOBS; i++) {
+                    queue.enqueueForVerification(i, "INVOICE_CREATED", null);
+                }
+                long enqueued = System.nanoTime() - start;
+                handler.processed.await(5, TimeUnit.MINUTES);
+                report("postgres queue, " + workers + " worker(s)", enqueued, System.nanoTime() - start, handler);
+
+                worker.stop();
+            }
+            jdbcTemplate.execute("DROP TABLE verifactu_jobs");
+        }
+    }
+
+    private static RedisTemplate<String, Object> redisTemplate(LettuceConnectionFactory connectionFactory) {
+        // Same serializers as RedisConfig
+        RedisTemplate<String, Object> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer(
+                new ObjectMapper().registerModule(new JavaTimeModule()));
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setHashKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(jsonSerializer);
+        template.setHashValueSerializer(jsonSerializer);
+        template.afterPropertiesSet();
+        return template;
+    }
+
+    private static void report(String name, long enqueueNanos, long totalNanos, CountingHandler handler) {
+        long processed = JOBS - handler.processed.getCount();
+        System.out.println(String.format(Locale.ROOT,
+                "[benchmark] %-30s enqueue %9.0f jobs/s  end-to-end %9.0f jobs/s  processed=%d",
+                name, JOBS / (enqueueNanos / 1e9), processed / (totalNanos / 1e9), processed));
+    }
+
+    private static final class CountingHandler implements VerifactuJobHandler {
+
+        private final CountDownLatch processed;
+
+        private CountingHandler(int jobs) {
+            this.processed = new CountDownLatch(jobs);
+        }
+
+        @Override
+        public void process(Long invoiceId, String eventType) {
+            processed.countDown();
+        }
+
+        @Override
+        public void giveUp(Long invoiceId) {
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.invoices.invoice.infrastructure.recurring;
+
+import com.invoices.benchmark.MicroBenchmark;
+import com.invoices.invoice.domain.entities.Client;
+import com.invoices.invoice.domain.entities.Company;
+import com.invoices.invoice.domain.ports.ClientRepository;
+import com.invoices.invoice.domain.ports.CompanyRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Time to issue {@value #TEMPLATES} recurring invoices of one company in a
+ * nightly run, against the H2 test database, with the default chunk size. Run
+ * with {@code -Dbenchmark=true}; fails above
+ * {@code -Dbenchmark.recurring.budget-seconds} (default 60).
+ *
+ * Each chunk is one transaction with a handful of statements whatever its size
+ * (claim, template load, number and company locks, and batches for invoices,
+ * items, events, verification requests and schedules), so the time is
+ * dominated by the row count rather than by round trips.
+ */
+@EnabledIfSystemProperty(named = MicroBenchmark.ENABLED_PROPERTY, matches = "true")
+@SpringBootTest(properties = "recurring-invoices.enabled=false")
+@ActiveProfiles("test")
+class RecurringInvoiceBenchmarkTest {
+
+    @org.springframework.boot.test.context.TestConfiguration
+    static class TestConfig {
+        @org.springframework.context.annotation.Bean
+        @org.springframework.context.annotation.Primary
+        public io.minio.MinioClient testMinioClient() {
+            return org.mockito.Mockito.mock(io.minio.MinioClient.class);
+        }
+
+        @org.springframework.context.annotation.Bean
+        public com.invoices.document.config.MinioConfig.MinioProperties minioProperties() {
+            com.invoices.document.config.MinioConfig.MinioProperties properties = new com.invoices.document.config.MinioConfig.MinioProperties();
+            properties.setBucketName("test-bucket");
+            properties.setEndpoint("http://localhost:9000");
+            properties.setAccessKey("test");
+            properties.setSecretKey("test");
+            return properties;
+        }
+
+        @SuppressWarnings("unchecked")
+        @org.springframework.context.annotation.Bean
+        public org.springframework.data.redis.core.RedisTemplate<String, Object> redisTemplate() {
+            return org.mockito.Mockito.mock(org.springframework.data.redis.core.RedisTemplate.class);
+        }
+
+        @org.springframework.context.annotation.Bean
+        @org.springframework.context.annotation.Primary
+        public org.springframework.mail.javamail.JavaMailSender javaMailSender() {
+            return org.mockito.Mockito.mock(org.springframework.mail.javamail.JavaMailSender.class);
+        }
+    }
+
+    private static final int TEMPLATES = 10_000;
+
+    private static final String INSERT_TEMPLATE_SQL = "INSERT INTO recurring_invoices (id, company_id, client_id, "
+            + "created_by_user_id, frequency, start_date, next_run_date, occurrences, active, irpf_percentage, "
+            + "re_percentage, notes, created_at, updated_at) "
+            + "VALUES (?, ?, ?, 1, 'MONTHLY', ?, ?, 0, TRUE, 0, 0, ?, ?, ?)";
+    private static final String INSERT_ITEM_SQL = "INSERT INTO recurring_invoice_items (recurring_invoice_id, "
+            + "position, description, units, price, vat_percentage, discount_percentage) "
+            + "VALUES (?, ?, ?, 2, 125.50, 21, 0)";
+
+    @Autowired
+    private RecurringInvoiceService recurringInvoiceService;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void tenThousandRecurringInvoices() {
+        Company company = companyRepository.save(new Company(null, "Benchmark S.L.", "B12345678", "Address",
+                "City", "12345", "Province", "123456789", "benchmark@test.com", "ES12345678901234567890"));
+        Client client = clientRepository.save(new Client(null, "Benchmark Client", "A12345678", "Address",
+                "City", "54321", "Province", "987654321", "client@benchmark.test", company.getId()));
+        LocalDate today = LocalDate.now();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Long> ids = LongStream.rangeClosed(1, TEMPLATES).map(i -> 1_000_000 + i).boxed().toList();
+        jdbcTemplate.batchUpdate(INSERT_TEMPLATE_SQL, ids, 1000, (ps, id) -> {
+            ps.setLong(1, id);
+            ps.setLong(2, company.getId());
+            ps.setLong(3, client.getId());
+            ps.setDate(4, Date.valueOf(today));
+            ps.setDate(5, Date.valueOf(today));
+            ps.setString(6, "Monthly service " + id);
+            ps.setTimestamp(7, now);
+            ps.setTimestamp(8, now);
+        });
+        jdbcTemplate.batchUpdate(INSERT_ITEM_SQL, ids, 1000, (ps, id) -> {
+            ps.setLong(1, id);
+            ps.setInt(2, 0);
+            ps.setString(3, "Transport route " + id);
+        });
+
+        long start = System.nanoTime();
+        int issued = recurringInvoiceService.generateForCompany(company.getId(), today);
+        long elapsed = System.nanoTime() - start;
+
+        long budget = TimeUnit.SECONDS.toNanos(Long.getLong("benchmark.recurring.budget-seconds", 60));
+        System.out.println(String.format(Locale.ROOT, "%-28s %,8d invoices %10.1f s %,10.0f invoices/s",
+                "recurring invoices", issued, elapsed / 1e9, issued / (elapsed / 1e9)));
+        assertThat(issued).isEqualTo(TEMPLATES);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM invoices WHERE company_id = ?", Long.class,
+                company.getId())).isEqualTo(TEMPLATES);
+        assertThat(elapsed).isLessThan(budget);
+    }
+}
@@ -0,0 +1,272 @@
+package com.invoices.invoice.infrastructure.recurring;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invoices.invoice.domain.entities.Client;
+import com.invoices.invoice.domain.entities.Company;
+import com.invoices.invoice.domain.entities.Invoice;
+import com.invoices.invoice.domain.ports.ClientRepository;
+import com.invoices.invoice.domain.ports.CompanyRepository;
+import com.invoices.invoice.domain.ports.InvoiceRepository;
+import com.invoices.invoice.dto.CreateInvoiceItemRequest;
+import com.invoices.invoice.dto.RecurringInvoiceDTO;
+import com.invoices.invoice.dto.RecurringInvoiceRequest;
+import com.invoices.invoice.infrastructure.messaging.OutboxVerifactuVerificationPublisher;
+import com.invoices.invoice.presentation.controllers.RecurringInvoiceController;
+import com.invoices.security.context.CompanyContext;
+import com.invoices.shared.domain.exception.BusinessException;
+import com.invoices.shared.infrastructure.exception.GlobalExceptionHandler;
+import com.invoices.user.domain.entities.User;
+import com.invoices.user.domain.usecases.GetUserByEmailUseCase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Recurring invoice templates and their nightly run against the test
+ * database, in chunks of two invoices.
+ */
+@SpringBootTest(properties = { "recurring-invoices.chunk-size=2", "recurring-invoices.enabled=false" })
+@ActiveProfiles("test")
+@Transactional
+class RecurringInvoiceServiceTest {
+
+    @org.springframework.boot.test.context.TestConfiguration
+    static class TestConfig {
+        @org.springframework.context.annotation.Bean
+        @org.springframework.context.annotation.Primary
+        public io.minio.MinioClient testMinioClient() {
+            return org.mockito.Mockito.mock(io.minio.MinioClient.class);
+        }
+
+        @org.springframework.context.annotation.Bean
+        public com.invoices.document.config.MinioConfig.MinioProperties minioProperties() {
+            com.invoices.document.config.MinioConfig.MinioProperties properties = new com.invoices.document.config.MinioConfig.MinioProperties();
+            properties.setBucketName("test-bucket");
+            properties.setEndpoint("http://localhost:9000");
+            properties.setAccessKey("test");
+            properties.setSecretKey("test");
+            return properties;
+        }
+
+        @SuppressWarnings("unchecked")
+        @org.springframework.context.annotation.Bean
+        public org.springframework.data.redis.core.RedisTemplate<String, Object> redisTemplate() {
+            return org.mockito.Mockito.mock(org.springframework.data.redis.core.RedisTemplate.class);
+        }
+
+        @org.springframework.context.annotation.Bean
+        @org.springframework.context.annotation.Primary
+        public org.springframework.mail.javamail.JavaMailSender javaMailSender() {
+            return org.mockito.Mockito.mock(org.springframework.mail.javamail.JavaMailSender.class);
+        }
+    }
+
+    private static final Long USER_ID = 40L;
+    private static final String YEAR = String.valueOf(Year.now().getValue());
+
+    @Autowired
+    private RecurringInvoiceService recurringInvoiceService;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Company company;
+    private Client client;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        long unique = System.nanoTime();
+        company = companyRepository.save(new Company(null, "Recurring Test S.L.", "B" + (unique % 100000000),
+                "Address", "City", "12345", "Province", "123456789", "recurring@test.com",
+                "ES12345678901234567890"));
+        client = clientRepository.save(new Client(null, "Monthly Client", "A" + (unique % 100000000),
+                "Address", "City", "54321", "Province", "987654321", "client@recurring.test", company.getId()));
+        CompanyContext.setCompanyId(company.getId());
+        today = LocalDate.now();
+    }
+
+    @AfterEach
+    void tearDown() {
+        CompanyContext.clear();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void generateForCompany_ShouldIssueDueTemplatesAndMoveTheirSchedule() {
+        RecurringInvoiceDTO first = create(today, null, "100.00");
+        RecurringInvoiceDTO second = create(today, null, "200.00");
+        RecurringInvoiceDTO last = create(today, today, "300.00");
+        RecurringInvoiceDTO tomorrow = create(today.plusDays(1), null, "400.00");
+
+        assertThat(recurringInvoiceService.generateForCompany(company.getId(), today)).isEqualTo(3);
+
+        List<Invoice> invoices = invoices();
+        assertThat(invoices).extracting(Invoice::getInvoiceNumber)
+                .containsExactly("001/" + YEAR, "002/" + YEAR, "003/" + YEAR);
+        assertThat(invoices).extracting(invoice -> invoice.getItems().get(0).getPrice())
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("100.00"), new BigDecimal("200.00"), new BigDecimal("300.00"));
+        assertThat(invoices.get(1).getLastHashBefore()).isEqualTo(invoices.get(0).getHash());
+        assertThat(invoices.get(2).getLastHashBefore()).isEqualTo(invoices.get(1).getHash());
+        assertThat(companyRepository.findById(company.getId()).orElseThrow().getLastHash())
+                .isEqualTo(invoices.get(2).getHash());
+
+        assertThat(jdbcTemplate.queryForList("SELECT aggregate_id FROM outbox WHERE event_type = ? ORDER BY id",
+                String.class, OutboxVerifactuVerificationPublisher.EVENT_TYPE))
+                .containsExactlyElementsOf(invoices.stream().map(invoice -> invoice.getId().toString()).toList());
+
+        assertThat(schedule(first.getId()))
+                .containsEntry("NEXT_RUN_DATE", java.sql.Date.valueOf(today.plusMonths(1)))
+                .containsEntry("OCCURRENCES", 1)
+                .containsEntry("ACTIVE", true)
+                .containsEntry("LAST_INVOICE_ID", invoices.get(0).getId());
+        assertThat(schedule(second.getId())).containsEntry("LAST_INVOICE_ID", invoices.get(1).getId());
+        assertThat(schedule(last.getId())).containsEntry("ACTIVE", false);
+        assertThat(schedule(tomorrow.getId())).containsEntry("OCCURRENCES", 0);
+
+        assertThat(recurringInvoiceService.generateForCompany(company.getId(), today)).isZero();
+    }
+
+    @Test
+    void generateForCompany_ShouldIssueEveryMissedOccurrence() {
+        RecurringInvoiceDTO late = create(today, null, "50.00");
+        // As if the run had not happened for two months
+        jdbcTemplate.update("UPDATE recurring_invoices SET start_date = ?, next_run_date = ? WHERE id = ?",
+                today.minusMonths(2), today.minusMonths(2), late.getId());
+
+        assertThat(recurringInvoiceService.generateForCompany(company.getId(), today)).isEqualTo(3);
+
+        assertThat(invoices()).hasSize(3);
+        assertThat(schedule(late.getId()))
+                .containsEntry("NEXT_RUN_DATE", java.sql.Date.valueOf(today.minusMonths(2).plusMonths(3)))
+                .containsEntry("OCCURRENCES", 3);
+    }
+
+    @Test
+    void generateForCompany_ShouldRecordTheTemplateCreatorAsInvoiceUser() {
+        RecurringInvoiceDTO first = recurringInvoiceService.create(company.getId(), 41L,
+                request(client.getId(), today, "10.00"));
+        RecurringInvoiceDTO second = recurringInvoiceService.create(company.getId(), 42L,
+                request(client.getId(), today, "20.00"));
+
+        assertThat(recurringInvoiceService.generateForCompany(company.getId(), today)).isEqualTo(2);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT user_id FROM invoices WHERE id = ?", Long.class,
+                schedule(first.getId()).get("LAST_INVOICE_ID"))).isEqualTo(41L);
+        assertThat(jdbcTemplate.queryForObject("SELECT user_id FROM invoices WHERE id = ?", Long.class,
+                schedule(second.getId()).get("LAST_INVOICE_ID"))).isEqualTo(42L);
+    }
+
+    @Test
+    void create_ShouldRejectAStartDateInThePast() {
+        assertThatThrownBy(() -> recurringInvoiceService.create(company.getId(), USER_ID,
+                request(client.getId(), today.minusDays(1), "10.00")))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("past");
+    }
+
+    @Test
+    void createRecurringInvoice_ShouldValidateTheRequest() throws Exception {
+        GetUserByEmailUseCase getUserByEmailUseCase = mock(GetUserByEmailUseCase.class);
+        User user = mock(User.class);
+        when(user.getId()).thenReturn(USER_ID);
+        when(getUserByEmailUseCase.execute("owner@recurring.test")).thenReturn(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("owner@recurring.test", null, List.of()));
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(
+                new RecurringInvoiceController(recurringInvoiceService, getUserByEmailUseCase))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(objectMapper))
+                .build();
+
+        mockMvc.perform(post("/api/recurring-invoices")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request(client.getId(), today, "10.00"))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.nextRunDate").value(today.toString()))
+                .andExpect(jsonPath("$.active").value(true));
+
+        mockMvc.perform(post("/api/recurring-invoices")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request(client.getId(), today.minusDays(1), "10.00"))))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/api/recurring-invoices")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request(999_999L, today, "10.00"))))
+                .andExpect(status().isNotFound());
+    }
+
+    private RecurringInvoiceDTO create(LocalDate startDate, LocalDate endDate, String price) {
+        RecurringInvoiceRequest request = request(client.getId(), startDate, price);
+        request.setEndDate(endDate);
+        return recurringInvoiceService.create(company.getId(), USER_ID, request);
+    }
+
+    private static RecurringInvoiceRequest request(Long clientId, LocalDate startDate, String price) {
+        return RecurringInvoiceRequest.builder()
+                .clientId(clientId)
+                .frequency(RecurringInvoiceFrequency.MONTHLY)
+                .startDate(startDate)
+                .notes("Monthly transport service")
+                .items(List.of(CreateInvoiceItemRequest.builder()
+                        .description("Transport service")
+                        .units(1)
+                        .price(new BigDecimal(price))
+                        .vatPercentage(new BigDecimal("21"))
+                        .build()))
+                .build();
+    }
+
+    private List<Invoice> invoices() {
+        return invoiceRepository.findByCompanyId(company.getId()).stream()
+                .map(invoice -> invoiceRepository.findById(invoice.getId()).orElseThrow())
+                .sorted(Comparator.comparing(Invoice::getId))
+                .toList();
+    }
+
+    // Read with SQL, as the run moves schedules without going through JPA
+    private Map<String, Object> schedule(Long id) {
+        return jdbcTemplate.queryForMap("SELECT next_run_date, occurrences, active, last_invoice_id "
+                + "FROM recurring_invoices WHERE id = ?", id);
+    }
+}
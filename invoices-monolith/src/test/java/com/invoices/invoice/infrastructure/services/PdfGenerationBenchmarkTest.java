@@ -0,0 +1,171 @@
+package com.invoices.invoice.infrastructure.services;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import com.invoices.benchmark.MicroBenchmark;
+import com.invoices.document.domain.services.LogoRenditionService;
+import com.invoices.document.infrastructure.storage.StorageAssetCache;
+import com.invoices.invoice.domain.entities.Client;
+import com.invoices.invoice.domain.entities.Company;
+import com.invoices.invoice.domain.entities.Invoice;
+import com.invoices.invoice.domain.entities.InvoiceItem;
+import com.openhtmltopdf.pdfboxout.PdfRendererBuilder;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Per-PDF latency and allocation of the single-pass pipeline against the previous
+ * render / load+save / load+save pipeline. Run with {@code -Dbenchmark=true}.
+ *
+ * Thymeleaf is stubbed to return the invoice template markup as-is, so both paths
+ * lay out the real stylesheet and table structure and only the PDF work differs.
+ */
+@EnabledIfSystemProperty(named = MicroBenchmark.ENABLED_PROPERTY, matches = "true")
+class PdfGenerationBenchmarkTest {
+
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 100;
+    private static final String QR_PAYLOAD = "https://prewww2.aeat.es/wlpl/TIKE-CONT/ValidarQR?nif=B12345678"
+            + "&numserie=001/2024&fecha=01-01-2024&importe=121.00";
+
+    private TemplateEngine templateEngine;
+    private PdfGenerationServiceImpl service;
+    private Company company;
+    private Client client;
+    private Invoice invoice;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        String templateHtml;
+        try (InputStream in = getClass().getResourceAsStream("/templates/invoice/invoice-template.html")) {
+            templateHtml = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        templateEngine = mock(TemplateEngine.class);
+        when(templateEngine.process(eq("invoice/invoice-template"), any(Context.class))).thenReturn(templateHtml);
+        service = new PdfGenerationServiceImpl(templateEngine,
+                new PdfRenderingContext(new PdfAssetResolver(mock(StorageAssetCache.class),
+                        mock(LogoRenditionService.class))),
+                new QrCodeRenderer(100));
+
+        company = new Company(1L, "Test Company", "B12345678", "Address", "City", "28000", "Province",
+                "600000000", "email@test.com", "ES0000000000000000000000");
+        client = new Client(1L, "Test Client", "A87654321", "Address", "City", "28000", "Province",
+                "600000000", "client@test.com", 1L);
+        invoice = new Invoice(1L, company.getId(), client.getId(), "001/2024", LocalDateTime.now(),
+                new BigDecimal("15.00"), new BigDecimal("5.20"));
+        for (long i = 1; i <= 20; i++) {
+            invoice.addItemInternal(new InvoiceItem(i, 1L, "Service line " + i, 1, new BigDecimal("100.00"),
+                    new BigDecimal("21.00"), BigDecimal.ZERO));
+        }
+        invoice.setCompany(company);
+        invoice.setClient(client);
+    }
+
+    @Test
+    void draftPdf() throws Exception {
+        MicroBenchmark.run("pdf draft (3-pass legacy)", WARMUP, ITERATIONS,
+                () -> legacyPipeline(false));
+        MicroBenchmark.run("pdf draft (single pass)", WARMUP, ITERATIONS,
+                () -> service.generateInvoicePdf(invoice, company, client));
+
+        assertThat(new String(service.generateInvoicePdf(invoice, company, client), StandardCharsets.ISO_8859_1))
+                .startsWith("%PDF");
+    }
+
+    @Test
+    void verifiedPdfWithQr() throws Exception {
+        MicroBenchmark.run("pdf with QR (3-pass legacy)", WARMUP, ITERATIONS,
+                () -> legacyPipeline(true));
+        MicroBenchmark.run("pdf with QR (single pass)", WARMUP, ITERATIONS,
+                () -> service.generateInvoicePdfWithQr(invoice, company, client, QR_PAYLOAD));
+
+        assertThat(new String(service.generateInvoicePdfWithQr(invoice, company, client, QR_PAYLOAD),
+                StandardCharsets.ISO_8859_1)).startsWith("%PDF");
+    }
+
+    /**
+     * Reproduces the serialize/parse cycles of the previous implementation: render to
+     * bytes, reload to decorate and save, then reload again for the QR pass.
+     */
+    private byte[] legacyPipeline(boolean withQr) throws IOException, WriterException {
+        Context context = new Context();
+        context.setVariable("invoice", invoice);
+        context.setVariable("company", company);
+        context.setVariable("client", client);
+        context.setVariable("isTransportInvoice", false);
+        String html = templateEngine.process("invoice/invoice-template", context);
+
+        byte[] pdf;
+        try (ByteArrayOutputStream os = new ByteArrayOutputStream()) {
+            PdfRendererBuilder builder = new PdfRendererBuilder();
+            builder.useFastMode();
+            builder.withHtmlContent(html, "");
+            builder.toStream(os);
+            builder.run();
+            pdf = os.toByteArray();
+        }
+
+        pdf = reloadAndStamp(pdf, "PENDIENTE", null);
+        if (withQr) {
+            pdf = reloadAndStamp(pdf, "VERIFICADO", legacyQrImage());
+        }
+        return pdf;
+    }
+
+    private BufferedImage legacyQrImage() throws WriterException {
+        BitMatrix bitMatrix = new QRCodeWriter().encode(QR_PAYLOAD, BarcodeFormat.QR_CODE, 200, 200);
+        BufferedImage image = new BufferedImage(200, 200, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < 200; x++) {
+            for (int y = 0; y < 200; y++) {
+                image.setRGB(x, y, bitMatrix.get(x, y) ? 0xFF000000 : 0xFFFFFFFF);
+            }
+        }
+        return image;
+    }
+
+    private byte[] reloadAndStamp(byte[] pdf, String text, BufferedImage qrImage) throws IOException {
+        try (PDDocument document = PDDocument.load(new ByteArrayInputStream(pdf));
+                ByteArrayOutputStream os = new ByteArrayOutputStream()) {
+            document.getDocumentInformation().setTitle("Factura " + invoice.getInvoiceNumber());
+            for (PDPage page : document.getPages()) {
+                try (PDPageContentStream cs = new PDPageContentStream(document, page,
+                        PDPageContentStream.AppendMode.APPEND, true, true)) {
+                    if (qrImage != null) {
+                        cs.drawImage(LosslessFactory.createFromImage(document, qrImage), 480, 700, 85, 85);
+                    }
+                    cs.setFont(PDType1Font.HELVETICA_BOLD, 50);
+                    cs.beginText();
+                    cs.showText(text);
+                    cs.endText();
+                }
+            }
+            document.save(os);
+            return os.toByteArray();
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.invoices.invoice.infrastructure.services;
 
+import com.invoices.document.domain.ports.FileStorageService;
+import com.invoices.document.domain.services.LogoRenditionService;
+import com.invoices.document.infrastructure.storage.StorageAssetCache;
 import com.invoices.invoice.domain.entities.Client;
 import com.invoices.invoice.domain.entities.Company;
 import com.invoices.invoice.domain.entities.Invoice;
@@ -14,12 +17,17 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -29,11 +37,18 @@ class PdfGenerationServiceImplTest {
         @Mock
         private TemplateEngine templateEngine;
 
+        @Mock
+        private FileStorageService fileStorageService;
+
         private PdfGenerationServiceImpl pdfGenerationService;
 
         @BeforeEach
         void setUp() {
-                pdfGenerationService = new PdfGenerationServiceImpl(templateEngine);
+                StorageAssetCache assetCache = new StorageAssetCache(fileStorageService, 1024 * 1024);
+                pdfGenerationService = new PdfGenerationServiceImpl(templateEngine,
+                                new PdfRenderingContext(new PdfAssetResolver(assetCache,
+                                                new LogoRenditionService(fileStorageService))),
+                                new QrCodeRenderer(100));
         }
 
         @Test
@@ -84,4 +99,78 @@ class PdfGenerationServiceImplTest {
                 assertThat(capturedContext.getVariable("client")).isEqualTo(client);
                 assertThat(capturedContext.getVariable("isTransportInvoice")).isEqualTo(false);
         }
+
+        @Test
+        void generateInvoicePdf_ShouldLoadLogoFromStorageOnlyOnce() throws Exception {
+                // Arrange
+                Company company = new Company(
+                                1L, "Test Company", "B12345678", "Address", "City", "28000", "Province", "600000000",
+                                "email@test.com",
+                                "ES0000000000000000000000");
+
+                Client client = new Client(
+                                1L, "Test Client", "A87654321", "Address", "City", "28000", "Province", "600000000",
+                                "client@test.com", 1L);
+
+                Invoice invoice = new Invoice(
+                                1L, company.getId(), client.getId(), "001/2024", LocalDateTime.now(),
+                                new BigDecimal("15.00"),
+                                new BigDecimal("5.20"));
+
+                ByteArrayOutputStream png = new ByteArrayOutputStream();
+                ImageIO.write(new BufferedImage(180, 60, BufferedImage.TYPE_INT_RGB), "png", png);
+                when(fileStorageService.retrieveFile("logos/company-1-1700000000000.png"))
+                                .thenAnswer(invocation -> new ByteArrayInputStream(png.toByteArray()));
+
+                String html = "<html><body><img src=\"logos/company-1-1700000000000.png\"/>"
+                                + "<img src=\"https://api.example.com/api/files/logos/company-1-1700000000000.png\"/>"
+                                + "</body></html>";
+                when(templateEngine.process(eq("invoice/invoice-template"), any(Context.class)))
+                                .thenReturn(html);
+
+                // Act
+                pdfGenerationService.generateInvoicePdf(invoice, company, client);
+                byte[] pdfBytes = pdfGenerationService.generateInvoicePdf(invoice, company, client);
+
+                // Assert
+                assertThat(new String(pdfBytes)).startsWith("%PDF");
+                verify(fileStorageService, times(1)).retrieveFile("logos/company-1-1700000000000.png");
+        }
+
+        @Test
+        void generateInvoicePdf_ShouldBackfillMissingPdfLogoRendition() throws Exception {
+                // Arrange
+                Company company = new Company(
+                                1L, "Test Company", "B12345678", "Address", "City", "28000", "Province", "600000000",
+                                "email@test.com",
+                                "ES0000000000000000000000").withLogoUrl("logos/company-1-1700000000000.png");
+
+                Client client = new Client(
+                                1L, "Test Client", "A87654321", "Address", "City", "28000", "Province", "600000000",
+                                "client@test.com", 1L);
+
+                Invoice invoice = new Invoice(
+                                1L, company.getId(), client.getId(), "001/2024", LocalDateTime.now(),
+                                new BigDecimal("15.00"),
+                                new BigDecimal("5.20"));
+
+                ByteArrayOutputStream png = new ByteArrayOutputStream();
+                ImageIO.write(new BufferedImage(1800, 600, BufferedImage.TYPE_INT_RGB), "png", png);
+                when(fileStorageService.retrieveFile("logos/company-1-1700000000000-pdf.png"))
+                                .thenThrow(new RuntimeException("Object not found"));
+                when(fileStorageService.retrieveFile("logos/company-1-1700000000000.png"))
+                                .thenAnswer(invocation -> new ByteArrayInputStream(png.toByteArray()));
+
+                ArgumentCaptor<Context> context = ArgumentCaptor.forClass(Context.class);
+                when(templateEngine.process(eq("invoice/invoice-template"), context.capture()))
+                                .thenReturn("<html><body><img src=\"logos/company-1-1700000000000-pdf.png\"/></body></html>");
+
+                // Act
+                pdfGenerationService.generateInvoicePdf(invoice, company, client);
+
+                // Assert
+                assertThat(context.getValue().getVariable("logoSrc"))
+                                .isEqualTo("logos/company-1-1700000000000-pdf.png");
+                verify(fileStorageService).storeFile(eq("logos/company-1-1700000000000-pdf.png"), any());
+        }
 }
@@ -0,0 +1,80 @@
+package com.invoices.invoice.infrastructure.services;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import com.invoices.benchmark.MicroBenchmark;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cost of putting the VeriFactu QR on a page: the previous per-pixel
+ * {@code setRGB} bitmap embedded through {@code LosslessFactory}, against vector
+ * drawing with a cold and a warm payload cache. Run with {@code -Dbenchmark=true}.
+ *
+ * Each operation stamps one blank page and serializes it, so the image stream
+ * compression of the legacy path is included.
+ */
+@EnabledIfSystemProperty(named = MicroBenchmark.ENABLED_PROPERTY, matches = "true")
+class QrCodeBenchmarkTest {
+
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 2000;
+    private static final String PAYLOAD = "https://prewww2.aeat.es/wlpl/TIKE-CONT/ValidarQR?nif=B12345678"
+            + "&numserie=001/2024&fecha=01-01-2024&importe=121.00";
+
+    @Test
+    void qrOnPage() throws Exception {
+        MicroBenchmark.run("qr bitmap setRGB + LosslessFactory (legacy)", WARMUP, ITERATIONS,
+                () -> stamp((document, cs) -> cs.drawImage(
+                        LosslessFactory.createFromImage(document, legacyImage()), 480, 700, 85, 85)));
+
+        MicroBenchmark.run("qr vector, cold cache", WARMUP, ITERATIONS, () -> {
+            QrCodeRenderer renderer = new QrCodeRenderer(1);
+            stamp((document, cs) -> renderer.draw(cs, renderer.encode(PAYLOAD), 480, 700, 85));
+        });
+
+        QrCodeRenderer cached = new QrCodeRenderer(1);
+        MicroBenchmark.Result warm = MicroBenchmark.run("qr vector, cached payload", WARMUP, ITERATIONS,
+                () -> stamp((document, cs) -> cached.draw(cs, cached.encode(PAYLOAD), 480, 700, 85)));
+
+        assertThat(warm).isNotNull();
+    }
+
+    private BufferedImage legacyImage() throws Exception {
+        BitMatrix bitMatrix = new QRCodeWriter().encode(PAYLOAD, BarcodeFormat.QR_CODE, 200, 200);
+        BufferedImage image = new BufferedImage(200, 200, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < 200; x++) {
+            for (int y = 0; y < 200; y++) {
+                image.setRGB(x, y, bitMatrix.get(x, y) ? 0xFF000000 : 0xFFFFFFFF);
+            }
+        }
+        return image;
+    }
+
+    private byte[] stamp(Stamp stamp) throws Exception {
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream os = new ByteArrayOutputStream()) {
+            PDPage page = new PDPage();
+            document.addPage(page);
+            try (PDPageContentStream cs = new PDPageContentStream(document, page)) {
+                stamp.apply(document, cs);
+            }
+            document.save(os);
+            return os.toByteArray();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Stamp {
+        void apply(PDDocument document, PDPageContentStream contentStream) throws Exception;
+    }
+}
@@ -0,0 +1,59 @@
+package com.invoices.invoice.infrastructure.services;
+
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.qrcode.QRCodeReader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QrCodeRendererTest {
+
+    private static final String PAYLOAD = "https://prewww2.aeat.es/wlpl/TIKE-CONT/ValidarQR?nif=B12345678"
+            + "&numserie=001/2024&fecha=01-01-2024&importe=121.00";
+
+    private final QrCodeRenderer renderer = new QrCodeRenderer(2);
+
+    @Test
+    void encode_ShouldReuseCachedCodeForSamePayload() throws Exception {
+        QrCodeRenderer.QrCode first = renderer.encode(PAYLOAD);
+        QrCodeRenderer.QrCode second = renderer.encode(PAYLOAD);
+
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void encode_ShouldEvictLeastRecentlyUsedPayload() throws Exception {
+        QrCodeRenderer.QrCode first = renderer.encode(PAYLOAD);
+        renderer.encode(PAYLOAD + "&a=1");
+        renderer.encode(PAYLOAD + "&a=2");
+
+        assertThat(renderer.encode(PAYLOAD)).isNotSameAs(first);
+    }
+
+    @Test
+    void draw_ShouldProduceScannableVectorCode() throws Exception {
+        try (PDDocument document = new PDDocument()) {
+            PDPage page = new PDPage(new PDRectangle(85, 85));
+            document.addPage(page);
+            try (PDPageContentStream contentStream = new PDPageContentStream(document, page)) {
+                renderer.draw(contentStream, renderer.encode(PAYLOAD), 0, 0, 85);
+            }
+
+            assertThat(page.getResources().getXObjectNames()).isEmpty();
+
+            BufferedImage image = new PDFRenderer(document).renderImageWithDPI(0, 300);
+            String decoded = new QRCodeReader().decode(new BinaryBitmap(
+                    new HybridBinarizer(new BufferedImageLuminanceSource(image)))).getText();
+            assertThat(decoded).isEqualTo(PAYLOAD);
+        }
+    }
+}
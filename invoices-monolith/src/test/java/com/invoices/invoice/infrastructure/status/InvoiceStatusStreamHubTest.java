@@ -0,0 +1,145 @@
+package com.invoices.invoice.infrastructure.status;
+
+import com.invoices.invoice.presentation.controllers.InvoiceStatusStreamController;
+import com.invoices.security.context.CompanyContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The status stream through its controller, reading what each open stream
+ * has been sent so far. Queued events are sent on the delivering thread.
+ */
+class InvoiceStatusStreamHubTest {
+
+    private static final long COMPANY = 1L;
+    private static final long OTHER_COMPANY = 2L;
+
+    private InvoiceStatusStreamHub hub;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        useHub(new InvoiceStatusStreamHub(new SimpleMeterRegistry(), Runnable::run, 60_000, 3000, 10, 2, 3, 5));
+    }
+
+    private void useHub(InvoiceStatusStreamHub hub) {
+        this.hub = hub;
+        mockMvc = MockMvcBuilders.standaloneSetup(new InvoiceStatusStreamController(hub)).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        CompanyContext.clear();
+    }
+
+    @Test
+    void deliver_ShouldOnlyReachStreamsOfTheInvoiceCompany() throws Exception {
+        MockHttpServletResponse stream = open(COMPANY, null);
+        MockHttpServletResponse otherStream = open(OTHER_COMPANY, null);
+
+        hub.deliver(InvoiceStatusEvent.of(COMPANY, 10L, "processing", null, null));
+
+        assertThat(stream.getContentAsString())
+                .contains("retry:3000")
+                .contains("event:invoice-status")
+                .contains("\"invoiceId\":10")
+                .contains("\"status\":\"processing\"");
+        assertThat(otherStream.getContentAsString()).doesNotContain("invoice-status");
+    }
+
+    @Test
+    void subscribe_ShouldReplayEventsAfterLastEventId() throws Exception {
+        InvoiceStatusEvent first = InvoiceStatusEvent.of(COMPANY, 10L, "processing", null, null);
+        InvoiceStatusEvent second = InvoiceStatusEvent.of(COMPANY, 10L, "completed", null, null);
+        InvoiceStatusEvent third = InvoiceStatusEvent.of(COMPANY, 11L, "processing", null, null);
+        hub.deliver(first);
+        hub.deliver(second);
+        hub.deliver(third);
+
+        String replayed = open(COMPANY, first.id()).getContentAsString();
+
+        assertThat(replayed).doesNotContain("id:" + first.id() + "\n")
+                .contains("id:" + second.id() + "\n", "id:" + third.id() + "\n");
+        assertThat(replayed.indexOf(second.id())).isLessThan(replayed.indexOf(third.id()));
+    }
+
+    @Test
+    void subscribe_ShouldAskForResyncWhenLastEventIdIsNoLongerKept() throws Exception {
+        InvoiceStatusEvent evicted = InvoiceStatusEvent.of(COMPANY, 10L, "processing", null, null);
+        hub.deliver(evicted);
+        for (long invoiceId = 11; invoiceId <= 13; invoiceId++) {
+            hub.deliver(InvoiceStatusEvent.of(COMPANY, invoiceId, "processing", null, null));
+        }
+
+        String content = open(COMPANY, evicted.id()).getContentAsString();
+
+        assertThat(content).contains("event:resync").doesNotContain("event:invoice-status");
+    }
+
+    @Test
+    void subscribe_ShouldRefuseStreamsBeyondTheCompanyLimit() throws Exception {
+        open(COMPANY, null);
+        open(COMPANY, null);
+
+        CompanyContext.setCompanyId(COMPANY);
+        mockMvc.perform(get("/api/invoices/status-stream"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+
+        assertThat(hub.connectionCount()).isEqualTo(2);
+        open(OTHER_COMPANY, null);
+        assertThat(hub.connectionCount()).isEqualTo(3);
+    }
+
+    @Test
+    void heartbeat_ShouldBeSentToEveryOpenStream() throws Exception {
+        MockHttpServletResponse stream = open(COMPANY, null);
+        MockHttpServletResponse otherStream = open(OTHER_COMPANY, null);
+
+        hub.heartbeat();
+
+        assertThat(stream.getContentAsString()).contains(":heartbeat");
+        assertThat(otherStream.getContentAsString()).contains(":heartbeat");
+    }
+
+    @Test
+    void deliver_ShouldDropStreamsThatFallTooFarBehind() throws Exception {
+        List<Runnable> stalledSends = new ArrayList<>();
+        useHub(new InvoiceStatusStreamHub(new SimpleMeterRegistry(), stalledSends::add, 60_000, 3000, 10, 2, 3, 5));
+        open(COMPANY, null);
+
+        // "connected" plus four events fill the queue of five; the next one overflows it
+        for (long invoiceId = 10; invoiceId < 15; invoiceId++) {
+            hub.deliver(InvoiceStatusEvent.of(COMPANY, invoiceId, "processing", null, null));
+            assertThat(hub.connectionCount()).isEqualTo(invoiceId < 14 ? 1 : 0);
+        }
+    }
+
+    private MockHttpServletResponse open(long companyId, String lastEventId) throws Exception {
+        CompanyContext.setCompanyId(companyId);
+        var builder = get("/api/invoices/status-stream");
+        if (lastEventId != null) {
+            builder.header("Last-Event-ID", lastEventId);
+        }
+        MockHttpServletResponse response = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+        CompanyContext.clear();
+        return response;
+    }
+}
@@ -0,0 +1,233 @@
+package com.invoices.outbox.infrastructure.relay;
+
+import com.invoices.outbox.domain.entities.OutboxEvent;
+import com.invoices.outbox.domain.ports.OutboxEventHandler;
+import com.invoices.outbox.infrastructure.persistence.repositories.OutboxRepositoryImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Relays against H2, committing for real (no test transaction), so that
+ * concurrent relays and rolled back batches behave as in production.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(OutboxRepositoryImpl.class)
+class OutboxRelayTest {
+
+    private static final int AGGREGATES = 6;
+    private static final int EVENTS_PER_AGGREGATE = 10;
+
+    @Autowired
+    private OutboxRepositoryImpl outboxRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("CREATE TABLE received (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                + "outbox_id BIGINT NOT NULL, aggregate_id VARCHAR(64) NOT NULL, seq INT NOT NULL)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE received");
+        jdbcTemplate.update("DELETE FROM outbox");
+    }
+
+    @Test
+    void relay_ShouldDeliverEveryEventExactlyOnceAndInOrderDespiteCrashes() throws Exception {
+        appendEvents();
+        // Each delivery may fail in the handler, crash the relay mid-batch or
+        // abort the transaction just before it commits
+        OutboxRelay relay = relay(3, 1000, event -> {
+            record(event);
+            int dice = ThreadLocalRandom.current().nextInt(10);
+            if (dice == 0) {
+                throw new IllegalStateException("handler failure");
+            }
+            if (dice == 1) {
+                throw new Error("relay crashed mid-batch");
+            }
+            if (dice == 2) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void beforeCommit(boolean readOnly) {
+                        throw new IllegalStateException("relay crashed before commit");
+                    }
+                });
+            }
+        });
+
+        ExecutorService relays = Executors.newFixedThreadPool(2);
+        List<Future<?>> running = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            running.add(relays.submit(() -> {
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+                while (pending() > 0 && System.nanoTime() < deadline) {
+                    try {
+                        relay.relayBatch();
+                    } catch (Throwable crash) {
+                        // The relay "restarts": nothing of the batch was committed
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : running) {
+            future.get(40, TimeUnit.SECONDS);
+        }
+        relays.shutdown();
+
+        assertThat(pending()).isZero();
+        List<Map<String, Object>> received = jdbcTemplate.queryForList(
+                "SELECT outbox_id, aggregate_id, seq FROM received ORDER BY id");
+        assertThat(received).hasSize(AGGREGATES * EVENTS_PER_AGGREGATE);
+        assertThat(received).extracting(row -> row.get("OUTBOX_ID")).doesNotHaveDuplicates();
+        for (int aggregate = 0; aggregate < AGGREGATES; aggregate++) {
+            String aggregateId = String.valueOf(aggregate);
+            assertThat(received.stream()
+                    .filter(row -> aggregateId.equals(row.get("AGGREGATE_ID")))
+                    .map(row -> ((Number) row.get("SEQ")).intValue())
+                    .toList())
+                    .containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+        }
+    }
+
+    @Test
+    void relay_ShouldParkFailingEventAndHoldBackOnlyItsAggregate() {
+        append("1", "TEST", 0);
+        append("1", "TEST", 1);
+        append("2", "TEST", 0);
+        OutboxRelay relay = relay(10, 2, event -> {
+            if ("1".equals(event.getAggregateId())) {
+                throw new IllegalStateException("always fails");
+            }
+            record(event);
+        });
+
+        relay.relayBatch();
+        relay.relayBatch();
+        relay.relayBatch();
+
+        assertThat(jdbcTemplate.queryForList("SELECT aggregate_id FROM received", String.class)).containsExactly("2");
+        Map<String, Object> parked = jdbcTemplate.queryForMap(
+                "SELECT attempts, last_error FROM outbox WHERE aggregate_id = '1' ORDER BY id LIMIT 1");
+        assertThat(parked.get("ATTEMPTS")).isEqualTo(2);
+        assertThat((String) parked.get("LAST_ERROR")).contains("always fails");
+        assertThat(pending()).isEqualTo(2);
+    }
+
+    @Test
+    void relay_ShouldDropEventsWithoutHandler() {
+        append("1", "UNKNOWN", 0);
+        OutboxRelay relay = relay(10, 3, this::record);
+
+        assertThat(relay.relayBatch()).isEqualTo(1);
+
+        assertThat(pending()).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM received", Integer.class)).isZero();
+    }
+
+    @Test
+    void relay_ShouldDeliverToEveryHandlerAndUndoThemTogether() {
+        append("1", "TEST", 0);
+        AtomicInteger calls = new AtomicInteger();
+        OutboxRelay relay = relay(10, 3, List.of(handler(this::record), handler(event -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalStateException("second handler fails once");
+            }
+            record(event);
+        })));
+
+        relay.relayBatch();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM received", Integer.class)).isZero();
+        assertThat(pending()).isEqualTo(1);
+
+        relay.relayBatch();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM received", Integer.class)).isEqualTo(2);
+        assertThat(pending()).isZero();
+    }
+
+    private OutboxRelay relay(int batchSize, int maxAttempts, Consumer<OutboxEvent> delivery) {
+        return relay(batchSize, maxAttempts, List.of(handler(delivery)));
+    }
+
+    private OutboxRelay relay(int batchSize, int maxAttempts, List<OutboxEventHandler> handlers) {
+        return new OutboxRelay(outboxRepository, handlers, dataSource, transactionManager,
+                new SimpleMeterRegistry(), batchSize, maxAttempts, 0, 0);
+    }
+
+    private static OutboxEventHandler handler(Consumer<OutboxEvent> delivery) {
+        return new OutboxEventHandler() {
+            @Override
+            public boolean supports(String eventType) {
+                return "TEST".equals(eventType);
+            }
+
+            @Override
+            public void handle(OutboxEvent event) {
+                delivery.accept(event);
+            }
+        };
+    }
+
+    private void appendEvents() {
+        for (int seq = 0; seq < EVENTS_PER_AGGREGATE; seq++) {
+            for (int aggregate = 0; aggregate < AGGREGATES; aggregate++) {
+                append(String.valueOf(aggregate), "TEST", seq);
+            }
+        }
+    }
+
+    private void append(String aggregateId, String eventType, int seq) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> outboxRepository.append(
+                OutboxEvent.builder()
+                        .aggregateType("test")
+                        .aggregateId(aggregateId)
+                        .eventType(eventType)
+                        .payload(String.valueOf(seq))
+                        .build()));
+    }
+
+    private void record(OutboxEvent event) {
+        jdbcTemplate.update("INSERT INTO received (outbox_id, aggregate_id, seq) VALUES (?, ?, ?)",
+                event.getId(), event.getAggregateId(), Integer.parseInt(event.getPayload()));
+    }
+
+    private int pending() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox", Integer.class);
+    }
+}
@@ -0,0 +1,70 @@
+package com.invoices.security;
+
+import com.invoices.benchmark.MicroBenchmark;
+import com.invoices.security.context.RequestSecurityContext;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Per-request token handling cost: the previous flow, where the filter and the
+ * company interceptor together parsed the token five times (username, validate,
+ * expiration, companyId in the filter; companyId in the interceptor), each time
+ * building a new parser and re-deriving the HMAC key, against a single
+ * {@link JwtUtil#verify} with the prebuilt parser. Run with {@code -Dbenchmark=true}.
+ *
+ * User lookup is excluded; it is the same in both flows.
+ */
+@EnabledIfSystemProperty(named = MicroBenchmark.ENABLED_PROPERTY, matches = "true")
+class JwtAuthenticationBenchmarkTest {
+
+    private static final int WARMUP = 5_000;
+    private static final int ITERATIONS = 50_000;
+    private static final String SECRET = "test-secret-key-that-is-at-least-32-characters-long-for-testing";
+    private static final String ISSUER = "invoices-test";
+
+    private final JwtUtil jwtUtil = JwtUtilTest.newJwtUtil(SECRET, 3600000L, ISSUER);
+    private final String token = jwtUtil.generateToken(JwtUtilTest.user(Set.of("ADMIN", "USER"), 7L));
+
+    @Test
+    void perRequestTokenHandling() throws Exception {
+        MicroBenchmark.run("auth legacy (5 parses, key per parse)", WARMUP, ITERATIONS, () -> {
+            String username = legacyParse().getSubject();
+            boolean valid = username.equals(legacyParse().getSubject())
+                    && !legacyParse().getExpiration().before(new Date());
+            Object companyId = legacyParse().get("companyId");
+            Object interceptorCompanyId = legacyParse().get("companyId");
+            if (!valid || companyId == null || interceptorCompanyId == null) {
+                throw new IllegalStateException();
+            }
+        });
+
+        MicroBenchmark.run("auth verify once (prebuilt parser)", WARMUP, ITERATIONS, () -> {
+            VerifiedToken verified = jwtUtil.verify(token);
+            RequestSecurityContext.set(new RequestSecurityContext.Authenticated(verified, Set.of("ROLE_ADMIN")));
+            if (RequestSecurityContext.get().token().companyId() == null) {
+                throw new IllegalStateException();
+            }
+            RequestSecurityContext.clear();
+        });
+
+        assertThat(jwtUtil.verify(token).companyId()).isEqualTo(7L);
+    }
+
+    private Claims legacyParse() {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .requireIssuer(ISSUER)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
@@ -0,0 +1,113 @@
+package com.invoices.security;
+
+import com.invoices.user.domain.entities.User;
+import com.invoices.user.infrastructure.persistence.entities.UserJpaEntity;
+import com.invoices.user.infrastructure.persistence.mappers.UserJpaMapper;
+import com.invoices.user.infrastructure.persistence.repositories.JpaUserRepository;
+import com.invoices.user.infrastructure.security.UserSecurityStampCache;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "test-secret-key-that-is-at-least-32-characters-long-for-testing";
+
+    @Mock
+    private JpaUserRepository jpaUserRepository;
+
+    @Mock
+    private UserJpaMapper mapper;
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    private final JwtUtil jwtUtil = JwtUtilTest.newJwtUtil(SECRET, 3600000L, "invoices-test");
+    private UserSecurityStampCache stampCache;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        stampCache = new UserSecurityStampCache(jpaUserRepository, mapper, 60, 100);
+        filter = new JwtAuthenticationFilter(jwtUtil, userDetailsService, stampCache);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void stampedToken_ShouldAuthenticateFromClaimsWithOneLookupPerTtl() throws Exception {
+        User user = JwtUtilTest.user(Set.of("ADMIN"), 7L);
+        stubStoredUser(user);
+        String token = jwtUtil.generateToken(user);
+
+        Authentication first = filter(token);
+        Authentication second = filter(token);
+
+        assertThat(first).isNotNull();
+        assertThat(second).isNotNull();
+        assertThat(second.getName()).isEqualTo("user@test.com");
+        assertThat(second.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactlyInAnyOrder("ROLE_ADMIN", "ROLE_REGULAR_USER");
+        verify(jpaUserRepository, times(1)).findByEmail("user@test.com");
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    @Test
+    void stampedToken_ShouldBeRejectedAfterPasswordChange() throws Exception {
+        User user = JwtUtilTest.user(Set.of("USER"), 7L);
+        String token = jwtUtil.generateToken(user);
+        stubStoredUser(user.withPassword("$2a$10$other"));
+
+        assertThat(filter(token)).isNull();
+    }
+
+    @Test
+    void stampedToken_ShouldBeRejectedAfterDeactivation() throws Exception {
+        User user = JwtUtilTest.user(Set.of("USER"), 7L);
+        String token = jwtUtil.generateToken(user);
+        stubStoredUser(user.withDisabled());
+
+        assertThat(filter(token)).isNull();
+    }
+
+    private Authentication filter(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        Authentication[] seen = new Authentication[1];
+        FilterChain chain = (req, res) -> seen[0] = SecurityContextHolder.getContext().getAuthentication();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        return seen[0];
+    }
+
+    private void stubStoredUser(User stored) {
+        UserJpaEntity entity = new UserJpaEntity();
+        when(jpaUserRepository.findByEmail("user@test.com")).thenReturn(Optional.of(entity));
+        when(mapper.toDomainEntity(any())).thenReturn(stored);
+    }
+}
@@ -0,0 +1,91 @@
+package com.invoices.security;
+
+import com.invoices.user.domain.entities.PlatformRole;
+import com.invoices.user.domain.entities.User;
+import com.invoices.user.exception.InvalidTokenException;
+import com.invoices.user.exception.TokenExpiredException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "test-secret-key-that-is-at-least-32-characters-long-for-testing";
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = newJwtUtil(SECRET, 3600000L, "invoices-test");
+    }
+
+    @Test
+    void verify_ShouldReturnAllClaimsFromSingleParse() {
+        String token = jwtUtil.generateToken(user(Set.of("ADMIN", "USER"), 7L));
+
+        VerifiedToken verified = jwtUtil.verify(token);
+
+        assertThat(verified.username()).isEqualTo("user@test.com");
+        assertThat(verified.companyId()).isEqualTo(7L);
+        assertThat(verified.roles()).containsExactlyInAnyOrder("ADMIN", "USER");
+        assertThat(verified.platformRole()).isEqualTo("REGULAR_USER");
+        assertThat(verified.securityStamp()).isEqualTo(user(Set.of("ADMIN", "USER"), 7L).getSecurityStamp());
+        assertThat(verified.expiresAt()).isAfter(Instant.now());
+    }
+
+    @Test
+    void verify_ShouldAllowTokensWithoutCompany() {
+        String token = jwtUtil.generateToken(user(Set.of(), null));
+
+        VerifiedToken verified = jwtUtil.verify(token);
+
+        assertThat(verified.companyId()).isNull();
+        assertThat(verified.roles()).isEmpty();
+    }
+
+    @Test
+    void verify_ShouldRejectExpiredToken() {
+        JwtUtil expiring = newJwtUtil(SECRET, -1000L, "invoices-test");
+        String token = expiring.generateToken(user(Set.of("USER"), 1L));
+
+        assertThrows(TokenExpiredException.class, () -> jwtUtil.verify(token));
+        assertThat(jwtUtil.validateToken(token)).isFalse();
+    }
+
+    @Test
+    void verify_ShouldRejectTokenFromAnotherIssuer() {
+        String token = newJwtUtil(SECRET, 3600000L, "other-system")
+                .generateToken(user(Set.of("USER"), 1L));
+
+        assertThrows(InvalidTokenException.class, () -> jwtUtil.verify(token));
+    }
+
+    @Test
+    void verify_ShouldRejectTokenSignedWithAnotherKey() {
+        String token = newJwtUtil(SECRET + "-other", 3600000L, "invoices-test")
+                .generateToken(user(Set.of("USER"), 1L));
+
+        assertThrows(InvalidTokenException.class, () -> jwtUtil.verify(token));
+    }
+
+    static User user(Set<String> roles, Long companyId) {
+        return new User(1L, "user@test.com", "$2a$10$hash", "Test", "User", roles, true, true, true, true,
+                LocalDateTime.now(), LocalDateTime.now(), null, companyId, PlatformRole.REGULAR_USER);
+    }
+
+    static JwtUtil newJwtUtil(String secret, long expiration, String issuer) {
+        JwtUtil util = new JwtUtil();
+        ReflectionTestUtils.setField(util, "secret", secret);
+        ReflectionTestUtils.setField(util, "expiration", expiration);
+        ReflectionTestUtils.setField(util, "issuer", issuer);
+        util.init();
+        return util;
+    }
+}
@@ -0,0 +1,101 @@
+package com.invoices.security;
+
+import com.invoices.security.context.RequestSecurityContext;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Instant;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class RateLimitingFilterTest {
+
+    private RateLimitingFilter filter;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        RateLimitingFilter.RateLimitProperties properties = new RateLimitingFilter.RateLimitProperties();
+        properties.setGeneralCapacity(2);
+        properties.setAuthCapacity(1);
+        properties.setUserCapacity(3);
+        properties.setTenantCapacity(4);
+        filter = new RateLimitingFilter(properties, mock(ObjectProvider.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestSecurityContext.clear();
+    }
+
+    @Test
+    void anonymousRequests_ShouldBeLimitedPerIp() throws Exception {
+        assertThat(request("10.0.0.1", "/api/invoices").getStatus()).isEqualTo(200);
+        assertThat(request("10.0.0.1", "/api/invoices").getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse rejected = request("10.0.0.1", "/api/invoices");
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(Long.parseLong(rejected.getHeader("X-Rate-Limit-Retry-After-Seconds"))).isBetween(1L, 61L);
+
+        assertThat(request("10.0.0.2", "/api/invoices").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void authEndpoints_ShouldUseTheirOwnPerIpLimit() throws Exception {
+        assertThat(request("10.0.0.1", "/api/auth/login").getStatus()).isEqualTo(200);
+        assertThat(request("10.0.0.1", "/api/auth/login").getStatus()).isEqualTo(429);
+        assertThat(request("10.0.0.1", "/api/invoices").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void authenticatedRequests_ShouldBeLimitedPerUserNotPerIp() throws Exception {
+        authenticate("a@test.com", null);
+        for (int i = 0; i < 3; i++) {
+            assertThat(request("10.0.0.1", "/api/invoices").getStatus()).isEqualTo(200);
+        }
+        assertThat(request("10.0.0.9", "/api/invoices").getStatus()).isEqualTo(429);
+
+        authenticate("b@test.com", null);
+        assertThat(request("10.0.0.1", "/api/invoices").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void authenticatedRequests_ShouldShareTheTenantLimit() throws Exception {
+        authenticate("a@test.com", 7L);
+        for (int i = 0; i < 3; i++) {
+            assertThat(request("10.0.0.1", "/api/invoices").getStatus()).isEqualTo(200);
+        }
+
+        authenticate("b@test.com", 7L);
+        MockHttpServletResponse last = request("10.0.0.2", "/api/invoices");
+        assertThat(last.getStatus()).isEqualTo(200);
+        assertThat(last.getHeader("X-Rate-Limit-Limit")).isEqualTo("4");
+        assertThat(last.getHeader("X-Rate-Limit-Remaining")).isEqualTo("0");
+        assertThat(request("10.0.0.2", "/api/invoices").getStatus()).isEqualTo(429);
+
+        authenticate("c@test.com", 8L);
+        assertThat(request("10.0.0.2", "/api/invoices").getStatus()).isEqualTo(200);
+    }
+
+    private void authenticate(String username, Long companyId) {
+        VerifiedToken token = new VerifiedToken(username, companyId, Set.of("USER"), "REGULAR_USER", "stamp",
+                Instant.now().plusSeconds(3600));
+        RequestSecurityContext.set(new RequestSecurityContext.Authenticated(token, Set.of("ROLE_USER")));
+    }
+
+    private MockHttpServletResponse request(String ip, String path) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setRemoteAddr(ip);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> ((MockHttpServletResponse) res).setStatus(200);
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,126 @@
+package com.invoices.security;
+
+import com.invoices.benchmark.MicroBenchmark;
+import com.invoices.security.context.RequestSecurityContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Multi-tenant load test for {@link TenantBulkheadFilter}: one company fires a
+ * burst of ZIP exports while four others make ordinary PDF downloads. A fixed
+ * pool of 20 workers stands in for Tomcat's threads and a 5-permit semaphore for
+ * the Hikari pool; every request holds a "connection" while it works. Run with
+ * {@code -Dbenchmark=true}.
+ *
+ * Without the bulkhead the burst occupies every worker and connection and the
+ * other tenants queue behind it. With it, the noisy tenant gets one export in
+ * flight plus a short queue, the rest of its burst is rejected with 429, and
+ * the other tenants keep their latency.
+ */
+@EnabledIfSystemProperty(named = MicroBenchmark.ENABLED_PROPERTY, matches = "true")
+class TenantBulkheadBenchmarkTest {
+
+    private static final int WORKERS = 20;
+    private static final int DB_CONNECTIONS = 5;
+    private static final int NOISY_REQUESTS = 200;
+    private static final int QUIET_TENANTS = 4;
+    private static final int QUIET_REQUESTS_PER_TENANT = 25;
+    private static final long EXPORT_MILLIS = 40;
+    private static final long PDF_MILLIS = 5;
+
+    @Test
+    void quietTenantLatencyDuringNoisyTenantExports() throws Exception {
+        TenantBulkheadFilter.BulkheadProperties disabled = new TenantBulkheadFilter.BulkheadProperties();
+        disabled.setEnabled(false);
+        run("noisy tenant, no bulkhead", disabled);
+        run("noisy tenant, bulkhead", new TenantBulkheadFilter.BulkheadProperties());
+    }
+
+    private void run(String name, TenantBulkheadFilter.BulkheadProperties properties) throws Exception {
+        TenantBulkheadFilter filter = new TenantBulkheadFilter(properties, new SimpleMeterRegistry());
+        Semaphore connections = new Semaphore(DB_CONNECTIONS, true);
+        ExecutorService workers = Executors.newFixedThreadPool(WORKERS);
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<Long>> quietLatencies = new ArrayList<>();
+        List<Future<?>> noisy = new ArrayList<>();
+
+        int quietEvery = NOISY_REQUESTS / QUIET_REQUESTS_PER_TENANT;
+        for (int i = 0; i < NOISY_REQUESTS; i++) {
+            noisy.add(workers.submit(() -> {
+                int status = request(filter, 1L, "/api/invoices/download-all", connections, EXPORT_MILLIS);
+                if (status == 429) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+            if (i % quietEvery == 0) {
+                for (long tenant = 2; tenant < 2 + QUIET_TENANTS; tenant++) {
+                    long companyId = tenant;
+                    long submitted = System.nanoTime();
+                    quietLatencies.add(workers.submit(() -> {
+                        request(filter, companyId, "/api/invoices/" + companyId + "/pdf", connections, PDF_MILLIS);
+                        return System.nanoTime() - submitted;
+                    }));
+                }
+            }
+        }
+
+        long[] samples = new long[quietLatencies.size()];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = quietLatencies.get(i).get(5, TimeUnit.MINUTES);
+        }
+        for (Future<?> future : noisy) {
+            future.get(5, TimeUnit.MINUTES);
+        }
+        workers.shutdown();
+
+        Arrays.sort(samples);
+        System.out.println(String.format(Locale.ROOT,
+                "[benchmark] %-30s quiet tenants p50=%8.1fms p99=%8.1fms noisy=%d rejected=%d",
+                name, samples[samples.length / 2] / 1e6,
+                samples[Math.min(samples.length - 1, (int) (samples.length * 0.99))] / 1e6,
+                NOISY_REQUESTS, rejected.get()));
+    }
+
+    private static int request(TenantBulkheadFilter filter, long companyId, String path, Semaphore connections,
+            long workMillis) throws Exception {
+        VerifiedToken token = new VerifiedToken("user" + companyId + "@test.com", companyId, Set.of("USER"),
+                "REGULAR_USER", "stamp", Instant.now().plusSeconds(3600));
+        RequestSecurityContext.set(new RequestSecurityContext.Authenticated(token, Set.of("ROLE_USER")));
+        try {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            FilterChain chain = (req, res) -> {
+                connections.acquireUninterruptibly();
+                try {
+                    Thread.sleep(workMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    connections.release();
+                }
+                ((MockHttpServletResponse) res).setStatus(200);
+            };
+            filter.doFilter(new MockHttpServletRequest("GET", path), response, chain);
+            return response.getStatus();
+        } finally {
+            RequestSecurityContext.clear();
+        }
+    }
+}
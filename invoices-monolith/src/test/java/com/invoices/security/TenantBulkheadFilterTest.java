@@ -0,0 +1,103 @@
+package com.invoices.security;
+
+import com.invoices.security.context.RequestSecurityContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TenantBulkheadFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TenantBulkheadFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        TenantBulkheadFilter.BulkheadProperties properties = new TenantBulkheadFilter.BulkheadProperties();
+        TenantBulkheadFilter.BulkheadProperties.EndpointClass zip = properties.getClasses().get("zip-export");
+        zip.setMaxQueued(1);
+        zip.setMaxWaitMillis(50);
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new TenantBulkheadFilter(properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestSecurityContext.clear();
+    }
+
+    @Test
+    void concurrentHeavyRequestsOfOneTenant_ShouldBeRejectedWithRetryAfter() throws Exception {
+        CountDownLatch inFlight = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<MockHttpServletResponse> first = CompletableFuture.supplyAsync(
+                () -> request(7L, "/api/invoices/download-all", inFlight, release));
+        assertThat(inFlight.await(5, TimeUnit.SECONDS)).isTrue();
+
+        MockHttpServletResponse rejected = request(7L, "/api/invoices/download-quarter", null, null);
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("10");
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+        assertThat(request(7L, "/api/invoices/download-all", null, null).getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.get("bulkhead.rejections").tag("class", "zip-export").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void otherTenantsAndEndpointClasses_ShouldNotBeAffected() throws Exception {
+        CountDownLatch inFlight = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<MockHttpServletResponse> first = CompletableFuture.supplyAsync(
+                () -> request(7L, "/api/invoices/download-all", inFlight, release));
+        assertThat(inFlight.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(request(8L, "/api/invoices/download-all", null, null).getStatus()).isEqualTo(200);
+        assertThat(request(7L, "/api/invoices/export", null, null).getStatus()).isEqualTo(200);
+        assertThat(request(7L, "/api/invoices/42/pdf", null, null).getStatus()).isEqualTo(200);
+        assertThat(request(7L, "/api/invoices", null, null).getStatus()).isEqualTo(200);
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+    }
+
+    private MockHttpServletResponse request(Long companyId, String path, CountDownLatch inFlight,
+            CountDownLatch release) {
+        VerifiedToken token = new VerifiedToken("user" + companyId + "@test.com", companyId, Set.of("USER"),
+                "REGULAR_USER", "stamp", Instant.now().plusSeconds(3600));
+        RequestSecurityContext.set(new RequestSecurityContext.Authenticated(token, Set.of("ROLE_USER")));
+        try {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            FilterChain chain = (req, res) -> {
+                if (inFlight != null) {
+                    inFlight.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                ((MockHttpServletResponse) res).setStatus(200);
+            };
+            filter.doFilter(request, response, chain);
+            return response;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        } finally {
+            RequestSecurityContext.clear();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.invoices.security.application.services;
+
+import com.invoices.security.domain.entities.RefreshToken;
+import com.invoices.security.domain.ports.RefreshTokenRepository;
+import com.invoices.user.exception.InvalidTokenException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    private static final Long USER_ID = 1L;
+    private static final String FAMILY_ID = "family-1";
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private RefreshTokenService refreshTokenService;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository);
+        ReflectionTestUtils.setField(refreshTokenService, "refreshTokenDurationMs", 60_000L);
+    }
+
+    @Test
+    void rotate_ShouldRevokePresentedTokenAndIssueNewOneInSameFamily() {
+        when(refreshTokenRepository.findByToken("old")).thenReturn(Optional.of(token("old", false)));
+        when(refreshTokenRepository.revoke("old")).thenReturn(true);
+        when(refreshTokenRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        RefreshToken rotated = refreshTokenService.rotate("old");
+
+        assertThat(rotated.getToken()).isNotEqualTo("old");
+        assertThat(rotated.getUserId()).isEqualTo(USER_ID);
+        assertThat(rotated.isRevoked()).isFalse();
+        assertThat(rotated.getFamilyId()).isEqualTo(FAMILY_ID);
+        verify(refreshTokenRepository, never()).deleteByFamilyId(any());
+        verify(refreshTokenRepository, never()).deleteByUserId(any());
+    }
+
+    @Test
+    void rotate_ShouldRevokeTokenFamily_WhenTokenIsReused() {
+        when(refreshTokenRepository.findByToken("old")).thenReturn(Optional.of(token("old", true)));
+        when(refreshTokenRepository.revoke("old")).thenReturn(false);
+
+        assertThrows(InvalidTokenException.class, () -> refreshTokenService.rotate("old"));
+
+        verify(refreshTokenRepository).deleteByFamilyId(FAMILY_ID);
+        verify(refreshTokenRepository, never()).deleteByUserId(any());
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void rotate_ShouldRevokeAllUserTokens_WhenReusedTokenHasNoFamily() {
+        RefreshToken legacy = token("old", true);
+        legacy.setFamilyId(null);
+        when(refreshTokenRepository.findByToken("old")).thenReturn(Optional.of(legacy));
+        when(refreshTokenRepository.revoke("old")).thenReturn(false);
+
+        assertThrows(InvalidTokenException.class, () -> refreshTokenService.rotate("old"));
+
+        verify(refreshTokenRepository).deleteByUserId(USER_ID);
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void rotate_ShouldRejectUnknownToken() {
+        when(refreshTokenRepository.findByToken("unknown")).thenReturn(Optional.empty());
+
+        assertThrows(InvalidTokenException.class, () -> refreshTokenService.rotate("unknown"));
+    }
+
+    @Test
+    void createRefreshToken_ShouldNotLookUpUser() {
+        when(refreshTokenRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        RefreshToken token = refreshTokenService.createRefreshToken(USER_ID);
+
+        assertThat(token.getExpiryDate()).isAfter(Instant.now());
+        assertThat(token.getFamilyId()).isNotBlank();
+        verify(refreshTokenRepository).save(token);
+        verifyNoMoreInteractions(refreshTokenRepository);
+    }
+
+    private static RefreshToken token(String value, boolean revoked) {
+        return RefreshToken.builder()
+                .token(value)
+                .userId(USER_ID)
+                .familyId(FAMILY_ID)
+                .expiryDate(Instant.now().plusSeconds(60))
+                .revoked(revoked)
+                .build();
+    }
+}
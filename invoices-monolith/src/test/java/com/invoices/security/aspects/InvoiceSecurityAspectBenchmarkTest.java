@@ -0,0 +1,96 @@
+package com.invoices.security.aspects;
+
+import com.invoices.benchmark.MicroBenchmark;
+import com.invoices.security.VerifiedToken;
+import com.invoices.security.context.RequestSecurityContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.aop.MethodBeforeAdvice;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Cost of the platform-admin check per request on a list endpoint (one page of
+ * 50 invoices) and an export endpoint (2,000 invoices). Run with
+ * {@code -Dbenchmark=true}.
+ *
+ * "per call" advises every invoice/client bean, as the previous pointcut did,
+ * so the use case, the repository and the per-row mapper and client lookup all
+ * go through the proxy. "boundary" advises only the use case. Both variants run
+ * the same check, so the gap is the cost of the extra advised calls.
+ */
+@EnabledIfSystemProperty(named = MicroBenchmark.ENABLED_PROPERTY, matches = "true")
+class InvoiceSecurityAspectBenchmarkTest {
+
+    interface RowSource {
+        int rows(int count);
+    }
+
+    interface RowMapper {
+        long map(int row);
+    }
+
+    interface Endpoint {
+        long handle(int count);
+    }
+
+    private final InvoiceSecurityAspect aspect = new InvoiceSecurityAspect();
+    private final MethodBeforeAdvice advice = (method, args, target) -> aspect.blockPlatformAdminAccess(null);
+
+    @BeforeEach
+    void setUp() {
+        RequestSecurityContext.set(new RequestSecurityContext.Authenticated(
+                new VerifiedToken("user@test.com", 1L, Set.of("USER"), "REGULAR_USER", "stamp",
+                        Instant.now().plusSeconds(3600)),
+                Set.of("ROLE_USER")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestSecurityContext.clear();
+    }
+
+    @Test
+    void adviceOverheadOnListAndExport() throws Exception {
+        RowSource repository = count -> count;
+        RowMapper mapper = row -> row * 31L;
+        RowMapper clientLookup = row -> row % 17;
+
+        Endpoint perCall = endpoint(advised(repository, RowSource.class), advised(mapper, RowMapper.class),
+                advised(clientLookup, RowMapper.class));
+        Endpoint boundary = endpoint(repository, mapper, clientLookup);
+        Endpoint perCallEndpoint = advised(perCall, Endpoint.class);
+        Endpoint boundaryEndpoint = advised(boundary, Endpoint.class);
+
+        for (int round = 0; round < 2; round++) {
+            MicroBenchmark.run("list 50 rows, advice per call", 20_000, 20_000, () -> perCallEndpoint.handle(50));
+            MicroBenchmark.run("list 50 rows, advice at boundary", 20_000, 20_000, () -> boundaryEndpoint.handle(50));
+            MicroBenchmark.run("export 2000 rows, advice per call", 500, 2_000, () -> perCallEndpoint.handle(2_000));
+            MicroBenchmark.run("export 2000 rows, advice at boundary", 500, 2_000,
+                    () -> boundaryEndpoint.handle(2_000));
+        }
+    }
+
+    private static Endpoint endpoint(RowSource repository, RowMapper mapper, RowMapper clientLookup) {
+        return count -> {
+            long checksum = 0;
+            int rows = repository.rows(count);
+            for (int i = 0; i < rows; i++) {
+                checksum += mapper.map(i) + clientLookup.map(i);
+            }
+            return checksum;
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T advised(T target, Class<T> type) {
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.addInterface(type);
+        factory.addAdvice(advice);
+        return (T) factory.getProxy();
+    }
+}
@@ -1,17 +1,28 @@
 package com.invoices.security.aspects;
 
+import com.invoices.invoice.domain.entities.Client;
+import com.invoices.invoice.domain.ports.ClientRepository;
+import com.invoices.invoice.domain.ports.InvoiceRepository;
+import com.invoices.invoice.domain.usecases.GetClientByIdUseCase;
+import com.invoices.security.VerifiedToken;
+import com.invoices.security.context.RequestSecurityContext;
 import com.invoices.security.exceptions.PlatformAdminAccessDeniedException;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.when;
@@ -32,6 +43,11 @@ class InvoiceSecurityAspectTest {
         SecurityContextHolder.clearContext();
     }
 
+    @AfterEach
+    void tearDown() {
+        RequestSecurityContext.clear();
+    }
+
     @Test
     void shouldBlockPlatformAdminAccess() {
         // Given: User with PLATFORM_ADMIN role
@@ -85,6 +101,61 @@ class InvoiceSecurityAspectTest {
         });
     }
 
+    @Test
+    void shouldUseAuthoritiesResolvedForTheRequest() {
+        // Given: Request authenticated by the JWT filter as platform admin
+        RequestSecurityContext.set(new RequestSecurityContext.Authenticated(
+                new VerifiedToken("admin@platform.com", null, Set.of(), "PLATFORM_ADMIN", "stamp",
+                        Instant.now().plusSeconds(60)),
+                Set.of("ROLE_PLATFORM_ADMIN")));
+
+        JoinPoint joinPoint = Mockito.mock(JoinPoint.class);
+        Signature signature = Mockito.mock(Signature.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(signature.toShortString()).thenReturn("TestMethod()");
+
+        // When/Then
+        assertThrows(PlatformAdminAccessDeniedException.class, () -> {
+            aspect.blockPlatformAdminAccess(joinPoint);
+        });
+    }
+
+    @Test
+    void shouldAdviseUseCases() {
+        authenticateAs(List.of(new SimpleGrantedAuthority("ROLE_PLATFORM_ADMIN")));
+        ClientRepository clientRepository = Mockito.mock(ClientRepository.class);
+        GetClientByIdUseCase useCase = advised(new GetClientByIdUseCase(clientRepository));
+
+        assertThrows(PlatformAdminAccessDeniedException.class, () -> useCase.execute(1L));
+        Mockito.verifyNoInteractions(clientRepository);
+    }
+
+    @Test
+    void shouldNotAdviseRepositories() {
+        // Platform statistics count invoices through the repository
+        authenticateAs(List.of(new SimpleGrantedAuthority("ROLE_PLATFORM_ADMIN")));
+        InvoiceRepository invoiceRepository = Mockito.mock(InvoiceRepository.class);
+        when(invoiceRepository.countByCompanyId(1L)).thenReturn(3L);
+
+        assertEquals(3L, advised(invoiceRepository).countByCompanyId(1L));
+    }
+
+    @Test
+    void shouldAllowRegularUserThroughUseCases() {
+        authenticateAs(List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        ClientRepository clientRepository = Mockito.mock(ClientRepository.class);
+        Client client = Mockito.mock(Client.class);
+        when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
+
+        assertSame(client, advised(new GetClientByIdUseCase(clientRepository)).execute(1L));
+    }
+
+    private <T> T advised(T target) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+
     private void authenticateAs(List<GrantedAuthority> authorities) {
         UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken("testuser", "password",
                 authorities);
@@ -0,0 +1,128 @@
+package com.invoices.security.infrastructure.persistence.adapters;
+
+import com.invoices.security.domain.entities.RefreshToken;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the adapter's Lua scripts against a real Redis. Skipped where Docker is
+ * not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("RedisRefreshTokenRepositoryAdapter Tests")
+class RedisRefreshTokenRepositoryAdapterTest {
+
+    @Container
+    private static final GenericContainer<?> REDIS = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+
+    private RedisRefreshTokenRepositoryAdapter adapter;
+    private StringRedisTemplate redis;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(REDIS.getHost(), REDIS.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redis = new StringRedisTemplate(connectionFactory);
+        redis.getConnectionFactory().getConnection().serverCommands().flushAll();
+        adapter = new RedisRefreshTokenRepositoryAdapter(connectionFactory);
+    }
+
+    @Test
+    @DisplayName("SAVE stores the token with its expiry and indexes it by user and family")
+    void save_StoresTokenAndIndexes() {
+        RefreshToken token = token("token-1", 1L, "family-1");
+
+        adapter.save(token);
+
+        assertThat(adapter.findByToken("token-1")).hasValueSatisfying(found -> {
+            assertThat(found.getUserId()).isEqualTo(1L);
+            assertThat(found.getFamilyId()).isEqualTo("family-1");
+            assertThat(found.getExpiryDate()).isEqualTo(token.getExpiryDate());
+            assertThat(found.isRevoked()).isFalse();
+        });
+        assertThat(redis.getExpire("refresh-token:token-1")).isPositive();
+        assertThat(redis.opsForSet().members("refresh-token:user:1")).containsExactly("token-1");
+        assertThat(redis.opsForSet().members("refresh-token:family:family-1")).containsExactly("token-1");
+        assertThat(redis.getExpire("refresh-token:user:1")).isPositive();
+        assertThat(redis.getExpire("refresh-token:family:family-1")).isPositive();
+    }
+
+    @Test
+    @DisplayName("REVOKE succeeds once, and not for unknown tokens")
+    void revoke_SucceedsOnce() {
+        adapter.save(token("token-1", 1L, "family-1"));
+
+        assertThat(adapter.revoke("token-1")).isTrue();
+        assertThat(adapter.revoke("token-1")).isFalse();
+        assertThat(adapter.revoke("unknown")).isFalse();
+        assertThat(adapter.findByToken("token-1")).hasValueSatisfying(found -> assertThat(found.isRevoked()).isTrue());
+        assertThat(redis.hasKey("refresh-token:unknown")).isFalse();
+    }
+
+    @Test
+    @DisplayName("DELETE_USER removes every token of the user and nobody else's")
+    void deleteByUserId_RemovesOnlyThatUsersTokens() {
+        adapter.save(token("token-1", 1L, "family-1"));
+        adapter.save(token("token-2", 1L, "family-2"));
+        adapter.save(token("token-3", 2L, "family-3"));
+
+        assertThat(adapter.deleteByUserId(1L)).isEqualTo(2);
+
+        assertThat(adapter.findByToken("token-1")).isEmpty();
+        assertThat(adapter.findByToken("token-2")).isEmpty();
+        assertThat(adapter.findByToken("token-3")).isPresent();
+        assertThat(redis.hasKey("refresh-token:user:1")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deleting a family removes its tokens and keeps the user's other logins")
+    void deleteByFamilyId_RemovesOnlyThatFamily() {
+        adapter.save(token("token-1", 1L, "family-1"));
+        adapter.save(token("token-2", 1L, "family-1"));
+        adapter.save(token("token-3", 1L, "family-2"));
+
+        assertThat(adapter.deleteByFamilyId("family-1")).isEqualTo(2);
+
+        assertThat(adapter.findByToken("token-1")).isEmpty();
+        assertThat(adapter.findByToken("token-2")).isEmpty();
+        assertThat(adapter.findByToken("token-3")).isPresent();
+    }
+
+    private static RefreshToken token(String value, Long userId, String familyId) {
+        return RefreshToken.builder()
+                .token(value)
+                .userId(userId)
+                .familyId(familyId)
+                .expiryDate(Instant.now().plus(1, ChronoUnit.HOURS).truncatedTo(ChronoUnit.MILLIS))
+                .revoked(false)
+                .build();
+    }
+}
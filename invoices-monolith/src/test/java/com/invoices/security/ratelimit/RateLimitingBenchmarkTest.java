@@ -0,0 +1,107 @@
+package com.invoices.security.ratelimit;
+
+import com.invoices.benchmark.MicroBenchmark;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bucket lookup under contention: the previous synchronized LRU map (50 entries)
+ * against {@link RateLimitBuckets}, with many threads hitting a few thousand
+ * distinct clients. Run with {@code -Dbenchmark=true}.
+ *
+ * Throughput is only meaningful on a multi-core machine. The retained-bucket
+ * count shows the other difference: the 50-entry LRU keeps evicting, and so
+ * resetting, buckets of active clients.
+ */
+@EnabledIfSystemProperty(named = MicroBenchmark.ENABLED_PROPERTY, matches = "true")
+class RateLimitingBenchmarkTest {
+
+    private static final int THREADS = 64;
+    private static final int REQUESTS_PER_THREAD = 20_000;
+    private static final int CLIENTS = 2_000;
+    private static final long CAPACITY = 1_000_000;
+
+    @Test
+    void bucketLookupUnderContention() throws Exception {
+        Map<String, Bucket> legacy = Collections.synchronizedMap(new LinkedHashMap<String, Bucket>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                return size() > 50;
+            }
+        });
+        Consumer<String> legacyRequest = key -> {
+            Bucket bucket = legacy.computeIfAbsent(key, k -> newBucket());
+            if (bucket.tryConsume(1)) {
+                bucket.getAvailableTokens();
+            }
+        };
+        run("rate limit legacy (synchronized LRU)", legacyRequest);
+        run("rate limit legacy (synchronized LRU)", legacyRequest);
+
+        RateLimitBuckets buckets = new RateLimitBuckets(10_000, null);
+        run("rate limit concurrent buckets", key -> buckets.tryConsume(key, CAPACITY, Duration.ofMinutes(1)));
+        run("rate limit concurrent buckets", key -> buckets.tryConsume(key, CAPACITY, Duration.ofMinutes(1)));
+
+        System.out.println(String.format(Locale.ROOT, "[benchmark] retained buckets for %d active clients: "
+                + "legacy=%d concurrent=%d", CLIENTS, legacy.size(), buckets.size()));
+        assertThat(buckets.size()).isEqualTo(CLIENTS);
+    }
+
+    private static Bucket newBucket() {
+        return Bucket.builder()
+                .addLimit(Bandwidth.builder().capacity(CAPACITY).refillIntervally(CAPACITY, Duration.ofMinutes(1)).build())
+                .build();
+    }
+
+    private static void run(String name, Consumer<String> request) throws Exception {
+        String[] keys = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            keys[i] = "ip:" + i;
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(THREADS);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < REQUESTS_PER_THREAD; i++) {
+                        request.accept(keys[random.nextInt(CLIENTS)]);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+        executor.shutdown();
+
+        long total = (long) THREADS * REQUESTS_PER_THREAD;
+        System.out.println(String.format(Locale.ROOT,
+                "[benchmark] %-40s threads=%d n=%d total=%8.1fms throughput=%,12.0f req/s",
+                name, THREADS, total, elapsed / 1e6, total / (elapsed / 1e9)));
+    }
+}
@@ -0,0 +1,107 @@
+package com.invoices.security.ratelimit;
+
+import com.invoices.security.RateLimitingFilter.RateLimitProperties;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RedisBucketProxyManager Tests")
+class RedisBucketProxyManagerTest {
+
+    private static final byte[] KEY = "rate-limit:ip:1.2.3.4".getBytes(StandardCharsets.UTF_8);
+
+    @Mock
+    private RedisConnectionFactory connectionFactory;
+
+    @Mock
+    private RedisConnection connection;
+
+    @Mock
+    private RedisClusterAsyncCommands<byte[], byte[]> commands;
+
+    private RedisBucketProxyManager proxyManager;
+
+    @BeforeEach
+    void setUp() {
+        proxyManager = new RedisBucketProxyManager(connectionFactory, new RateLimitProperties());
+    }
+
+    @Test
+    @DisplayName("Async consumption creates the bucket with the insert script and releases the connection")
+    void asyncConsume_InsertsStateThroughLettuce() throws Exception {
+        when(connectionFactory.getConnection()).thenReturn(connection);
+        when(connection.getNativeConnection()).thenReturn(commands);
+        RedisFuture<byte[]> missing = future(null);
+        RedisFuture<Boolean> inserted = future(true);
+        when(commands.get(KEY)).thenReturn(missing);
+        when(commands.<Boolean>eval(any(String.class), eq(ScriptOutputType.BOOLEAN), any(byte[][].class),
+                any(byte[][].class))).thenReturn(inserted);
+
+        boolean consumed = proxyManager.asAsync().builder()
+                .build("ip:1.2.3.4", () -> CompletableFuture.completedFuture(configuration(5)))
+                .tryConsume(1)
+                .get(5, TimeUnit.SECONDS);
+
+        assertThat(consumed).isTrue();
+        verify(commands).eval(any(String.class), eq(ScriptOutputType.BOOLEAN), any(byte[][].class),
+                any(byte[][].class));
+        int acquired = mockingDetails(connectionFactory).getInvocations().size();
+        verify(connection, times(acquired)).close();
+    }
+
+    @Test
+    @DisplayName("While Redis is down, the local bucket enforces the limit and Redis is not retried")
+    void redisDown_FallsBackToLocalBucket() {
+        when(connectionFactory.getConnection()).thenThrow(new RedisConnectionFailureException("Connection refused"));
+        RateLimitBuckets buckets = new RateLimitBuckets(100, proxyManager, Duration.ofMillis(200),
+                Duration.ofMinutes(1));
+
+        ConsumptionProbe first = buckets.tryConsume("ip:1.2.3.4", 2, Duration.ofMinutes(1));
+        ConsumptionProbe second = buckets.tryConsume("ip:1.2.3.4", 2, Duration.ofMinutes(1));
+        ConsumptionProbe third = buckets.tryConsume("ip:1.2.3.4", 2, Duration.ofMinutes(1));
+
+        assertThat(first.isConsumed()).isTrue();
+        assertThat(second.isConsumed()).isTrue();
+        assertThat(third.isConsumed()).isFalse();
+        verify(connectionFactory, times(1)).getConnection();
+    }
+
+    private static BucketConfiguration configuration(long capacity) {
+        return BucketConfiguration.builder()
+                .addLimit(limit -> limit.capacity(capacity).refillIntervally(capacity, Duration.ofMinutes(1)))
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> RedisFuture<T> future(T value) {
+        RedisFuture<T> future = mock(RedisFuture.class);
+        when(future.toCompletableFuture()).thenReturn(CompletableFuture.completedFuture(value));
+        return future;
+    }
+}
@@ -0,0 +1,156 @@
+package com.invoices.security.service;
+
+import com.invoices.company.domain.events.UserJoinedCompanyEvent;
+import com.invoices.company.infrastructure.persistence.adapters.UserCompanyRepositoryAdapter;
+import com.invoices.company.infrastructure.persistence.entities.UserCompany;
+import com.invoices.company.infrastructure.persistence.entities.UserCompanyId;
+import com.invoices.company.infrastructure.persistence.repositories.UserCompanyRepository;
+import com.invoices.invoice.infrastructure.persistence.repositories.JpaCompanyRepository;
+import com.invoices.user.infrastructure.persistence.repositories.JpaUserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CompanyMembershipCache Tests")
+class CompanyMembershipCacheTest {
+
+    private static final Long USER_ID = 1L;
+    private static final Long COMPANY_ID = 100L;
+    private static final UserCompanyId ID = new UserCompanyId(USER_ID, COMPANY_ID);
+
+    @Mock
+    private UserCompanyRepository userCompanyRepository;
+
+    @Mock
+    private JpaUserRepository jpaUserRepository;
+
+    @Mock
+    private JpaCompanyRepository jpaCompanyRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CompanyMembershipCache cache;
+    private PermissionService permissionService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new CompanyMembershipCache(userCompanyRepository, meterRegistry, 60, 100);
+        permissionService = new PermissionService(cache);
+    }
+
+    @Test
+    @DisplayName("Repeated checks hit the database once and are counted as hits")
+    void repeatedChecks_LoadOnce() {
+        when(userCompanyRepository.findById(ID)).thenReturn(Optional.of(membership("ADMIN")));
+
+        assertThat(permissionService.isAdminInCompany(USER_ID, COMPANY_ID)).isTrue();
+        assertThat(permissionService.belongsToCompany(USER_ID, COMPANY_ID)).isTrue();
+        assertThat(permissionService.getUserRoleInCompany(USER_ID, COMPANY_ID)).isEqualTo("ADMIN");
+
+        verify(userCompanyRepository, times(1)).findById(ID);
+        assertThat(requests("hit")).isEqualTo(2.0);
+        assertThat(requests("miss")).isEqualTo(1.0);
+        assertThat(meterRegistry.get("permission.membership.cache.entry.age").summary().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Non-membership is cached as well")
+    void nonMembership_IsCached() {
+        when(userCompanyRepository.findById(ID)).thenReturn(Optional.empty());
+
+        assertThat(permissionService.belongsToCompany(USER_ID, COMPANY_ID)).isFalse();
+        assertThat(permissionService.belongsToCompany(USER_ID, COMPANY_ID)).isFalse();
+
+        verify(userCompanyRepository, times(1)).findById(ID);
+    }
+
+    @Test
+    @DisplayName("Removing a member through the repository revokes access immediately")
+    void removal_RevokesImmediately() {
+        UserCompanyRepositoryAdapter adapter = new UserCompanyRepositoryAdapter(
+                userCompanyRepository, jpaUserRepository, jpaCompanyRepository, cache);
+        when(userCompanyRepository.findById(ID))
+                .thenReturn(Optional.of(membership("ADMIN")))
+                .thenReturn(Optional.empty());
+        assertThat(permissionService.isAdminInCompany(USER_ID, COMPANY_ID)).isTrue();
+
+        adapter.delete(new com.invoices.company.domain.entities.UserCompany(
+                new com.invoices.company.domain.entities.UserCompanyId(USER_ID, COMPANY_ID), "ADMIN"));
+
+        assertThat(permissionService.isAdminInCompany(USER_ID, COMPANY_ID)).isFalse();
+        assertThat(permissionService.belongsToCompany(USER_ID, COMPANY_ID)).isFalse();
+        assertThat(meterRegistry.get("permission.membership.cache.invalidations").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Role downgrade through the repository takes effect immediately")
+    void roleUpdate_TakesEffectImmediately() {
+        UserCompanyRepositoryAdapter adapter = new UserCompanyRepositoryAdapter(
+                userCompanyRepository, jpaUserRepository, jpaCompanyRepository, cache);
+        when(userCompanyRepository.findById(ID))
+                .thenReturn(Optional.of(membership("ADMIN")))
+                .thenReturn(Optional.of(membership("USER")));
+        when(userCompanyRepository.save(any())).thenReturn(membership("USER"));
+        assertThat(permissionService.isAdminInCompany(USER_ID, COMPANY_ID)).isTrue();
+
+        adapter.save(new com.invoices.company.domain.entities.UserCompany(
+                new com.invoices.company.domain.entities.UserCompanyId(USER_ID, COMPANY_ID), "USER"));
+
+        assertThat(permissionService.isAdminInCompany(USER_ID, COMPANY_ID)).isFalse();
+    }
+
+    @Test
+    @DisplayName("UserJoinedCompanyEvent evicts a cached non-membership")
+    void userJoined_EvictsEntry() {
+        when(userCompanyRepository.findById(ID))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(membership("USER")));
+        assertThat(permissionService.belongsToCompany(USER_ID, COMPANY_ID)).isFalse();
+
+        cache.onUserJoinedCompany(new UserJoinedCompanyEvent(this, USER_ID, COMPANY_ID, "u@test.com", "U"));
+
+        assertThat(permissionService.belongsToCompany(USER_ID, COMPANY_ID)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deleting a company evicts every member of that company only")
+    void companyDeletion_EvictsOnlyThatCompany() {
+        UserCompanyId other = new UserCompanyId(USER_ID, 200L);
+        when(userCompanyRepository.findById(ID)).thenReturn(Optional.of(membership("USER")));
+        when(userCompanyRepository.findById(other)).thenReturn(Optional.of(membership("USER")));
+        cache.getRole(USER_ID, COMPANY_ID);
+        cache.getRole(USER_ID, 200L);
+
+        cache.evictCompany(COMPANY_ID);
+        cache.getRole(USER_ID, COMPANY_ID);
+        cache.getRole(USER_ID, 200L);
+
+        verify(userCompanyRepository, times(2)).findById(ID);
+        verify(userCompanyRepository, times(1)).findById(other);
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("permission.membership.cache.requests").tag("result", result).counter().count();
+    }
+
+    private static UserCompany membership(String role) {
+        UserCompany userCompany = new UserCompany();
+        userCompany.setId(ID);
+        userCompany.setRole(role);
+        return userCompany;
+    }
+}
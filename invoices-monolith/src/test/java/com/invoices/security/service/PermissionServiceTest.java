@@ -3,11 +3,11 @@ package com.invoices.security.service;
 import com.invoices.company.infrastructure.persistence.entities.UserCompany;
 import com.invoices.company.infrastructure.persistence.entities.UserCompanyId;
 import com.invoices.company.infrastructure.persistence.repositories.UserCompanyRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.Authentication;
@@ -37,7 +37,6 @@ class PermissionServiceTest {
     @Mock
     private Authentication authentication;
 
-    @InjectMocks
     private PermissionService permissionService;
 
     private static final Long USER_ID = 1L;
@@ -373,6 +372,9 @@ class PermissionServiceTest {
 
     @BeforeEach
     void setUp() {
+        permissionService = new PermissionService(
+                new CompanyMembershipCache(userCompanyRepository, new SimpleMeterRegistry(), 60, 100));
+
         // Default behavior for authentication name (User ID)
         lenient().when(authentication.getName()).thenReturn(String.valueOf(USER_ID));
     }
@@ -0,0 +1,275 @@
+package com.invoices.shared.infrastructure.mail.outbox;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The dispatcher against H2 and a minimal SMTP server on a local port, which
+ * records the connections and messages it receives.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(EmailOutboxRepository.class)
+class EmailOutboxDispatcherTest {
+
+    @Autowired
+    private EmailOutboxRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private LocalSmtpServer smtpServer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        smtpServer = new LocalSmtpServer(Set.of("rejected@example.com"));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        smtpServer.close();
+        jdbcTemplate.update("DELETE FROM email_outbox");
+    }
+
+    @Test
+    void dispatchOnce_ShouldSendBatchOverOneConnectionAndFoldAlertsIntoDigest() {
+        EmailOutbox outbox = new EmailOutbox(repository, 0);
+        for (String recipient : List.of("a@example.com", "b@example.com", "c@example.com")) {
+            outbox.enqueue(email(recipient, "Welcome"));
+        }
+        for (int invoice = 1; invoice <= 3; invoice++) {
+            outbox.enqueue(alert("ops@example.com", invoice));
+        }
+
+        assertThat(dispatcher(8).dispatchOnce()).isEqualTo(6);
+
+        assertThat(smtpServer.connections.get()).isEqualTo(1);
+        assertThat(smtpServer.messages).extracting(LocalSmtpServer.Received::recipient)
+                .containsExactlyInAnyOrder("a@example.com", "b@example.com", "c@example.com", "ops@example.com");
+        LocalSmtpServer.Received digest = smtpServer.to("ops@example.com");
+        assertThat(digest.data()).contains("Subject: Invoices failed (3)")
+                .contains("Invoice 1 failed", "Invoice 2 failed", "Invoice 3 failed");
+        assertThat(pendingCount()).isZero();
+    }
+
+    @Test
+    void dispatchOnce_ShouldPullAlertsStillInTheirWindowIntoTheDueDigest() {
+        EmailOutbox outbox = new EmailOutbox(repository, 60);
+        outbox.enqueue(alert("ops@example.com", 1));
+        assertThat(dispatcher(8).dispatchOnce()).isZero();
+
+        jdbcTemplate.update("UPDATE email_outbox SET next_attempt_at = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusSeconds(1)));
+        outbox.enqueue(alert("ops@example.com", 2));
+        outbox.enqueue(alert("other-ops@example.com", 3));
+
+        assertThat(dispatcher(8).dispatchOnce()).isEqualTo(2);
+
+        assertThat(smtpServer.messages).hasSize(1);
+        assertThat(smtpServer.to("ops@example.com").data()).contains("Invoices failed (2)");
+        assertThat(jdbcTemplate.queryForList("SELECT recipient FROM email_outbox", String.class))
+                .containsExactly("other-ops@example.com");
+    }
+
+    @Test
+    void dispatchOnce_ShouldRetryOnlyRejectedMessagesAndGiveUpAfterMaxAttempts() {
+        EmailOutbox outbox = new EmailOutbox(repository, 0);
+        outbox.enqueue(email("a@example.com", "Welcome"));
+        outbox.enqueue(email("rejected@example.com", "Welcome"));
+        EmailOutboxDispatcher dispatcher = dispatcher(2);
+
+        assertThat(dispatcher.dispatchOnce()).isEqualTo(2);
+        assertThat(dispatcher.dispatchOnce()).isZero();
+
+        Map<String, Object> retried = jdbcTemplate.queryForMap(
+                "SELECT recipient, attempts, last_error, failed_at FROM email_outbox");
+        assertThat(retried.get("RECIPIENT")).isEqualTo("rejected@example.com");
+        assertThat(retried.get("ATTEMPTS")).isEqualTo(1);
+        assertThat((String) retried.get("LAST_ERROR")).contains("550");
+        assertThat(retried.get("FAILED_AT")).isNull();
+
+        jdbcTemplate.update("UPDATE email_outbox SET next_attempt_at = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusSeconds(1)));
+        assertThat(dispatcher.dispatchOnce()).isEqualTo(1);
+        assertThat(dispatcher.dispatchOnce()).isZero();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT failed_at FROM email_outbox", Timestamp.class)).isNotNull();
+        assertThat(smtpServer.messages).extracting(LocalSmtpServer.Received::recipient)
+                .containsExactly("a@example.com");
+    }
+
+    @Test
+    void dispatchOnce_ShouldKeepEveryMessageWhenTheServerIsDown() throws IOException {
+        EmailOutbox outbox = new EmailOutbox(repository, 0);
+        outbox.enqueue(email("a@example.com", "Welcome"));
+        outbox.enqueue(email("b@example.com", "Welcome"));
+        smtpServer.close();
+
+        assertThat(dispatcher(8).dispatchOnce()).isEqualTo(2);
+
+        assertThat(jdbcTemplate.queryForList("SELECT attempts FROM email_outbox WHERE failed_at IS NULL "
+                + "AND last_error IS NOT NULL", Integer.class)).containsExactly(1, 1);
+    }
+
+    private EmailOutboxDispatcher dispatcher(int maxAttempts) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtpServer.port());
+        mailSender.getJavaMailProperties().put("mail.smtp.connectiontimeout", "2000");
+        mailSender.getJavaMailProperties().put("mail.smtp.timeout", "2000");
+        return new EmailOutboxDispatcher(repository, List.of(new SmtpEmailTransport(mailSender, "noreply@example.com")),
+                transactionManager, new SimpleMeterRegistry(), 1, 50, 1000, 120, maxAttempts, 30, 3600);
+    }
+
+    private int pendingCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM email_outbox", Integer.class);
+    }
+
+    private static OutboundEmail email(String recipient, String subject) {
+        return OutboundEmail.builder()
+                .channel(EmailChannel.SMTP)
+                .recipient(recipient)
+                .subject(subject)
+                .body("<p>" + subject + "</p>")
+                .html(true)
+                .build();
+    }
+
+    private static OutboundEmail alert(String recipient, int invoice) {
+        return OutboundEmail.builder()
+                .channel(EmailChannel.SMTP)
+                .recipient(recipient)
+                .subject("Invoice " + invoice + " failed")
+                .body("<p>Invoice " + invoice + " failed</p>")
+                .html(true)
+                .coalesceKey("invoice-failure")
+                .digestTitle("Invoices failed")
+                .summary("Invoice " + invoice + " failed")
+                .build();
+    }
+
+    /**
+     * Just enough SMTP for JavaMail: no extensions, one recipient per message,
+     * and RCPT refused with 550 for the given addresses.
+     */
+    private static final class LocalSmtpServer implements AutoCloseable {
+
+        record Received(String recipient, String data) {
+        }
+
+        private final ServerSocket serverSocket;
+        private final Set<String> rejected;
+        private final AtomicInteger connections = new AtomicInteger();
+        private final List<Received> messages = new CopyOnWriteArrayList<>();
+
+        private LocalSmtpServer(Set<String> rejected) throws IOException {
+            this.serverSocket = new ServerSocket(0);
+            this.rejected = rejected;
+            Thread acceptor = new Thread(this::accept, "local-smtp");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        private int port() {
+            return serverSocket.getLocalPort();
+        }
+
+        private Received to(String recipient) {
+            return messages.stream().filter(m -> m.recipient().equals(recipient)).findFirst().orElseThrow();
+        }
+
+        private void accept() {
+            while (!serverSocket.isClosed()) {
+                try (Socket socket = serverSocket.accept()) {
+                    connections.incrementAndGet();
+                    converse(socket);
+                } catch (IOException e) {
+                    // Closed, or the client went away
+                }
+            }
+        }
+
+        private void converse(Socket socket) throws IOException {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                    StandardCharsets.UTF_8));
+            Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+            reply(out, "220 localhost ESMTP");
+            String recipient = null;
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.toUpperCase(Locale.ROOT);
+                if (command.startsWith("EHLO") || command.startsWith("HELO")) {
+                    reply(out, "250 localhost");
+                } else if (command.startsWith("MAIL FROM") || command.startsWith("RSET")
+                        || command.startsWith("NOOP")) {
+                    recipient = null;
+                    reply(out, "250 OK");
+                } else if (command.startsWith("RCPT TO")) {
+                    String address = line.substring(line.indexOf('<') + 1, line.indexOf('>'));
+                    if (rejected.contains(address)) {
+                        reply(out, "550 No such user");
+                    } else {
+                        recipient = address;
+                        reply(out, "250 OK");
+                    }
+                } else if (command.startsWith("DATA")) {
+                    reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                    List<String> data = new ArrayList<>();
+                    while (!(line = in.readLine()).equals(".")) {
+                        data.add(line.startsWith("..") ? line.substring(1) : line);
+                    }
+                    messages.add(new Received(recipient, String.join("\n", data)));
+                    reply(out, "250 OK");
+                } else if (command.startsWith("QUIT")) {
+                    reply(out, "221 Bye");
+                    return;
+                } else {
+                    reply(out, "500 Unknown command");
+                }
+            }
+        }
+
+        private static void reply(Writer out, String line) throws IOException {
+            out.write(line + "\r\n");
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+        }
+    }
+}
@@ -12,6 +12,8 @@ class AesEncryptionServiceTest {
     private AesEncryptionService encryptionService;
     private static final String TEST_KEY = Base64.getEncoder()
             .encodeToString("12345678901234567890123456789012".getBytes()); // 32 bytes
+    private static final String OTHER_KEY = Base64.getEncoder()
+            .encodeToString("abcdefghijklmnopqrstuvwxyz123456".getBytes());
 
     @BeforeEach
     void setUp() {
@@ -60,4 +62,49 @@ class AesEncryptionServiceTest {
         // According to our Soft Fail strategy, it should return the input if it fails
         assertEquals(plainText, result);
     }
+
+    @Test
+    void shouldPrefixCiphertextWithKeyId() {
+        AesEncryptionService rotated = new AesEncryptionService(OTHER_KEY, "2", "1:" + TEST_KEY);
+
+        String encrypted = rotated.encrypt("Data");
+
+        assertTrue(encrypted.startsWith("2:"));
+        assertTrue(rotated.isEncryptedWithCurrentKey(encrypted));
+        assertEquals("Data", rotated.decrypt(encrypted));
+    }
+
+    @Test
+    void shouldDecryptValuesWrittenWithPreviousAndUnversionedKeys() {
+        String versioned = encryptionService.encrypt("Old Data");
+        String unversioned = versioned.substring(versioned.indexOf(':') + 1);
+        AesEncryptionService rotated = new AesEncryptionService(OTHER_KEY, "2", "1:" + TEST_KEY);
+
+        assertEquals("Old Data", rotated.decrypt(versioned));
+        assertEquals("Old Data", rotated.decrypt(unversioned));
+        assertFalse(rotated.isEncryptedWithCurrentKey(versioned));
+        assertFalse(rotated.isEncryptedWithCurrentKey(unversioned));
+    }
+
+    @Test
+    void shouldFailToDecryptWithRetiredKeyOnceRemoved() {
+        String encrypted = encryptionService.encrypt("Old Data");
+        AesEncryptionService rotated = new AesEncryptionService(OTHER_KEY, "2", "");
+
+        // Returning the ciphertext would get it encrypted again as if it were plaintext
+        assertThrows(IllegalStateException.class, () -> rotated.decrypt(encrypted));
+    }
+
+    @Test
+    void shouldFailToDecryptCiphertextThatDoesNotAuthenticate() {
+        String encrypted = encryptionService.encrypt("Old Data");
+        AesEncryptionService wrongKey = new AesEncryptionService(OTHER_KEY);
+
+        assertThrows(IllegalStateException.class, () -> wrongKey.decrypt(encrypted));
+    }
+
+    @Test
+    void shouldReturnPlainTextContainingSeparatorUnchanged() {
+        assertEquals("Calle Mayor: 5", encryptionService.decrypt("Calle Mayor: 5"));
+    }
 }
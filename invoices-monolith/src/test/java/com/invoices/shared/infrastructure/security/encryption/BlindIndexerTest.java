@@ -0,0 +1,61 @@
+package com.invoices.shared.infrastructure.security.encryption;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlindIndexerTest {
+
+    private static final String KEY = Base64.getEncoder()
+            .encodeToString("blind-index-test-key-0123456789a".getBytes());
+    private static final String OTHER_KEY = Base64.getEncoder()
+            .encodeToString("another-blind-index-key-01234567".getBytes());
+
+    private final BlindIndexer indexer = new BlindIndexer(KEY);
+
+    @Test
+    void shouldIgnoreCaseAccentsAndPunctuation() {
+        assertEquals(indexer.exact("users.first_name", "José"), indexer.exact("users.first_name", " jose "));
+        assertEquals(indexer.exact("companies.phone", "+34 600-123-123"),
+                indexer.exact("companies.phone", "34600123123"));
+        assertNotEquals(indexer.exact("users.first_name", "José"), indexer.exact("users.first_name", "Josefa"));
+    }
+
+    @Test
+    void shouldSeparateColumnsAndKeys() {
+        assertNotEquals(indexer.exact("users.first_name", "Martin"), indexer.exact("users.last_name", "Martin"));
+        assertNotEquals(indexer.exact("users.first_name", "Martin"),
+                new BlindIndexer(OTHER_KEY).exact("users.first_name", "Martin"));
+    }
+
+    @Test
+    void prefixIndexShouldMatchAnyValueSharingTheFirstCharacters() {
+        String index = indexer.prefix("users.last_name", "Martínez");
+
+        assertEquals(22, index.length());
+        assertEquals(index, indexer.prefix("users.last_name", "mar"));
+        assertEquals(index, indexer.prefix("users.last_name", "Marco"));
+        assertNotEquals(index, indexer.prefix("users.last_name", "ma"));
+        assertTrue(BlindIndexer.matchesPrefix("Martínez", "marti"));
+        assertFalse(BlindIndexer.matchesPrefix("Marco", "marti"));
+    }
+
+    @Test
+    void blankValuesShouldNotBeIndexed() {
+        assertNull(indexer.exact("users.first_name", (String) null));
+        assertNull(indexer.prefix("users.first_name", " - "));
+    }
+
+    @Test
+    void indexShouldBeStaleOnlyWhenValueWasSetOrNeverIndexed() {
+        EncryptedString loaded = EncryptedString.fromDatabase("ciphertext");
+
+        assertFalse(BlindIndexer.isStale(loaded, "index"));
+        assertTrue(BlindIndexer.isStale(loaded, null));
+        assertTrue(BlindIndexer.isStale(EncryptedString.of("Ana"), "index"));
+        assertTrue(BlindIndexer.isStale(null, "index"));
+        assertFalse(BlindIndexer.isStale(null, null));
+    }
+}
@@ -0,0 +1,73 @@
+package com.invoices.shared.infrastructure.security.encryption;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EncryptedStringConverterTest {
+
+    private static final String OLD_KEY = Base64.getEncoder()
+            .encodeToString("12345678901234567890123456789012".getBytes());
+    private static final String NEW_KEY = Base64.getEncoder()
+            .encodeToString("abcdefghijklmnopqrstuvwxyz123456".getBytes());
+
+    private final EncryptedStringConverter converter = new EncryptedStringConverter();
+    private AesEncryptionService encryptionService;
+
+    @BeforeEach
+    void setUp() {
+        encryptionService = new AesEncryptionService(NEW_KEY, "2", "1:" + OLD_KEY);
+        converter.setEncryptionService(encryptionService);
+    }
+
+    @Test
+    void shouldDecryptOnFirstAccessOnly() {
+        EncryptedString loaded = converter.convertToEntityAttribute(encryptionService.encrypt("Calle Mayor 1"));
+
+        assertFalse(loaded.isDecrypted());
+        assertEquals("Calle Mayor 1", loaded.get());
+        assertTrue(loaded.isDecrypted());
+    }
+
+    @Test
+    void shouldWriteBackUnchangedCiphertextWithoutReEncrypting() {
+        String stored = encryptionService.encrypt("ES9121000418450200051332");
+
+        EncryptedString loaded = converter.convertToEntityAttribute(stored);
+
+        assertSame(stored, converter.convertToDatabaseColumn(loaded));
+        assertFalse(loaded.isDecrypted());
+    }
+
+    @Test
+    void shouldReEncryptValuesWrittenWithRetiredKey() {
+        String stored = new AesEncryptionService(OLD_KEY).encrypt("600123123");
+
+        String written = converter.convertToDatabaseColumn(converter.convertToEntityAttribute(stored));
+
+        assertTrue(written.startsWith("2:"));
+        assertEquals("600123123", encryptionService.decrypt(written));
+    }
+
+    @Test
+    void shouldRefuseToWriteBackValuesUnderUnknownKey() {
+        String stored = new AesEncryptionService(OLD_KEY, "0", "").encrypt("600123123");
+
+        EncryptedString loaded = converter.convertToEntityAttribute(stored);
+
+        assertThrows(RuntimeException.class, () -> converter.convertToDatabaseColumn(loaded));
+    }
+
+    @Test
+    void shouldCompareByPlaintext() {
+        EncryptedString loaded = converter.convertToEntityAttribute(encryptionService.encrypt("Ana"));
+
+        assertEquals(loaded, EncryptedString.of("Ana"));
+        assertNotEquals(loaded, EncryptedString.of("Eva"));
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(EncryptedString.plaintextOf(converter.convertToEntityAttribute(null)));
+    }
+}
@@ -0,0 +1,97 @@
+package com.invoices.shared.infrastructure.security.encryption;
+
+import com.invoices.benchmark.MicroBenchmark;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cost of hydrating the encrypted columns of a company (5) and a user (2) row.
+ * Run with {@code -Dbenchmark=true}.
+ *
+ * "eager" is the previous converter: every column decrypted on load with a new
+ * {@link Cipher} per value. "lazy" only wraps the ciphertext; "lazy, all read"
+ * also calls every getter, as mapping to the domain model does, and so shows
+ * the cipher reuse on its own.
+ */
+@EnabledIfSystemProperty(named = MicroBenchmark.ENABLED_PROPERTY, matches = "true")
+class EncryptionBenchmarkTest {
+
+    private static final byte[] KEY = "12345678901234567890123456789012".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void companyAndUserLoad() throws Exception {
+        AesEncryptionService encryptionService = new AesEncryptionService(Base64.getEncoder().encodeToString(KEY));
+        EncryptedStringConverter converter = new EncryptedStringConverter();
+        converter.setEncryptionService(encryptionService);
+        LegacyDecryptor legacy = new LegacyDecryptor(new SecretKeySpec(KEY, "AES"));
+
+        String[] company = legacyCiphertext(encryptionService, "Calle Mayor 1, 28013 Madrid", "+34 600 123 123",
+                "billing@example.com", "ES9121000418450200051332", "certificate-password");
+        String[] user = legacyCiphertext(encryptionService, "Ana", "Garcia Lopez");
+
+        for (int round = 0; round < 2; round++) {
+            MicroBenchmark.run("company load, eager", 2_000, 20_000, () -> legacy.decryptAll(company));
+            MicroBenchmark.run("company load, lazy", 2_000, 20_000, () -> wrapAll(converter, company, false));
+            MicroBenchmark.run("company load, lazy, all read", 2_000, 20_000, () -> wrapAll(converter, company, true));
+            MicroBenchmark.run("user load, eager", 2_000, 20_000, () -> legacy.decryptAll(user));
+            MicroBenchmark.run("user load, lazy", 2_000, 20_000, () -> wrapAll(converter, user, false));
+            MicroBenchmark.run("user load, lazy, all read", 2_000, 20_000, () -> wrapAll(converter, user, true));
+        }
+        assertThat(legacy.decrypt(company[0])).isEqualTo(converter.convertToEntityAttribute(company[0]).get());
+    }
+
+    /** Ciphertext as stored before key ids were introduced, readable by both paths. */
+    private static String[] legacyCiphertext(AesEncryptionService encryptionService, String... values) {
+        String[] ciphertext = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            String encrypted = encryptionService.encrypt(values[i]);
+            ciphertext[i] = encrypted.substring(encrypted.indexOf(':') + 1);
+        }
+        return ciphertext;
+    }
+
+    private static int wrapAll(EncryptedStringConverter converter, String[] columns, boolean read) {
+        int length = 0;
+        for (String column : columns) {
+            EncryptedString value = converter.convertToEntityAttribute(column);
+            if (read) {
+                length += value.get().length();
+            }
+        }
+        return length;
+    }
+
+    /** The decryption path of the previous AesEncryptionService. */
+    private record LegacyDecryptor(SecretKey key) {
+
+        int decryptAll(String[] columns) throws Exception {
+            int length = 0;
+            for (String column : columns) {
+                length += decrypt(column).length();
+            }
+            return length;
+        }
+
+        String decrypt(String encryptedText) throws Exception {
+            ByteBuffer byteBuffer = ByteBuffer.wrap(Base64.getDecoder().decode(encryptedText));
+            byte[] iv = new byte[12];
+            byteBuffer.get(iv);
+            byte[] cipherText = new byte[byteBuffer.remaining()];
+            byteBuffer.get(cipherText);
+
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(128, iv));
+            return new String(cipher.doFinal(cipherText), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.invoices.trace.infrastructure.audit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invoices.document.domain.entities.FileContent;
+import com.invoices.document.domain.ports.FileStorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AuditLogPartitionJobTest {
+
+    private final FileStorageService fileStorageService = mock(FileStorageService.class);
+    private AuditLogPartitionJob job;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:audit-partitions-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        job = new AuditLogPartitionJob(dataSource, fileStorageService, 3, 24, "audit-archive/");
+    }
+
+    @Test
+    void partitionName_ShouldUseYearAndMonth() {
+        assertThat(AuditLogPartitionJob.partitionName(YearMonth.of(2026, 3))).isEqualTo("audit_logs_p202603");
+    }
+
+    @Test
+    void expiredPartitions_ShouldOnlyIncludeMonthsBeforeTheRetentionWindow() {
+        List<String> partitions = List.of("audit_logs_p202411", "audit_logs_p202410", "audit_logs_p202409",
+                "audit_logs_p202301", "audit_logs_legacy", "audit_logs_p202611");
+
+        assertThat(job.expiredPartitions(partitions, YearMonth.of(2026, 10)))
+                .containsExactly("audit_logs_p202301", "audit_logs_p202409");
+    }
+
+    @Test
+    void archive_ShouldStoreRowsAsGzippedNdjson() throws Exception {
+        jdbcTemplate.execute("CREATE TABLE audit_logs_p202301 (id BIGINT, company_id BIGINT, event_type VARCHAR(50), "
+                + "invoice_id BIGINT, invoice_number VARCHAR(50), client_id BIGINT, client_email VARCHAR(255), "
+                + "total DECIMAL(10,2), status VARCHAR(20), event_data VARCHAR(1000), created_at TIMESTAMP)");
+        jdbcTemplate.update("INSERT INTO audit_logs_p202301 VALUES (2, 7, 'INVOICE_PAID', 11, 'F-2', NULL, NULL, "
+                + "121.00, 'PAID', '{\"from\":\"ISSUED\"}', TIMESTAMP '2023-01-20 10:00:00')");
+        jdbcTemplate.update("INSERT INTO audit_logs_p202301 VALUES (1, 7, 'INVOICE_CREATED', 11, 'F-2', NULL, NULL, "
+                + "121.00, 'DRAFT', NULL, TIMESTAMP '2023-01-05 09:30:00')");
+        // The temporary file is gone once archive() returns, so read it while it is stored
+        ByteArrayOutputStream stored = new ByteArrayOutputStream();
+        doAnswer(invocation -> {
+            FileContent content = invocation.getArgument(1);
+            assertThat(content.getContentType()).isEqualTo("application/gzip");
+            try (InputStream in = content.getInputStream()) {
+                in.transferTo(stored);
+            }
+            return null;
+        }).when(fileStorageService).storeFile(eq("audit-archive/audit_logs_p202301.ndjson.gz"), any());
+        when(fileStorageService.fileExists("audit-archive/audit_logs_p202301.ndjson.gz")).thenReturn(true);
+
+        job.archive("audit_logs_p202301");
+
+        List<JsonNode> rows;
+        ObjectMapper mapper = new ObjectMapper();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new ByteArrayInputStream(stored.toByteArray())), StandardCharsets.UTF_8))) {
+            rows = reader.lines().map(line -> {
+                try {
+                    return mapper.readTree(line);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }).toList();
+        }
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).get("event_type").asText()).isEqualTo("INVOICE_CREATED");
+        assertThat(rows.get(0).get("event_data").isNull()).isTrue();
+        assertThat(rows.get(1).get("event_data").get("from").asText()).isEqualTo("ISSUED");
+        assertThat(rows.get(1).get("created_at").asText()).isEqualTo("2023-01-20T10:00");
+    }
+
+    @Test
+    void archive_ShouldFailWhenTheArchiveIsNotStored() {
+        jdbcTemplate.execute("CREATE TABLE audit_logs_p202302 (id BIGINT, company_id BIGINT, event_type VARCHAR(50), "
+                + "invoice_id BIGINT, invoice_number VARCHAR(50), client_id BIGINT, client_email VARCHAR(255), "
+                + "total DECIMAL(10,2), status VARCHAR(20), event_data VARCHAR(1000), created_at TIMESTAMP)");
+        when(fileStorageService.fileExists(any())).thenReturn(false);
+
+        assertThatThrownBy(() -> job.archive("audit_logs_p202302")).isInstanceOf(IllegalStateException.class);
+    }
+}
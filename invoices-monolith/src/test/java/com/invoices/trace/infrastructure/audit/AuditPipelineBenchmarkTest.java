@@ -0,0 +1,176 @@
+package com.invoices.trace.infrastructure.audit;
+
+import com.invoices.benchmark.MicroBenchmark;
+import com.invoices.trace.domain.entities.AuditLog;
+import com.invoices.trace.infrastructure.persistence.repositories.AuditLogRepositoryImpl;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Audit events per second through the previous capture path versus
+ * {@link RingBufferAuditEventQueue}, against an in-memory H2 database behind a
+ * 5-connection Hikari pool (the production pool size). Run with
+ * {@code -Dbenchmark=true}.
+ *
+ * The previous path is emulated with the application's async executor settings
+ * (10-20 threads, queue of 100), one transaction and one single-row insert per
+ * event; events the executor rejects are counted as lost. The real path also
+ * went through Hibernate, so its numbers here are optimistic. The new path
+ * inserts through {@link AuditLogRepositoryImpl#saveAll} in batches of 500.
+ * H2 has no network round trip, so against PostgreSQL the gap is wider.
+ */
+@EnabledIfSystemProperty(named = MicroBenchmark.ENABLED_PROPERTY, matches = "true")
+class AuditPipelineBenchmarkTest {
+
+    private static final int EVENTS = 50_000;
+    private static final String INSERT_SQL = "INSERT INTO audit_logs (company_id, event_type, invoice_id, "
+            + "invoice_number, client_id, client_email, total, status, event_data, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, CAST(? AS jsonb), ?)";
+
+    private HikariDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:audit-benchmark;DB_CLOSE_DELAY=-1");
+        config.setMaximumPoolSize(5);
+        dataSource = new HikariDataSource(config);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE DOMAIN IF NOT EXISTS jsonb AS CHARACTER VARYING");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS audit_logs (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                + "company_id BIGINT, event_type VARCHAR(50) NOT NULL, invoice_id BIGINT, "
+                + "invoice_number VARCHAR(50), client_id BIGINT, client_email VARCHAR(255), "
+                + "total DECIMAL(10,2), status VARCHAR(20), event_data jsonb, created_at TIMESTAMP NOT NULL)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(dataSource).execute("DROP TABLE audit_logs");
+        dataSource.close();
+    }
+
+    @Test
+    void eventsPerSecond() throws Exception {
+        runPerEventTransactions();
+        runRingBuffer();
+    }
+
+    private void runPerEventTransactions() throws Exception {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(10);
+        executor.setMaxPoolSize(20);
+        executor.setQueueCapacity(100);
+        executor.initialize();
+
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(EVENTS);
+        long start = System.nanoTime();
+        for (int i = 0; i < EVENTS; i++) {
+            AuditLog event = event(i);
+            try {
+                executor.execute(() -> {
+                    try {
+                        insertInOwnTransaction(event);
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            } catch (TaskRejectedException e) {
+                rejected.incrementAndGet();
+                done.countDown();
+            }
+        }
+        done.await(5, TimeUnit.MINUTES);
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+
+        report("@Async + REQUIRES_NEW per event", EVENTS - rejected.get(), rejected.get(), elapsed);
+    }
+
+    private void runRingBuffer() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RingBufferAuditEventQueue queue = new RingBufferAuditEventQueue(
+                new AuditLogRepositoryImpl(null, null, new JdbcTemplate(dataSource)), meterRegistry,
+                10_000, 500, 100, RingBufferAuditEventQueue.OverflowPolicy.BLOCK, 50);
+        queue.start();
+
+        int dropped = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < EVENTS; i++) {
+            if (!queue.offer(event(i))) {
+                dropped++;
+            }
+        }
+        long accepted = EVENTS - dropped;
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(5);
+        while (meterRegistry.get("audit.events.written").counter().count() < accepted
+                && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        long elapsed = System.nanoTime() - start;
+        queue.stop();
+
+        report("ring buffer + JDBC batches", accepted, dropped, elapsed);
+    }
+
+    private void insertInOwnTransaction(AuditLog event) {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL)) {
+                ps.setLong(1, event.getCompanyId());
+                ps.setString(2, event.getEventType());
+                ps.setLong(3, event.getInvoiceId());
+                ps.setString(4, event.getInvoiceNumber());
+                ps.setLong(5, event.getClientId());
+                ps.setString(6, event.getClientEmail());
+                ps.setBigDecimal(7, event.getTotal());
+                ps.setString(8, event.getStatus());
+                ps.setString(9, event.getEventData());
+                ps.setTimestamp(10, Timestamp.valueOf(event.getCreatedAt()));
+                ps.executeUpdate();
+            }
+            connection.commit();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void report(String name, long persisted, long lost, long elapsedNanos) {
+        System.out.println(String.format(Locale.ROOT,
+                "[benchmark] %-36s %9.0f events/s persisted=%d lost=%d",
+                name, persisted / (elapsedNanos / 1e9), persisted, lost));
+    }
+
+    private static AuditLog event(long i) {
+        return AuditLog.builder()
+                .companyId(1 + i % 5)
+                .eventType("INVOICE_UPDATED")
+                .invoiceId(i)
+                .invoiceNumber("FAC-" + i)
+                .clientId(10L)
+                .clientEmail("client@test.com")
+                .total(new BigDecimal("121.00"))
+                .status("PENDING")
+                .eventData("{\"from\":\"DRAFT\",\"to\":\"PENDING\"}")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,125 @@
+package com.invoices.trace.infrastructure.audit;
+
+import com.invoices.trace.domain.entities.AuditLog;
+import com.invoices.trace.domain.ports.AuditLogRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class RingBufferAuditEventQueueTest {
+
+    private final AuditLogRepository repository = mock(AuditLogRepository.class);
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RingBufferAuditEventQueue queue;
+
+    @AfterEach
+    void tearDown() {
+        if (queue != null) {
+            queue.stop();
+        }
+    }
+
+    @Test
+    void fullBatches_ShouldBeWrittenWithoutWaitingForTheInterval() throws Exception {
+        CountDownLatch written = recordBatches(2);
+        queue = new RingBufferAuditEventQueue(repository, meterRegistry, 100, 10, 60_000,
+                RingBufferAuditEventQueue.OverflowPolicy.BLOCK, 50);
+        for (int i = 0; i < 20; i++) {
+            assertThat(queue.offer(event(i))).isTrue();
+        }
+        queue.start();
+
+        assertThat(written.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(batchSizes).containsExactly(10, 10);
+    }
+
+    @Test
+    void partialBatch_ShouldBeWrittenAfterTheFlushInterval() throws Exception {
+        CountDownLatch written = recordBatches(1);
+        queue = new RingBufferAuditEventQueue(repository, meterRegistry, 100, 10, 50,
+                RingBufferAuditEventQueue.OverflowPolicy.BLOCK, 50);
+        queue.start();
+
+        queue.offer(event(1));
+        queue.offer(event(2));
+
+        assertThat(written.await(5, TimeUnit.SECONDS)).isTrue();
+        // The counter is updated after the insert returns; joining the flusher settles it
+        queue.stop();
+        assertThat(batchSizes).containsExactly(2);
+        assertThat(meterRegistry.get("audit.events.written").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void fullBuffer_ShouldDropAndCountEvents() {
+        queue = new RingBufferAuditEventQueue(repository, meterRegistry, 2, 10, 50,
+                RingBufferAuditEventQueue.OverflowPolicy.DROP, 50);
+
+        assertThat(queue.offer(event(1))).isTrue();
+        assertThat(queue.offer(event(2))).isTrue();
+        assertThat(queue.offer(event(3))).isFalse();
+        assertThat(meterRegistry.get("audit.events.dropped").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void stop_ShouldFlushBufferedEvents() {
+        recordBatches(1);
+        queue = new RingBufferAuditEventQueue(repository, meterRegistry, 100, 10, 60_000,
+                RingBufferAuditEventQueue.OverflowPolicy.BLOCK, 50);
+        for (int i = 0; i < 3; i++) {
+            queue.offer(event(i));
+        }
+
+        queue.stop();
+        queue = null;
+
+        assertThat(batchSizes).containsExactly(3);
+    }
+
+    @Test
+    void failedBatch_ShouldBeCountedAndNotStopThePipeline() throws Exception {
+        CountDownLatch attempts = new CountDownLatch(2);
+        doAnswer(invocation -> {
+            attempts.countDown();
+            throw new IllegalStateException("database down");
+        }).when(repository).saveAll(anyList());
+        queue = new RingBufferAuditEventQueue(repository, meterRegistry, 100, 1, 50,
+                RingBufferAuditEventQueue.OverflowPolicy.BLOCK, 50);
+        queue.start();
+
+        queue.offer(event(1));
+        queue.offer(event(2));
+
+        assertThat(attempts.await(5, TimeUnit.SECONDS)).isTrue();
+        queue.stop();
+        queue = null;
+        assertThat(meterRegistry.get("audit.events.failed").counter().count()).isEqualTo(2.0);
+    }
+
+    private CountDownLatch recordBatches(int expected) {
+        CountDownLatch latch = new CountDownLatch(expected);
+        doAnswer(invocation -> {
+            List<AuditLog> batch = invocation.getArgument(0);
+            batchSizes.add(new ArrayList<>(batch).size());
+            latch.countDown();
+            return null;
+        }).when(repository).saveAll(anyList());
+        return latch;
+    }
+
+    private static AuditLog event(long invoiceId) {
+        return AuditLog.builder().companyId(1L).eventType("INVOICE_UPDATED").invoiceId(invoiceId).build();
+    }
+}
@@ -0,0 +1,115 @@
+package com.invoices.trace.infrastructure.persistence.repositories;
+
+import com.invoices.trace.domain.entities.AuditLog;
+import com.invoices.trace.domain.entities.AuditLogCursor;
+import com.invoices.trace.domain.entities.AuditLogPage;
+import com.invoices.trace.infrastructure.persistence.entities.AuditLogJpaEntity;
+import com.invoices.trace.infrastructure.persistence.mappers.AuditLogJpaMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Keyset pagination queries against H2. audit_logs.event_data is jsonb, which
+ * H2 only knows through the domain created on connect.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:audit-keyset;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;"
+        + "INIT=CREATE DOMAIN IF NOT EXISTS jsonb AS CHARACTER VARYING")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ AuditLogRepositoryImpl.class, AuditLogJpaMapper.class })
+class AuditLogRepositoryImplTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 1, 12, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private AuditLogRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        // Five entries of company 7, two of them at the same instant; one of company 8
+        persist(7L, NOW.minusMinutes(5));
+        persist(7L, NOW.minusMinutes(4));
+        persist(7L, NOW.minusMinutes(3));
+        persist(7L, NOW.minusMinutes(3));
+        persist(7L, NOW.minusMinutes(1));
+        persist(8L, NOW.minusMinutes(2));
+        entityManager.clear();
+    }
+
+    @Test
+    void findByCompanyId_ShouldWalkTheWholeTrailNewestFirstWithoutDuplicates() {
+        List<AuditLog> seen = new ArrayList<>();
+        AuditLogCursor after = null;
+        int pages = 0;
+        do {
+            AuditLogPage page = repository.findByCompanyId(7L, after, 2);
+            assertThat(page.items()).hasSizeLessThanOrEqualTo(2);
+            seen.addAll(page.items());
+            after = page.nextCursor();
+            pages++;
+        } while (after != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).hasSize(5).extracting(AuditLog::getCompanyId).containsOnly(7L);
+        assertThat(seen).extracting(AuditLog::getId).doesNotHaveDuplicates();
+        for (int i = 1; i < seen.size(); i++) {
+            AuditLog newer = seen.get(i - 1);
+            AuditLog older = seen.get(i);
+            assertThat(newer.getCreatedAt().isAfter(older.getCreatedAt())
+                    || (newer.getCreatedAt().isEqual(older.getCreatedAt()) && newer.getId() > older.getId()))
+                    .isTrue();
+        }
+    }
+
+    @Test
+    void findByCompanyIdAndInvoiceId_ShouldFillPagesFromTheCompanyOnly() {
+        AuditLogPage first = repository.findByCompanyIdAndInvoiceId(8L, 1L, null, 2);
+
+        assertThat(first.items()).hasSize(1).extracting(AuditLog::getCompanyId).containsOnly(8L);
+        assertThat(first.hasMore()).isFalse();
+
+        AuditLogPage company7 = repository.findByCompanyIdAndEventType(7L, "INVOICE_UPDATED", null, 5);
+        assertThat(company7.items()).hasSize(5).extracting(AuditLog::getCompanyId).containsOnly(7L);
+        assertThat(company7.hasMore()).isFalse();
+    }
+
+    @Test
+    void findAll_ShouldReturnTheLastPageWithoutCursor() {
+        AuditLogPage first = repository.findAll(null, 5);
+        AuditLogPage last = repository.findAll(first.nextCursor(), 5);
+
+        assertThat(first.items()).hasSize(5);
+        assertThat(first.items().get(1).getCompanyId()).isEqualTo(8L);
+        assertThat(last.items()).hasSize(1);
+        assertThat(last.hasMore()).isFalse();
+    }
+
+    private void persist(Long companyId, LocalDateTime createdAt) {
+        AuditLogJpaEntity entity = AuditLogJpaEntity.builder()
+                .companyId(companyId)
+                .eventType("INVOICE_UPDATED")
+                .invoiceId(1L)
+                .build();
+        entityManager.persist(entity);
+        entityManager.flush();
+        // created_at is set by Hibernate on insert and not updatable through the entity
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE audit_logs SET created_at = :createdAt WHERE id = :id")
+                .setParameter("createdAt", createdAt)
+                .setParameter("id", entity.getId())
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,224 @@
+package com.invoices.trace.presentation.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invoices.security.context.CompanyContext;
+import com.invoices.shared.infrastructure.exception.GlobalExceptionHandler;
+import com.invoices.trace.domain.entities.AuditLog;
+import com.invoices.trace.domain.entities.AuditLogCursor;
+import com.invoices.trace.domain.entities.AuditLogPage;
+import com.invoices.trace.domain.ports.AuditLogRepository;
+import com.invoices.trace.domain.usecases.*;
+import com.invoices.trace.presentation.mappers.AuditLogDtoMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class AuditLogControllerTest {
+
+        private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 1, 12, 0);
+
+        private final AuditLogRepository repository = mock(AuditLogRepository.class);
+        private MockMvc mockMvc;
+
+        @BeforeEach
+        void setUp() {
+                AuditLogController controller = new AuditLogController(
+                                new GetAuditLogByIdUseCase(repository),
+                                new GetAuditLogsByInvoiceUseCase(repository),
+                                new GetAuditLogsByClientUseCase(repository),
+                                new GetAuditLogsByEventTypeUseCase(repository),
+                                new GetAuditLogsByCompanyUseCase(repository),
+                                new GetAllAuditLogsUseCase(repository),
+                                new AuditLogDtoMapper(),
+                                new ObjectMapper().findAndRegisterModules());
+
+                mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                                .setControllerAdvice(new GlobalExceptionHandler())
+                                .build();
+                CompanyContext.setCompanyId(7L);
+        }
+
+        @AfterEach
+        void tearDown() {
+                CompanyContext.clear();
+                SecurityContextHolder.clearContext();
+        }
+
+        @Test
+        void getAuditLogs_ShouldReturnOnePageAndTheNextCursor() throws Exception {
+                AuditLogPage page = AuditLogPage.of(List.of(log(3), log(2), log(1)), 2);
+                when(repository.findByCompanyIdAndInvoiceId(eq(7L), eq(10L), isNull(), eq(2))).thenReturn(page);
+
+                mockMvc.perform(get("/api/traces").param("invoiceId", "10").param("size", "2"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.items.length()").value(2))
+                                .andExpect(jsonPath("$.items[1].id").value(2))
+                                .andExpect(jsonPath("$.nextCursor").value(new AuditLogCursor(NOW.minusMinutes(2), 2L).encode()));
+        }
+
+        @Test
+        void getAuditLogs_ShouldContinueFromTheGivenCursor() throws Exception {
+                AuditLogCursor cursor = new AuditLogCursor(NOW.minusMinutes(2), 2L);
+                when(repository.findByCompanyId(7L, cursor, 50)).thenReturn(AuditLogPage.of(List.of(log(1)), 50));
+
+                mockMvc.perform(get("/api/traces/company/7").param("cursor", cursor.encode()))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.items[0].id").value(1))
+                                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+        }
+
+        @Test
+        void getAuditLogs_ShouldRejectInvalidCursorsAndPageSizes() throws Exception {
+                mockMvc.perform(get("/api/traces").param("cursor", "not-a-cursor"))
+                                .andExpect(status().isBadRequest())
+                                .andExpect(jsonPath("$.code").value("INVALID_CURSOR"));
+                mockMvc.perform(get("/api/traces").param("size", "501"))
+                                .andExpect(status().isBadRequest())
+                                .andExpect(jsonPath("$.code").value("INVALID_PAGE_SIZE"));
+                verifyNoInteractions(repository);
+        }
+
+        @Test
+        void streamAuditLogs_ShouldWriteEveryPageAsNdjson() throws Exception {
+                AuditLogPage first = new AuditLogPage(List.of(log(3), log(2)),
+                                new AuditLogCursor(NOW.minusMinutes(2), 2L));
+                when(repository.findByCompanyIdAndEventType(7L, "INVOICE_PAID", null, AuditLogPage.MAX_LIMIT))
+                                .thenReturn(first);
+                when(repository.findByCompanyIdAndEventType(7L, "INVOICE_PAID", first.nextCursor(),
+                                AuditLogPage.MAX_LIMIT))
+                                .thenReturn(AuditLogPage.of(List.of(log(1)), AuditLogPage.MAX_LIMIT));
+
+                MvcResult pending = mockMvc.perform(get("/api/traces").param("eventType", "INVOICE_PAID")
+                                .accept(AuditLogController.APPLICATION_NDJSON_VALUE))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+                String body = mockMvc.perform(asyncDispatch(pending))
+                                .andExpect(status().isOk())
+                                .andExpect(content().contentType(AuditLogController.APPLICATION_NDJSON_VALUE))
+                                .andReturn().getResponse().getContentAsString();
+
+                assertThat(body.lines().toList()).hasSize(3)
+                                .allSatisfy(line -> assertThat(line).startsWith("{\"id\":"));
+                assertThat(body).endsWith("\n");
+        }
+
+        @Test
+        void getAuditLogs_ShouldAnswerJsonWhenAnyTypeIsAccepted() throws Exception {
+                when(repository.findByCompanyId(eq(7L), any(), eq(50))).thenReturn(AuditLogPage.of(List.of(log(1)), 50));
+
+                mockMvc.perform(get("/api/traces").accept(MediaType.ALL))
+                                .andExpect(status().isOk())
+                                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                                .andExpect(jsonPath("$.items[0].id").value(1));
+        }
+
+        @Test
+        void streamAuditLogs_WithoutFilters_ShouldOnlyStreamTheCallersCompany() throws Exception {
+                when(repository.findByCompanyId(7L, null, AuditLogPage.MAX_LIMIT))
+                                .thenReturn(AuditLogPage.of(List.of(log(1)), AuditLogPage.MAX_LIMIT));
+
+                MvcResult pending = mockMvc.perform(get("/api/traces")
+                                .accept(AuditLogController.APPLICATION_NDJSON_VALUE))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+                mockMvc.perform(asyncDispatch(pending)).andExpect(status().isOk());
+
+                verify(repository, never()).findAll(any(), any(Integer.class));
+        }
+
+        @Test
+        void streamAuditLogs_ShouldRejectAnotherCompany() throws Exception {
+                mockMvc.perform(get("/api/traces/company/8").accept(AuditLogController.APPLICATION_NDJSON_VALUE))
+                                .andExpect(status().isForbidden());
+                mockMvc.perform(get("/api/traces").param("companyId", "8")
+                                .accept(AuditLogController.APPLICATION_NDJSON_VALUE))
+                                .andExpect(status().isForbidden());
+                mockMvc.perform(get("/api/traces/company/8"))
+                                .andExpect(status().isForbidden());
+                verifyNoInteractions(repository);
+        }
+
+        @Test
+        void streamAuditLogs_WithoutCompanyContext_ShouldBeForbidden() throws Exception {
+                CompanyContext.clear();
+
+                mockMvc.perform(get("/api/traces").accept(AuditLogController.APPLICATION_NDJSON_VALUE))
+                                .andExpect(status().isForbidden());
+                mockMvc.perform(get("/api/traces"))
+                                .andExpect(status().isForbidden())
+                                .andExpect(jsonPath("$.code").value("COMPANY_CONTEXT_REQUIRED"));
+                verifyNoInteractions(repository);
+        }
+
+        @Test
+        void getAuditLogs_ByInvoice_ShouldOnlyQueryTheCallersCompany() throws Exception {
+                when(repository.findByCompanyIdAndInvoiceId(7L, 10L, null, 50))
+                                .thenReturn(AuditLogPage.of(List.of(log(1)), 50));
+
+                mockMvc.perform(get("/api/traces").param("invoiceId", "10"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.items.length()").value(1))
+                                .andExpect(jsonPath("$.items[0].id").value(1));
+                verify(repository, never()).findByInvoiceId(any(), any(), any(int.class));
+        }
+
+        @Test
+        void getAuditLogById_OfAnotherCompany_ShouldBeNotFound() throws Exception {
+                when(repository.findById(4L)).thenReturn(Optional.of(
+                                AuditLog.builder().id(4L).companyId(8L).eventType("INVOICE_PAID").createdAt(NOW).build()));
+
+                mockMvc.perform(get("/api/traces/4")).andExpect(status().isNotFound());
+        }
+
+        @Test
+        void streamAuditLogs_AsPlatformAdmin_ShouldStreamEveryCompany() throws Exception {
+                SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                                "admin", null, List.of(new SimpleGrantedAuthority("ROLE_PLATFORM_ADMIN"))));
+                when(repository.findAll(null, AuditLogPage.MAX_LIMIT))
+                                .thenReturn(AuditLogPage.of(List.of(log(1)), AuditLogPage.MAX_LIMIT));
+
+                MvcResult pending = mockMvc.perform(get("/api/traces")
+                                .accept(AuditLogController.APPLICATION_NDJSON_VALUE))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+                String body = mockMvc.perform(asyncDispatch(pending))
+                                .andExpect(status().isOk())
+                                .andReturn().getResponse().getContentAsString();
+
+                assertThat(body.lines().toList()).hasSize(1);
+        }
+
+        private static AuditLog log(long id) {
+                return AuditLog.builder()
+                                .id(id)
+                                .companyId(7L)
+                                .invoiceId(10L)
+                                .eventType("INVOICE_PAID")
+                                .createdAt(NOW.minusMinutes(id))
+                                .build();
+        }
+}
@@ -0,0 +1,79 @@
+package com.invoices.user.domain.usecases;
+
+import com.invoices.company.domain.ports.UserCompanyRepository;
+import com.invoices.user.domain.entities.User;
+import com.invoices.user.domain.ports.UserRepository;
+import com.invoices.user.exception.InvalidCredentialsException;
+import com.invoices.user.infrastructure.security.BcryptPasswordHasher;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthenticateUserUseCaseTest {
+
+    private static final String EMAIL = "test@example.com";
+    private static final String PASSWORD = "password123";
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserCompanyRepository userCompanyRepository;
+
+    @Test
+    void execute_ShouldRehashPassword_WhenStoredHashUsesLowerCost() {
+        String weakHash = new BCryptPasswordEncoder(4).encode(PASSWORD);
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user(weakHash)));
+        when(userRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        User result = useCase(5).execute(EMAIL, PASSWORD);
+
+        ArgumentCaptor<User> saved = ArgumentCaptor.forClass(User.class);
+        verify(userRepository).save(saved.capture());
+        assertThat(saved.getValue().getPassword()).startsWith("$2a$05$");
+        assertThat(new BCryptPasswordEncoder(5).matches(PASSWORD, saved.getValue().getPassword())).isTrue();
+        assertThat(result.getPassword()).isEqualTo(saved.getValue().getPassword());
+    }
+
+    @Test
+    void execute_ShouldNotRehash_WhenStoredHashUsesCurrentCost() {
+        String hash = new BCryptPasswordEncoder(4).encode(PASSWORD);
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user(hash)));
+
+        User result = useCase(4).execute(EMAIL, PASSWORD);
+
+        verify(userRepository, never()).save(any());
+        assertThat(result.getPassword()).isEqualTo(hash);
+    }
+
+    @Test
+    void execute_ShouldNotRehash_WhenPasswordIsWrong() {
+        String weakHash = new BCryptPasswordEncoder(4).encode(PASSWORD);
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user(weakHash)));
+
+        assertThrows(InvalidCredentialsException.class, () -> useCase(5).execute(EMAIL, "wrong"));
+        verify(userRepository, never()).save(any());
+    }
+
+    private AuthenticateUserUseCase useCase(int strength) {
+        return new AuthenticateUserUseCase(userRepository,
+                new BcryptPasswordHasher(new BCryptPasswordEncoder(strength)), userCompanyRepository);
+    }
+
+    private static User user(String hash) {
+        return new User(1L, EMAIL, hash, "Test", "User", Set.of("USER"), true, true, true, true,
+                null, null, null, 7L, null);
+    }
+}
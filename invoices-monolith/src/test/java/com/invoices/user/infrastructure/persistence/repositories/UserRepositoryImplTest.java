@@ -0,0 +1,118 @@
+package com.invoices.user.infrastructure.persistence.repositories;
+
+import com.invoices.shared.domain.exception.BusinessException;
+import com.invoices.shared.domain.ports.EncryptionService;
+import com.invoices.shared.infrastructure.security.encryption.BlindIndexListener;
+import com.invoices.shared.infrastructure.security.encryption.BlindIndexer;
+import com.invoices.shared.infrastructure.security.encryption.EncryptedStringConverter;
+import com.invoices.user.domain.entities.User;
+import com.invoices.user.infrastructure.persistence.entities.UserJpaEntity;
+import com.invoices.user.infrastructure.persistence.mappers.UserJpaMapper;
+import com.invoices.user.infrastructure.security.UserSecurityStampCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Repository tests for the name search of UserRepositoryImpl, run against the
+ * stored blind indexes rather than the plaintext
+ */
+@DataJpaTest
+@Import({UserRepositoryImpl.class, UserJpaMapper.class})
+@DisplayName("UserRepositoryImpl Tests")
+class UserRepositoryImplTest {
+
+    private static final BlindIndexer BLIND_INDEXER =
+            new BlindIndexer("MDEyMzQ1Njc4OWFiY2RlZjAxMjM0NTY3ODlhYmNkZWY=");
+
+    @TestConfiguration
+    static class TestConfig {
+        @Bean
+        BlindIndexer blindIndexer() {
+            return BLIND_INDEXER;
+        }
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserRepositoryImpl userRepository;
+
+    @MockBean
+    private EncryptionService encryptionService;
+
+    @MockBean
+    private UserSecurityStampCache securityStampCache;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // Store Base64 instead of plaintext, so only the blind indexes can match
+        Mockito.when(encryptionService.encrypt(Mockito.anyString())).thenAnswer(i -> Base64.getEncoder()
+                .encodeToString(i.getArgument(0, String.class).getBytes(StandardCharsets.UTF_8)));
+        Mockito.when(encryptionService.decrypt(Mockito.anyString())).thenAnswer(i -> new String(
+                Base64.getDecoder().decode(i.getArgument(0, String.class)), StandardCharsets.UTF_8));
+
+        new EncryptedStringConverter().setEncryptionService(encryptionService);
+        new BlindIndexListener().setBlindIndexer(BLIND_INDEXER);
+
+        createUser("jose@test.com", "José", "García");
+        createUser("maria@test.com", "María", "Josefa");
+        createUser("pedro@test.com", "Pedro", "Martín");
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("searchByName finds a user by the full first name, ignoring case and accents")
+    void searchByName_FullValue_FindsUser() {
+        List<User> result = userRepository.searchByName("JOSE");
+
+        assertThat(result).extracting(User::getEmail)
+                .containsExactlyInAnyOrder("jose@test.com", "maria@test.com");
+    }
+
+    @Test
+    @DisplayName("searchByName finds users by a prefix of the first or last name")
+    void searchByName_Prefix_FindsUsers() {
+        assertThat(userRepository.searchByName("mar")).extracting(User::getEmail)
+                .containsExactlyInAnyOrder("maria@test.com", "pedro@test.com");
+        assertThat(userRepository.searchByName("garc")).extracting(User::getEmail)
+                .containsExactly("jose@test.com");
+        assertThat(userRepository.searchByName("marx")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("searchByName rejects terms shorter than the indexed prefix")
+    void searchByName_TooShort_Throws() {
+        assertThatThrownBy(() -> userRepository.searchByName("jo"))
+                .isInstanceOf(BusinessException.class)
+                .extracting("code").isEqualTo("SEARCH_TERM_TOO_SHORT");
+        assertThatThrownBy(() -> userRepository.searchByName("j.-o"))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    private void createUser(String email, String firstName, String lastName) {
+        UserJpaEntity user = new UserJpaEntity();
+        user.setEmail(email);
+        user.setPassword("password");
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        entityManager.persist(user);
+    }
+}
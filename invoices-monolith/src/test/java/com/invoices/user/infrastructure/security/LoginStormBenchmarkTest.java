@@ -0,0 +1,106 @@
+package com.invoices.user.infrastructure.security;
+
+import com.invoices.benchmark.MicroBenchmark;
+import com.invoices.user.exception.PasswordHashingBusyException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * API latency during a login storm, with BCrypt verification running inline on
+ * the request workers (previous behaviour) versus on {@link PasswordHashingExecutor}.
+ * A fixed worker pool stands in for Tomcat's request threads. Run with
+ * {@code -Dbenchmark=true}.
+ *
+ * Inline, every worker ends up inside BCrypt and API requests queue behind the
+ * storm. With the executor, workers only hand logins off, excess logins are
+ * rejected (503) and API requests keep their latency. On a single-core machine
+ * hashing still competes for the CPU, so the gap is smaller than in production.
+ */
+@EnabledIfSystemProperty(named = MicroBenchmark.ENABLED_PROPERTY, matches = "true")
+class LoginStormBenchmarkTest {
+
+    private static final int WORKERS = 20;
+    private static final int LOGINS = 400;
+    private static final int API_REQUESTS = 400;
+    private static final int BCRYPT_STRENGTH = 10;
+
+    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(BCRYPT_STRENGTH);
+    private final String hash = encoder.encode("password123");
+
+    @Test
+    void apiLatencyDuringLoginStorm() throws Exception {
+        run("login storm, hashing inline", null);
+        PasswordHashingExecutor hashingExecutor = new PasswordHashingExecutor(0, 0);
+        try {
+            run("login storm, hashing executor", hashingExecutor);
+        } finally {
+            hashingExecutor.shutdown();
+        }
+    }
+
+    private void run(String name, PasswordHashingExecutor hashingExecutor) throws Exception {
+        ExecutorService workers = Executors.newFixedThreadPool(WORKERS);
+        AtomicInteger rejected = new AtomicInteger();
+        List<CompletableFuture<Boolean>> logins = new ArrayList<>();
+        List<Future<Long>> apiLatencies = new ArrayList<>();
+
+        for (int i = 0; i < LOGINS; i++) {
+            CompletableFuture<Boolean> login = new CompletableFuture<>();
+            logins.add(login);
+            workers.execute(() -> {
+                if (hashingExecutor == null) {
+                    login.complete(encoder.matches("password123", hash));
+                    return;
+                }
+                try {
+                    hashingExecutor.submit(() -> encoder.matches("password123", hash))
+                            .whenComplete((result, error) -> login.complete(result != null && result));
+                } catch (PasswordHashingBusyException e) {
+                    rejected.incrementAndGet();
+                    login.complete(false);
+                }
+            });
+            if (i % (LOGINS / API_REQUESTS) == 0) {
+                long submitted = System.nanoTime();
+                apiLatencies.add(workers.submit(() -> {
+                    apiRequest();
+                    return System.nanoTime() - submitted;
+                }));
+            }
+        }
+
+        long[] samples = new long[apiLatencies.size()];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = apiLatencies.get(i).get(5, TimeUnit.MINUTES);
+        }
+        CompletableFuture.allOf(logins.toArray(CompletableFuture[]::new)).get(5, TimeUnit.MINUTES);
+        workers.shutdown();
+
+        Arrays.sort(samples);
+        System.out.println(String.format(Locale.ROOT,
+                "[benchmark] %-40s api p50=%10.1fms p99=%10.1fms logins=%d rejected=%d",
+                name, samples[samples.length / 2] / 1e6,
+                samples[Math.min(samples.length - 1, (int) (samples.length * 0.99))] / 1e6,
+                LOGINS, rejected.get()));
+    }
+
+    private static void apiRequest() {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            body.append("{\"id\":").append(i).append('}');
+        }
+        body.setLength(0);
+    }
+}
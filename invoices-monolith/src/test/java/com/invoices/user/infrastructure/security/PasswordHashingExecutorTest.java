@@ -0,0 +1,58 @@
+package com.invoices.user.infrastructure.security;
+
+import com.invoices.user.exception.PasswordHashingBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PasswordHashingExecutorTest {
+
+    private final PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 1);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+        MDC.clear();
+    }
+
+    @Test
+    void submit_ShouldRejectImmediately_WhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> running = executor.submit(() -> await(release));
+        CompletableFuture<Boolean> queued = executor.submit(() -> await(release));
+
+        long start = System.nanoTime();
+        assertThrows(PasswordHashingBusyException.class, () -> executor.submit(() -> true));
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(100);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(executor.submit(() -> true).get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void submit_ShouldPropagateMdcToHashingThread() throws Exception {
+        MDC.put("traceId", "trace-1");
+
+        String traceId = executor.submit(() -> MDC.get("traceId")).get(5, TimeUnit.SECONDS);
+
+        assertThat(traceId).isEqualTo("trace-1");
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.invoices.user.infrastructure.security;
+
+import com.invoices.user.domain.entities.User;
+import com.invoices.user.infrastructure.persistence.entities.UserJpaEntity;
+import com.invoices.user.infrastructure.persistence.mappers.UserJpaMapper;
+import com.invoices.user.infrastructure.persistence.repositories.JpaUserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserSecurityStampCache Tests")
+class UserSecurityStampCacheTest {
+
+    private static final String EMAIL = "user@example.com";
+
+    @Mock
+    private JpaUserRepository jpaUserRepository;
+
+    @Mock
+    private UserJpaMapper mapper;
+
+    private UserSecurityStampCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserSecurityStampCache(jpaUserRepository, mapper, 60, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("A stamp reloaded before the change commits is evicted again after commit")
+    void evict_InTransaction_EvictsAgainAfterCommit() {
+        UserJpaEntity entity = new UserJpaEntity();
+        User before = user("stamp-1");
+        User after = user("stamp-2");
+        when(jpaUserRepository.findByEmail(EMAIL)).thenReturn(Optional.of(entity));
+        when(mapper.toDomainEntity(entity)).thenReturn(before);
+        assertThat(cache.isCurrent(EMAIL, "stamp-1")).isTrue();
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.evict(EMAIL);
+        // A concurrent request still sees the uncommitted state and caches it
+        assertThat(cache.isCurrent(EMAIL, "stamp-1")).isTrue();
+
+        when(mapper.toDomainEntity(entity)).thenReturn(after);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertThat(cache.isCurrent(EMAIL, "stamp-1")).isFalse();
+        assertThat(cache.isCurrent(EMAIL, "stamp-2")).isTrue();
+    }
+
+    private static User user(String stamp) {
+        User user = mock(User.class);
+        when(user.isAccountValid()).thenReturn(true);
+        when(user.getSecurityStamp()).thenReturn(stamp);
+        return user;
+    }
+}
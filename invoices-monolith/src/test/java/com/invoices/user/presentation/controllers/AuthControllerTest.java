@@ -6,12 +6,19 @@ import com.invoices.company.application.services.CompanyInvitationService;
 import com.invoices.company.application.services.CompanyManagementService;
 import com.invoices.invoice.domain.entities.Company;
 import com.invoices.security.JwtUtil;
+import com.invoices.security.application.services.RefreshTokenService;
+import com.invoices.security.domain.entities.RefreshToken;
+import com.invoices.shared.domain.ports.EmailService;
 import com.invoices.user.domain.entities.User;
 import com.invoices.user.domain.usecases.AuthenticateUserUseCase;
 import com.invoices.user.domain.usecases.CreateUserUseCase;
+import com.invoices.user.domain.usecases.GetUserByIdUseCase;
 import com.invoices.user.domain.usecases.UpdateUserLastLoginUseCase;
+import com.invoices.user.infrastructure.security.PasswordHashingExecutor;
+import com.invoices.user.infrastructure.security.UserSecurityStampCache;
 import com.invoices.user.presentation.dto.CreateUserRequest;
 import com.invoices.user.presentation.dto.LoginRequest;
+import com.invoices.user.presentation.dto.RefreshTokenRequest;
 import com.invoices.user.presentation.dto.UserDTO;
 import com.invoices.user.presentation.mappers.UserDtoMapper;
 import org.junit.jupiter.api.Test;
@@ -19,8 +26,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.MediaType;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.Instant;
 import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -28,8 +38,10 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -41,6 +53,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
                 "cors.allow-credentials=true"
 })
 @AutoConfigureMockMvc(addFilters = false)
+@Import(PasswordHashingExecutor.class)
 class AuthControllerTest {
 
         @Autowired
@@ -73,6 +86,18 @@ class AuthControllerTest {
         @MockBean
         private UserDtoMapper userDtoMapper;
 
+        @MockBean
+        private UserSecurityStampCache userSecurityStampCache;
+
+        @MockBean
+        private EmailService emailService;
+
+        @MockBean
+        private GetUserByIdUseCase getUserByIdUseCase;
+
+        @MockBean
+        private RefreshTokenService refreshTokenService;
+
         @Test
         void register_ShouldRegisterUserAndCreateCompany_WhenRegistrationTypeIsNewCompany() throws Exception {
                 // Arrange
@@ -97,9 +122,10 @@ class AuthControllerTest {
                 userDTO.setEmail("test@example.com");
 
                 when(createUserUseCase.execute(any(), any(), any(), any(), any())).thenReturn(createdUser);
-                when(jwtUtil.generateToken(any(), any(), any())).thenReturn("jwt-token");
+                when(jwtUtil.generateToken(any())).thenReturn("jwt-token");
                 when(jwtUtil.getExpirationTime()).thenReturn(3600L);
                 when(userDtoMapper.toDTO(any())).thenReturn(userDTO);
+                when(refreshTokenService.createRefreshToken(1L)).thenReturn(refreshToken("refresh-token"));
 
                 // Act & Assert
                 mockMvc.perform(post("/api/auth/register")
@@ -134,9 +160,10 @@ class AuthControllerTest {
                 userDTO.setEmail("test@example.com");
 
                 when(createUserUseCase.execute(any(), any(), any(), any(), any())).thenReturn(createdUser);
-                when(jwtUtil.generateToken(any(), any(), any())).thenReturn("jwt-token");
+                when(jwtUtil.generateToken(any())).thenReturn("jwt-token");
                 when(jwtUtil.getExpirationTime()).thenReturn(3600L);
                 when(userDtoMapper.toDTO(any())).thenReturn(userDTO);
+                when(refreshTokenService.createRefreshToken(1L)).thenReturn(refreshToken("refresh-token"));
 
                 // Act & Assert
                 mockMvc.perform(post("/api/auth/register")
@@ -163,19 +190,63 @@ class AuthControllerTest {
                 userDTO.setId(1L);
                 userDTO.setEmail("test@example.com");
 
-                when(authenticateUserUseCase.execute(any(), any())).thenReturn(authenticatedUser);
-                when(jwtUtil.generateToken(any(), any(), any())).thenReturn("jwt-token");
+                when(authenticateUserUseCase.findActiveUser("test@example.com")).thenReturn(authenticatedUser);
+                when(authenticateUserUseCase.completeLogin(authenticatedUser, null)).thenReturn(authenticatedUser);
+                when(jwtUtil.generateToken(any())).thenReturn("jwt-token");
                 when(jwtUtil.getExpirationTime()).thenReturn(3600L);
                 when(userDtoMapper.toDTO(any())).thenReturn(userDTO);
+                when(refreshTokenService.createRefreshToken(1L)).thenReturn(refreshToken("refresh-token"));
 
                 // Act & Assert
-                mockMvc.perform(post("/api/auth/login")
+                MvcResult pending = mockMvc.perform(post("/api/auth/login")
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(objectMapper.writeValueAsString(request)))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+
+                mockMvc.perform(asyncDispatch(pending))
                                 .andExpect(status().isOk())
-                                .andExpect(jsonPath("$.token").value("jwt-token"));
+                                .andExpect(jsonPath("$.token").value("jwt-token"))
+                                .andExpect(jsonPath("$.refreshToken").value("refresh-token"));
 
-                verify(authenticateUserUseCase).execute(eq("test@example.com"), eq("password123"));
+                verify(authenticateUserUseCase).verifyPassword(authenticatedUser, "password123");
                 verify(updateUserLastLoginUseCase).execute(eq(1L));
         }
+
+        @Test
+        void refresh_ShouldRotateRefreshTokenAndIssueNewAccessToken() throws Exception {
+                // Arrange
+                User user = new User(1L, "test@example.com", "hashedPassword", "Test", "User",
+                                Set.of("ROLE_USER"), true, true, true, true,
+                                null, null, null, 1L, null);
+
+                UserDTO userDTO = new UserDTO();
+                userDTO.setId(1L);
+                userDTO.setEmail("test@example.com");
+
+                when(refreshTokenService.rotate("old-refresh-token")).thenReturn(refreshToken("new-refresh-token"));
+                when(getUserByIdUseCase.execute(1L)).thenReturn(user);
+                when(jwtUtil.generateToken(user)).thenReturn("new-jwt-token");
+                when(jwtUtil.getExpirationTime()).thenReturn(3600L);
+                when(userDtoMapper.toDTO(any())).thenReturn(userDTO);
+
+                // Act & Assert
+                mockMvc.perform(post("/api/auth/refresh")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(new RefreshTokenRequest("old-refresh-token"))))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.token").value("new-jwt-token"))
+                                .andExpect(jsonPath("$.refreshToken").value("new-refresh-token"));
+
+                verify(refreshTokenService).rotate("old-refresh-token");
+        }
+
+        private static RefreshToken refreshToken(String token) {
+                return RefreshToken.builder()
+                                .token(token)
+                                .userId(1L)
+                                .familyId("family-1")
+                                .expiryDate(Instant.now().plusSeconds(60))
+                                .build();
+        }
 }
@@ -0,0 +1,32 @@
+package com.invoices.webhook.infrastructure.delivery;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.net.InetAddress;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WebhookAddressGuardTest {
+
+    private final WebhookAddressGuard guard = new WebhookAddressGuard(false);
+
+    @ParameterizedTest
+    @ValueSource(strings = { "127.0.0.1", "10.1.2.3", "172.16.0.1", "192.168.1.1", "169.254.169.254", "0.0.0.0",
+            "224.0.0.1", "::1", "[::1]", "fe80::1", "fd00::1", "::ffff:127.0.0.1", "localhost" })
+    void check_ShouldRejectNonPublicAddresses(String host) {
+        assertThat(guard.check(host)).contains("non-public address");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "93.184.216.34", "8.8.8.8", "2606:4700:4700::1111" })
+    void isPublic_ShouldAcceptPublicAddresses(String address) throws Exception {
+        assertThat(WebhookAddressGuard.isPublic(InetAddress.getByName(address))).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "127.0.0.1", "localhost" })
+    void check_ShouldAllowEverythingWhenPrivateAddressesAreAllowed(String host) {
+        assertThat(new WebhookAddressGuard(true).check(host)).isNull();
+    }
+}
@@ -0,0 +1,354 @@
+package com.invoices.webhook.infrastructure.delivery;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invoices.outbox.domain.entities.OutboxEvent;
+import com.invoices.shared.infrastructure.security.encryption.AesEncryptionService;
+import com.invoices.webhook.domain.entities.WebhookEvent;
+import com.invoices.webhook.infrastructure.events.WebhookOutboxHandler;
+import com.invoices.webhook.infrastructure.persistence.repositories.WebhookDeliveryRepository;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Events queued by the outbox handler and sent by the dispatcher, against H2
+ * and a local HTTP server standing in for the customer endpoints.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(WebhookDeliveryRepository.class)
+class WebhookDispatcherTest {
+
+    private static final String KEY = "MTIzNDU2Nzg5MDEyMzQ1Njc4OTAxMjM0NTY3ODkwMTI=";
+    private static final Long COMPANY_ID = 1L;
+
+    private final AesEncryptionService encryptionService = new AesEncryptionService(KEY);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private WebhookDeliveryRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private LocalWebhookServer server;
+    private WebhookDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new LocalWebhookServer();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (dispatcher != null) {
+            dispatcher.stop();
+        }
+        server.close();
+        jdbcTemplate.update("DELETE FROM webhook_deliveries");
+        jdbcTemplate.update("DELETE FROM webhook_endpoint_events");
+        jdbcTemplate.update("DELETE FROM webhook_endpoints");
+    }
+
+    @Test
+    void dispatchOnce_ShouldSendSubscribedEventsAsOneSignedRequestPerEndpoint() throws Exception {
+        Long all = endpoint(COMPANY_ID, server.url("/all"), "secret-all", 1, true,
+                WebhookEvent.INVOICE_CREATED, WebhookEvent.INVOICE_ACCEPTED);
+        endpoint(COMPANY_ID, server.url("/accepted"), "secret-accepted", 1, true, WebhookEvent.INVOICE_ACCEPTED);
+        endpoint(COMPANY_ID, server.url("/inactive"), "secret", 1, false, WebhookEvent.INVOICE_CREATED);
+        endpoint(2L, server.url("/other-company"), "secret", 1, true, WebhookEvent.INVOICE_CREATED);
+
+        WebhookOutboxHandler handler = new WebhookOutboxHandler(repository, objectMapper);
+        for (long invoiceId = 1; invoiceId <= 3; invoiceId++) {
+            handler.handle(event(10 + invoiceId, "INVOICE_CREATED", invoiceId));
+        }
+        handler.handle(event(14, "VERIFACTU_ACCEPTED", 1));
+        assertThat(handler.supports("INVOICE_PAID")).isFalse();
+
+        dispatcher = dispatcher(Runnable::run, 1, 50, 3);
+        assertThat(dispatcher.dispatchOnce()).isEqualTo(5);
+
+        assertThat(server.requests).extracting(LocalWebhookServer.Received::path)
+                .containsExactlyInAnyOrder("/all", "/accepted");
+        LocalWebhookServer.Received received = server.to("/all");
+        JsonNode events = objectMapper.readTree(received.body()).get("events");
+        assertThat(events).extracting(event -> event.get("id").asLong()).containsExactly(11L, 12L, 13L, 14L);
+        assertThat(events).extracting(event -> event.get("type").asText())
+                .containsExactly("INVOICE_CREATED", "INVOICE_CREATED", "INVOICE_CREATED", "INVOICE_ACCEPTED");
+        assertThat(events.get(2).get("data").get("invoiceNumber").asText()).isEqualTo("003/2026");
+
+        Map<String, String> signature = signature(received.signature());
+        assertThat(signature.get("v1"))
+                .isEqualTo(WebhookSigner.sign("secret-all", Long.parseLong(signature.get("t")), received.body()));
+        assertThat(objectMapper.readTree(server.to("/accepted").body()).get("events"))
+                .extracting(event -> event.get("id").asLong()).containsExactly(14L);
+        assertThat(pending(all)).isZero();
+        assertThat(dispatcher.dispatchOnce()).isZero();
+    }
+
+    @Test
+    void dispatchOnce_ShouldBackOffFailingEndpointsWithoutHoldingUpOthers() {
+        Long healthy = endpoint(COMPANY_ID, server.url("/healthy"), "secret", 1, true, WebhookEvent.INVOICE_CREATED);
+        Long down = endpoint(COMPANY_ID, server.url("/down"), "secret", 1, true, WebhookEvent.INVOICE_CREATED);
+        Long unreachable = endpoint(COMPANY_ID, "http://127.0.0.1:1/hook", "secret", 1, true,
+                WebhookEvent.INVOICE_CREATED);
+        server.respond("/down", 503, 0);
+        WebhookOutboxHandler handler = new WebhookOutboxHandler(repository, objectMapper);
+        handler.handle(event(1, "INVOICE_CREATED", 1));
+        handler.handle(event(2, "INVOICE_CREATED", 2));
+
+        dispatcher = dispatcher(Runnable::run, 2, 1, 2);
+        assertThat(dispatcher.dispatchOnce()).isEqualTo(4);
+
+        // The healthy endpoint got both events; each failing one got a single
+        // request, and its second event waits for the backoff with the first
+        assertThat(pending(healthy)).isZero();
+        assertThat(server.requests).extracting(LocalWebhookServer.Received::path)
+                .containsExactly("/healthy", "/healthy", "/down");
+        Map<String, Object> failed = jdbcTemplate.queryForMap("SELECT attempts, last_error, next_attempt_at, "
+                + "failed_at FROM webhook_deliveries WHERE endpoint_id = ? ORDER BY id LIMIT 1", down);
+        assertThat(failed.get("ATTEMPTS")).isEqualTo(1);
+        assertThat(failed.get("LAST_ERROR")).isEqualTo("HTTP 503");
+        assertThat(((Timestamp) failed.get("NEXT_ATTEMPT_AT")).toLocalDateTime()).isAfter(LocalDateTime.now());
+        assertThat(failed.get("FAILED_AT")).isNull();
+        assertThat(jdbcTemplate.queryForObject("SELECT last_error FROM webhook_deliveries WHERE endpoint_id = ? "
+                + "ORDER BY id LIMIT 1", String.class, unreachable)).contains("ConnectException");
+        assertThat(jdbcTemplate.queryForList("SELECT next_attempt_at FROM webhook_deliveries WHERE endpoint_id = ?",
+                Timestamp.class, down)).allMatch(at -> at.toLocalDateTime().isAfter(LocalDateTime.now()));
+        assertThat(dispatcher.dispatchOnce()).isZero();
+
+        jdbcTemplate.update("UPDATE webhook_deliveries SET next_attempt_at = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusSeconds(1)));
+        assertThat(dispatcher.dispatchOnce()).isEqualTo(2);
+
+        // Second attempt of the first events is the last one; the second events
+        // are still on their first
+        assertThat(jdbcTemplate.queryForList("SELECT failed_at IS NOT NULL FROM webhook_deliveries "
+                + "WHERE endpoint_id = ? ORDER BY id", Boolean.class, down)).containsExactly(true, false);
+        assertThat(server.requests).extracting(LocalWebhookServer.Received::path).filteredOn("/down"::equals)
+                .hasSize(2);
+    }
+
+    @Test
+    void dispatchOnce_ShouldLimitRequestsInFlightPerEndpoint() throws Exception {
+        Long slow = endpoint(COMPANY_ID, server.url("/slow"), "secret", 2, true, WebhookEvent.INVOICE_CREATED);
+        server.respond("/slow", 200, 200);
+        WebhookOutboxHandler handler = new WebhookOutboxHandler(repository, objectMapper);
+        for (long invoiceId = 1; invoiceId <= 6; invoiceId++) {
+            handler.handle(event(invoiceId, "INVOICE_CREATED", invoiceId));
+        }
+        Long fast = endpoint(COMPANY_ID, server.url("/fast"), "secret", 1, true, WebhookEvent.INVOICE_CREATED);
+        jdbcTemplate.update("INSERT INTO webhook_deliveries (endpoint_id, event_type, payload, created_at, "
+                + "next_attempt_at, attempts) VALUES (?, 'INVOICE_CREATED', '{\"id\":7}', ?, ?, 0)", fast,
+                Timestamp.valueOf(LocalDateTime.now()), Timestamp.valueOf(LocalDateTime.now()));
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        dispatcher = dispatcher(pool, 4, 1, 3);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while ((pending(slow) > 0 || pending(fast) > 0) && System.currentTimeMillis() < deadline) {
+            dispatcher.dispatchOnce();
+            Thread.sleep(20);
+        }
+
+        assertThat(pending(slow)).isZero();
+        assertThat(server.requests).extracting(LocalWebhookServer.Received::path).filteredOn("/slow"::equals)
+                .hasSize(6);
+        assertThat(server.maxInFlight("/slow")).isEqualTo(2);
+        // Sent while the slow endpoint was still busy with its first requests
+        assertThat(server.requests.stream().map(LocalWebhookServer.Received::path).toList().indexOf("/fast"))
+                .isLessThan(3);
+    }
+
+    @Test
+    void dispatchOnce_ShouldNotSendToInternalAddresses() {
+        Long internal = endpoint(COMPANY_ID, server.url("/internal"), "secret", 1, true, WebhookEvent.INVOICE_CREATED);
+        new WebhookOutboxHandler(repository, objectMapper).handle(event(1, "INVOICE_CREATED", 1));
+
+        dispatcher = dispatcher(new WebhookAddressGuard(false), Runnable::run, 1, 50, 3);
+        assertThat(dispatcher.dispatchOnce()).isEqualTo(1);
+
+        assertThat(server.requests).isEmpty();
+        assertThat(pending(internal)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT last_error FROM webhook_deliveries WHERE endpoint_id = ?",
+                String.class, internal)).contains("non-public address 127.0.0.1");
+    }
+
+    private WebhookDispatcher dispatcher(Executor executor, int threads, int batchSize, int maxAttempts) {
+        // The endpoints are local stubs
+        return dispatcher(new WebhookAddressGuard(true), executor, threads, batchSize, maxAttempts);
+    }
+
+    private WebhookDispatcher dispatcher(WebhookAddressGuard addressGuard, Executor executor, int threads,
+            int batchSize, int maxAttempts) {
+        return new WebhookDispatcher(repository, encryptionService, addressGuard, transactionManager,
+                new SimpleMeterRegistry(), executor, threads, batchSize, 1000, 60, 2000, 2000, maxAttempts, 30, 3600);
+    }
+
+    private Long endpoint(Long companyId, String url, String secret, int maxConcurrency, boolean active,
+            WebhookEvent... events) {
+        String encryptedSecret;
+        try {
+            encryptedSecret = encryptionService.encrypt(secret);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement("INSERT INTO webhook_endpoints (company_id, url, "
+                    + "secret, max_concurrency, active, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                    Statement.RETURN_GENERATED_KEYS);
+            ps.setLong(1, companyId);
+            ps.setString(2, url);
+            ps.setString(3, encryptedSecret);
+            ps.setInt(4, maxConcurrency);
+            ps.setBoolean(5, active);
+            ps.setTimestamp(6, now);
+            ps.setTimestamp(7, now);
+            return ps;
+        }, keyHolder);
+        Long id = keyHolder.getKey().longValue();
+        for (WebhookEvent event : events) {
+            jdbcTemplate.update("INSERT INTO webhook_endpoint_events (endpoint_id, event_type) VALUES (?, ?)", id,
+                    event.name());
+        }
+        return id;
+    }
+
+    private static OutboxEvent event(long id, String eventType, long invoiceId) {
+        return OutboxEvent.builder()
+                .id(id)
+                .aggregateType("invoice")
+                .aggregateId(String.valueOf(invoiceId))
+                .eventType(eventType)
+                .payload("{\"companyId\":" + COMPANY_ID + ",\"invoiceId\":" + invoiceId
+                        + ",\"invoiceNumber\":\"00" + invoiceId + "/2026\",\"status\":\"ISSUED\"}")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private int pending(Long endpointId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM webhook_deliveries WHERE endpoint_id = ?",
+                Integer.class, endpointId);
+    }
+
+    private static Map<String, String> signature(String header) {
+        Map<String, String> parts = new HashMap<>();
+        for (String part : header.split(",")) {
+            String[] pair = part.split("=", 2);
+            parts.put(pair[0], pair[1]);
+        }
+        return parts;
+    }
+
+    /**
+     * Answers every path with 200 unless told otherwise, optionally after a
+     * delay, and records the requests and how many were in flight per path.
+     */
+    private static final class LocalWebhookServer implements AutoCloseable {
+
+        record Received(String path, String signature, String body) {
+        }
+
+        private record Response(int status, long delayMillis) {
+        }
+
+        private final HttpServer httpServer;
+        private final ExecutorService executor = Executors.newCachedThreadPool();
+        private final Map<String, Response> responses = new ConcurrentHashMap<>();
+        private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+        private final Map<String, AtomicInteger> maxInFlight = new ConcurrentHashMap<>();
+        private final List<Received> requests = new CopyOnWriteArrayList<>();
+
+        private LocalWebhookServer() throws IOException {
+            httpServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            httpServer.createContext("/", this::handle);
+            httpServer.setExecutor(executor);
+            httpServer.start();
+        }
+
+        private String url(String path) {
+            return "http://127.0.0.1:" + httpServer.getAddress().getPort() + path;
+        }
+
+        private void respond(String path, int status, long delayMillis) {
+            responses.put(path, new Response(status, delayMillis));
+        }
+
+        private Received to(String path) {
+            return requests.stream().filter(r -> r.path().equals(path)).findFirst().orElseThrow();
+        }
+
+        private int maxInFlight(String path) {
+            return maxInFlight.getOrDefault(path, new AtomicInteger()).get();
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            String path = exchange.getRequestURI().getPath();
+            AtomicInteger current = inFlight.computeIfAbsent(path, p -> new AtomicInteger());
+            maxInFlight.computeIfAbsent(path, p -> new AtomicInteger()).accumulateAndGet(current.incrementAndGet(),
+                    Math::max);
+            boolean counted = true;
+            try (exchange; InputStream body = exchange.getRequestBody()) {
+                requests.add(new Received(path, exchange.getRequestHeaders().getFirst(WebhookSigner.SIGNATURE_HEADER),
+                        new String(body.readAllBytes(), StandardCharsets.UTF_8)));
+                Response response = responses.getOrDefault(path, new Response(200, 0));
+                if (response.delayMillis() > 0) {
+                    Thread.sleep(response.delayMillis());
+                }
+                // Before answering, as the client may send the next request right after
+                current.decrementAndGet();
+                counted = false;
+                exchange.sendResponseHeaders(response.status(), -1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                if (counted) {
+                    current.decrementAndGet();
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            httpServer.stop(0);
+            executor.shutdownNow();
+        }
+    }
+}